@@ -50,6 +50,7 @@ import org.mockito.Mockito;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
@@ -368,6 +369,16 @@ public final class MsalUtilTest {
         Assert.assertTrue(convertedScope2.contains(scope3));
     }
 
+    @Test
+    public void testIsScopeIntersects() {
+        final Set<String> cachedScopes = new HashSet<>(Arrays.asList("User.Read", "Mail.Read"));
+
+        Assert.assertTrue(MsalUtils.isScopeIntersects(cachedScopes, new HashSet<>(Arrays.asList("Mail.Read"))));
+        Assert.assertFalse(MsalUtils.isScopeIntersects(cachedScopes, new HashSet<>(Arrays.asList("mail.read"))));
+        Assert.assertFalse(MsalUtils.isScopeIntersects(cachedScopes, new HashSet<>(Arrays.asList("Calendars.Read"))));
+        Assert.assertFalse(MsalUtils.isScopeIntersects(cachedScopes, new HashSet<String>()));
+    }
+
     @Test
     public void testBase64Encode() {
         String stringToEncode = "a+b@c.com";
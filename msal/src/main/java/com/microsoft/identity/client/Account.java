@@ -33,6 +33,7 @@ import com.microsoft.identity.common.java.providers.oauth2.IDToken;
 import com.microsoft.identity.common.internal.util.StringUtil;
 import com.microsoft.identity.common.logging.Logger;
 
+import java.util.Collections;
 import java.util.Map;
 
 import static com.microsoft.identity.common.java.util.SchemaUtil.MISSING_FROM_THE_TOKEN_RESPONSE;
@@ -43,19 +44,25 @@ public class Account implements IAccount {
 
     private final Map<String, ?> mIdTokenClaims;
     private final String mRawIdToken;
-    private String mClientInfo;
+    private final String mClientInfo;
     private String mHomeOid;
     private String mHomeTenantId;
     private String mEnvironment;
     private String mHomeAccountId;
 
+    // client_info is decoded on first use and kept for the lifetime of this object.
+    private transient volatile boolean mClientInfoParsed;
+    private transient ClientInfo mParsedClientInfo;
+
     public Account(
             @Nullable final String clientInfo,
             @Nullable final IDToken homeTenantIdToken) {
         mClientInfo = clientInfo;
 
         if (null != homeTenantIdToken) {
-            mIdTokenClaims = homeTenantIdToken.getTokenClaims();
+            // The IDToken may be shared by other accounts; do not let callers alter its claims.
+            final Map<String, ?> claims = homeTenantIdToken.getTokenClaims();
+            mIdTokenClaims = null == claims ? null : Collections.unmodifiableMap(claims);
             mRawIdToken = homeTenantIdToken.getRawIDToken();
         } else {
             mIdTokenClaims = null;
@@ -73,19 +80,7 @@ public class Account implements IAccount {
         final String methodTag = TAG + ":getId";
         String id;
 
-        ClientInfo clientInfo = null;
-
-        if (null != mClientInfo) { // This property should only exist for home accounts...
-            try {
-                clientInfo = new ClientInfo(mClientInfo);
-            } catch (final MsalClientException e) {
-                Logger.error(
-                        methodTag,
-                        "Failed to parse ClientInfo",
-                        e
-                );
-            }
-        }
+        final ClientInfo clientInfo = getParsedClientInfo();
 
         if (null != clientInfo) {
             id = clientInfo.getUniqueIdentifier();
@@ -118,6 +113,32 @@ public class Account implements IAccount {
         return id;
     }
 
+    @Nullable
+    private ClientInfo getParsedClientInfo() {
+        final String methodTag = TAG + ":getParsedClientInfo";
+
+        if (!mClientInfoParsed) {
+            synchronized (this) {
+                if (!mClientInfoParsed) {
+                    if (null != mClientInfo) { // This property should only exist for home accounts...
+                        try {
+                            mParsedClientInfo = new ClientInfo(mClientInfo);
+                        } catch (final MsalClientException e) {
+                            Logger.error(
+                                    methodTag,
+                                    "Failed to parse ClientInfo",
+                                    e
+                            );
+                        }
+                    }
+                    mClientInfoParsed = true;
+                }
+            }
+        }
+
+        return mParsedClientInfo;
+    }
+
     void setTenantId(@NonNull final String tenantId) {
         mHomeTenantId = tenantId;
     }
@@ -24,6 +24,7 @@ package com.microsoft.identity.client;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
 import com.microsoft.identity.common.java.exception.ServiceException;
 import com.microsoft.identity.common.java.cache.ICacheRecord;
@@ -35,6 +36,7 @@ import com.microsoft.identity.common.logging.Logger;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -43,283 +45,219 @@ public class AccountAdapter {
     private static final String TAG = AccountAdapter.class.getSimpleName();
 
     /**
-     * Abstract class representing a filter for ICacheRecords.
+     * Maximum number of parsed id_tokens kept by {@link #sIdTokenCache}.
      */
-    private interface CacheRecordFilter {
-
-        List<ICacheRecord> filter(@NonNull final List<ICacheRecord> records);
-    }
-
-    private static class GuestAccountFilter implements CacheRecordFilter {
+    private static final int MAX_CACHED_ID_TOKENS = 64;
 
+    /**
+     * Parsed id_tokens keyed by their raw value, so that adapting the same cache records again
+     * (getAccounts, getAccount, getCurrentAccount...) does not decode every JWT each time.
+     * Cleared whenever an account is removed, so that tokens of signed out users are not retained.
+     */
+    private static final Map<String, IDToken> sIdTokenCache = new LinkedHashMap<String, IDToken>(
+            MAX_CACHED_ID_TOKENS, 0.75f, true) {
         @Override
-        public List<ICacheRecord> filter(@NonNull List<ICacheRecord> records) {
-            final List<ICacheRecord> result = new ArrayList<>();
-
-            for (final ICacheRecord cacheRecord : records) {
-                final String acctHomeAccountId = cacheRecord.getAccount().getHomeAccountId();
-                final String acctLocalAccountId = cacheRecord.getAccount().getLocalAccountId();
-
-                if (!acctHomeAccountId.contains(acctLocalAccountId)) {
-                    result.add(cacheRecord);
-                }
-            }
-
-            return result;
+        protected boolean removeEldestEntry(final Map.Entry<String, IDToken> eldest) {
+            return size() > MAX_CACHED_ID_TOKENS;
         }
-    }
+    };
 
     /**
-     * A filter for ICacheRecords that filters out home or guest accounts, based on its
-     * constructor initialization.
+     * Drops every parsed id_token kept in memory. Called when an account is removed or signed out.
      */
-    private static class HomeAccountFilter implements CacheRecordFilter {
-
-        @Override
-        public List<ICacheRecord> filter(@NonNull final List<ICacheRecord> records) {
-            final List<ICacheRecord> result = new ArrayList<>();
-
-            for (final ICacheRecord cacheRecord : records) {
-                final String acctHomeAccountId = cacheRecord.getAccount().getHomeAccountId();
-                final String acctLocalAccountId = cacheRecord.getAccount().getLocalAccountId();
-
-                // TODO: check the logic on broker side to make sure this value is NOT null.
-                if (acctLocalAccountId != null &&
-                        acctHomeAccountId.contains(acctLocalAccountId)) {
-                    result.add(cacheRecord);
-                }
-            }
-
-            return result;
+    static void clearIdTokenCache() {
+        synchronized (sIdTokenCache) {
+            sIdTokenCache.clear();
         }
     }
 
     /**
-     * A filter which finds guest accounts which have no corresponding home tenant account.
+     * @return the number of parsed id_tokens kept in memory.
      */
-    private static final CacheRecordFilter guestAccountsWithNoHomeTenantAccountFilter = new CacheRecordFilter() {
-
-        private boolean hasNoCorrespondingHomeAccount(@NonNull final ICacheRecord guestRecord,
-                                                      @NonNull final List<ICacheRecord> homeRecords) {
-            // Init our sought value
-            final String guestAccountHomeAccountId = guestRecord.getAccount().getHomeAccountId();
-
-            // Create a List of home_account_ids from the homeRecords...
-            final List<String> homeAccountIds = new ArrayList<String>() {{
-                for (final ICacheRecord cacheRecord : homeRecords) {
-                    add(cacheRecord.getAccount().getHomeAccountId());
-                }
-            }};
-
-            return !homeAccountIds.contains(guestAccountHomeAccountId);
-        }
-
-        @Override
-        public List<ICacheRecord> filter(@NonNull final List<ICacheRecord> records) {
-            final List<ICacheRecord> result = new ArrayList<>();
-
-            // First, get the home accounts....
-            final List<ICacheRecord> homeRecords =
-                    filterCacheRecords(
-                            records,
-                            new HomeAccountFilter()
-                    );
-
-            // Then, get the guest accounts...
-            final List<ICacheRecord> guestRecords =
-                    filterCacheRecords(
-                            records,
-                            new GuestAccountFilter()
-                    );
-
-            // Iterate over the guest accounts and find those which have no associated home account
-            for (final ICacheRecord guestRecord : guestRecords) {
-                if (hasNoCorrespondingHomeAccount(guestRecord, homeRecords)) {
-                    result.add(guestRecord);
-                }
-            }
-
-            return result;
+    @VisibleForTesting
+    static int getIdTokenCacheSize() {
+        synchronized (sIdTokenCache) {
+            return sIdTokenCache.size();
         }
-    };
+    }
 
     /**
      * For a supplied List of ICacheRecords, create each root IAccount based on the home
      * account and then add child-nodes based on any authorized tenants.
+     * <p>
+     * Records are bucketed by home_account_id in a single pass, so the cost is linear in the
+     * number of records. A guest record is attached to the home account whose home_account_id is
+     * equal to its own; it used to be attached to every home account whose id it merely contained.
+     * Records with no local_account_id are skipped.
      *
      * @param allCacheRecords
      * @return
      */
     @NonNull
     public static List<IAccount> adapt(@NonNull final List<ICacheRecord> allCacheRecords) {
-        // First, get all of the ICacheRecords for home accounts...
-        final List<ICacheRecord> homeCacheRecords = filterCacheRecords(
-                allCacheRecords,
-                new HomeAccountFilter()
-        );
+        final String methodTag = TAG + ":adapt";
 
-        // Then, get all of the guest accounts...
-        // Note that the guestCacheRecordsWithNoHomeAccount (see below) will be *removed* from this
-        // List.
-        final List<ICacheRecord> guestCacheRecords = filterCacheRecords(
-                allCacheRecords,
-                new GuestAccountFilter()
-        );
+        final List<IAccount> rootAccounts = new ArrayList<>();
 
-        // Get the guest cache records which have no homeAccount
-        final List<ICacheRecord> guestCacheRecordsWithNoHomeAccount = filterCacheRecords(
-                allCacheRecords,
-                guestAccountsWithNoHomeTenantAccountFilter
-        );
+        // Root accounts, bucketed by home_account_id. There is usually one root per bucket, but the
+        // same home account may be present in more than one environment.
+        final Map<String, List<MultiTenantAccount>> rootAccountsByHomeAccountId = new HashMap<>();
 
-        // Remove the guest records that have no corresponding home account from the complete list of
-        // guest records...
-        guestCacheRecords.removeAll(guestCacheRecordsWithNoHomeAccount);
+        // Guest records, bucketed by home_account_id (in encounter order).
+        final Map<String, List<ICacheRecord>> guestRecordsByHomeAccountId = new LinkedHashMap<>();
 
-        final List<IAccount> rootAccounts = createRootAccounts(homeCacheRecords);
-        appendChildren(rootAccounts, guestCacheRecords);
-        rootAccounts.addAll(
-                createIAccountsForGuestsNotSignedIntoHomeTenant(guestCacheRecordsWithNoHomeAccount)
-        );
+        for (final ICacheRecord cacheRecord : allCacheRecords) {
+            final String homeAccountId = cacheRecord.getAccount().getHomeAccountId();
+            final String localAccountId = cacheRecord.getAccount().getLocalAccountId();
 
-        return rootAccounts;
-    }
+            // TODO: check the logic on broker side to make sure this value is NOT null.
+            if (localAccountId == null) {
+                Logger.warn(methodTag, "Skipping a cache record with no local_account_id.");
+                continue;
+            }
 
-    @NonNull
-    private static List<IAccount> createIAccountsForGuestsNotSignedIntoHomeTenant(
-            @NonNull final List<ICacheRecord> guestCacheRecords) {
-        // First, bucket the records by homeAccountId to create affinities
-        final Map<String, List<ICacheRecord>> bucketedRecords = new HashMap<>();
+            if (homeAccountId.contains(localAccountId)) {
+                final MultiTenantAccount rootAccount = createRootAccount(cacheRecord);
+                rootAccounts.add(rootAccount);
+                getOrCreateBucket(rootAccountsByHomeAccountId, homeAccountId).add(rootAccount);
+            } else {
+                getOrCreateBucket(guestRecordsByHomeAccountId, homeAccountId).add(cacheRecord);
+            }
+        }
 
-        for (final ICacheRecord cacheRecord : guestCacheRecords) {
-            final String cacheRecordHomeAccountId = cacheRecord.getAccount().getHomeAccountId();
+        // Attach the guest profiles to their home account(s)...
+        for (final Map.Entry<String, List<MultiTenantAccount>> entry : rootAccountsByHomeAccountId.entrySet()) {
+            final List<ICacheRecord> guestRecords = guestRecordsByHomeAccountId.get(entry.getKey());
 
-            // Initialize the multi-map
-            if (null == bucketedRecords.get(cacheRecordHomeAccountId)) {
-                bucketedRecords.put(cacheRecordHomeAccountId, new ArrayList<ICacheRecord>());
+            for (final MultiTenantAccount rootAccount : entry.getValue()) {
+                rootAccount.setTenantProfiles(createTenantProfiles(guestRecords));
             }
+        }
 
-            // Add the record to the multi-map
-            bucketedRecords.get(cacheRecordHomeAccountId).add(cacheRecord);
+        // ...and box the guests with no home account into 'rootless' accounts.
+        for (final Map.Entry<String, List<ICacheRecord>> entry : guestRecordsByHomeAccountId.entrySet()) {
+            if (!rootAccountsByHomeAccountId.containsKey(entry.getKey())) {
+                rootAccounts.add(
+                        createIAccountForGuestsNotSignedIntoHomeTenant(entry.getKey(), entry.getValue())
+                );
+            }
         }
 
-        // Declare our result holder...
-        final List<IAccount> result = new ArrayList<>();
+        return rootAccounts;
+    }
 
-        // Now that all of the tokens have been bucketed by an account affinity
-        // box those into a 'rootless' IAccount
-        for (final Map.Entry<String, List<ICacheRecord>> entry : bucketedRecords.entrySet()) {
-            // Create our empty root...
-            final MultiTenantAccount emptyRoot = new MultiTenantAccount(
-                    null,
-                    null // home tenant IdToken.... doesn't exist!
-            );
+    @NonNull
+    private static <T> List<T> getOrCreateBucket(@NonNull final Map<String, List<T>> buckets,
+                                                 @NonNull final String key) {
+        List<T> bucket = buckets.get(key);
 
-            // Set the home oid & home tid of the root, even though we don't have the IdToken...
-            // hooray for client_info
-            emptyRoot.setId(StringUtil.getTenantInfo(entry.getKey()).getKey());
-            emptyRoot.setTenantId(StringUtil.getTenantInfo(entry.getKey()).getValue());
-            emptyRoot.setEnvironment( // Look ahead into our CacheRecords to determine the environment
-                    entry
-                            .getValue()
-                            .get(0)
-                            .getAccount()
-                            .getEnvironment()
-            );
+        if (null == bucket) {
+            bucket = new ArrayList<>();
+            buckets.put(key, bucket);
+        }
 
-            // Create the Map of TenantProfiles to set...
-            final Map<String, ITenantProfile> tenantProfileMap = new HashMap<>();
-
-            for (final ICacheRecord cacheRecord : entry.getValue()) {
-                final String tenantId = cacheRecord.getAccount().getRealm();
-                final TenantProfile profile = new TenantProfile(
-                        // Intentionally do NOT supply the client info here.
-                        // If client info is present, getId() will return the home tenant OID
-                        // instead of the OID from the guest tenant.
-                        null,
-                        getIdToken(cacheRecord)
-                );
+        return bucket;
+    }
 
-                tenantProfileMap.put(tenantId, profile);
-            }
+    @NonNull
+    private static IAccount createIAccountForGuestsNotSignedIntoHomeTenant(
+            @NonNull final String homeAccountId,
+            @NonNull final List<ICacheRecord> guestCacheRecords) {
+        // Create our empty root...
+        final MultiTenantAccount emptyRoot = new MultiTenantAccount(
+                null,
+                null // home tenant IdToken.... doesn't exist!
+        );
 
-            emptyRoot.setTenantProfiles(tenantProfileMap);
-            result.add(emptyRoot);
-        }
+        // Set the home oid & home tid of the root, even though we don't have the IdToken...
+        // hooray for client_info
+        emptyRoot.setId(StringUtil.getTenantInfo(homeAccountId).getKey());
+        emptyRoot.setTenantId(StringUtil.getTenantInfo(homeAccountId).getValue());
+        emptyRoot.setEnvironment( // Look ahead into our CacheRecords to determine the environment
+                guestCacheRecords
+                        .get(0)
+                        .getAccount()
+                        .getEnvironment()
+        );
 
-        return result;
-    }
+        // Create the Map of TenantProfiles to set...
+        final Map<String, ITenantProfile> tenantProfileMap = new HashMap<>();
 
-    private static void appendChildren(@NonNull final List<IAccount> rootAccounts,
-                                       @NonNull final List<ICacheRecord> guestCacheRecords) {
-        // Iterate over the roots, adding the children as we go...
-        for (final IAccount account : rootAccounts) {
-            // Iterate over the potential children, adding them if they match
-            final Map<String, ITenantProfile> tenantProfiles = new HashMap<>();
-
-            for (final ICacheRecord guestRecord : guestCacheRecords) {
-                final String guestRecordHomeAccountId = guestRecord.getAccount().getHomeAccountId();
-
-                if (guestRecordHomeAccountId.contains(account.getId())) {
-                    final TenantProfile profile = new TenantProfile(
-                            // Intentionally do NOT supply the client info here.
-                            // If client info is present, getId() will return the home tenant OID
-                            // instead of the OID from the guest tenant.
-                            null,
-                            getIdToken(guestRecord)
-                    );
-                    profile.setEnvironment(guestRecord.getAccount().getEnvironment());
-                    tenantProfiles.put(guestRecord.getAccount().getRealm(), profile);
-                }
-            }
+        for (final ICacheRecord cacheRecord : guestCacheRecords) {
+            final String tenantId = cacheRecord.getAccount().getRealm();
+            final TenantProfile profile = new TenantProfile(
+                    // Intentionally do NOT supply the client info here.
+                    // If client info is present, getId() will return the home tenant OID
+                    // instead of the OID from the guest tenant.
+                    null,
+                    getIdToken(cacheRecord)
+            );
 
-            // Cast the root account for initialization...
-            final MultiTenantAccount multiTenantAccount = (MultiTenantAccount) account;
-            multiTenantAccount.setTenantProfiles(tenantProfiles);
+            tenantProfileMap.put(tenantId, profile);
         }
+
+        emptyRoot.setTenantProfiles(tenantProfileMap);
+
+        return emptyRoot;
     }
 
     @NonNull
-    private static List<IAccount> createRootAccounts(
-            @NonNull final List<ICacheRecord> homeCacheRecords) {
-        final List<IAccount> result = new ArrayList<>();
-
-        for (ICacheRecord homeCacheRecord : homeCacheRecords) {
-            // Each IAccount will be initialized as a MultiTenantAccount whether it really is or not...
-            // This allows us to cast the results however the caller sees fit...
-            final IAccount rootAccount;
-            rootAccount = new MultiTenantAccount(
-                    // Because this is a home account, we'll supply the client info
-                    // the uid value is the "id" of the account.
-                    // For B2C, this value will contain the policy name appended to the OID.
-                    homeCacheRecord.getAccount().getClientInfo(),
-                    getIdToken(homeCacheRecord)
-            );
+    private static Map<String, ITenantProfile> createTenantProfiles(
+            @Nullable final List<ICacheRecord> guestCacheRecords) {
+        final Map<String, ITenantProfile> tenantProfiles = new HashMap<>();
 
-            ((MultiTenantAccount) rootAccount).setHomeAccountId(
-                    homeCacheRecord.getAccount().getHomeAccountId()
-            );
+        if (null == guestCacheRecords) {
+            return tenantProfiles;
+        }
 
-            // Set the tenant_id
-            ((MultiTenantAccount) rootAccount).setTenantId(
-                    StringUtil.getTenantInfo(
-                            homeCacheRecord
-                                    .getAccount()
-                                    .getHomeAccountId()
-                    ).getValue()
+        for (final ICacheRecord guestRecord : guestCacheRecords) {
+            final TenantProfile profile = new TenantProfile(
+                    // Intentionally do NOT supply the client info here.
+                    // If client info is present, getId() will return the home tenant OID
+                    // instead of the OID from the guest tenant.
+                    null,
+                    getIdToken(guestRecord)
             );
+            profile.setEnvironment(guestRecord.getAccount().getEnvironment());
+            tenantProfiles.put(guestRecord.getAccount().getRealm(), profile);
+        }
 
-            // Set the environment...
-            ((MultiTenantAccount) rootAccount).setEnvironment(
-                    homeCacheRecord
-                            .getAccount()
-                            .getEnvironment()
-            );
+        return tenantProfiles;
+    }
 
-            result.add(rootAccount);
-        }
+    @NonNull
+    private static MultiTenantAccount createRootAccount(@NonNull final ICacheRecord homeCacheRecord) {
+        // Each IAccount will be initialized as a MultiTenantAccount whether it really is or not...
+        // This allows us to cast the results however the caller sees fit...
+        final MultiTenantAccount rootAccount = new MultiTenantAccount(
+                // Because this is a home account, we'll supply the client info
+                // the uid value is the "id" of the account.
+                // For B2C, this value will contain the policy name appended to the OID.
+                homeCacheRecord.getAccount().getClientInfo(),
+                getIdToken(homeCacheRecord)
+        );
+
+        rootAccount.setHomeAccountId(
+                homeCacheRecord.getAccount().getHomeAccountId()
+        );
+
+        // Set the tenant_id
+        rootAccount.setTenantId(
+                StringUtil.getTenantInfo(
+                        homeCacheRecord
+                                .getAccount()
+                                .getHomeAccountId()
+                ).getValue()
+        );
+
+        // Set the environment...
+        rootAccount.setEnvironment(
+                homeCacheRecord
+                        .getAccount()
+                        .getEnvironment()
+        );
 
-        return result;
+        return rootAccount;
     }
 
     @Nullable
@@ -335,8 +273,19 @@ public class AccountAdapter {
             return null;
         }
 
+        synchronized (sIdTokenCache) {
+            final IDToken cachedIdToken = sIdTokenCache.get(rawIdToken);
+            if (null != cachedIdToken) {
+                return cachedIdToken;
+            }
+        }
+
         try {
-            return new IDToken(rawIdToken);
+            final IDToken idToken = new IDToken(rawIdToken);
+            synchronized (sIdTokenCache) {
+                sIdTokenCache.put(rawIdToken, idToken);
+            }
+            return idToken;
         } catch (ServiceException e) {
             // This should never happen - the IDToken was verified when it was originally
             // returned from the service and saved.
@@ -344,21 +293,6 @@ public class AccountAdapter {
         }
     }
 
-    /**
-     * Filters ICacheRecords based on the criteria specified by the {@link CacheRecordFilter}.
-     * Results may be empty, but never null.
-     *
-     * @param allCacheRecords The ICacheRecords to inspect.
-     * @param filter          The CacheRecordFilter to consult.
-     * @return A List of ICacheRecords matching the supplied filter criteria.
-     */
-    @NonNull
-    private static List<ICacheRecord> filterCacheRecords(
-            @NonNull final List<ICacheRecord> allCacheRecords,
-            @NonNull final CacheRecordFilter filter) {
-        return filter.filter(allCacheRecords);
-    }
-
     @Nullable
     static AccountRecord getAccountInternal(@NonNull final String clientId,
                                             @NonNull OAuth2TokenCache oAuth2TokenCache,
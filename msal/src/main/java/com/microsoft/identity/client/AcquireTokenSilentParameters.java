@@ -22,20 +22,52 @@
 //  THE SOFTWARE.
 package com.microsoft.identity.client;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.internal.CancellationToken;
+
+import java.util.concurrent.TimeUnit;
+
 public class AcquireTokenSilentParameters extends TokenParameters {
     private boolean mForceRefresh;
     private SilentAuthenticationCallback mCallback;
+    private CancellationToken mCancellationToken;
+    private long mDeadlineMillis;
 
     public AcquireTokenSilentParameters(AcquireTokenSilentParameters.Builder builder) {
         super(builder);
         mForceRefresh = builder.mForceRefresh;
         mCallback = builder.mCallback;
+        mDeadlineMillis = builder.mDeadlineMillis;
+    }
+
+    /**
+     * Copies the supplied parameters, leaving out the callback and the cancellation token.
+     */
+    AcquireTokenSilentParameters(@NonNull final AcquireTokenSilentParameters other) {
+        super(other);
+        mForceRefresh = other.mForceRefresh;
+        mDeadlineMillis = other.mDeadlineMillis;
     }
 
     void setCallback(SilentAuthenticationCallback callback) {
         mCallback = callback;
     }
 
+    /**
+     * Makes the request cancellable. Once the token is cancelled, the request stops at its next
+     * step and its callback is not invoked.
+     */
+    void setCancellationToken(@Nullable final CancellationToken cancellationToken) {
+        mCancellationToken = cancellationToken;
+    }
+
+    @Nullable
+    CancellationToken getCancellationToken() {
+        return mCancellationToken;
+    }
+
     /**
      * The Non-null {@link SilentAuthenticationCallback} to receive the result back.
      * <p>
@@ -71,10 +103,20 @@ public class AcquireTokenSilentParameters extends TokenParameters {
         return mForceRefresh;
     }
 
+    /**
+     * Gets the time the request may take, counted from the call to acquireTokenSilent.
+     *
+     * @return the deadline in milliseconds, or 0 if the request has none.
+     */
+    public long getDeadlineMillis() {
+        return mDeadlineMillis;
+    }
+
     public static class Builder extends TokenParameters.Builder<AcquireTokenSilentParameters.Builder> {
 
         private boolean mForceRefresh;
         private SilentAuthenticationCallback mCallback;
+        private long mDeadlineMillis;
 
         public AcquireTokenSilentParameters.Builder forceRefresh(boolean forceRefresh) {
             mForceRefresh = forceRefresh;
@@ -87,6 +129,23 @@ public class AcquireTokenSilentParameters extends TokenParameters {
             return this;
         }
 
+        /**
+         * Limits the time the request may take, counted from the call to acquireTokenSilent. Once
+         * it has passed, the request is cancelled and fails with
+         * {@link com.microsoft.identity.client.exception.MsalClientException#DEADLINE_EXCEEDED}.
+         *
+         * @param timeout the time the request may take; must be positive.
+         * @param unit    the unit of timeout.
+         */
+        public AcquireTokenSilentParameters.Builder withDeadline(final long timeout,
+                                                                 @NonNull final TimeUnit unit) {
+            if (timeout <= 0) {
+                throw new IllegalArgumentException("timeout must be positive");
+            }
+            mDeadlineMillis = Math.max(1, unit.toMillis(timeout));
+            return self();
+        }
+
         @Override
         public AcquireTokenSilentParameters.Builder self() {
             return this;
@@ -0,0 +1,79 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.exception.MsalException;
+
+/**
+ * Outcome of one request in a
+ * {@link IPublicClientApplication#acquireTokensSilent(java.util.List)} batch: either a result or
+ * the exception the request failed with.
+ */
+public class AcquireTokenSilentResult {
+
+    private final AcquireTokenSilentParameters mParameters;
+    private final IAuthenticationResult mResult;
+    private final MsalException mException;
+
+    AcquireTokenSilentResult(@NonNull final AcquireTokenSilentParameters parameters,
+                             @Nullable final IAuthenticationResult result,
+                             @Nullable final MsalException exception) {
+        mParameters = parameters;
+        mResult = result;
+        mException = exception;
+    }
+
+    /**
+     * @return The request this outcome belongs to.
+     */
+    @NonNull
+    public AcquireTokenSilentParameters getParameters() {
+        return mParameters;
+    }
+
+    /**
+     * @return True if the request succeeded and {@link #getResult()} is non-null.
+     */
+    public boolean isSuccessful() {
+        return mResult != null;
+    }
+
+    /**
+     * @return The authentication result, or null if the request failed.
+     */
+    @Nullable
+    public IAuthenticationResult getResult() {
+        return mResult;
+    }
+
+    /**
+     * @return The exception the request failed with, or null if it succeeded.
+     */
+    @Nullable
+    public MsalException getException() {
+        return mException;
+    }
+}
@@ -40,22 +40,32 @@ import java.util.concurrent.TimeUnit;
 /**
  * MSAL successful authentication result. When auth succeeds, token will be wrapped into the
  * {@link AuthenticationResult} and passed back through the {@link AuthenticationCallback}.
+ * <p>
+ * The account, scopes and expiry are derived from the cache records on first access and then
+ * reused, since most callers only read the access token or authorization header.
  */
 public final class AuthenticationResult implements IAuthenticationResult {
 
     private static final String TAG = AuthenticationResult.class.getSimpleName();
 
     private final String mTenantId;
+    private final String mHomeAccountId;
     private final AccessTokenRecord mAccessToken;
-    private final IAccount mAccount;
     private final UUID mCorrelationId;
 
+    // Released once mAccount has been adapted from it.
+    private List<ICacheRecord> mCacheRecords;
+    private volatile IAccount mAccount;
+    private volatile String[] mScope;
+    private volatile Date mExpiresOn;
+
     AuthenticationResult(@NonNull final List<ICacheRecord> cacheRecords,
                          @Nullable final String correlationId) {
         final ICacheRecord mostRecentlyAuthorized = cacheRecords.get(0);
         mAccessToken = mostRecentlyAuthorized.getAccessToken();
         mTenantId = mostRecentlyAuthorized.getAccount().getRealm();
-        mAccount = AccountAdapter.adapt(cacheRecords).get(0);
+        mHomeAccountId = mostRecentlyAuthorized.getAccount().getHomeAccountId();
+        mCacheRecords = cacheRecords;
         mCorrelationId = sanitizeCorrelationId(correlationId);
     }
 
@@ -87,17 +97,37 @@ public final class AuthenticationResult implements IAuthenticationResult {
         // TODO how should this work for PoP?
         // Middleware will assume 5 min expiry for PoP tokens
         // Client (MSAL) will not be aware of configured value
-        final Date expiresOn;
+        Date expiresOn = mExpiresOn;
+
+        if (expiresOn == null) {
+            expiresOn = new Date(getExpiresOnMillis());
+            mExpiresOn = expiresOn;
+        }
 
-        expiresOn = new Date(
-                TimeUnit.SECONDS.toMillis(
-                        Long.parseLong(
-                                mAccessToken.getExpiresOn()
-                        )
-                )
-        );
+        // Date is mutable; hand out a copy so callers cannot alter the memoized value.
+        return new Date(expiresOn.getTime());
+    }
 
-        return expiresOn;
+    /**
+     * @return the expiry of the access token, without allocating a {@link Date}.
+     */
+    long getExpiresOnMillis() {
+        return TimeUnit.SECONDS.toMillis(Long.parseLong(mAccessToken.getExpiresOn()));
+    }
+
+    /**
+     * @return the id {@link IAccount#getId()} returns for the account of this result, read from
+     * its account record so that the account does not have to be built.
+     */
+    @Nullable
+    String getAccountId() {
+        if (TextUtils.isEmpty(mHomeAccountId)) {
+            return null;
+        }
+
+        // A home account id is <oid>.<tid>.
+        final int separatorIndex = mHomeAccountId.indexOf('.');
+        return separatorIndex > 0 ? mHomeAccountId.substring(0, separatorIndex) : mHomeAccountId;
     }
 
     @Override
@@ -109,13 +139,33 @@ public final class AuthenticationResult implements IAuthenticationResult {
     @Override
     @NonNull
     public IAccount getAccount() {
-        return mAccount;
+        IAccount account = mAccount;
+
+        if (account == null) {
+            synchronized (this) {
+                account = mAccount;
+                if (account == null) {
+                    account = AccountAdapter.adapt(mCacheRecords).get(0);
+                    mAccount = account;
+                    mCacheRecords = null;
+                }
+            }
+        }
+
+        return account;
     }
 
     @Override
     @NonNull
     public String[] getScope() {
-        return mAccessToken.getTarget().split("\\s");
+        String[] scope = mScope;
+
+        if (scope == null) {
+            scope = mAccessToken.getTarget().split("\\s");
+            mScope = scope;
+        }
+
+        return scope.clone();
     }
 
     @Nullable
@@ -23,15 +23,13 @@
 package com.microsoft.identity.client;
 
 import com.microsoft.identity.client.exception.MsalDeclinedScopeException;
+import com.microsoft.identity.client.internal.ScopeSet;
 import com.microsoft.identity.common.java.result.ILocalAuthenticationResult;
 import com.microsoft.identity.common.logging.Logger;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
-import java.util.Set;
 
 import androidx.annotation.NonNull;
 
@@ -44,11 +42,15 @@ public class AuthenticationResultAdapter {
     private static final String TAG = AuthenticationResultAdapter.class.getName();
 
     public static IAuthenticationResult adapt(@NonNull final ILocalAuthenticationResult localAuthenticationResult) {
-        final IAuthenticationResult authenticationResult = new AuthenticationResult(
+        return adaptToAuthenticationResult(localAuthenticationResult);
+    }
+
+    @NonNull
+    static AuthenticationResult adaptToAuthenticationResult(@NonNull final ILocalAuthenticationResult localAuthenticationResult) {
+        return new AuthenticationResult(
                 localAuthenticationResult.getCacheRecordWithTenantProfileData(),
                 localAuthenticationResult.getCorrelationId()
         );
-        return authenticationResult;
     }
 
 
@@ -88,29 +90,18 @@ public class AuthenticationResultAdapter {
 
     static List<String> getDeclinedScopes(@NonNull final List<String> grantedScopes,
                                           @NonNull final List<String> requestedScopes) {
-        final Set<String> grantedScopesSet = new HashSet<>();
-
-        // Add each granted scope to the Set
-        for (final String grantedScope : grantedScopes) {
-            grantedScopesSet.add(grantedScope.toLowerCase(Locale.ROOT));
-        }
-
-        final Set<String> requestedScopesSet = new HashSet<>();
-
-        // Add each requested scope to the Set
-        for (final String requestedScope : requestedScopes) {
-            requestedScopesSet.add(requestedScope.toLowerCase(Locale.ROOT));
-        }
-
-        final List<String> declinedScopes = new ArrayList<>();
+        return getDeclinedScopes(ScopeSet.of(grantedScopes), ScopeSet.of(requestedScopes));
+    }
 
-        // Iterate over the requested scopes, determining which were declined
-        for (final String requestedScope : requestedScopesSet) {
-            if (!grantedScopesSet.contains(requestedScope)) {
-                declinedScopes.add(requestedScope);
-            }
+    /**
+     * Returns the requested scopes that were not granted, lower-cased.
+     */
+    static List<String> getDeclinedScopes(@NonNull final ScopeSet grantedScopes,
+                                          @NonNull final ScopeSet requestedScopes) {
+        if (grantedScopes.containsAll(requestedScopes)) {
+            return new ArrayList<>();
         }
 
-        return declinedScopes;
+        return requestedScopes.difference(grantedScopes);
     }
 }
@@ -28,7 +28,12 @@ import java.util.Map;
 
 /**
  * The interface function for apps to override if they want to get the Telemetry from MSAL.
+ *
+ * @deprecated Use {@link com.microsoft.identity.client.metrics.MsalMetrics} with an
+ * {@link com.microsoft.identity.client.metrics.IMsalMetricsExporter} instead, which reports typed
+ * counters and latencies rather than string maps.
  */
+@Deprecated
 public interface IMsalEventReceiver {
 
     /**
@@ -30,10 +30,12 @@ import androidx.annotation.WorkerThread;
 
 import com.microsoft.identity.client.claims.ClaimsRequest;
 import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.client.internal.CancellationToken;
 import com.microsoft.identity.common.java.exception.BaseException;
 import com.microsoft.identity.common.java.ui.PreferredAuthMethod;
 import com.microsoft.identity.common.java.util.TaskCompletedCallbackWithError;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -74,6 +76,41 @@ public interface IPublicClientApplication {
      */
     void acquireToken(@NonNull final AcquireTokenParameters acquireTokenParameters);
 
+    /**
+     * Warms up the browser used for interactive requests. Returns immediately. Call it while the
+     * sign-in screen is still rendering, so that the login page of the next interactive request
+     * shows up sooner. The connection to the browser is released when the next interactive request
+     * starts, or after a few minutes if none does. Does nothing by default.
+     */
+    default void prewarmInteractiveRequest() {
+    }
+
+    /**
+     * Keeps the access token for the given account and scopes fresh in the background, so that
+     * later silent requests are answered from the cache. The token is refreshed ahead of expiry,
+     * or at the time suggested by the server with refresh_in, together with the other tokens of
+     * the same account, and only while the device is online and not dozing.
+     * Registrations last as long as this application object, or until the account can no longer
+     * be refreshed silently. Does nothing by default.
+     *
+     * @param account   The account whose token is kept fresh.
+     * @param scopes    The scopes of the token.
+     * @param authority The authority of the token, or null for the default authority.
+     */
+    default void registerForProactiveRefresh(@NonNull final IAccount account,
+                                             @NonNull final List<String> scopes,
+                                             @Nullable final String authority) {
+    }
+
+    /**
+     * Stops keeping the tokens of the given account fresh. Does nothing by default.
+     *
+     * @param account The account passed to
+     *                {@link IPublicClientApplication#registerForProactiveRefresh(IAccount, List, String)}.
+     */
+    default void unregisterFromProactiveRefresh(@NonNull final IAccount account) {
+    }
+
 
     /**
      * Perform acquire token silent call. If there is a valid access token in the cache, the sdk will return the access token; If
@@ -84,6 +121,20 @@ public interface IPublicClientApplication {
      */
     void acquireTokenSilentAsync(@NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters);
 
+    /**
+     * Same as {@link IPublicClientApplication#acquireTokenSilentAsync(AcquireTokenSilentParameters)},
+     * returning a handle that cancels the request.
+     *
+     * @param acquireTokenSilentParameters {@link AcquireTokenSilentParameters} instance containing the necessary fields.
+     * @return a handle that cancels the request. Once cancelled, the request stops as soon as it can and its result is not delivered.
+     */
+    default ICancellableRequest acquireTokenSilentCancellable(@NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters) {
+        final CancellationToken cancellationToken = new CancellationToken();
+        acquireTokenSilentParameters.setCancellationToken(cancellationToken);
+        acquireTokenSilentAsync(acquireTokenSilentParameters);
+        return cancellationToken;
+    }
+
     /**
      * Perform acquire token silent call. If there is a valid access token in the cache, the sdk will return the access token; If
      * no valid access token exists, the sdk will try to find a refresh token and use the refresh token to get a new access token. If refresh token does not exist
@@ -94,6 +145,34 @@ public interface IPublicClientApplication {
     @WorkerThread
     IAuthenticationResult acquireTokenSilent(@NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters) throws InterruptedException, MsalException;
 
+    /**
+     * Perform several acquire token silent calls at once, for example to get tokens for each
+     * resource the app needs right after sign-in. The account of each distinct account/authority
+     * pair is resolved once, and the requests then run concurrently. Identical requests in the batch
+     * share a single execution. The supplied parameters are not modified, so they can be submitted
+     * again. The default implementation runs the requests one after the other.
+     *
+     * @param acquireTokenSilentParameters the requests; none of them may carry a callback.
+     * @return one {@link AcquireTokenSilentResult} per request, in the same order. A failed request
+     * does not fail the others.
+     */
+    @WorkerThread
+    default List<AcquireTokenSilentResult> acquireTokensSilent(@NonNull final List<AcquireTokenSilentParameters> acquireTokenSilentParameters) throws InterruptedException, MsalException {
+        final List<AcquireTokenSilentResult> results = new ArrayList<>(acquireTokenSilentParameters.size());
+        for (final AcquireTokenSilentParameters parameters : acquireTokenSilentParameters) {
+            try {
+                results.add(new AcquireTokenSilentResult(
+                        parameters,
+                        acquireTokenSilent(new AcquireTokenSilentParameters(parameters)),
+                        null
+                ));
+            } catch (final MsalException exception) {
+                results.add(new AcquireTokenSilentResult(parameters, null, exception));
+            }
+        }
+        return results;
+    }
+
     /**
      * Perform the Device Code Flow (DCF) protocol to allow a device without input capability to authenticate and get a new access token.
      * This flow is now supported in Broker as well. It also supports requesting Claims using the "claims" Request. Parameter.
@@ -34,8 +34,8 @@ import com.microsoft.identity.client.exception.MsalArgumentException;
 import com.microsoft.identity.client.exception.MsalClientException;
 import com.microsoft.identity.client.exception.MsalException;
 import com.microsoft.identity.client.internal.AsyncResult;
+import com.microsoft.identity.client.internal.CancellationToken;
 import com.microsoft.identity.client.internal.CommandParametersAdapter;
-import com.microsoft.identity.client.internal.controllers.MSALControllerFactory;
 import com.microsoft.identity.client.internal.controllers.MsalExceptionAdapter;
 import com.microsoft.identity.common.java.exception.BaseException;
 import com.microsoft.identity.common.java.cache.ICacheRecord;
@@ -51,6 +51,7 @@ import com.microsoft.identity.common.internal.migration.TokenMigrationCallback;
 import com.microsoft.identity.common.java.util.ResultFuture;
 import com.microsoft.identity.common.logging.Logger;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
@@ -72,6 +73,11 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
         return acquireTokenSilentInternal(acquireTokenSilentParameters, PublicApiId.MULTIPLE_ACCOUNT_PCA_ACQUIRE_TOKEN_SILENT_WITH_PARAMETERS);
     }
 
+    @Override
+    public List<AcquireTokenSilentResult> acquireTokensSilent(@NonNull final List<AcquireTokenSilentParameters> acquireTokenSilentParameters) throws MsalException, InterruptedException {
+        return acquireTokensSilentInternal(acquireTokenSilentParameters, PublicApiId.MULTIPLE_ACCOUNT_PCA_ACQUIRE_TOKEN_SILENT_WITH_PARAMETERS);
+    }
+
     @Deprecated
     @Override
     public IAuthenticationResult acquireTokenSilent(@NonNull String[] scopes, @NonNull IAccount account, @NonNull String authority) throws MsalException, InterruptedException {
@@ -108,25 +114,67 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
      */
     @Override
     public void getAccounts(@NonNull final LoadAccountsCallback callback) {
-        getAccountsInternal(callback, PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNTS_WITH_CALLBACK);
+        getAccountsInternal(callback, PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNTS_WITH_CALLBACK, false, null);
+    }
+
+    /**
+     * {@link #getAccounts(LoadAccountsCallback)} that stops, and drops its result, once the
+     * cancellation token is cancelled.
+     */
+    void getAccounts(@NonNull final LoadAccountsCallback callback,
+                     @NonNull final CancellationToken cancellationToken) {
+        getAccountsInternal(callback, PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNTS_WITH_CALLBACK, false, cancellationToken);
     }
 
 
     /**
      * Asynchronously returns a List of {@link IAccount} objects for which this application has RefreshTokens.
      *
-     * @param callback The callback to notify once this action has finished.
+     * @param callback        The callback to notify once this action has finished.
+     * @param onCallingThread true to notify the callback on the calling thread before returning,
+     *                        for the blocking variant.
+     * @param cancellationToken cancels the request, or null if it cannot be cancelled.
      */
-    private void getAccountsInternal(@NonNull final LoadAccountsCallback callback,
-                                     @NonNull final String publicApiId) {
+    private void getAccountsInternal(@NonNull final LoadAccountsCallback accountsCallback,
+                                     @NonNull final String publicApiId,
+                                     final boolean onCallingThread,
+                                     @Nullable final CancellationToken cancellationToken) {
+        final LoadAccountsCallback callback = unlessCancelled(accountsCallback, cancellationToken);
         TokenMigrationCallback migrationCallback = new TokenMigrationCallback() {
             @Override
             public void onMigrationFinished(int numberOfAccountsMigrated) {
+                if (isCancelled(cancellationToken)) {
+                    return;
+                }
+
                 final CommandParameters params = CommandParametersAdapter.createCommandParameters(mPublicClientConfiguration, mPublicClientConfiguration.getOAuth2TokenCache());
+                final CommandCallback loadAccountsCallback = getLoadAccountsCallback(new LoadAccountsCallback() {
+                    @Override
+                    public void onTaskCompleted(final List<IAccount> result) {
+                        mAccountIndex.rebuild(
+                                result == null ? new ArrayList<IAccount>() : result
+                        );
+                        callback.onTaskCompleted(result);
+                    }
+
+                    @Override
+                    public void onError(final MsalException exception) {
+                        callback.onError(exception);
+                    }
+                });
+
+                if (onCallingThread) {
+                    executeOnCallingThread(
+                            new LoadAccountCommand(params, mControllerFactoryCache.get(), getNoOpCommandCallback(), publicApiId),
+                            loadAccountsCallback
+                    );
+                    return;
+                }
+
                 final LoadAccountCommand loadAccountCommand = new LoadAccountCommand(
                         params,
-                        new MSALControllerFactory(mPublicClientConfiguration),
-                        getLoadAccountsCallback(callback),
+                        mControllerFactoryCache.get(),
+                        loadAccountsCallback,
                         publicApiId
                 );
 
@@ -154,7 +202,7 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
             public void onError(MsalException exception) {
                 future.setResult(new AsyncResult<List<IAccount>>(null, exception));
             }
-        }, PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNTS);
+        }, PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNTS, mPublicClientConfiguration.isSyncCallsOnCallingThread(), null);
 
         try {
             final AsyncResult<List<IAccount>> result = future.get();
@@ -184,50 +232,90 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
     @Override
     public void getAccount(@NonNull final String identifier,
                            @NonNull final GetAccountCallback callback) {
-        getAccountInternal(identifier, callback, PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNT_WITH_IDENTIFIER_CALLBACK);
+        getAccountInternal(identifier, callback, PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNT_WITH_IDENTIFIER_CALLBACK, false, null);
+    }
+
+    /**
+     * {@link #getAccount(String, GetAccountCallback)} that stops, and drops its result, once the
+     * cancellation token is cancelled.
+     */
+    void getAccount(@NonNull final String identifier,
+                    @NonNull final GetAccountCallback callback,
+                    @NonNull final CancellationToken cancellationToken) {
+        getAccountInternal(identifier, callback, PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNT_WITH_IDENTIFIER_CALLBACK, false, cancellationToken);
     }
 
     /**
      * Retrieve the IAccount object matching the identifier.
      * The identifier could be homeAccountIdentifier, localAccountIdentifier or username.
      *
-     * @param identifier String of the identifier
-     * @param callback   The callback to notify once this action has finished.
+     * @param identifier      String of the identifier
+     * @param callback        The callback to notify once this action has finished.
+     * @param onCallingThread true to notify the callback on the calling thread before returning,
+     *                        for the blocking variant.
+     * @param cancellationToken cancels the request, or null if it cannot be cancelled.
      */
     private void getAccountInternal(@NonNull final String identifier,
-                                    @NonNull final GetAccountCallback callback,
-                                    @NonNull final String publicApiId) {
+                                    @NonNull final GetAccountCallback accountCallback,
+                                    @NonNull final String publicApiId,
+                                    final boolean onCallingThread,
+                                    @Nullable final CancellationToken cancellationToken) {
         final String methodTag = TAG + ":getAccountInternal";
 
-        if (callback == null) {
+        if (accountCallback == null) {
             throw new IllegalArgumentException("callback cannot be null or empty");
         }
+        final GetAccountCallback callback = unlessCancelled(accountCallback, cancellationToken);
         try {
             validateNonNullArg(identifier, "identifier");
         } catch (MsalArgumentException e) {
             callback.onError(e);
         }
 
+        // With the broker, accounts can be removed by other apps without this instance noticing,
+        // so the index is only trusted when the accounts live in this app's own cache.
+        final IAccount indexedAccount = identifier == null || mControllerFactoryCache.get().isBrokerEligible()
+                ? null
+                : mAccountIndex.get(identifier);
+        if (indexedAccount != null) {
+            Logger.verbose(methodTag, "Account found in the account index.");
+            if (onCallingThread) {
+                callback.onTaskCompleted(indexedAccount);
+                return;
+            }
+            new Handler(Looper.getMainLooper()).post(new Runnable() {
+                @Override
+                public void run() {
+                    callback.onTaskCompleted(indexedAccount);
+                }
+            });
+            return;
+        }
+
         TokenMigrationCallback migrationCallback = new TokenMigrationCallback() {
             @Override
             public void onMigrationFinished(int numberOfAccountsMigrated) {
+                if (isCancelled(cancellationToken)) {
+                    return;
+                }
 
                 Logger.verbose(methodTag, "Get account with the identifier.");
 
                 final CommandParameters params = CommandParametersAdapter.createCommandParameters(mPublicClientConfiguration, mPublicClientConfiguration.getOAuth2TokenCache());
-                final LoadAccountCommand loadAccountCommand = new LoadAccountCommand(
-                        params,
-                        new MSALControllerFactory(mPublicClientConfiguration),
+                final CommandCallback<List<ICacheRecord>, BaseException> loadAccountCallback =
                         new CommandCallback<List<ICacheRecord>, BaseException>() {
                             @Override
                             public void onTaskCompleted(final List<ICacheRecord> result) {
                                 if (null == result || result.size() == 0) {
                                     Logger.verbose(methodTag, "No account found.");
+                                    mAccountIndex.clear();
+                                    AccountAdapter.clearIdTokenCache();
                                     callback.onTaskCompleted(null);
                                 } else {
                                     // First, transform the result into IAccount + TenantProfile form
                                     final List<IAccount>
                                             accounts = AccountAdapter.adapt(result);
+                                    mAccountIndex.rebuild(accounts);
 
                                     final String trimmedIdentifier = identifier.trim();
 
@@ -264,7 +352,20 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
                             public void onCancel() {
 
                             }
-                        },
+                        };
+
+                if (onCallingThread) {
+                    executeOnCallingThread(
+                            new LoadAccountCommand(params, mControllerFactoryCache.get(), getNoOpCommandCallback(), publicApiId),
+                            loadAccountCallback
+                    );
+                    return;
+                }
+
+                final LoadAccountCommand loadAccountCommand = new LoadAccountCommand(
+                        params,
+                        mControllerFactoryCache.get(),
+                        loadAccountCallback,
                         publicApiId
                 );
 
@@ -291,7 +392,7 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
             public void onError(MsalException exception) {
                 future.setResult(new AsyncResult<IAccount>(null, exception));
             }
-        }, PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNT_WITH_IDENTIFIER);
+        }, PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNT_WITH_IDENTIFIER, mPublicClientConfiguration.isSyncCallsOnCallingThread(), null);
 
         try {
             AsyncResult<IAccount> result = future.get();
@@ -314,13 +415,29 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
     @Override
     public void removeAccount(@Nullable final IAccount account,
                               @NonNull final RemoveAccountCallback callback) {
-        removeAccountInternal(account, callback, PublicApiId.MULTIPLE_ACCOUNT_PCA_REMOVE_ACCOUNT_WITH_ACCOUNT_CALLBACK);
+        removeAccountInternal(account, callback, PublicApiId.MULTIPLE_ACCOUNT_PCA_REMOVE_ACCOUNT_WITH_ACCOUNT_CALLBACK, null);
+    }
+
+    /**
+     * {@link #removeAccount(IAccount, RemoveAccountCallback)} that drops its result once the
+     * cancellation token is cancelled. A removal already handed to the dispatcher still completes,
+     * as stopping it half way could leave the cache inconsistent.
+     */
+    void removeAccount(@Nullable final IAccount account,
+                       @NonNull final RemoveAccountCallback callback,
+                       @NonNull final CancellationToken cancellationToken) {
+        removeAccountInternal(account, callback, PublicApiId.MULTIPLE_ACCOUNT_PCA_REMOVE_ACCOUNT_WITH_ACCOUNT_CALLBACK, cancellationToken);
     }
 
     private void removeAccountInternal(@Nullable final IAccount account,
-                                       @NonNull final RemoveAccountCallback callback,
-                                       @NonNull final String publicApiId) {
+                                       @NonNull final RemoveAccountCallback removeCallback,
+                                       @NonNull final String publicApiId,
+                                       @Nullable final CancellationToken cancellationToken) {
         final String methodTag = TAG + ":removeAccountInternal";
+        final RemoveAccountCallback callback = unlessCancelled(removeCallback, cancellationToken);
+        if (isCancelled(cancellationToken)) {
+            return;
+        }
         // First, cast the input IAccount to a MultiTenantAccount
         final MultiTenantAccount multiTenantAccount = (MultiTenantAccount) account;
 
@@ -335,6 +452,11 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
             return;
         }
 
+        mAccessTokenMemoryCache.removeAccount(multiTenantAccount);
+        mSilentRequestCoalescer.removeAccount(multiTenantAccount);
+        mAccountIndex.remove(multiTenantAccount);
+        AccountAdapter.clearIdTokenCache();
+
         // TODO Clean this up, only the cache should make these records...
         // The broker strips these properties out of this object to hit the cache
         // Refactor this out...
@@ -351,7 +473,7 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
 
         final RemoveAccountCommand removeAccountCommand = new RemoveAccountCommand(
                 params,
-                new MSALControllerFactory(mPublicClientConfiguration),
+                mControllerFactoryCache.get(),
                 new CommandCallback<Boolean, BaseException>() {
                     @Override
                     public void onError(BaseException error) {
@@ -360,6 +482,7 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
 
                     @Override
                     public void onTaskCompleted(Boolean success) {
+                        notifyAccountsChanged();
                         callback.onRemoved();
                     }
 
@@ -388,7 +511,7 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
                     public void onError(@NonNull MsalException exception) {
                         future.setResult(new AsyncResult<Boolean>(false, exception));
                     }
-                }, PublicApiId.MULTIPLE_ACCOUNT_PCA_REMOVE_ACCOUNT_WITH_ACCOUNT);
+                }, PublicApiId.MULTIPLE_ACCOUNT_PCA_REMOVE_ACCOUNT_WITH_ACCOUNT, null);
 
         try {
             final AsyncResult<Boolean> result = future.get();
@@ -434,4 +557,76 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
 
         acquireTokenInternal(acquireTokenParameters, PublicApiId.MULTIPLE_ACCOUNT_PCA_ACQUIRE_TOKEN_WITH_ACTIVITY_SCOPES_LOGINHINT_CALLBACK);
     }
+
+    @NonNull
+    private static LoadAccountsCallback unlessCancelled(@NonNull final LoadAccountsCallback callback,
+                                                        @Nullable final CancellationToken cancellationToken) {
+        if (cancellationToken == null) {
+            return callback;
+        }
+
+        return new LoadAccountsCallback() {
+            @Override
+            public void onTaskCompleted(final List<IAccount> result) {
+                if (!cancellationToken.isCancelled()) {
+                    callback.onTaskCompleted(result);
+                }
+            }
+
+            @Override
+            public void onError(final MsalException exception) {
+                if (!cancellationToken.isCancelled()) {
+                    callback.onError(exception);
+                }
+            }
+        };
+    }
+
+    @NonNull
+    private static GetAccountCallback unlessCancelled(@NonNull final GetAccountCallback callback,
+                                                      @Nullable final CancellationToken cancellationToken) {
+        if (cancellationToken == null) {
+            return callback;
+        }
+
+        return new GetAccountCallback() {
+            @Override
+            public void onTaskCompleted(final IAccount result) {
+                if (!cancellationToken.isCancelled()) {
+                    callback.onTaskCompleted(result);
+                }
+            }
+
+            @Override
+            public void onError(final MsalException exception) {
+                if (!cancellationToken.isCancelled()) {
+                    callback.onError(exception);
+                }
+            }
+        };
+    }
+
+    @NonNull
+    private static RemoveAccountCallback unlessCancelled(@NonNull final RemoveAccountCallback callback,
+                                                         @Nullable final CancellationToken cancellationToken) {
+        if (cancellationToken == null) {
+            return callback;
+        }
+
+        return new RemoveAccountCallback() {
+            @Override
+            public void onRemoved() {
+                if (!cancellationToken.isCancelled()) {
+                    callback.onRemoved();
+                }
+            }
+
+            @Override
+            public void onError(@NonNull final MsalException exception) {
+                if (!cancellationToken.isCancelled()) {
+                    callback.onError(exception);
+                }
+            }
+        };
+    }
 }
@@ -61,6 +61,7 @@ import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.annotation.WorkerThread;
 import androidx.fragment.app.Fragment;
 
@@ -73,10 +74,28 @@ import com.microsoft.identity.client.exception.MsalDeclinedScopeException;
 import com.microsoft.identity.client.exception.MsalException;
 import com.microsoft.identity.client.exception.MsalUiRequiredException;
 import com.microsoft.identity.client.helper.BrokerHelperActivity;
+import com.microsoft.identity.client.internal.AccessTokenMemoryCache;
+import com.microsoft.identity.client.internal.AccountIndex;
 import com.microsoft.identity.client.internal.AsyncResult;
+import com.microsoft.identity.client.internal.CallbackExecutorAdapter;
+import com.microsoft.identity.client.internal.CancellableSilentTokenCommand;
+import com.microsoft.identity.client.internal.CancellationToken;
 import com.microsoft.identity.client.internal.CommandParametersAdapter;
+import com.microsoft.identity.client.internal.CommandParametersTemplate;
+import com.microsoft.identity.client.internal.CustomTabsPrewarmer;
+import com.microsoft.identity.client.internal.DeviceModeQueryCoalescer;
+import com.microsoft.identity.client.internal.MsalExecutor;
+import com.microsoft.identity.client.internal.ScopeSet;
+import com.microsoft.identity.client.internal.SilentRequestCoalescer;
+import com.microsoft.identity.client.internal.SilentRequestDeadline;
+import com.microsoft.identity.client.internal.SilentTokenRefresher;
+import com.microsoft.identity.client.internal.TenantAliasCache;
+import com.microsoft.identity.client.internal.TokenRefreshScheduler;
 import com.microsoft.identity.client.internal.controllers.MSALControllerFactory;
+import com.microsoft.identity.client.internal.controllers.MSALControllerFactoryCache;
 import com.microsoft.identity.client.internal.controllers.MsalExceptionAdapter;
+import com.microsoft.identity.client.metrics.MsalCounter;
+import com.microsoft.identity.client.metrics.MsalMetrics;
 import com.microsoft.identity.common.adal.internal.tokensharing.ITokenShareResultInternal;
 import com.microsoft.identity.common.adal.internal.tokensharing.TokenShareUtility;
 import com.microsoft.identity.common.components.AndroidPlatformComponentsFactory;
@@ -94,6 +113,8 @@ import com.microsoft.identity.common.internal.migration.AdalMigrationAdapter;
 import com.microsoft.identity.common.internal.migration.TokenMigrationCallback;
 import com.microsoft.identity.common.internal.migration.TokenMigrationUtility;
 import com.microsoft.identity.common.internal.net.cache.HttpCache;
+import com.microsoft.identity.common.internal.ui.browser.Browser;
+import com.microsoft.identity.common.internal.ui.browser.BrowserSelector;
 import com.microsoft.identity.common.java.nativeauth.BuildValues;
 import com.microsoft.identity.common.java.authorities.Authority;
 import com.microsoft.identity.common.java.authorities.AzureActiveDirectoryAuthority;
@@ -103,6 +124,7 @@ import com.microsoft.identity.common.java.cache.ICacheRecord;
 import com.microsoft.identity.common.java.cache.IMultiTypeNameValueStorage;
 import com.microsoft.identity.common.java.cache.IShareSingleSignOnState;
 import com.microsoft.identity.common.java.cache.MsalOAuth2TokenCache;
+import com.microsoft.identity.common.java.commands.BaseCommand;
 import com.microsoft.identity.common.java.commands.CommandCallback;
 import com.microsoft.identity.common.java.commands.DeviceCodeFlowCommand;
 import com.microsoft.identity.common.java.commands.DeviceCodeFlowCommandCallback;
@@ -135,6 +157,7 @@ import com.microsoft.identity.common.java.providers.oauth2.OAuth2TokenCache;
 import com.microsoft.identity.common.java.result.GenerateShrResult;
 import com.microsoft.identity.common.java.result.ILocalAuthenticationResult;
 import com.microsoft.identity.common.java.result.LocalAuthenticationResult;
+import com.microsoft.identity.common.java.ui.AuthorizationAgent;
 import com.microsoft.identity.common.java.ui.PreferredAuthMethod;
 import com.microsoft.identity.common.java.util.ResultFuture;
 import com.microsoft.identity.common.java.util.SchemaUtil;
@@ -150,13 +173,18 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
@@ -227,7 +255,6 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     private static final String INTERNET_PERMISSION = "android.permission.INTERNET";
     private static final String ACCESS_NETWORK_STATE_PERMISSION = "android.permission.ACCESS_NETWORK_STATE";
     private static final String ERR_UNSUPPORTED_OPERATION = "This method is unsupported.";
-    private static final ExecutorService sBackgroundExecutor = Executors.newCachedThreadPool();
 
     static class NONNULL_CONSTANTS {
         static final String CONTEXT = "context";
@@ -240,6 +267,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         static final String ACTIVITY = "activity";
         static final String SCOPES = "scopes";
         static final String ACCOUNT = "account";
+        static final String PARAMETERS = "parameters";
         static final String NULL_ERROR_SUFFIX = " cannot be null or empty";
         static final String CHALLENGE_TYPES = "challenge_types";
     }
@@ -258,6 +286,58 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     protected PublicClientApplicationConfiguration mPublicClientConfiguration;
     protected TokenShareUtility mTokenShareUtility;
 
+    /**
+     * Hot cache of access tokens returned by this instance, only used when
+     * {@link PublicClientApplicationConfiguration#isAccessTokenMemoryCacheEnabled()} is true.
+     */
+    protected final AccessTokenMemoryCache mAccessTokenMemoryCache = new AccessTokenMemoryCache();
+
+    /**
+     * Shares a single execution between identical concurrent silent requests.
+     */
+    protected final SilentRequestCoalescer mSilentRequestCoalescer = new SilentRequestCoalescer();
+
+    /**
+     * Index of the accounts seen by this instance, used to answer account lookups without a
+     * full cache load. Not used to answer lookups when the broker may own the accounts.
+     */
+    protected final AccountIndex mAccountIndex = new AccountIndex();
+
+    /**
+     * Controller factories for this instance, one per authority.
+     */
+    protected MSALControllerFactoryCache mControllerFactoryCache;
+
+    /**
+     * Bounded executor used to prepare requests off the calling thread, sized by
+     * {@link PublicClientApplicationConfiguration#getThreadingConfiguration()}.
+     */
+    protected MsalExecutor mBackgroundExecutor;
+
+    /**
+     * Per-application part of every token command's parameters, built on first use once the
+     * configuration is final.
+     */
+    private volatile CommandParametersTemplate mCommandParametersTemplate;
+
+    /**
+     * Keeps registered tokens fresh, created on the first
+     * {@link PublicClientApplication#registerForProactiveRefresh(IAccount, List, String)}.
+     */
+    private volatile TokenRefreshScheduler mTokenRefreshScheduler;
+
+    /**
+     * Notified when this instance signs an account in, or removes or signs out one.
+     */
+    private final List<Runnable> mAccountChangeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Released once telemetry and the HTTP cache have been set up in the background.
+     */
+    private final CountDownLatch mDeferredInitialization = new CountDownLatch(1);
+
+    private static final long DEFERRED_INITIALIZATION_TIMEOUT_SECONDS = 5;
+
     //region PCA factory methods
 
     /**
@@ -1088,45 +1168,125 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
             return;
         }
 
-        final CommandParameters params = CommandParametersAdapter.createCommandParameters(config, config.getOAuth2TokenCache());
+        final StartupTrace trace = config.getStartupTrace();
 
-        final GetDeviceModeCommand command = new GetDeviceModeCommand(
-                params,
-                new MSALControllerFactory(config),
-                new CommandCallback<Boolean, BaseException>() {
-                    @Override
-                    public void onError(BaseException error) {
-                        listener.onError(MsalExceptionAdapter.msalExceptionFromBaseException(error));
-                    }
+        // The device mode query is a call into the broker. The rest of the application setup does
+        // not depend on it, so it runs on this thread meanwhile, and whichever finishes last
+        // creates the application.
+        final AtomicInteger pendingSteps = new AtomicInteger(2);
+        final AtomicReference<Boolean> isSharedDeviceResult = new AtomicReference<>();
+        final AtomicReference<MsalException> errorResult = new AtomicReference<>();
+
+        final Runnable onStepCompleted = new Runnable() {
+            @Override
+            public void run() {
+                if (pendingSteps.decrementAndGet() != 0) {
+                    return;
+                }
 
+                postToCallbackThread(null, new Runnable() {
                     @Override
-                    public void onTaskCompleted(Boolean isSharedDevice) {
-                        config.setIsSharedDevice(isSharedDevice);
-
-                        try {
-                            if (config instanceof NativeAuthPublicClientApplicationConfiguration
-                                    && config.getAccountMode() == AccountMode.SINGLE) {
-                                config.validateConfiguration();
-                                listener.onCreated(new NativeAuthPublicClientApplication((NativeAuthPublicClientApplicationConfiguration) config));
-                            } else if (config.getAccountMode() == AccountMode.SINGLE || isSharedDevice) {
-                                listener.onCreated(new SingleAccountPublicClientApplication(config));
-                            } else {
-                                listener.onCreated(new MultipleAccountPublicClientApplication(config));
-                            }
-                        } catch (final MsalClientException e) {
-                            listener.onError(e);
+                    public void run() {
+                        final MsalException error = errorResult.get();
+                        if (error != null) {
+                            listener.onError(error);
+                        } else {
+                            onDeviceModeResolved(config, isSharedDeviceResult.get(), listener);
                         }
                     }
+                });
+            }
+        };
 
-                    @Override
-                    public void onCancel() {
-                        // Should not be reached.
-                    }
-                },
-                PublicApiId.PCA_GET_DEVICE_MODE
-        );
+        final CommandCallback<Boolean, BaseException> deviceModeCallback = new CommandCallback<Boolean, BaseException>() {
+            @Override
+            public void onError(BaseException error) {
+                errorResult.compareAndSet(null, MsalExceptionAdapter.msalExceptionFromBaseException(error));
+                onStepCompleted.run();
+            }
+
+            @Override
+            public void onTaskCompleted(Boolean isSharedDevice) {
+                isSharedDeviceResult.set(isSharedDevice);
+                onStepCompleted.run();
+            }
+
+            @Override
+            public void onCancel() {
+                // Should not be reached.
+            }
+        };
 
-        CommandDispatcher.submitSilent(command);
+        // Applications created together share one query. Its answer is never reused afterwards,
+        // since the device can become shared at any time. Only applications that would ask the
+        // same controller share a query: one that cannot use the broker is always answered by the
+        // local controller.
+        final MSALControllerFactory controllerFactory = config.getControllerFactoryCache().get();
+        final boolean brokerEligible = controllerFactory.isBrokerEligible();
+        final DeviceModeQueryCoalescer deviceModeQueries = DeviceModeQueryCoalescer.getInstance();
+        if (deviceModeQueries.join(brokerEligible, deviceModeCallback)) {
+            final long deviceModeStart = System.nanoTime();
+            final CommandParameters params = CommandParametersAdapter.createCommandParameters(config, config.getOAuth2TokenCache());
+
+            final GetDeviceModeCommand command = new GetDeviceModeCommand(
+                    params,
+                    controllerFactory,
+                    new CommandCallback<Boolean, BaseException>() {
+                        @Override
+                        public void onError(BaseException error) {
+                            deviceModeQueries.onQueryFailed(brokerEligible, error);
+                        }
+
+                        @Override
+                        public void onTaskCompleted(Boolean isSharedDevice) {
+                            trace.record(StartupTrace.GET_DEVICE_MODE, deviceModeStart);
+                            deviceModeQueries.onQueryCompleted(brokerEligible, isSharedDevice);
+                        }
+
+                        @Override
+                        public void onCancel() {
+                            // Should not be reached.
+                        }
+                    },
+                    PublicApiId.PCA_GET_DEVICE_MODE
+            );
+
+            CommandDispatcher.submitSilent(command);
+        }
+
+        try {
+            prepareApplication(config);
+        } catch (final MsalClientException e) {
+            errorResult.compareAndSet(null, e);
+        } catch (final IllegalStateException e) {
+            errorResult.compareAndSet(null, new MsalClientException(UNKNOWN_ERROR, e.getMessage(), e));
+        }
+        onStepCompleted.run();
+    }
+
+    private static void onDeviceModeResolved(@NonNull final PublicClientApplicationConfiguration config,
+                                             final boolean isSharedDevice,
+                                             @NonNull final ApplicationCreatedListener listener) {
+        config.setIsSharedDevice(isSharedDevice);
+
+        final IPublicClientApplication application;
+        try {
+            if (config instanceof NativeAuthPublicClientApplicationConfiguration
+                    && config.getAccountMode() == AccountMode.SINGLE) {
+                config.validateConfiguration();
+                application = new NativeAuthPublicClientApplication((NativeAuthPublicClientApplicationConfiguration) config);
+            } else if (config.getAccountMode() == AccountMode.SINGLE || isSharedDevice) {
+                application = new SingleAccountPublicClientApplication(config);
+            } else {
+                application = new MultipleAccountPublicClientApplication(config);
+            }
+        } catch (final MsalClientException e) {
+            listener.onError(e);
+            return;
+        }
+
+        config.getStartupTrace().finish();
+        listener.onCreated(application);
     }
 
     private static NativeAuthPublicClientApplication createNativeAuthApplication(@NonNull final NativeAuthPublicClientApplicationConfiguration config,
@@ -1266,32 +1426,147 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
 
     protected PublicClientApplication(@NonNull final PublicClientApplicationConfiguration configFile) throws MsalClientException {
         mPublicClientConfiguration = configFile;
+        mControllerFactoryCache = configFile.getControllerFactoryCache();
+        // Discover the active broker in the background, so that the first request does not wait for it.
+        mControllerFactoryCache.prefetchActiveBroker();
+        mBackgroundExecutor = MsalExecutor.forConfiguration(configFile.getThreadingConfiguration());
         initializeApplication();
     }
 
+    /**
+     * @return the command parameters template for this instance, creating it on first use.
+     */
+    protected CommandParametersTemplate getCommandParametersTemplate() {
+        CommandParametersTemplate template = mCommandParametersTemplate;
+        if (template == null) {
+            synchronized (this) {
+                template = mCommandParametersTemplate;
+                if (template == null) {
+                    template = new CommandParametersTemplate(mPublicClientConfiguration);
+                    mCommandParametersTemplate = template;
+                }
+            }
+        }
+        return template;
+    }
+
     private void initializeApplication() throws MsalClientException {
         final String methodTag = TAG + ":initializeApplication";
+        final long start = System.nanoTime();
 
-        final Context context = mPublicClientConfiguration.getAppContext();
-        setupTelemetry(context, mPublicClientConfiguration);
+        prepareApplication(mPublicClientConfiguration);
 
-        AzureActiveDirectory.setEnvironment(mPublicClientConfiguration.getEnvironment());
-        Authority.addKnownAuthorities(mPublicClientConfiguration.getAuthorities());
+        initializeTokenSharingLibrary();
 
-        initializeLoggerSettings(mPublicClientConfiguration.getLoggerConfiguration());
+        startDeferredInitialization();
 
-        initializeTokenSharingLibrary();
+        mPublicClientConfiguration.getStartupTrace().record(StartupTrace.INITIALIZE_APPLICATION, start);
+        Logger.info(methodTag, "Create new public client application.");
+    }
+
+    /**
+     * Application setup that does not depend on the device mode, so that it can run while the
+     * broker is queried. Does nothing if it has already been done for this configuration.
+     */
+    private static void prepareApplication(@NonNull final PublicClientApplicationConfiguration configuration)
+            throws MsalClientException {
+        if (configuration.isApplicationPrepared()) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final Context context = configuration.getAppContext();
 
-        mPublicClientConfiguration.checkIntentFilterAddedToAppManifestForBrokerFlow();
+        AzureActiveDirectory.setEnvironment(configuration.getEnvironment());
+        Authority.addKnownAuthorities(configuration.getAuthorities());
+        prefetchTenantAliases(context, configuration.getAuthorities());
+
+        initializeLoggerSettings(configuration.getLoggerConfiguration());
+
+        configuration.checkIntentFilterAddedToAppManifestForBrokerFlow();
 
         // Since network request is sent from the sdk, if calling app doesn't declare the internet
         // permission in the manifest, we cannot make the network call.
-        checkInternetPermission(mPublicClientConfiguration);
+        checkInternetPermission(configuration);
 
-        // Init HTTP cache
-        HttpCache.initialize(context.getCacheDir());
+        configuration.setApplicationPrepared(true);
+        configuration.getStartupTrace().record(StartupTrace.PREPARE_APPLICATION, start);
+    }
 
-        Logger.info(methodTag, "Create new public client application.");
+    /**
+     * Sets up telemetry and the HTTP cache in the background. Neither is needed to create the
+     * application; requests wait for them in {@link #awaitDeferredInitialization()}.
+     */
+    private void startDeferredInitialization() {
+        final Context context = mPublicClientConfiguration.getAppContext();
+        final Runnable initialization = new Runnable() {
+            @Override
+            public void run() {
+                final long start = System.nanoTime();
+                try {
+                    setupTelemetry(context, mPublicClientConfiguration);
+
+                    // Init HTTP cache
+                    HttpCache.initialize(context.getCacheDir());
+                } finally {
+                    mPublicClientConfiguration.getStartupTrace().record(StartupTrace.DEFERRED_INITIALIZATION, start);
+                    mDeferredInitialization.countDown();
+                }
+            }
+        };
+
+        try {
+            mBackgroundExecutor.execute(initialization);
+        } catch (final MsalClientException e) {
+            initialization.run();
+        }
+    }
+
+    /**
+     * Blocks until {@link #startDeferredInitialization()} has finished, so that a request's
+     * telemetry and HTTP caching are in place. Returns after a bounded wait regardless.
+     */
+    protected void awaitDeferredInitialization() {
+        final String methodTag = TAG + ":awaitDeferredInitialization";
+        try {
+            if (!mDeferredInitialization.await(DEFERRED_INITIALIZATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                Logger.warn(methodTag, "Deferred initialization has not finished, continuing without it.");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the time spent in each phase of creating this application.
+     */
+    @NonNull
+    public StartupTrace getStartupTrace() {
+        return mPublicClientConfiguration.getStartupTrace();
+    }
+
+    /**
+     * Starts resolving the named tenants (e.g. contoso.onmicrosoft.com) of the configured
+     * authorities in the background, so that the first token request for them does not wait on
+     * the OpenID provider metadata.
+     */
+    private static void prefetchTenantAliases(@NonNull final Context context,
+                                              @Nullable final List<Authority> authorities) {
+        if (authorities == null) {
+            return;
+        }
+
+        for (final Authority authority : authorities) {
+            if (!(authority instanceof AzureActiveDirectoryAuthority)) {
+                continue;
+            }
+
+            final AzureActiveDirectoryAuthority aadAuthority = (AzureActiveDirectoryAuthority) authority;
+            final String tenantId = aadAuthority.getAudience().getTenantId();
+            if (!isUuid(tenantId) && !isHomeTenantAlias(tenantId)) {
+                TenantAliasCache.getInstance(context).prefetch(aadAuthority);
+            }
+        }
     }
 
     protected static void initializeLoggerSettings(@Nullable final LoggerConfiguration loggerConfig) {
@@ -1417,7 +1692,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     }
 
     private void validateBrokerNotInUse() throws MsalClientException {
-        if (new MSALControllerFactory(mPublicClientConfiguration).brokerEligibleAndInstalled()) {
+        if (mControllerFactoryCache.get().brokerEligibleAndInstalled()) {
             throw new MsalClientException(
                     "Cannot perform this action - broker is enabled."
             );
@@ -1485,7 +1760,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
 
         final GetPreferredAuthMethodFromAuthenticator command = new GetPreferredAuthMethodFromAuthenticator(
                 params,
-                new MSALControllerFactory(mPublicClientConfiguration,
+                mControllerFactoryCache.get(
                         CommandParametersAdapter.getRequestAuthority(mPublicClientConfiguration)),
                 new CommandCallback<PreferredAuthMethod, BaseException>() {
                     @Override
@@ -1633,7 +1908,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
 
         return new GenerateShrCommand(
                 cmdParams,
-                new MSALControllerFactory(mPublicClientConfiguration),
+                mControllerFactoryCache.get(),
                 cmdCallback,
                 publicApiId
         );
@@ -1782,16 +2057,158 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         acquireTokenInternal(acquireTokenParameters, PublicApiId.PCA_ACQUIRE_TOKEN_WITH_PARAMETERS);
     }
 
+    @Override
+    public void prewarmInteractiveRequest() {
+        final String methodTag = TAG + ":prewarmInteractiveRequest";
+        if (mPublicClientConfiguration.getAuthorizationAgent() == AuthorizationAgent.WEBVIEW) {
+            Logger.verbose(methodTag, "Interactive requests use the embedded WebView, nothing to prewarm.");
+            return;
+        }
+
+        final Context context = mPublicClientConfiguration.getAppContext();
+        try {
+            mBackgroundExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    // Same selection as the interactive request, so the warmed browser is the one it opens.
+                    final Browser browser;
+                    try {
+                        browser = BrowserSelector.select(
+                                context,
+                                mPublicClientConfiguration.getBrowserSafeList(),
+                                mPublicClientConfiguration.getPreferredBrowser()
+                        );
+                    } catch (final ClientException e) {
+                        Logger.info(methodTag, "No browser selected, skipping prewarm: " + e.getErrorCode());
+                        return;
+                    }
+
+                    if (!browser.isCustomTabsServiceSupported()) {
+                        Logger.info(methodTag, "Selected browser does not support Custom Tabs, skipping prewarm.");
+                        return;
+                    }
+
+                    CustomTabsPrewarmer.getInstance().prewarm(context, browser.getPackageName());
+                }
+            });
+        } catch (final MsalClientException e) {
+            Logger.warn(methodTag, "Skipping prewarm: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void registerForProactiveRefresh(@NonNull final IAccount account,
+                                            @NonNull final List<String> scopes,
+                                            @Nullable final String authority) {
+        validateNonNullArgument(account, NONNULL_CONSTANTS.ACCOUNT);
+        validateNonNullArgument(scopes, NONNULL_CONSTANTS.SCOPES);
+
+        getTokenRefreshScheduler().register(
+                account,
+                TextUtils.isEmpty(authority) ? getDefaultAuthorityUrl() : authority,
+                ScopeSet.of(scopes)
+        );
+    }
+
+    @Override
+    public void unregisterFromProactiveRefresh(@NonNull final IAccount account) {
+        validateNonNullArgument(account, NONNULL_CONSTANTS.ACCOUNT);
+
+        final TokenRefreshScheduler scheduler = mTokenRefreshScheduler;
+        if (scheduler != null) {
+            scheduler.unregister(account);
+        }
+    }
+
+    @NonNull
+    private TokenRefreshScheduler getTokenRefreshScheduler() {
+        TokenRefreshScheduler scheduler = mTokenRefreshScheduler;
+        if (scheduler == null) {
+            synchronized (this) {
+                scheduler = mTokenRefreshScheduler;
+                if (scheduler == null) {
+                    scheduler = TokenRefreshScheduler.create(
+                            mPublicClientConfiguration.getAppContext(),
+                            new SilentTokenRefresher(this)
+                    );
+                    mTokenRefreshScheduler = scheduler;
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    /**
+     * Replaces the proactive refresh scheduler, e.g. with one driven by a fake clock.
+     */
+    @VisibleForTesting
+    void setTokenRefreshScheduler(@NonNull final TokenRefreshScheduler scheduler) {
+        mTokenRefreshScheduler = scheduler;
+    }
+
+    /**
+     * Tells the proactive refresh scheduler, if there is one, about a newly returned token so that
+     * its next refresh follows the token's refresh_on time.
+     */
+    private void notifyTokenRefreshScheduler(@NonNull final ILocalAuthenticationResult localAuthenticationResult,
+                                             @NonNull final TokenParameters requestParameters,
+                                             @NonNull final AuthenticationResult authenticationResult) {
+        final TokenRefreshScheduler scheduler = mTokenRefreshScheduler;
+        final String accountId = authenticationResult.getAccountId();
+        if (scheduler == null || TextUtils.isEmpty(accountId)) {
+            return;
+        }
+
+        scheduler.onTokenIssued(
+                accountId,
+                TextUtils.isEmpty(requestParameters.getAuthority())
+                        ? getDefaultAuthorityUrl() : requestParameters.getAuthority(),
+                requestParameters.getScopeSet(),
+                authenticationResult.getExpiresOnMillis(),
+                getRefreshOnMillis(localAuthenticationResult)
+        );
+    }
+
+    /**
+     * @return the refresh_on time of the returned access token in milliseconds, or null if the
+     * server did not send refresh_in.
+     */
+    @Nullable
+    private static Long getRefreshOnMillis(@NonNull final ILocalAuthenticationResult localAuthenticationResult) {
+        final String methodTag = TAG + ":getRefreshOnMillis";
+        if (localAuthenticationResult.getAccessTokenRecord() == null) {
+            return null;
+        }
+
+        final String refreshOn = localAuthenticationResult.getAccessTokenRecord().getRefreshOn();
+        if (TextUtils.isEmpty(refreshOn)) {
+            return null;
+        }
+
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(refreshOn));
+        } catch (final NumberFormatException e) {
+            Logger.warn(methodTag, "Ignoring malformed refresh_on: " + refreshOn);
+            return null;
+        }
+    }
+
     void acquireTokenInternal(@NonNull final AcquireTokenParameters acquireTokenParameters, @NonNull final String publicApiId) {
         // In order to support use of named tenants (such as contoso.onmicrosoft.com), we need
         // to be able to query OpenId Provider Configuration Metadata - for this reason, we will
         // build-up the acquireTokenOperationParams on a background thread.
-        sBackgroundExecutor.submit(OtelContextExtension.wrap(new Runnable() {
+        final Executor callbackExecutor = getCallbackExecutor(acquireTokenParameters);
+        final AuthenticationCallback authenticationCallback = CallbackExecutorAdapter.wrap(
+                acquireTokenParameters.getCallback(),
+                callbackExecutor
+        );
+
+        submitToBackground(new Runnable() {
             @Override
             public void run() {
                 final CommandCallback localAuthenticationCallback =
                         getCommandCallback(
-                                acquireTokenParameters.getCallback(),
+                                authenticationCallback,
                                 acquireTokenParameters
                         );
                 try {
@@ -1806,25 +2223,28 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
 
                     final InteractiveTokenCommandParameters params = CommandParametersAdapter.
                             createInteractiveTokenCommandParameters(
-                                    mPublicClientConfiguration,
+                                    getCommandParametersTemplate(),
                                     mPublicClientConfiguration.getOAuth2TokenCache(),
                                     acquireTokenParameters
                             );
 
                     final InteractiveTokenCommand command = new InteractiveTokenCommand(
                             params,
-                            new MSALControllerFactory(mPublicClientConfiguration, params.getAuthority()),
+                            mControllerFactoryCache.get(params.getAuthority()),
                             localAuthenticationCallback,
                             publicApiId
                     );
 
+                    MsalMetrics.count(MsalCounter.INTERACTIVE_LAUNCH);
+                    // The browser launch binds its own connection to the browser warmed up by
+                    // prewarmInteractiveRequest(), which no longer needs to hold one.
+                    CustomTabsPrewarmer.getInstance().release();
                     CommandDispatcher.beginInteractive(command);
                 } catch (final Exception exception) {
                     // convert exception to BaseException
                     final BaseException baseException = ExceptionAdapter.baseExceptionFromException(exception);
-                    // If there is an Exception, post it to the main thread...
-                    final Handler handler = new Handler(Looper.getMainLooper());
-                    handler.post(new Runnable() {
+                    // If there is an Exception, post it to the callback thread...
+                    postToCallbackThread(callbackExecutor, new Runnable() {
                         @Override
                         public void run() {
                             localAuthenticationCallback.onError(baseException);
@@ -1832,7 +2252,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                     });
                 }
             }
-        }));
+        }, authenticationCallback, callbackExecutor);
     }
 
     protected AcquireTokenSilentParameters buildAcquireTokenSilentParameters(@NonNull final String[] scopes,
@@ -1866,46 +2286,132 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     void acquireTokenSilentAsyncInternal(
             @NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters,
             @NonNull final String publicApiId) {
-        sBackgroundExecutor.submit(OtelContextExtension.wrap(new Runnable() {
+        acquireTokenSilentAsyncInternal(acquireTokenSilentParameters, publicApiId, null);
+    }
+
+    /**
+     * @param resolvedAccountRecord the account record already selected for this request's account
+     *                              and authority, or null to select it as part of the request.
+     */
+    void acquireTokenSilentAsyncInternal(
+            @NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters,
+            @NonNull final String publicApiId,
+            @Nullable final AccountRecord resolvedAccountRecord) {
+        final RequestTimer timer = new RequestTimer(publicApiId);
+        final Executor callbackExecutor = getCallbackExecutor(acquireTokenSilentParameters);
+        final CancellationToken requestToken = acquireTokenSilentParameters.getCancellationToken() != null
+                ? acquireTokenSilentParameters.getCancellationToken()
+                : new CancellationToken();
+        final SilentAuthenticationCallback callerCallback = SilentRequestDeadline.start(
+                timer.reportTimings(acquireTokenSilentParameters.getCallback()),
+                acquireTokenSilentParameters.getDeadlineMillis(),
+                requestToken,
+                getDeliveryExecutor(callbackExecutor)
+        );
+        final SilentAuthenticationCallback deliveryCallback = timer.onResultReady(
+                CallbackExecutorAdapter.wrap(
+                        unlessCancelled(callerCallback, requestToken),
+                        callbackExecutor
+                )
+        );
+
+        if (tryAcquireTokenFromMemoryCache(acquireTokenSilentParameters, deliveryCallback, timer)) {
+            return;
+        }
+
+        // A coalesced request runs until every caller waiting on it has cancelled.
+        final CancellationToken cancellationToken;
+        final SilentAuthenticationCallback authenticationCallback;
+        if (mPublicClientConfiguration.isSilentRequestCoalescingEnabled() && deliveryCallback != null) {
+            cancellationToken = new CancellationToken();
+            authenticationCallback = mSilentRequestCoalescer.join(
+                    acquireTokenSilentParameters,
+                    deliveryCallback,
+                    getDefaultAuthorityUrl(),
+                    requestToken,
+                    cancellationToken
+            );
+            if (authenticationCallback == null) {
+                // Attached to an identical in-flight request, or already answered.
+                return;
+            }
+        } else {
+            cancellationToken = requestToken;
+            authenticationCallback = deliveryCallback;
+        }
+
+        timer.start(RequestTimings.Phase.QUEUE_WAIT);
+        submitToBackground(new Runnable() {
             @Override
             public void run() {
-                final CommandCallback callback = getCommandCallback(
-                        acquireTokenSilentParameters.getCallback(),
+                timer.end(RequestTimings.Phase.QUEUE_WAIT);
+                final CommandCallback callback = timer.timeCommand(getCommandCallback(
+                        authenticationCallback,
                         acquireTokenSilentParameters
-                );
+                ));
 
                 try {
+                    throwIfCancelled(cancellationToken);
                     validateAcquireTokenSilentParameters(acquireTokenSilentParameters);
 
+                    timer.start(RequestTimings.Phase.ACCOUNT_SELECTION);
                     acquireTokenSilentParameters.setAccountRecord(
-                            selectAccountRecordForTokenRequest(
+                            resolvedAccountRecord != null
+                                    ? resolvedAccountRecord
+                                    : selectAccountRecordForTokenRequest(
                                     mPublicClientConfiguration,
                                     acquireTokenSilentParameters
                             )
                     );
+                    timer.end(RequestTimings.Phase.ACCOUNT_SELECTION);
 
+                    timer.start(RequestTimings.Phase.COMMAND_PARAMETERS);
                     final SilentTokenCommandParameters params =
                             CommandParametersAdapter.createSilentTokenCommandParameters(
-                                    mPublicClientConfiguration,
+                                    getCommandParametersTemplate(),
                                     mPublicClientConfiguration.getOAuth2TokenCache(),
                                     acquireTokenSilentParameters
                             );
-
-
-                    final SilentTokenCommand silentTokenCommand = new SilentTokenCommand(
-                            params,
-                            new MSALControllerFactory(mPublicClientConfiguration, params.getAuthority()),
-                            callback,
-                            publicApiId
-                    );
-
-                    CommandDispatcher.submitSilent(silentTokenCommand);
+                    timer.end(RequestTimings.Phase.COMMAND_PARAMETERS);
+
+                    timer.start(RequestTimings.Phase.CONTROLLER_SELECTION);
+                    final MSALControllerFactory controllerFactory = mControllerFactoryCache.get(params.getAuthority());
+                    timer.end(RequestTimings.Phase.CONTROLLER_SELECTION);
+
+                    throwIfCancelled(cancellationToken);
+
+                    timer.start(RequestTimings.Phase.TOKEN_REQUEST);
+                    // Hand the command off rather than wait on it here, so no background thread
+                    // is held for the network call.
+                    if (callbackExecutor == null) {
+                        CommandDispatcher.submitSilent(createSilentTokenCommand(
+                                params,
+                                controllerFactory,
+                                callback,
+                                publicApiId,
+                                cancellationToken
+                        ));
+                    } else {
+                        // The dispatcher would report to the main thread. Take the result from
+                        // the future as the command completes instead, so it goes straight to the
+                        // caller's executor.
+                        deliverWhenComplete(
+                                CommandDispatcher.submitSilentReturningFuture(createSilentTokenCommand(
+                                        params,
+                                        controllerFactory,
+                                        getNoOpCommandCallback(),
+                                        publicApiId,
+                                        cancellationToken
+                                )),
+                                callback
+                        );
+                    }
                 } catch (final Exception exception) {
                     // convert exception to BaseException
                     final BaseException baseException = ExceptionAdapter.baseExceptionFromException(exception);
 
-                    // There was an error, shuttle it back to the main thread...
-                    new Handler(Looper.getMainLooper()).post(new Runnable() {
+                    // There was an error, shuttle it back to the callback thread...
+                    postToCallbackThread(callbackExecutor, new Runnable() {
                         @Override
                         public void run() {
                             callback.onError(baseException);
@@ -1913,9 +2419,270 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                     });
                 }
             }
-        }));
+        }, authenticationCallback, callbackExecutor);
+    }
+
+    /**
+     * Creates the command for a silent request, one that gives up while still queued in the
+     * dispatcher if the request is cancellable.
+     */
+    @NonNull
+    private SilentTokenCommand createSilentTokenCommand(@NonNull final SilentTokenCommandParameters params,
+                                                       @NonNull final MSALControllerFactory controllerFactory,
+                                                       @NonNull final CommandCallback callback,
+                                                       @NonNull final String publicApiId,
+                                                       @Nullable final CancellationToken cancellationToken) {
+        if (cancellationToken == null) {
+            return new SilentTokenCommand(
+                    params,
+                    controllerFactory,
+                    callback,
+                    publicApiId
+            );
+        }
+
+        return new CancellableSilentTokenCommand(
+                params,
+                controllerFactory,
+                callback,
+                publicApiId,
+                cancellationToken
+        );
+    }
+
+    static boolean isCancelled(@Nullable final CancellationToken cancellationToken) {
+        return cancellationToken != null && cancellationToken.isCancelled();
+    }
+
+    private static void throwIfCancelled(@Nullable final CancellationToken cancellationToken)
+            throws ClientException {
+        if (cancellationToken != null) {
+            cancellationToken.throwIfCancelled();
+        }
+    }
+
+    /**
+     * @return a callback that forwards results to the given one until the request is cancelled.
+     */
+    @Nullable
+    static SilentAuthenticationCallback unlessCancelled(@Nullable final SilentAuthenticationCallback callback,
+                                                        @Nullable final CancellationToken cancellationToken) {
+        if (callback == null || cancellationToken == null) {
+            return callback;
+        }
+
+        return new SilentAuthenticationCallback() {
+            @Override
+            public void onSuccess(final IAuthenticationResult authenticationResult) {
+                if (!cancellationToken.isCancelled()) {
+                    callback.onSuccess(authenticationResult);
+                }
+            }
+
+            @Override
+            public void onError(final MsalException exception) {
+                if (!cancellationToken.isCancelled()) {
+                    callback.onError(exception);
+                }
+            }
+        };
+    }
+
+    /**
+     * Runs the task on {@link #mBackgroundExecutor}. If the executor is saturated, the
+     * rejection is delivered to the callback on the callback thread.
+     */
+    private void submitToBackground(@NonNull final Runnable task,
+                                    @Nullable final SilentAuthenticationCallback callback,
+                                    @Nullable final Executor callbackExecutor) {
+        final String methodTag = TAG + ":submitToBackground";
+        final Runnable afterInitialization = new Runnable() {
+            @Override
+            public void run() {
+                awaitDeferredInitialization();
+                task.run();
+            }
+        };
+
+        try {
+            mBackgroundExecutor.execute(OtelContextExtension.wrap(afterInitialization));
+        } catch (final MsalClientException exception) {
+            if (callback == null) {
+                Logger.error(methodTag, "Request rejected with no callback to notify.", exception);
+                return;
+            }
+
+            postToCallbackThread(callbackExecutor, new Runnable() {
+                @Override
+                public void run() {
+                    callback.onError(exception);
+                }
+            });
+        }
+    }
+
+    /**
+     * Gets the executor the result of this request should be delivered on: the request's own,
+     * else the configured default, else null for the main thread.
+     */
+    @Nullable
+    private Executor getCallbackExecutor(@NonNull final TokenParameters tokenParameters) {
+        return tokenParameters.getCallbackExecutor() != null
+                ? tokenParameters.getCallbackExecutor()
+                : mPublicClientConfiguration.getCallbackExecutor();
+    }
+
+    /**
+     * Gets the executor that runs a delivery on the callback thread of a request: its callback
+     * executor, else the main thread.
+     */
+    @NonNull
+    private static Executor getDeliveryExecutor(@Nullable final Executor callbackExecutor) {
+        if (callbackExecutor != null) {
+            return callbackExecutor;
+        }
+
+        return new Executor() {
+            @Override
+            public void execute(@NonNull final Runnable delivery) {
+                new Handler(Looper.getMainLooper()).post(delivery);
+            }
+        };
+    }
+
+    /**
+     * Runs the delivery on the main thread, unless a callback executor is in use, in which case the
+     * callback has been wrapped by {@link CallbackExecutorAdapter} and can be invoked directly.
+     */
+    private static void postToCallbackThread(@Nullable final Executor callbackExecutor,
+                                             @NonNull final Runnable delivery) {
+        if (callbackExecutor == null) {
+            new Handler(Looper.getMainLooper()).post(delivery);
+        } else {
+            delivery.run();
+        }
+    }
+
+    static void deliverCommandResult(@NonNull final CommandResult commandResult,
+                                     @NonNull final CommandCallback callback) {
+        switch (commandResult.getStatus()) {
+            case COMPLETED:
+                callback.onTaskCompleted(commandResult.getResult());
+                break;
+            case ERROR:
+                callback.onError((BaseException) commandResult.getResult());
+                break;
+            case CANCEL:
+                callback.onCancel();
+                break;
+            default:
+                callback.onError(new ClientException(
+                        UNKNOWN_ERROR,
+                        "Unexpected command status: " + commandResult.getStatus()
+                ));
+        }
+    }
+
+    /**
+     * Delivers the result of a command submitted with
+     * {@link CommandDispatcher#submitSilentReturningFuture} to the callback, on the thread that
+     * completes the future, without waiting for it. The command must have been created with
+     * {@link #getNoOpCommandCallback()}.
+     */
+    static void deliverWhenComplete(@NonNull final ResultFuture<CommandResult> future,
+                                    @NonNull final CommandCallback callback) {
+        future.whenComplete(new BiConsumer<CommandResult, Throwable>() {
+            @Override
+            public void accept(final CommandResult commandResult, final Throwable throwable) {
+                if (throwable != null) {
+                    callback.onError(ExceptionAdapter.baseExceptionFromException(new ExecutionException(throwable)));
+                } else {
+                    deliverCommandResult(commandResult, callback);
+                }
+            }
+        });
+    }
+
+    /**
+     * Submits a silent command and delivers its result to the callback on the calling thread, once
+     * the command has finished. The command itself still runs on the dispatcher, which applies
+     * throttling and telemetry, but its result is not posted through the main thread. The command
+     * must have been created with {@link #getNoOpCommandCallback()}.
+     */
+    @WorkerThread
+    static void executeOnCallingThread(@NonNull final BaseCommand<?> command,
+                                       @NonNull final CommandCallback callback) {
+        try {
+            deliverCommandResult(CommandDispatcher.submitSilentReturningFuture(command).get(), callback);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            callback.onError(ExceptionAdapter.baseExceptionFromException(e));
+        } catch (final ExecutionException e) {
+            callback.onError(ExceptionAdapter.baseExceptionFromException(e));
+        }
+    }
+
+    static CommandCallback getNoOpCommandCallback() {
+        return new CommandCallback<ILocalAuthenticationResult, BaseException>() {
+            @Override
+            public void onTaskCompleted(ILocalAuthenticationResult localAuthenticationResult) {
+                // Result is delivered by the caller of submitSilentReturningFuture.
+            }
+
+            @Override
+            public void onError(BaseException exception) {
+                // Result is delivered by the caller of submitSilentReturningFuture.
+            }
+
+            @Override
+            public void onCancel() {
+                // Result is delivered by the caller of submitSilentReturningFuture.
+            }
+        };
+    }
+
+    /**
+     * Serves the request from {@link #mAccessTokenMemoryCache} on the caller's thread, if enabled
+     * and possible. Requests that force a refresh or carry claims always go through the pipeline.
+     *
+     * @return true if the callback was invoked with a cached result.
+     */
+    private boolean tryAcquireTokenFromMemoryCache(
+            @NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters,
+            @Nullable final SilentAuthenticationCallback callback,
+            @NonNull final RequestTimer timer) {
+        final String methodTag = TAG + ":tryAcquireTokenFromMemoryCache";
+
+        if (!mPublicClientConfiguration.isAccessTokenMemoryCacheEnabled()
+                || acquireTokenSilentParameters.getForceRefresh()
+                || acquireTokenSilentParameters.getClaimsRequest() != null
+                || callback == null) {
+            return false;
+        }
+
+        timer.start(RequestTimings.Phase.CACHE_READ);
+        final IAuthenticationResult cachedResult = mAccessTokenMemoryCache.get(
+                acquireTokenSilentParameters,
+                getDefaultAuthorityUrl()
+        );
+        timer.end(RequestTimings.Phase.CACHE_READ);
+
+        if (cachedResult == null) {
+            MsalMetrics.count(MsalCounter.ACCESS_TOKEN_CACHE_MISS);
+            return false;
+        }
+
+        MsalMetrics.count(MsalCounter.ACCESS_TOKEN_CACHE_HIT);
+        Logger.verbose(methodTag, "Returning access token from in-memory cache.");
+        callback.onSuccess(cachedResult);
+        return true;
     }
 
+    @Nullable
+    private String getDefaultAuthorityUrl() {
+        final Authority defaultAuthority = mPublicClientConfiguration.getDefaultAuthority();
+        return defaultAuthority == null ? null : defaultAuthority.getAuthorityURL().toString();
+    }
 
     public static AccountRecord selectAccountRecordForTokenRequest(
             @NonNull final PublicClientApplicationConfiguration pcaConfig,
@@ -1985,11 +2752,9 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
             final boolean isUuid = isUuid(tenantId);
 
             if (!isUuid && !isHomeTenantAlias(tenantId)) {
-                tenantId = ((AzureActiveDirectoryAuthority) authority)
-                        .getAudience()
-                        .getTenantUuidForAlias(
-                                authority.getAuthorityURL().toString()
-                        );
+                tenantId = TenantAliasCache
+                        .getInstance(pcaConfig.getAppContext())
+                        .getTenantId(aadAuthority);
             }
             // Set the tenant id obtained for the accountRecord
             accountRecord.setRealm(tenantId);
@@ -2057,6 +2822,138 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         return acquireTokenSilentInternal(acquireTokenSilentParameters, PublicApiId.PCA_ACQUIRE_TOKEN_SILENT_WITH_PARAMETERS);
     }
 
+    @Override
+    public List<AcquireTokenSilentResult> acquireTokensSilent(
+            @NonNull final List<AcquireTokenSilentParameters> acquireTokenSilentParameters)
+            throws InterruptedException, MsalException {
+        return acquireTokensSilentInternal(acquireTokenSilentParameters, PublicApiId.PCA_ACQUIRE_TOKEN_SILENT_WITH_PARAMETERS);
+    }
+
+    List<AcquireTokenSilentResult> acquireTokensSilentInternal(
+            @NonNull final List<AcquireTokenSilentParameters> acquireTokenSilentParametersList,
+            @NonNull final String publicApiId)
+            throws InterruptedException, MsalException {
+        final String methodTag = TAG + ":acquireTokensSilentInternal";
+
+        throwOnMainThread("acquireTokensSilent");
+        validateNonNullArgument(acquireTokenSilentParametersList, NONNULL_CONSTANTS.PARAMETERS);
+
+        for (final AcquireTokenSilentParameters parameters : acquireTokenSilentParametersList) {
+            if (parameters.getCallback() != null) {
+                throw new IllegalArgumentException("Do not provide callback for synchronous methods");
+            }
+        }
+
+        // Requests for the same account and authority resolve to the same account record, so
+        // select it once per pair rather than once per request. Identical requests share one
+        // execution.
+        final Map<String, AccountRecord> resolvedAccountRecords = new HashMap<>();
+        final Map<String, ResultFuture<AsyncResult<IAuthenticationResult>>> executions = new HashMap<>();
+        final List<ResultFuture<AsyncResult<IAuthenticationResult>>> futures =
+                new ArrayList<>(acquireTokenSilentParametersList.size());
+
+        for (final AcquireTokenSilentParameters callerParameters : acquireTokenSilentParametersList) {
+            final String executionKey = AccessTokenMemoryCache.createKey(
+                    callerParameters,
+                    getDefaultAuthorityUrl(),
+                    null
+            );
+            final String requestKey = executionKey == null
+                    ? null
+                    : executionKey + "|" + callerParameters.getForceRefresh();
+            if (requestKey != null && executions.containsKey(requestKey)) {
+                futures.add(executions.get(requestKey));
+                continue;
+            }
+
+            final ResultFuture<AsyncResult<IAuthenticationResult>> future = new ResultFuture<>();
+            futures.add(future);
+            if (requestKey != null) {
+                executions.put(requestKey, future);
+            }
+
+            // The request is run on a copy, so the caller's parameters are left as they were and
+            // can be submitted again.
+            final AcquireTokenSilentParameters parameters = new AcquireTokenSilentParameters(callerParameters);
+            parameters.setCallback(new SilentAuthenticationCallback() {
+                @Override
+                public void onSuccess(IAuthenticationResult authenticationResult) {
+                    future.setResult(new AsyncResult<>(authenticationResult, null));
+                }
+
+                @Override
+                public void onError(MsalException exception) {
+                    future.setResult(new AsyncResult<IAuthenticationResult>(null, exception));
+                }
+            });
+
+            final AccountRecord accountRecord;
+            try {
+                accountRecord = resolveAccountRecordOnce(parameters, resolvedAccountRecords);
+            } catch (final Exception exception) {
+                Logger.warn(methodTag, "Unable to select the account for a batched request.");
+                future.setResult(new AsyncResult<IAuthenticationResult>(
+                        null,
+                        msalExceptionFromBaseException(ExceptionAdapter.baseExceptionFromException(exception))
+                ));
+                continue;
+            }
+
+            acquireTokenSilentAsyncInternal(parameters, publicApiId, accountRecord);
+        }
+
+        final List<AcquireTokenSilentResult> results = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            final AsyncResult<IAuthenticationResult> result;
+            try {
+                result = futures.get(i).get();
+            } catch (final ExecutionException e) {
+                // Shouldn't be thrown.
+                throw new MsalClientException(
+                        UNKNOWN_ERROR,
+                        "Unexpected error while acquiring tokens.",
+                        e
+                );
+            }
+
+            results.add(new AcquireTokenSilentResult(
+                    acquireTokenSilentParametersList.get(i),
+                    result.getResult(),
+                    result.getException()
+            ));
+        }
+
+        return results;
+    }
+
+    /**
+     * Selects the account record for the request, reusing the one already selected for the same
+     * account and authority.
+     */
+    @Nullable
+    private AccountRecord resolveAccountRecordOnce(
+            @NonNull final AcquireTokenSilentParameters parameters,
+            @NonNull final Map<String, AccountRecord> resolvedAccountRecords)
+            throws ServiceException, ClientException {
+        if (parameters.getAccount() == null) {
+            return null;
+        }
+
+        if (TextUtils.isEmpty(parameters.getAuthority())) {
+            parameters.setAuthority(getDefaultAuthorityUrl());
+        }
+
+        final String key = parameters.getAccount().getId()
+                + "|" + String.valueOf(parameters.getAuthority()).toLowerCase(Locale.ROOT);
+        if (resolvedAccountRecords.containsKey(key)) {
+            return resolvedAccountRecords.get(key);
+        }
+
+        final AccountRecord accountRecord = selectAccountRecordForTokenRequest(mPublicClientConfiguration, parameters);
+        resolvedAccountRecords.put(key, accountRecord);
+        return accountRecord;
+    }
+
     IAuthenticationResult acquireTokenSilentInternal(
             @NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters,
             @NonNull final String publicApiId)
@@ -2080,7 +2977,13 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
             }
         });
 
-        acquireTokenSilentAsyncInternal(acquireTokenSilentParameters, publicApiId);
+        // A deadline needs a thread other than the calling one to run the request on.
+        if (mPublicClientConfiguration.isSyncCallsOnCallingThread()
+                && acquireTokenSilentParameters.getDeadlineMillis() <= 0) {
+            acquireTokenSilentOnCallingThread(acquireTokenSilentParameters, publicApiId);
+        } else {
+            acquireTokenSilentAsyncInternal(acquireTokenSilentParameters, publicApiId);
+        }
 
         try {
             AsyncResult<IAuthenticationResult> result = future.get();
@@ -2137,7 +3040,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 final DeviceCodeFlowCommandCallback deviceCodeFlowCommandCallback = getDeviceCodeFlowCommandCallback(callback);
                 final DeviceCodeFlowCommand deviceCodeFlowCommand = new DeviceCodeFlowCommand(
                         commandParameters,
-                        new MSALControllerFactory(mPublicClientConfiguration),
+                        mControllerFactoryCache.get(),
                         deviceCodeFlowCommandCallback,
                         PublicApiId.DEVICE_CODE_FLOW_WITH_CLAIMS_AND_CALLBACK
                 );
@@ -2326,8 +3229,8 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
 
         // Check if any of the requested scopes are declined by the server, if yes throw a MsalDeclinedScope exception
         final List<String> declinedScopes = AuthenticationResultAdapter.getDeclinedScopes(
-                Arrays.asList(localAuthenticationResult.getScope()),
-                requestParameters.getScopes()
+                ScopeSet.of(localAuthenticationResult.getScope()),
+                requestParameters.getScopeSet()
         );
 
         if (!declinedScopes.isEmpty()) {
@@ -2339,11 +3242,48 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                     );
             authenticationCallback.onError(declinedScopeException);
         } else {
-            IAuthenticationResult authenticationResult = AuthenticationResultAdapter.adapt(localAuthenticationResult);
+            // The account is built from the result only if the app or the account index asks for
+            // it, so the bookkeeping below works off the account record and the raw expiry.
+            final AuthenticationResult authenticationResult =
+                    AuthenticationResultAdapter.adaptToAuthenticationResult(localAuthenticationResult);
+            final String accountId = authenticationResult.getAccountId();
+            final boolean newAccount = !TextUtils.isEmpty(accountId)
+                    && mAccountIndex.putPending(accountId, authenticationResult);
+            if (mPublicClientConfiguration.isAccessTokenMemoryCacheEnabled()
+                    && requestParameters.getClaimsRequest() == null) {
+                mAccessTokenMemoryCache.put(
+                        requestParameters,
+                        getDefaultAuthorityUrl(),
+                        authenticationResult,
+                        accountId,
+                        authenticationResult.getExpiresOnMillis()
+                );
+            }
+            notifyTokenRefreshScheduler(localAuthenticationResult, requestParameters, authenticationResult);
+            if (newAccount) {
+                notifyAccountsChanged();
+            }
             authenticationCallback.onSuccess(authenticationResult);
         }
     }
 
+    void addAccountChangeListener(@NonNull final Runnable listener) {
+        mAccountChangeListeners.add(listener);
+    }
+
+    void removeAccountChangeListener(@NonNull final Runnable listener) {
+        mAccountChangeListeners.remove(listener);
+    }
+
+    /**
+     * Tells the account change listeners that the accounts known to this instance may have changed.
+     */
+    protected void notifyAccountsChanged() {
+        for (final Runnable listener : mAccountChangeListeners) {
+            listener.run();
+        }
+    }
+
     private OAuth2TokenCache<?, ?, ?> getOAuth2TokenCache() {
         return MsalOAuth2TokenCache.create(AndroidPlatformComponentsFactory.createFromContext(mPublicClientConfiguration.getAppContext()));
     }
@@ -2478,7 +3418,11 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 }
         );
 
-        acquireTokenSilentAsyncInternal(acquireTokenSilentParameters, publicApiId);
+        if (mPublicClientConfiguration.isSyncCallsOnCallingThread()) {
+            acquireTokenSilentOnCallingThread(acquireTokenSilentParameters, publicApiId);
+        } else {
+            acquireTokenSilentAsyncInternal(acquireTokenSilentParameters, publicApiId);
+        }
 
         try {
             final AsyncResult<IAuthenticationResult> result = future.get();
@@ -2497,6 +3441,88 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         }
     }
 
+    /**
+     * Runs a silent request for a blocking call. The request is prepared on the calling thread and
+     * its command runs on the dispatcher, while the calling thread waits for the command to finish.
+     * The result is handed to the request's callback on the calling thread before this returns,
+     * without a hop through the main thread, unless the request joined an identical one that is
+     * already in flight.
+     */
+    @WorkerThread
+    private void acquireTokenSilentOnCallingThread(
+            @NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters,
+            @NonNull final String publicApiId) {
+        final RequestTimer timer = new RequestTimer(publicApiId);
+        final SilentAuthenticationCallback deliveryCallback =
+                timer.onResultReady(timer.reportTimings(acquireTokenSilentParameters.getCallback()));
+        if (tryAcquireTokenFromMemoryCache(acquireTokenSilentParameters, deliveryCallback, timer)) {
+            return;
+        }
+
+        final SilentAuthenticationCallback authenticationCallback;
+        if (mPublicClientConfiguration.isSilentRequestCoalescingEnabled()) {
+            authenticationCallback = mSilentRequestCoalescer.join(
+                    acquireTokenSilentParameters,
+                    deliveryCallback,
+                    getDefaultAuthorityUrl()
+            );
+            if (authenticationCallback == null) {
+                // Attached to an identical in-flight request, or already answered.
+                return;
+            }
+        } else {
+            authenticationCallback = deliveryCallback;
+        }
+
+        timer.start(RequestTimings.Phase.QUEUE_WAIT);
+        awaitDeferredInitialization();
+        timer.end(RequestTimings.Phase.QUEUE_WAIT);
+
+        final CommandCallback callback = timer.timeCommand(getCommandCallback(
+                authenticationCallback,
+                acquireTokenSilentParameters
+        ));
+
+        try {
+            validateAcquireTokenSilentParameters(acquireTokenSilentParameters);
+
+            timer.start(RequestTimings.Phase.ACCOUNT_SELECTION);
+            acquireTokenSilentParameters.setAccountRecord(
+                    selectAccountRecordForTokenRequest(
+                            mPublicClientConfiguration,
+                            acquireTokenSilentParameters
+                    )
+            );
+            timer.end(RequestTimings.Phase.ACCOUNT_SELECTION);
+
+            timer.start(RequestTimings.Phase.COMMAND_PARAMETERS);
+            final SilentTokenCommandParameters params =
+                    CommandParametersAdapter.createSilentTokenCommandParameters(
+                            getCommandParametersTemplate(),
+                            mPublicClientConfiguration.getOAuth2TokenCache(),
+                            acquireTokenSilentParameters
+                    );
+            timer.end(RequestTimings.Phase.COMMAND_PARAMETERS);
+
+            timer.start(RequestTimings.Phase.CONTROLLER_SELECTION);
+            final MSALControllerFactory controllerFactory = mControllerFactoryCache.get(params.getAuthority());
+            timer.end(RequestTimings.Phase.CONTROLLER_SELECTION);
+
+            timer.start(RequestTimings.Phase.TOKEN_REQUEST);
+            executeOnCallingThread(
+                    new SilentTokenCommand(
+                            params,
+                            controllerFactory,
+                            getNoOpCommandCallback(),
+                            publicApiId
+                    ),
+                    callback
+            );
+        } catch (final Exception exception) {
+            callback.onError(ExceptionAdapter.baseExceptionFromException(exception));
+        }
+    }
+
     void performMigration(@NonNull final TokenMigrationCallback callback) {
         final Map<String, String> redirects = new HashMap<>();
         redirects.put(
@@ -2535,7 +3561,15 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     }
 
     private static void runOnBackground(@NonNull final Runnable runnable) {
-        new Thread(runnable).start();
+        final String methodTag = TAG + ":runOnBackground";
+        try {
+            MsalExecutor.getDefault().execute(runnable);
+        } catch (final MsalClientException exception) {
+            // Application creation is rare and its listeners have no retry path, so it is never
+            // dropped: fall back to a dedicated thread rather than fail the app's startup.
+            Logger.warn(methodTag, "Background executor saturated, creating application on a dedicated thread.");
+            new Thread(runnable, "msal-create").start();
+        }
     }
 
     private static boolean isAccountHomeTenant(@Nullable final Map<String, ?> claims,
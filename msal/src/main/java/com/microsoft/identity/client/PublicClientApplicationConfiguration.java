@@ -22,6 +22,7 @@
 //  THE SOFTWARE.
 package com.microsoft.identity.client;
 
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.ACCESS_TOKEN_MEMORY_CACHE_ENABLED;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.ACCOUNT_MODE;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.AUTHORITIES;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.AUTHORIZATION_IN_CURRENT_TASK;
@@ -32,12 +33,15 @@ import static com.microsoft.identity.client.PublicClientApplicationConfiguration
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.ENVIRONMENT;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.HANDLE_TASKS_WITH_NULL_TASKAFFINITY;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.HTTP;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.THREADING;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.LOGGING;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.MULTIPLE_CLOUDS_SUPPORTED;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.POWER_OPT_CHECK_FOR_NETWORK_REQUEST_ENABLED;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.PREFERRED_BROWSER;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.REDIRECT_URI;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.REQUIRED_BROKER_PROTOCOL_VERSION;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.SILENT_REQUEST_COALESCING_ENABLED;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.SYNC_CALLS_ON_CALLING_THREAD;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.TELEMETRY;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.USE_BROKER;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.WEBAUTHN_CAPABLE;
@@ -47,7 +51,6 @@ import static com.microsoft.identity.client.exception.MsalClientException.APP_MA
 
 import android.Manifest;
 import android.content.Context;
-import android.content.Intent;
 import android.content.pm.ActivityInfo;
 import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
@@ -58,13 +61,18 @@ import android.text.TextUtils;
 import android.util.Base64;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
 import com.microsoft.identity.client.configuration.AccountMode;
 import com.microsoft.identity.client.configuration.HttpConfiguration;
+import com.microsoft.identity.client.configuration.ThreadingConfiguration;
 import com.microsoft.identity.client.configuration.LoggerConfiguration;
 import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.internal.MsalUtils;
+import com.microsoft.identity.client.internal.controllers.MSALControllerFactoryCache;
 import com.microsoft.identity.common.adal.internal.AuthenticationConstants;
 import com.microsoft.identity.common.adal.internal.AuthenticationSettings;
 import com.microsoft.identity.common.internal.authorities.UnknownAudience;
@@ -82,7 +90,9 @@ import com.microsoft.identity.common.java.ui.BrowserDescriptor;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import javax.crypto.SecretKey;
 
@@ -98,6 +108,7 @@ public class PublicClientApplicationConfiguration {
         static final String AUTHORITIES = "authorities";
         static final String AUTHORIZATION_USER_AGENT = "authorization_user_agent";
         static final String HTTP = "http";
+        static final String THREADING = "threading";
         static final String LOGGING = "logging";
         static final String MULTIPLE_CLOUDS_SUPPORTED = "multiple_clouds_supported";
         static final String USE_BROKER = "broker_redirect_uri_registered";
@@ -114,6 +125,9 @@ public class PublicClientApplicationConfiguration {
         static final String HANDLE_TASKS_WITH_NULL_TASKAFFINITY = "handle_null_taskaffinity";
         static final String AUTHORIZATION_IN_CURRENT_TASK = "authorization_in_current_task";
         static final String WEBAUTHN_CAPABLE = "webauthn_capable";
+        static final String ACCESS_TOKEN_MEMORY_CACHE_ENABLED = "access_token_memory_cache_enabled";
+        static final String SILENT_REQUEST_COALESCING_ENABLED = "silent_request_coalescing_enabled";
+        static final String SYNC_CALLS_ON_CALLING_THREAD = "sync_calls_on_calling_thread";
     }
 
     @SerializedName(CLIENT_ID)
@@ -131,6 +145,12 @@ public class PublicClientApplicationConfiguration {
     @SerializedName(HTTP)
     private HttpConfiguration mHttpConfiguration;
 
+    /**
+     * Sizing of the background executor used to prepare requests.
+     */
+    @SerializedName(THREADING)
+    private ThreadingConfiguration mThreadingConfiguration;
+
     @SerializedName(LOGGING)
     private LoggerConfiguration mLoggerConfiguration;
 
@@ -187,12 +207,57 @@ public class PublicClientApplicationConfiguration {
     @SerializedName(WEBAUTHN_CAPABLE)
     private Boolean webauthnCapable;
 
+    /**
+     * When set to true, access tokens returned to the app are also kept in a process-local, bounded
+     * in-memory cache so that repeated acquireTokenSilent calls can be served without going through
+     * the command pipeline.
+     */
+    @SerializedName(ACCESS_TOKEN_MEMORY_CACHE_ENABLED)
+    private Boolean accessTokenMemoryCacheEnabled;
+
+    /**
+     * When true, identical silent requests issued concurrently share a single execution. On by default.
+     */
+    @SerializedName(SILENT_REQUEST_COALESCING_ENABLED)
+    private Boolean silentRequestCoalescingEnabled;
+
+    /**
+     * When true, the blocking acquireTokenSilent, getAccounts and getAccount calls prepare the
+     * request and receive its result on the calling thread, instead of going through the
+     * background executor and the main thread. Off by default.
+     */
+    @SerializedName(SYNC_CALLS_ON_CALLING_THREAD)
+    private Boolean syncCallsOnCallingThread;
+
     transient private OAuth2TokenCache mOAuth2TokenCache;
 
     transient private Context mAppContext;
 
     transient private boolean mIsSharedDevice = false;
 
+    /**
+     * Executor on which token results are delivered when the request does not supply its own.
+     * When null, results are delivered on the main thread.
+     */
+    transient private Executor mCallbackExecutor;
+
+    /**
+     * Timing of the phases of creating the application that uses this configuration.
+     */
+    transient private StartupTrace mStartupTrace;
+
+    /**
+     * Controller factories of the application that uses this configuration. Created while the
+     * application is being created, so the device mode query uses the same factory and broker
+     * discovery as the application's requests.
+     */
+    transient private MSALControllerFactoryCache mControllerFactoryCache;
+
+    /**
+     * True once the application-wide setup that does not depend on the device mode has been done.
+     */
+    transient private volatile boolean mApplicationPrepared = false;
+
     /**
      * Sets the secret key bytes to use when encrypting/decrypting cache entries.
      * {@link java.security.spec.KeySpec} algorithm is AES.
@@ -268,6 +333,24 @@ public class PublicClientApplicationConfiguration {
         return this.mHttpConfiguration;
     }
 
+    /**
+     * Gets the currently configured {@link ThreadingConfiguration} for the PublicClientApplication.
+     *
+     * @return The ThreadingConfiguration to use.
+     */
+    public ThreadingConfiguration getThreadingConfiguration() {
+        return this.mThreadingConfiguration;
+    }
+
+    /**
+     * Sets the {@link ThreadingConfiguration} for the PublicClientApplication.
+     *
+     * @param threadingConfiguration The ThreadingConfiguration to use.
+     */
+    public void setThreadingConfiguration(final ThreadingConfiguration threadingConfiguration) {
+        this.mThreadingConfiguration = threadingConfiguration;
+    }
+
     /**
      * Gets the currently configured {@link LoggerConfiguration} for the PublicClientApplication.
      *
@@ -430,6 +513,84 @@ public class PublicClientApplicationConfiguration {
         return Boolean.TRUE.equals(webauthnCapable);
     }
 
+    public boolean isAccessTokenMemoryCacheEnabled() {
+        return Boolean.TRUE.equals(accessTokenMemoryCacheEnabled);
+    }
+
+    public void setAccessTokenMemoryCacheEnabled(final Boolean accessTokenMemoryCacheEnabled) {
+        this.accessTokenMemoryCacheEnabled = accessTokenMemoryCacheEnabled;
+    }
+
+    public boolean isSilentRequestCoalescingEnabled() {
+        return !Boolean.FALSE.equals(silentRequestCoalescingEnabled);
+    }
+
+    public void setSilentRequestCoalescingEnabled(final Boolean silentRequestCoalescingEnabled) {
+        this.silentRequestCoalescingEnabled = silentRequestCoalescingEnabled;
+    }
+
+    public boolean isSyncCallsOnCallingThread() {
+        return Boolean.TRUE.equals(syncCallsOnCallingThread);
+    }
+
+    public void setSyncCallsOnCallingThread(final Boolean syncCallsOnCallingThread) {
+        this.syncCallsOnCallingThread = syncCallsOnCallingThread;
+    }
+
+    /**
+     * Gets the default executor for token result callbacks.
+     *
+     * @return The executor, or null if results are delivered on the main thread.
+     */
+    @Nullable
+    public Executor getCallbackExecutor() {
+        return mCallbackExecutor;
+    }
+
+    /**
+     * Sets the default executor for token result callbacks. A request can override it with
+     * {@link TokenParameters.Builder#withCallbackExecutor(Executor)}.
+     *
+     * @param callbackExecutor The executor, or null to deliver results on the main thread.
+     */
+    public void setCallbackExecutor(@Nullable final Executor callbackExecutor) {
+        mCallbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * @return the startup trace of the application created from this configuration.
+     */
+    @NonNull
+    public synchronized StartupTrace getStartupTrace() {
+        if (mStartupTrace == null) {
+            mStartupTrace = new StartupTrace();
+        }
+        return mStartupTrace;
+    }
+
+    synchronized void setStartupTrace(@NonNull final StartupTrace startupTrace) {
+        mStartupTrace = startupTrace;
+    }
+
+    /**
+     * @return the controller factories of the application created from this configuration.
+     */
+    @NonNull
+    synchronized MSALControllerFactoryCache getControllerFactoryCache() {
+        if (mControllerFactoryCache == null) {
+            mControllerFactoryCache = new MSALControllerFactoryCache(this);
+        }
+        return mControllerFactoryCache;
+    }
+
+    boolean isApplicationPrepared() {
+        return mApplicationPrepared;
+    }
+
+    void setApplicationPrepared(final boolean applicationPrepared) {
+        mApplicationPrepared = applicationPrepared;
+    }
+
     public Authority getDefaultAuthority() {
         if (mAuthorities != null) {
             if (mAuthorities.size() > 1) {
@@ -487,6 +648,38 @@ public class PublicClientApplicationConfiguration {
         }
     }
 
+    /**
+     * @return a copy of this configuration's serialized settings, with its own authority and
+     * browser lists and its own nested configurations, so that changes to the copy do not reach
+     * this instance.
+     */
+    @NonNull
+    PublicClientApplicationConfiguration copy() {
+        final PublicClientApplicationConfiguration copy = new PublicClientApplicationConfiguration();
+        copy.mergeConfiguration(this);
+        // mergeConfiguration() treats MULTIPLE as "not set", so carry the mode over explicitly.
+        copy.mAccountMode = mAccountMode;
+        copy.mAuthorities = mAuthorities == null ? null : new ArrayList<>(mAuthorities);
+        copy.mBrowserSafeList = mBrowserSafeList == null ? null : new ArrayList<>(mBrowserSafeList);
+        copy.mHttpConfiguration = deepCopy(mHttpConfiguration, HttpConfiguration.class);
+        copy.mThreadingConfiguration = deepCopy(mThreadingConfiguration, ThreadingConfiguration.class);
+        copy.mLoggerConfiguration = deepCopy(mLoggerConfiguration, LoggerConfiguration.class);
+        copy.mTelemetryConfiguration = deepCopy(mTelemetryConfiguration, TelemetryConfiguration.class);
+        return copy;
+    }
+
+    /**
+     * Copies a nested configuration through its serialized form, which is how it was loaded.
+     */
+    @Nullable
+    private static <T> T deepCopy(@Nullable final T value, @NonNull final Class<T> type) {
+        if (value == null) {
+            return null;
+        }
+        final Gson gson = new Gson();
+        return gson.fromJson(gson.toJson(value), type);
+    }
+
     public void mergeConfiguration(PublicClientApplicationConfiguration config) {
         this.mClientId = config.mClientId == null ? this.mClientId : config.mClientId;
         this.mRedirectUri = config.mRedirectUri == null ? this.mRedirectUri : config.mRedirectUri;
@@ -494,6 +687,7 @@ public class PublicClientApplicationConfiguration {
         this.mAuthorizationAgent = config.mAuthorizationAgent == null ? this.mAuthorizationAgent : config.mAuthorizationAgent;
         this.mEnvironment = config.mEnvironment == null ? this.mEnvironment : config.mEnvironment;
         this.mHttpConfiguration = config.mHttpConfiguration == null ? this.mHttpConfiguration : config.mHttpConfiguration;
+        this.mThreadingConfiguration = config.mThreadingConfiguration == null ? this.mThreadingConfiguration : config.mThreadingConfiguration;
         this.mMultipleCloudsSupported = config.mMultipleCloudsSupported == null ? this.mMultipleCloudsSupported : config.mMultipleCloudsSupported;
         this.mUseBroker = config.mUseBroker == null ? this.mUseBroker : config.mUseBroker;
         this.mTelemetryConfiguration = config.mTelemetryConfiguration == null ? this.mTelemetryConfiguration : config.mTelemetryConfiguration;
@@ -515,6 +709,9 @@ public class PublicClientApplicationConfiguration {
         this.handleNullTaskAffinity = config.handleNullTaskAffinity == null ? this.handleNullTaskAffinity : config.handleNullTaskAffinity;
         this.isAuthorizationInCurrentTask = config.isAuthorizationInCurrentTask == null ? this.isAuthorizationInCurrentTask : config.isAuthorizationInCurrentTask;
         this.webauthnCapable = config.webauthnCapable == null ? this.webauthnCapable : config.webauthnCapable;
+        this.accessTokenMemoryCacheEnabled = config.accessTokenMemoryCacheEnabled == null ? this.accessTokenMemoryCacheEnabled : config.accessTokenMemoryCacheEnabled;
+        this.silentRequestCoalescingEnabled = config.silentRequestCoalescingEnabled == null ? this.silentRequestCoalescingEnabled : config.silentRequestCoalescingEnabled;
+        this.syncCallsOnCallingThread = config.syncCallsOnCallingThread == null ? this.syncCallsOnCallingThread : config.syncCallsOnCallingThread;
     }
 
     public void validateConfiguration() {
@@ -639,22 +836,7 @@ public class PublicClientApplicationConfiguration {
     private static boolean validateCustomTabRedirectActivity(@NonNull final Context context,
                                                              @NonNull final String url) throws MsalClientException {
         final String methodTag = TAG + ":validateCustomTabRedirectActivity";
-        final PackageManager packageManager = context.getPackageManager();
-
-        if (packageManager == null) {
-            return false;
-        }
-
-        final Intent intent = new Intent();
-        intent.setAction(Intent.ACTION_VIEW);
-        intent.addCategory(Intent.CATEGORY_DEFAULT);
-        intent.addCategory(Intent.CATEGORY_BROWSABLE);
-        intent.setDataAndNormalize(Uri.parse(url));
-
-        final List<ResolveInfo> resolveInfoList = packageManager.queryIntentActivities(
-                intent,
-                PackageManager.GET_RESOLVED_FILTER
-        );
+        final List<ResolveInfo> resolveInfoList = MsalUtils.queryRedirectActivities(context, url);
 
         // resolve info list will never be null, if no matching activities are found, empty list will be returned.
         boolean hasActivity = false;
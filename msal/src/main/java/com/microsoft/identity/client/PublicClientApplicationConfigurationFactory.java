@@ -53,12 +53,23 @@ import static com.microsoft.identity.client.internal.MsalUtils.validateNonNullAr
 public class PublicClientApplicationConfigurationFactory {
     private static final String TAG = PublicClientApplicationConfigurationFactory.class.getSimpleName();
 
+    /**
+     * Gson is thread safe, and building it with its type adapters is a noticeable part of loading
+     * a configuration, so a single instance is shared.
+     */
+    private static final Gson CONFIGURATION_GSON = getGsonForLoadingConfiguration();
+
+    /**
+     * The parsed library defaults. Never handed out; callers get a copy.
+     */
+    private static volatile PublicClientApplicationConfiguration sDefaultConfiguration;
+
     /**
      * Initializes a default PublicClientApplicationConfiguration object.
      **/
     @WorkerThread
     public static PublicClientApplicationConfiguration initializeConfiguration(@NonNull final Context context) {
-        return initializeConfigurationInternal(context, null);
+        return initializeConfigurationInternal(context, null, new StartupTrace());
     }
 
     /**
@@ -68,7 +79,11 @@ public class PublicClientApplicationConfigurationFactory {
     @WorkerThread
     public static PublicClientApplicationConfiguration initializeConfiguration(@NonNull final Context context,
                                                                                final int configResourceId) {
-        return initializeConfigurationInternal(context, loadConfiguration(context, configResourceId));
+        final StartupTrace trace = new StartupTrace();
+        final long start = System.nanoTime();
+        final PublicClientApplicationConfiguration developerConfig = loadConfiguration(context, configResourceId);
+        trace.record(StartupTrace.LOAD_DEVELOPER_CONFIGURATION, start);
+        return initializeConfigurationInternal(context, developerConfig, trace);
     }
 
     /**
@@ -79,15 +94,24 @@ public class PublicClientApplicationConfigurationFactory {
     public static PublicClientApplicationConfiguration initializeConfiguration(@NonNull final Context context,
                                                                                @NonNull final File configFile) {
         validateNonNullArgument(configFile, "configFile");
-        return initializeConfigurationInternal(context, loadConfiguration(configFile));
+        final StartupTrace trace = new StartupTrace();
+        final long start = System.nanoTime();
+        final PublicClientApplicationConfiguration developerConfig = loadConfiguration(configFile);
+        trace.record(StartupTrace.LOAD_DEVELOPER_CONFIGURATION, start);
+        return initializeConfigurationInternal(context, developerConfig, trace);
     }
 
     @WorkerThread
     private static PublicClientApplicationConfiguration initializeConfigurationInternal(@NonNull final Context context,
-                                                                                        @Nullable final PublicClientApplicationConfiguration developerConfig) {
+                                                                                        @Nullable final PublicClientApplicationConfiguration developerConfig,
+                                                                                        @NonNull final StartupTrace trace) {
         validateNonNullArgument(context, "context");
 
+        long start = System.nanoTime();
         final PublicClientApplicationConfiguration config = loadDefaultConfiguration(context);
+        trace.record(StartupTrace.LOAD_DEFAULT_CONFIGURATION, start);
+
+        start = System.nanoTime();
         if (developerConfig != null) {
             config.mergeConfiguration(developerConfig);
             config.validateConfiguration();
@@ -96,21 +120,48 @@ public class PublicClientApplicationConfigurationFactory {
         //Initialize internal library configuration
         final LibraryConfiguration libraryConfiguration = LibraryConfiguration.builder().authorizationInCurrentTask((config.authorizationInCurrentTask())).build();
         LibraryConfiguration.intializeLibraryConfiguration(libraryConfiguration);
+        trace.record(StartupTrace.MERGE_CONFIGURATION, start);
 
+        start = System.nanoTime();
         config.setOAuth2TokenCache(MsalOAuth2TokenCache.create(AndroidPlatformComponentsFactory.createFromContext(context)));
+        trace.record(StartupTrace.CREATE_TOKEN_CACHE, start);
+
+        config.setStartupTrace(trace);
         return config;
     }
 
     @WorkerThread
     private static PublicClientApplicationConfiguration loadDefaultConfiguration(@NonNull final Context context) {
-        final String methodTag = TAG + ":loadDefaultConfiguration";
-        Logger.verbose(methodTag, "Loading default configuration");
-        final PublicClientApplicationConfiguration config = loadConfiguration(context, R.raw.msal_default_config);
+        final PublicClientApplicationConfiguration config = getDefaultConfiguration(context);
         config.setAppContext(context);
 
         return config;
     }
 
+    /**
+     * Returns a new configuration holding the library defaults from msal_default_config.
+     * <p>
+     * The defaults are parsed once per process; later calls copy the parsed values without any
+     * JSON parsing or reflection. The file is validated when the library is built.
+     */
+    @WorkerThread
+    public static PublicClientApplicationConfiguration getDefaultConfiguration(@NonNull final Context context) {
+        PublicClientApplicationConfiguration defaults = sDefaultConfiguration;
+        if (defaults == null) {
+            synchronized (PublicClientApplicationConfigurationFactory.class) {
+                defaults = sDefaultConfiguration;
+                if (defaults == null) {
+                    final String methodTag = TAG + ":getDefaultConfiguration";
+                    Logger.verbose(methodTag, "Loading default configuration");
+                    defaults = loadConfiguration(context, R.raw.msal_default_config);
+                    sDefaultConfiguration = defaults;
+                }
+            }
+        }
+
+        return defaults.copy();
+    }
+
     @VisibleForTesting
     @WorkerThread
     public static PublicClientApplicationConfiguration loadConfiguration(@NonNull final Context context,
@@ -164,10 +215,9 @@ public class PublicClientApplicationConfigurationFactory {
         }
 
         final String config = new String(buffer);
-        final Gson gson = getGsonForLoadingConfiguration();
 
         try {
-            return gson.fromJson(config, PublicClientApplicationConfiguration.class);
+            return CONFIGURATION_GSON.fromJson(config, PublicClientApplicationConfiguration.class);
         } catch (final Exception e) {
             if (e instanceof InterruptedException) {
                 Thread.currentThread().interrupt();
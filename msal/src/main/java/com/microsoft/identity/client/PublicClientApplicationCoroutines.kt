@@ -0,0 +1,243 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+@file:JvmName("PublicClientApplicationCoroutines")
+
+package com.microsoft.identity.client
+
+import com.microsoft.identity.client.IMultipleAccountPublicClientApplication.GetAccountCallback
+import com.microsoft.identity.client.IMultipleAccountPublicClientApplication.RemoveAccountCallback
+import com.microsoft.identity.client.IPublicClientApplication.LoadAccountsCallback
+import com.microsoft.identity.client.ISingleAccountPublicClientApplication.CurrentAccountCallback
+import com.microsoft.identity.client.ISingleAccountPublicClientApplication.SignOutCallback
+import com.microsoft.identity.client.exception.MsalException
+import com.microsoft.identity.client.internal.CancellationToken
+import kotlinx.coroutines.CancellableContinuation
+import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.callbackFlow
+import kotlinx.coroutines.flow.conflate
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.suspendCancellableCoroutine
+import java.util.concurrent.Executor
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+/**
+ * Results are handed to the continuation on the thread that produced them; the continuation then
+ * resumes on its own dispatcher.
+ */
+private val DIRECT_EXECUTOR = Executor { command -> command.run() }
+
+/**
+ * Acquire token silently; Kotlin coroutines variant of
+ * [IPublicClientApplication.acquireTokenSilentAsync]. The callback and callback executor of
+ * [parameters] are replaced.
+ *
+ * Cancelling the coroutine cancels the request: if it has not reached the cache or the network
+ * yet it is skipped, and its result is dropped.
+ *
+ * @throws MsalException if the token cannot be acquired silently.
+ */
+suspend fun IPublicClientApplication.awaitAcquireTokenSilent(
+    parameters: AcquireTokenSilentParameters
+): IAuthenticationResult = suspendCancellableCoroutine { continuation ->
+    parameters.setCancellationToken(continuation.cancellationToken())
+    parameters.setCallbackExecutor(DIRECT_EXECUTOR)
+    parameters.setCallback(object : SilentAuthenticationCallback {
+        override fun onSuccess(authenticationResult: IAuthenticationResult) {
+            continuation.resume(authenticationResult)
+        }
+
+        override fun onError(exception: MsalException) {
+            continuation.resumeWithException(exception)
+        }
+    })
+
+    acquireTokenSilentAsync(parameters)
+}
+
+/**
+ * Returns the accounts for which this application has refresh tokens; Kotlin coroutines variant
+ * of [IPublicClientApplication.getAccounts].
+ * Cancelling the coroutine skips the request if it has not been dispatched yet.
+ *
+ * @throws MsalException if the accounts cannot be loaded.
+ */
+suspend fun IMultipleAccountPublicClientApplication.awaitAccounts(): List<IAccount> =
+    suspendCancellableCoroutine { continuation ->
+        val callback = object : LoadAccountsCallback {
+            override fun onTaskCompleted(result: List<IAccount>?) {
+                continuation.resume(result.orEmpty())
+            }
+
+            override fun onError(exception: MsalException) {
+                continuation.resumeWithException(exception)
+            }
+        }
+
+        if (this is MultipleAccountPublicClientApplication) {
+            getAccounts(callback, continuation.cancellationToken())
+        } else {
+            getAccounts(callback)
+        }
+    }
+
+/**
+ * Returns the account matching the home account id, local account id or username, or null;
+ * Kotlin coroutines variant of [IMultipleAccountPublicClientApplication.getAccount].
+ * Cancelling the coroutine skips the request if it has not been dispatched yet.
+ *
+ * @throws MsalException if the accounts cannot be loaded.
+ */
+suspend fun IMultipleAccountPublicClientApplication.awaitAccount(identifier: String): IAccount? =
+    suspendCancellableCoroutine { continuation ->
+        val callback = object : GetAccountCallback {
+            override fun onTaskCompleted(result: IAccount?) {
+                continuation.resume(result)
+            }
+
+            override fun onError(exception: MsalException) {
+                continuation.resumeWithException(exception)
+            }
+        }
+
+        if (this is MultipleAccountPublicClientApplication) {
+            getAccount(identifier, callback, continuation.cancellationToken())
+        } else {
+            getAccount(identifier, callback)
+        }
+    }
+
+/**
+ * Removes the account and its tokens from the cache; Kotlin coroutines variant of
+ * [IMultipleAccountPublicClientApplication.removeAccount]. A removal that has already started
+ * still completes if the coroutine is cancelled.
+ *
+ * @throws MsalException if the account cannot be removed.
+ */
+suspend fun IMultipleAccountPublicClientApplication.awaitRemoveAccount(account: IAccount) {
+    suspendCancellableCoroutine<Unit> { continuation ->
+        val callback = object : RemoveAccountCallback {
+            override fun onRemoved() {
+                continuation.resume(Unit)
+            }
+
+            override fun onError(exception: MsalException) {
+                continuation.resumeWithException(exception)
+            }
+        }
+
+        if (this is MultipleAccountPublicClientApplication) {
+            removeAccount(account, callback, continuation.cancellationToken())
+        } else {
+            removeAccount(account, callback)
+        }
+    }
+}
+
+/**
+ * Returns the signed in account, or null; Kotlin coroutines variant of
+ * [ISingleAccountPublicClientApplication.getCurrentAccountAsync].
+ *
+ * @throws MsalException if the account cannot be loaded.
+ */
+suspend fun ISingleAccountPublicClientApplication.awaitCurrentAccount(): IAccount? =
+    suspendCancellableCoroutine { continuation ->
+        getCurrentAccountAsync(object : CurrentAccountCallback {
+            override fun onAccountLoaded(activeAccount: IAccount?) {
+                continuation.resume(activeAccount)
+            }
+
+            override fun onAccountChanged(priorAccount: IAccount?, currentAccount: IAccount?) {
+                // Followed by onAccountLoaded().
+            }
+
+            override fun onError(exception: MsalException) {
+                continuation.resumeWithException(exception)
+            }
+        })
+    }
+
+/**
+ * Signs the current account out; Kotlin coroutines variant of
+ * [ISingleAccountPublicClientApplication.signOut]. A sign-out that has already started still
+ * completes if the coroutine is cancelled.
+ *
+ * @throws MsalException if there is no signed in account or it cannot be removed.
+ */
+suspend fun ISingleAccountPublicClientApplication.awaitSignOut() {
+    suspendCancellableCoroutine<Unit> { continuation ->
+        signOut(object : SignOutCallback {
+            override fun onSignOut() {
+                continuation.resume(Unit)
+            }
+
+            override fun onError(exception: MsalException) {
+                continuation.resumeWithException(exception)
+            }
+        })
+    }
+}
+
+/**
+ * Emits the accounts of this application when collected, and again whenever this instance signs
+ * an account in or removes one. Only changes are emitted. Changes made by other apps through the
+ * broker are picked up with the next emission.
+ */
+fun IMultipleAccountPublicClientApplication.accountChanges(): Flow<List<IAccount>> =
+    accountChangeSignals(this)
+        .map { awaitAccounts() }
+        .distinctUntilChanged { old, new -> old.map { it.id } == new.map { it.id } }
+
+/**
+ * Emits the signed in account, or null, when collected, and again whenever it changes through
+ * this instance.
+ */
+fun ISingleAccountPublicClientApplication.currentAccountChanges(): Flow<IAccount?> =
+    accountChangeSignals(this)
+        .map { awaitCurrentAccount() }
+        .distinctUntilChanged { old, new -> old?.id == new?.id }
+
+/**
+ * Emits once right away, then once per change of the accounts of [application]. Changes that
+ * happen while the previous one is being handled are merged.
+ */
+private fun accountChangeSignals(application: IPublicClientApplication): Flow<Unit> =
+    callbackFlow {
+        val listener = Runnable { trySend(Unit) }
+        val publicClientApplication = application as? PublicClientApplication
+
+        trySend(Unit)
+        publicClientApplication?.addAccountChangeListener(listener)
+        awaitClose { publicClientApplication?.removeAccountChangeListener(listener) }
+    }.conflate()
+
+/**
+ * @return a token that is cancelled together with this continuation.
+ */
+private fun CancellableContinuation<*>.cancellationToken(): CancellationToken {
+    val cancellationToken = CancellationToken()
+    invokeOnCancellation { cancellationToken.cancel() }
+    return cancellationToken
+}
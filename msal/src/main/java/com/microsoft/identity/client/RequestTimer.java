@@ -0,0 +1,203 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.client.metrics.MsalCounter;
+import com.microsoft.identity.client.metrics.MsalMetrics;
+import com.microsoft.identity.common.java.commands.CommandCallback;
+import com.microsoft.identity.common.java.exception.BaseException;
+import com.microsoft.identity.common.java.result.ILocalAuthenticationResult;
+import com.microsoft.identity.msal.BuildConfig;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+
+/**
+ * Times the phases of one silent request, for {@link RequestTimings}. Each finished phase is also
+ * reported as a span, a child of the span that was current when the request was made, and the
+ * outcome of the request is recorded to {@link MsalMetrics}.
+ * A phase is timed once; starting or ending it again has no effect.
+ */
+final class RequestTimer {
+
+    private static final String TRACER_NAME = "com.microsoft.identity.client";
+    private static final String SPAN_NAME_PREFIX = "msal.silent.";
+
+    private final String mPublicApiId;
+    private final Context mParentContext = Context.current();
+    private final long mStartNanos = System.nanoTime();
+    // Converts System.nanoTime() readings to the epoch timestamps spans are reported with.
+    private final long mEpochOffsetNanos =
+            TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - mStartNanos;
+    private final Map<RequestTimings.Phase, Long> mStartedNanos = new EnumMap<>(RequestTimings.Phase.class);
+    private final Map<RequestTimings.Phase, Long> mDurationsNanos = new EnumMap<>(RequestTimings.Phase.class);
+
+    RequestTimer(@NonNull final String publicApiId) {
+        mPublicApiId = publicApiId;
+    }
+
+    synchronized void start(@NonNull final RequestTimings.Phase phase) {
+        if (!mStartedNanos.containsKey(phase)) {
+            mStartedNanos.put(phase, System.nanoTime());
+        }
+    }
+
+    void end(@NonNull final RequestTimings.Phase phase) {
+        final long endNanos = System.nanoTime();
+        final long startNanos;
+        synchronized (this) {
+            final Long startedNanos = mStartedNanos.get(phase);
+            if (startedNanos == null || mDurationsNanos.containsKey(phase)) {
+                return;
+            }
+            startNanos = startedNanos;
+            mDurationsNanos.put(phase, endNanos - startNanos);
+        }
+
+        reportSpan(phase, startNanos, endNanos);
+    }
+
+    @NonNull
+    synchronized RequestTimings snapshot() {
+        return new RequestTimings(mDurationsNanos, System.nanoTime() - mStartNanos);
+    }
+
+    /**
+     * @return a callback that ends {@link RequestTimings.Phase#TOKEN_REQUEST} when the command
+     * completes, and times the cache write that follows a successful one.
+     */
+    @NonNull
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    CommandCallback timeCommand(@NonNull final CommandCallback callback) {
+        return new CommandCallback<ILocalAuthenticationResult, BaseException>() {
+            @Override
+            public void onTaskCompleted(final ILocalAuthenticationResult localAuthenticationResult) {
+                end(RequestTimings.Phase.TOKEN_REQUEST);
+                if (!localAuthenticationResult.isServicedFromCache()) {
+                    MsalMetrics.count(MsalCounter.TOKEN_REFRESH);
+                }
+                start(RequestTimings.Phase.CACHE_WRITE);
+                callback.onTaskCompleted(localAuthenticationResult);
+            }
+
+            @Override
+            public void onError(final BaseException exception) {
+                end(RequestTimings.Phase.TOKEN_REQUEST);
+                callback.onError(exception);
+            }
+
+            @Override
+            public void onCancel() {
+                end(RequestTimings.Phase.TOKEN_REQUEST);
+                callback.onCancel();
+            }
+        };
+    }
+
+    /**
+     * @return a callback that marks the result as ready, to be invoked on the thread that produced it.
+     */
+    @Nullable
+    SilentAuthenticationCallback onResultReady(@Nullable final SilentAuthenticationCallback callback) {
+        if (callback == null) {
+            return null;
+        }
+
+        return new SilentAuthenticationCallback() {
+            @Override
+            public void onSuccess(final IAuthenticationResult authenticationResult) {
+                resultReady();
+                callback.onSuccess(authenticationResult);
+            }
+
+            @Override
+            public void onError(final MsalException exception) {
+                resultReady();
+                callback.onError(exception);
+            }
+        };
+    }
+
+    /**
+     * @return a callback that reports the timings of the request to the caller's callback, if it
+     * implements {@link RequestTimingsCallback}, to be invoked on the thread of the caller's callback.
+     */
+    @Nullable
+    SilentAuthenticationCallback reportTimings(@Nullable final SilentAuthenticationCallback callback) {
+        if (callback == null) {
+            return null;
+        }
+
+        return new SilentAuthenticationCallback() {
+            @Override
+            public void onSuccess(final IAuthenticationResult authenticationResult) {
+                onRequestCompleted(callback, null);
+                callback.onSuccess(authenticationResult);
+            }
+
+            @Override
+            public void onError(final MsalException exception) {
+                onRequestCompleted(callback, exception);
+                callback.onError(exception);
+            }
+        };
+    }
+
+    private void onRequestCompleted(@NonNull final SilentAuthenticationCallback callback,
+                                    @Nullable final MsalException exception) {
+        end(RequestTimings.Phase.CALLBACK_DELIVERY);
+        final RequestTimings timings = snapshot();
+        MsalMetrics.recordLatency(mPublicApiId, timings.getTotalDuration(TimeUnit.NANOSECONDS), exception);
+        // Results and exceptions can be shared by requests answered from memory or together, so the
+        // timings go to each request's own callback rather than onto them.
+        if (callback instanceof RequestTimingsCallback) {
+            ((RequestTimingsCallback) callback).onRequestTimings(timings);
+        }
+    }
+
+    private void resultReady() {
+        end(RequestTimings.Phase.CACHE_WRITE);
+        start(RequestTimings.Phase.CALLBACK_DELIVERY);
+    }
+
+    private void reportSpan(@NonNull final RequestTimings.Phase phase,
+                            final long startNanos,
+                            final long endNanos) {
+        final Tracer tracer = GlobalOpenTelemetry.getTracer(TRACER_NAME, BuildConfig.VERSION_NAME);
+        tracer.spanBuilder(SPAN_NAME_PREFIX + phase.name().toLowerCase(Locale.ROOT))
+                .setParent(mParentContext)
+                .setStartTimestamp(mEpochOffsetNanos + startNanos, TimeUnit.NANOSECONDS)
+                .startSpan()
+                .end(mEpochOffsetNanos + endNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,142 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where the time of a silent token request went. Each phase the request went through is also
+ * reported as an OpenTelemetry span, a child of the span that was current when the request was made.
+ * Phases the request did not go through, e.g. the token request when the token was found in memory,
+ * are absent. Delivered to callbacks that implement {@link RequestTimingsCallback}.
+ */
+public final class RequestTimings {
+
+    /**
+     * The phases of a silent token request, in the order they run.
+     */
+    public enum Phase {
+        /**
+         * Reading the in-memory access token cache.
+         */
+        CACHE_READ,
+
+        /**
+         * Waiting for a background thread, and for the application to finish initializing.
+         */
+        QUEUE_WAIT,
+
+        /**
+         * Selecting the cached account record the request is for.
+         */
+        ACCOUNT_SELECTION,
+
+        /**
+         * Building the command parameters of the request.
+         */
+        COMMAND_PARAMETERS,
+
+        /**
+         * Selecting the controller, which includes discovering the broker.
+         */
+        CONTROLLER_SELECTION,
+
+        /**
+         * Running the token command: the token cache lookup and, if it is needed, the network
+         * request or the broker call. When no callback executor is used, this includes the hop to
+         * the main thread.
+         */
+        TOKEN_REQUEST,
+
+        /**
+         * Updating the account and in-memory caches with the result.
+         */
+        CACHE_WRITE,
+
+        /**
+         * Handing the result to the thread of the callback.
+         */
+        CALLBACK_DELIVERY
+    }
+
+    private final Map<Phase, Long> mDurationsNanos;
+    private final long mTotalNanos;
+
+    RequestTimings(@NonNull final Map<Phase, Long> durationsNanos, final long totalNanos) {
+        mDurationsNanos = Collections.unmodifiableMap(new EnumMap<>(durationsNanos));
+        mTotalNanos = totalNanos;
+    }
+
+    /**
+     * Gets the duration of each phase the request went through.
+     *
+     * @return the durations in nanoseconds, by phase, in the order the phases run.
+     */
+    @NonNull
+    public Map<Phase, Long> getDurationsNanos() {
+        return mDurationsNanos;
+    }
+
+    /**
+     * Gets the duration of a phase.
+     *
+     * @param phase the phase.
+     * @param unit  the unit of the duration.
+     * @return the duration, or -1 if the request did not go through the phase.
+     */
+    public long getDuration(@NonNull final Phase phase, @NonNull final TimeUnit unit) {
+        final Long durationNanos = mDurationsNanos.get(phase);
+        return durationNanos == null ? -1 : unit.convert(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the time from the call to the delivery of the result.
+     *
+     * @param unit the unit of the duration.
+     * @return the duration of the whole request.
+     */
+    public long getTotalDuration(@NonNull final TimeUnit unit) {
+        return unit.convert(mTotalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("RequestTimings{total=")
+                .append(TimeUnit.NANOSECONDS.toMicros(mTotalNanos))
+                .append("us");
+        for (final Map.Entry<Phase, Long> entry : mDurationsNanos.entrySet()) {
+            builder.append(", ")
+                    .append(entry.getKey().name().toLowerCase(Locale.ROOT))
+                    .append('=')
+                    .append(TimeUnit.NANOSECONDS.toMicros(entry.getValue()))
+                    .append("us");
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -53,7 +53,7 @@ import com.microsoft.identity.client.exception.MsalClientException;
 import com.microsoft.identity.client.exception.MsalException;
 import com.microsoft.identity.client.internal.AsyncResult;
 import com.microsoft.identity.client.internal.CommandParametersAdapter;
-import com.microsoft.identity.client.internal.controllers.MSALControllerFactory;
+import com.microsoft.identity.client.internal.CurrentAccountSnapshots;
 import com.microsoft.identity.client.internal.controllers.MsalExceptionAdapter;
 import com.microsoft.identity.common.adal.internal.util.JsonExtensions;
 import com.microsoft.identity.common.adal.internal.util.StringExtensions;
@@ -103,6 +103,39 @@ public class SingleAccountPublicClientApplication
     protected SingleAccountPublicClientApplication(@NonNull final PublicClientApplicationConfiguration config) throws MsalClientException {
         super(config);
         initializeSharedPreferenceFileManager(config.getAppContext());
+        prefetchCurrentAccountSnapshot();
+    }
+
+    /**
+     * Loads the persisted current account on the background executor, so that neither this
+     * constructor nor the first request decrypts and parses it on the caller's thread.
+     */
+    private void prefetchCurrentAccountSnapshot() {
+        final String methodTag = TAG + ":prefetchCurrentAccountSnapshot";
+
+        try {
+            mBackgroundExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    loadCurrentAccountSnapshot();
+                }
+            });
+        } catch (final MsalClientException e) {
+            Logger.warn(methodTag, "Current account will be loaded on first use: " + e.getMessage());
+        }
+    }
+
+    private void loadCurrentAccountSnapshot() {
+        final String methodTag = TAG + ":loadCurrentAccountSnapshot";
+
+        try {
+            getPersistedCurrentAccount();
+        } catch (final RuntimeException e) {
+            // The persisted value is malformed or could not be read. This runs on a pool thread,
+            // so nothing may escape; leave the snapshot unloaded so that getCurrentAccount can
+            // detect it, wipe it and notify the app.
+            Logger.error(methodTag, "Failed to load Persisted Current Account", e);
+        }
     }
 
     private void initializeSharedPreferenceFileManager(@NonNull final Context context) {
@@ -129,7 +162,7 @@ public class SingleAccountPublicClientApplication
 
                 final GetCurrentAccountCommand command = new GetCurrentAccountCommand(
                         params,
-                        new MSALControllerFactory(mPublicClientConfiguration),
+                        mControllerFactoryCache.get(),
                         new CommandCallback<List<ICacheRecord>, BaseException>() {
                             @Override
                             public void onTaskCompleted(final List<ICacheRecord> result) {
@@ -145,7 +178,10 @@ public class SingleAccountPublicClientApplication
                                     // There is an issue where the cached value could be malformed.
                                     // If that happens, wipe the value, and trigger the callback.
                                     Logger.error(methodTag, "Failed to load Persisted Current Account", e);
-                                    sharedPreferencesFileManager.remove(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY);
+                                    synchronized (SingleAccountPublicClientApplication.class) {
+                                        sharedPreferencesFileManager.remove(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY);
+                                        CurrentAccountSnapshots.invalidate();
+                                    }
                                     forceNotify = true;
                                 }
 
@@ -490,6 +526,10 @@ public class SingleAccountPublicClientApplication
             return;
         }
 
+        mAccessTokenMemoryCache.removeAccount(persistedCurrentAccount);
+        mSilentRequestCoalescer.removeAccount(persistedCurrentAccount);
+        AccountAdapter.clearIdTokenCache();
+
         final AccountRecord requestAccountRecord = new AccountRecord();
         requestAccountRecord.setEnvironment(persistedCurrentAccount.getEnvironment());
         requestAccountRecord.setHomeAccountId(persistedCurrentAccount.getHomeAccountId());
@@ -503,7 +543,7 @@ public class SingleAccountPublicClientApplication
 
         final RemoveCurrentAccountCommand command = new RemoveCurrentAccountCommand(
                 params,
-                new MSALControllerFactory(mPublicClientConfiguration),
+                mControllerFactoryCache.get(),
                 new CommandCallback<Boolean, BaseException>() {
                     @Override
                     public void onError(BaseException error) {
@@ -513,6 +553,7 @@ public class SingleAccountPublicClientApplication
                     @Override
                     public void onTaskCompleted(Boolean result) {
                         persistCurrentAccount(null);
+                        notifyAccountsChanged();
                         callback.onSignOut();
                     }
 
@@ -573,14 +614,29 @@ public class SingleAccountPublicClientApplication
      * @return a persisted MultiTenantAccount. This could be null.
      */
     private MultiTenantAccount getPersistedCurrentAccount() {
+        final String clientId = mPublicClientConfiguration.getClientId();
+        final CurrentAccountSnapshots.Snapshot snapshot = CurrentAccountSnapshots.get(clientId);
+        if (snapshot != null) {
+            return snapshot.getAccount();
+        }
+
         synchronized (SingleAccountPublicClientApplication.class) {
+            final CurrentAccountSnapshots.Snapshot loadedSnapshot = CurrentAccountSnapshots.get(clientId);
+            if (loadedSnapshot != null) {
+                return loadedSnapshot.getAccount();
+            }
+
+            final MultiTenantAccount account;
             final String currentAccountJsonString = sharedPreferencesFileManager.getString(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY);
             if (StringExtensions.isNullOrBlank(currentAccountJsonString)) {
-                return null;
+                account = null;
+            } else {
+                final List<ICacheRecord> cacheRecordList = JsonExtensions.getICacheRecordListFromJsonString(currentAccountJsonString);
+                account = getAccountFromICacheRecordList(cacheRecordList);
             }
 
-            final List<ICacheRecord> cacheRecordList = JsonExtensions.getICacheRecordListFromJsonString(currentAccountJsonString);
-            return getAccountFromICacheRecordList(cacheRecordList);
+            CurrentAccountSnapshots.onLoaded(clientId, account);
+            return account;
         }
     }
 
@@ -594,11 +650,17 @@ public class SingleAccountPublicClientApplication
         synchronized (SingleAccountPublicClientApplication.class) {
             if (cacheRecords == null || cacheRecords.size() == 0) {
                 sharedPreferencesFileManager.clear();
+                CurrentAccountSnapshots.onWritten(mPublicClientConfiguration.getClientId(), null);
+                AccountAdapter.clearIdTokenCache();
                 return;
             }
             Logger.info(TAG, "persisting cache records with size " + cacheRecords.size());
             final String currentAccountJsonString = JsonExtensions.getJsonStringFromICacheRecordList(cacheRecords);
             sharedPreferencesFileManager.putString(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY, currentAccountJsonString);
+            CurrentAccountSnapshots.onWritten(
+                    mPublicClientConfiguration.getClientId(),
+                    getAccountFromICacheRecordList(cacheRecords)
+            );
         }
     }
 
@@ -809,6 +871,27 @@ public class SingleAccountPublicClientApplication
         );
     }
 
+    @Override
+    public List<AcquireTokenSilentResult> acquireTokensSilent(@NonNull final List<AcquireTokenSilentParameters> acquireTokenSilentParameters) throws InterruptedException, MsalException {
+        final IAccount persistedAccount = getPersistedCurrentAccount();
+        if (persistedAccount == null) {
+            throw new MsalClientException(MsalClientException.NO_CURRENT_ACCOUNT,
+                    MsalClientException.NO_CURRENT_ACCOUNT_ERROR_MESSAGE);
+        }
+
+        for (final AcquireTokenSilentParameters parameters : acquireTokenSilentParameters) {
+            if (!isHomeAccountIdMatching(persistedAccount, parameters.getAccount())) {
+                throw new MsalClientException(MsalClientException.CURRENT_ACCOUNT_MISMATCH,
+                        MsalClientException.CURRENT_ACCOUNT_MISMATCH_ERROR_MESSAGE);
+            }
+        }
+
+        return acquireTokensSilentInternal(
+                acquireTokenSilentParameters,
+                SINGLE_ACCOUNT_PCA_ACQUIRE_TOKEN_SILENT_WITH_PARAMETERS
+        );
+    }
+
     @Override
     protected DeviceCodeFlowCommandCallback getDeviceCodeFlowCommandCallback(@NonNull final DeviceCodeFlowCallback callback) {
         return new DeviceCodeFlowCommandCallback<LocalAuthenticationResult, BaseException>() {
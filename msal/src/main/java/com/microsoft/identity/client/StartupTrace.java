@@ -0,0 +1,106 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent in each phase of creating a {@link PublicClientApplication}.
+ * <p>
+ * Phases are recorded in the order they finish. Phases that run in parallel overlap, so the sum
+ * of the phase durations can be larger than the wall clock time of the whole creation, which is
+ * reported by {@link #getTotalMillis()}.
+ */
+public class StartupTrace {
+
+    public static final String LOAD_DEFAULT_CONFIGURATION = "load_default_configuration";
+    public static final String LOAD_DEVELOPER_CONFIGURATION = "load_developer_configuration";
+    public static final String MERGE_CONFIGURATION = "merge_configuration";
+    public static final String CREATE_TOKEN_CACHE = "create_token_cache";
+    public static final String PREPARE_APPLICATION = "prepare_application";
+    public static final String GET_DEVICE_MODE = "get_device_mode";
+    public static final String INITIALIZE_APPLICATION = "initialize_application";
+    public static final String DEFERRED_INITIALIZATION = "deferred_initialization";
+
+    private static final String TOTAL = "total";
+
+    private final long mStartNanos;
+    private final Map<String, Long> mPhaseNanos = new LinkedHashMap<>();
+    private long mEndNanos;
+
+    public StartupTrace() {
+        mStartNanos = System.nanoTime();
+        mEndNanos = mStartNanos;
+    }
+
+    /**
+     * Records a phase that started at the supplied {@link System#nanoTime()} and ends now.
+     */
+    public synchronized void record(@NonNull final String phase, final long startNanos) {
+        final long now = System.nanoTime();
+        mPhaseNanos.put(phase, now - startNanos);
+        mEndNanos = now;
+    }
+
+    /**
+     * Marks the end of application creation. Work deferred past creation is still recorded, but
+     * does not count towards {@link #getTotalMillis()}.
+     */
+    public synchronized void finish() {
+        mEndNanos = System.nanoTime();
+        mPhaseNanos.put(TOTAL, mEndNanos - mStartNanos);
+    }
+
+    /**
+     * @return the duration of each recorded phase in milliseconds, in the order they finished.
+     */
+    @NonNull
+    public synchronized Map<String, Long> getPhaseDurationsMillis() {
+        final Map<String, Long> durations = new LinkedHashMap<>();
+        for (final Map.Entry<String, Long> phase : mPhaseNanos.entrySet()) {
+            if (!TOTAL.equals(phase.getKey())) {
+                durations.put(phase.getKey(), TimeUnit.NANOSECONDS.toMillis(phase.getValue()));
+            }
+        }
+        return Collections.unmodifiableMap(durations);
+    }
+
+    /**
+     * @return the wall clock time from the start of creation until the application was handed to
+     * the caller, or until the last recorded phase if creation has not finished.
+     */
+    public synchronized long getTotalMillis() {
+        final Long total = mPhaseNanos.get(TOTAL);
+        return TimeUnit.NANOSECONDS.toMillis(total != null ? total : mEndNanos - mStartNanos);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "StartupTrace{total=" + getTotalMillis() + "ms, phases=" + getPhaseDurationsMillis() + "}";
+    }
+}
@@ -28,6 +28,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.microsoft.identity.client.claims.ClaimsRequest;
+import com.microsoft.identity.client.internal.ScopeSet;
 import com.microsoft.identity.common.java.dto.AccountRecord;
 import com.microsoft.identity.common.internal.util.StringUtil;
 
@@ -35,6 +36,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 /**
  * Base class for AcquireTokenParameters and AcquireTokenSilentParameters
@@ -48,6 +50,7 @@ public abstract class TokenParameters {
     private AccountRecord mAccountRecord;
     private AuthenticationScheme mAuthenticationScheme;
     private String mCorrelationId;
+    private Executor mCallbackExecutor;
 
     protected TokenParameters(@NonNull final TokenParameters.Builder builder) {
         mAccount = builder.mAccount;
@@ -56,6 +59,21 @@ public abstract class TokenParameters {
         mScopes = builder.mScopes;
         mAuthenticationScheme = builder.mAuthenticationScheme;
         mCorrelationId = builder.mCorrelationId;
+        mCallbackExecutor = builder.mCallbackExecutor;
+    }
+
+    /**
+     * Copies the supplied parameters.
+     */
+    TokenParameters(@NonNull final TokenParameters other) {
+        mScopes = other.mScopes;
+        mAccount = other.mAccount;
+        mAuthority = other.mAuthority;
+        mClaimsRequest = other.mClaimsRequest;
+        mAccountRecord = other.mAccountRecord;
+        mAuthenticationScheme = other.mAuthenticationScheme;
+        mCorrelationId = other.mCorrelationId;
+        mCallbackExecutor = other.mCallbackExecutor;
     }
 
     /**
@@ -88,6 +106,17 @@ public abstract class TokenParameters {
         mScopes = scopes;
     }
 
+    /**
+     * Gets the requested scopes in normalized form, for comparisons and cache keys. Not kept,
+     * since the list returned by {@link #getScopes()} belongs to the caller and may change.
+     *
+     * @return The normalized scope set; empty if no scopes were provided.
+     */
+    @NonNull
+    ScopeSet getScopeSet() {
+        return ScopeSet.of(mScopes);
+    }
+
     /**
      * Optional. If provided, will be used to force the session continuation.  If user tries to sign in with a different account, error
      * will be returned.
@@ -154,6 +183,22 @@ public abstract class TokenParameters {
         return mCorrelationId;
     }
 
+    /**
+     * Gets the executor on which the result of this request is delivered. If null, the executor
+     * from {@link PublicClientApplicationConfiguration#getCallbackExecutor()} is used, and if that
+     * is null too, the result is delivered on the main thread.
+     *
+     * @return The executor, or null.
+     */
+    @Nullable
+    public Executor getCallbackExecutor() {
+        return mCallbackExecutor;
+    }
+
+    void setCallbackExecutor(@Nullable final Executor callbackExecutor) {
+        mCallbackExecutor = callbackExecutor;
+    }
+
     /**
      * TokenParameters builder
      *
@@ -167,6 +212,7 @@ public abstract class TokenParameters {
         private ClaimsRequest mClaimsRequest;
         private AuthenticationScheme mAuthenticationScheme;
         private String mCorrelationId;
+        private Executor mCallbackExecutor;
 
         public B withAuthenticationScheme(@NonNull final AuthenticationScheme scheme) {
             mAuthenticationScheme = scheme;
@@ -261,6 +307,15 @@ public abstract class TokenParameters {
             return self();
         }
 
+        /**
+         * Delivers the result on the supplied executor instead of the main thread. A direct
+         * executor runs the callback on the thread that produced the result.
+         */
+        public B withCallbackExecutor(@NonNull final Executor callbackExecutor) {
+            mCallbackExecutor = callbackExecutor;
+            return self();
+        }
+
         public abstract B self();
 
         public abstract TokenParameters build();
@@ -34,13 +34,15 @@ public class TokenParametersAdapter {
     public static AcquireTokenSilentParameters silentParametersFromInteractive(@NonNull final AcquireTokenParameters acquireTokenParameters,
                                                                                @NonNull final ILocalAuthenticationResult localAuthenticationResult){
         final IAccount account = AccountAdapter.adapt(localAuthenticationResult.getCacheRecordWithTenantProfileData()).get(0);
-        AcquireTokenSilentParameters silentParameters = new AcquireTokenSilentParameters.Builder()
+        final AcquireTokenSilentParameters.Builder builder = new AcquireTokenSilentParameters.Builder()
                 .withCallback(acquireTokenParameters.getCallback())
                 .fromAuthority(acquireTokenParameters.getAuthority())
                 .withClaims(acquireTokenParameters.getClaimsRequest())
                 .withScopes(acquireTokenParameters.getScopes())
-                .forAccount(account)
-                .build();
-        return silentParameters;
+                .forAccount(account);
+        if (acquireTokenParameters.getCallbackExecutor() != null) {
+            builder.withCallbackExecutor(acquireTokenParameters.getCallbackExecutor());
+        }
+        return builder.build();
     }
 }
@@ -0,0 +1,108 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.configuration;
+
+import com.google.gson.annotations.SerializedName;
+
+import static com.microsoft.identity.client.configuration.ThreadingConfiguration.SerializedNames.KEEP_ALIVE_MILLIS;
+import static com.microsoft.identity.client.configuration.ThreadingConfiguration.SerializedNames.POOL_SIZE;
+import static com.microsoft.identity.client.configuration.ThreadingConfiguration.SerializedNames.QUEUE_CAPACITY;
+
+/**
+ * Settings for the background executor MSAL uses to prepare requests off the calling thread.
+ * Values that are missing or not positive fall back to the library defaults.
+ */
+public class ThreadingConfiguration {
+
+    /**
+     * Field names used for serialization by Gson.
+     */
+    public static final class SerializedNames {
+        public static final String POOL_SIZE = "pool_size";
+        public static final String QUEUE_CAPACITY = "queue_capacity";
+        public static final String KEEP_ALIVE_MILLIS = "keep_alive_millis";
+    }
+
+    @SerializedName(POOL_SIZE)
+    private int mPoolSize;
+
+    @SerializedName(QUEUE_CAPACITY)
+    private int mQueueCapacity;
+
+    @SerializedName(KEEP_ALIVE_MILLIS)
+    private long mKeepAliveMillis;
+
+    /**
+     * Gets the maximum number of background threads.
+     *
+     * @return The maximum number of background threads.
+     */
+    public int getPoolSize() {
+        return mPoolSize;
+    }
+
+    /**
+     * Sets the maximum number of background threads.
+     *
+     * @param poolSize The maximum number of background threads.
+     */
+    public void setPoolSize(final int poolSize) {
+        mPoolSize = poolSize;
+    }
+
+    /**
+     * Gets the number of tasks that may wait for a free thread before new tasks are rejected.
+     *
+     * @return The queue capacity.
+     */
+    public int getQueueCapacity() {
+        return mQueueCapacity;
+    }
+
+    /**
+     * Sets the number of tasks that may wait for a free thread before new tasks are rejected.
+     *
+     * @param queueCapacity The queue capacity.
+     */
+    public void setQueueCapacity(final int queueCapacity) {
+        mQueueCapacity = queueCapacity;
+    }
+
+    /**
+     * Gets how long an idle background thread is kept before it is released.
+     *
+     * @return The keep-alive time in milliseconds.
+     */
+    public long getKeepAliveMillis() {
+        return mKeepAliveMillis;
+    }
+
+    /**
+     * Sets how long an idle background thread is kept before it is released.
+     *
+     * @param keepAliveMillis The keep-alive time in milliseconds.
+     */
+    public void setKeepAliveMillis(final long keepAliveMillis) {
+        mKeepAliveMillis = keepAliveMillis;
+    }
+}
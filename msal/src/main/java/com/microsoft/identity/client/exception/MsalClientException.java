@@ -155,6 +155,17 @@ public final class MsalClientException extends MsalException {
      */
     public static final String UNKNOWN_ERROR = ClientException.UNKNOWN_ERROR;
 
+    /**
+     * The request was cancelled by the caller before it completed.
+     */
+    public static final String REQUEST_CANCELLED = "request_cancelled";
+
+    /**
+     * The request did not complete before the deadline set with
+     * {@link com.microsoft.identity.client.AcquireTokenSilentParameters.Builder#withDeadline(long, java.util.concurrent.TimeUnit)}.
+     */
+    public static final String DEADLINE_EXCEEDED = "deadline_exceeded";
+
     /**
      * Broker app is not installed.
      */
@@ -182,6 +193,12 @@ public final class MsalClientException extends MsalException {
      */
     public static final String DUPLICATE_COMMAND = "duplicate_command";
 
+    /**
+     * The background executor is saturated and cannot accept the request. Retry later, or raise
+     * the limits in the "threading" section of the configuration.
+     */
+    public static final String BACKGROUND_EXECUTOR_REJECTED = "background_executor_rejected";
+
     /**
      * Developer error. Application manifest is not properly configured to support MSAL.
      */
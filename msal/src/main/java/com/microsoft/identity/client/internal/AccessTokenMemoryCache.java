@@ -0,0 +1,236 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.AuthenticationScheme;
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.client.PoPAuthenticationScheme;
+import com.microsoft.identity.client.TokenParameters;
+import com.microsoft.identity.client.claims.ClaimsRequest;
+import com.microsoft.identity.common.java.authscheme.BearerAuthenticationSchemeInternal;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-local, bounded cache of the access tokens most recently returned to the app.
+ * <p>
+ * Entries are keyed by (home account id, authority, normalized scope set, authentication scheme,
+ * claims hash) and are only handed back while the token is not within
+ * {@link #DEFAULT_EXPIRY_BUFFER_MILLIS} of expiring. This cache sits in front of the token cache
+ * and never replaces it: a miss always falls back to the regular silent request pipeline.
+ * PoP tokens are never cached, since the signed request is bound to a single http request.
+ */
+public class AccessTokenMemoryCache {
+
+    private static final String TAG = AccessTokenMemoryCache.class.getSimpleName();
+
+    /**
+     * Maximum number of entries kept before the least recently used one is evicted.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    /**
+     * Tokens expiring within this window are treated as a miss so that the pipeline can refresh them.
+     */
+    public static final long DEFAULT_EXPIRY_BUFFER_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final char KEY_DELIMITER = '|';
+
+    private final long mExpiryBufferMillis;
+    private final Map<String, Entry> mEntries;
+
+    public AccessTokenMemoryCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_EXPIRY_BUFFER_MILLIS);
+    }
+
+    public AccessTokenMemoryCache(final int maxEntries, final long expiryBufferMillis) {
+        mExpiryBufferMillis = expiryBufferMillis;
+        mEntries = new LinkedHashMap<String, Entry>(maxEntries, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns a cached result for the supplied request, or null if the request must go through
+     * the regular pipeline.
+     *
+     * @param tokenParameters  the request.
+     * @param defaultAuthority the authority used when the request does not specify one.
+     * @return a valid, non-near-expiry result or null.
+     */
+    @Nullable
+    public synchronized IAuthenticationResult get(@NonNull final TokenParameters tokenParameters,
+                                                  @Nullable final String defaultAuthority) {
+        final String methodTag = TAG + ":get";
+        final String key = createKey(tokenParameters, defaultAuthority);
+
+        if (key == null) {
+            return null;
+        }
+
+        final Entry entry = mEntries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.mExpiresOnMillis - mExpiryBufferMillis <= System.currentTimeMillis()) {
+            Logger.verbose(methodTag, "Cached access token is expired or about to expire, evicting.");
+            mEntries.remove(key);
+            return null;
+        }
+
+        return entry.mResult;
+    }
+
+    /**
+     * Caches the result returned for the supplied request.
+     *
+     * @param tokenParameters  the request.
+     * @param defaultAuthority the authority used when the request does not specify one.
+     * @param result           the result returned to the app.
+     */
+    public void put(@NonNull final TokenParameters tokenParameters,
+                    @Nullable final String defaultAuthority,
+                    @NonNull final IAuthenticationResult result) {
+        put(tokenParameters, defaultAuthority, result, result.getAccount().getId(), result.getExpiresOn().getTime());
+    }
+
+    /**
+     * Caches the result returned for the supplied request, given the account id and expiry of the
+     * result so that they need not be read from it.
+     *
+     * @param tokenParameters  the request.
+     * @param defaultAuthority the authority used when the request does not specify one.
+     * @param result           the result returned to the app.
+     * @param accountId        the id of the result's account, used when the request has no account.
+     * @param expiresOnMillis  the expiry of the result's access token.
+     */
+    public synchronized void put(@NonNull final TokenParameters tokenParameters,
+                                 @Nullable final String defaultAuthority,
+                                 @NonNull final IAuthenticationResult result,
+                                 @Nullable final String accountId,
+                                 final long expiresOnMillis) {
+        final String key = createKey(tokenParameters, defaultAuthority, accountId);
+
+        if (key == null) {
+            return;
+        }
+
+        mEntries.put(key, new Entry(result, expiresOnMillis));
+    }
+
+    /**
+     * Evicts every entry belonging to the supplied account.
+     *
+     * @param account the account being removed or signed out.
+     */
+    public synchronized void removeAccount(@Nullable final IAccount account) {
+        if (account == null || TextUtils.isEmpty(account.getId())) {
+            return;
+        }
+
+        final String prefix = account.getId() + KEY_DELIMITER;
+        final Iterator<String> iterator = mEntries.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().startsWith(prefix)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        mEntries.clear();
+    }
+
+    public synchronized int size() {
+        return mEntries.size();
+    }
+
+    @Nullable
+    private static String createKey(@NonNull final TokenParameters tokenParameters,
+                                    @Nullable final String defaultAuthority) {
+        return createKey(tokenParameters, defaultAuthority, null);
+    }
+
+    /**
+     * Builds the key identifying a token request, or returns null if the request cannot be cached.
+     */
+    @Nullable
+    public static String createKey(@NonNull final TokenParameters tokenParameters,
+                            @Nullable final String defaultAuthority,
+                            @Nullable final String fallbackAccountId) {
+        final AuthenticationScheme scheme = tokenParameters.getAuthenticationScheme();
+        if (scheme instanceof PoPAuthenticationScheme) {
+            return null;
+        }
+
+        final String accountId = tokenParameters.getAccount() != null
+                ? tokenParameters.getAccount().getId()
+                : fallbackAccountId;
+        if (TextUtils.isEmpty(accountId)) {
+            return null;
+        }
+
+        final String authority = TextUtils.isEmpty(tokenParameters.getAuthority())
+                ? defaultAuthority
+                : tokenParameters.getAuthority();
+        if (TextUtils.isEmpty(authority) || tokenParameters.getScopes() == null) {
+            return null;
+        }
+
+        final ClaimsRequest claimsRequest = tokenParameters.getClaimsRequest();
+        final int claimsHash = claimsRequest == null
+                ? 0
+                : ClaimsRequest.getJsonStringFromClaimsRequest(claimsRequest).hashCode();
+
+        return accountId + KEY_DELIMITER
+                + authority.toLowerCase(Locale.ROOT) + KEY_DELIMITER
+                + ScopeSet.of(tokenParameters.getScopes()).getCanonicalString() + KEY_DELIMITER
+                + (scheme == null ? BearerAuthenticationSchemeInternal.SCHEME_BEARER : scheme.getName()) + KEY_DELIMITER
+                + claimsHash;
+    }
+
+    private static final class Entry {
+        private final IAuthenticationResult mResult;
+        private final long mExpiresOnMillis;
+
+        private Entry(@NonNull final IAuthenticationResult result, final long expiresOnMillis) {
+            mResult = result;
+            mExpiresOnMillis = expiresOnMillis;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.client.IClaimable;
+import com.microsoft.identity.client.ITenantProfile;
+import com.microsoft.identity.client.MultiTenantAccount;
+import com.microsoft.identity.common.java.util.SchemaUtil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory index of the accounts known to a PublicClientApplication, keyed by home account id,
+ * local account id (oid, including every tenant profile) and lower-cased username.
+ * <p>
+ * The index is a lookup accelerator only: it is rebuilt whenever the full account list is loaded,
+ * updated when a token is saved, and pruned when an account is removed. A miss does not mean the
+ * account does not exist and callers must fall back to loading accounts from the cache.
+ * <p>
+ * The account of a token result is only built from it on the next lookup, since most results are
+ * never looked up by account.
+ */
+public class AccountIndex {
+
+    private final Map<String, IAccount> mAccountsByHomeAccountId = new HashMap<>();
+    private final Map<String, IAccount> mAccountsByLocalAccountId = new HashMap<>();
+    private final Map<String, IAccount> mAccountsByUsername = new HashMap<>();
+    private final Map<String, IAuthenticationResult> mPendingResults = new HashMap<>();
+
+    /**
+     * Replaces the content of the index with the supplied accounts.
+     *
+     * @param accounts the adapted accounts, as returned by a full account load.
+     */
+    public synchronized void rebuild(@NonNull final List<IAccount> accounts) {
+        mPendingResults.clear();
+        mAccountsByHomeAccountId.clear();
+        mAccountsByLocalAccountId.clear();
+        mAccountsByUsername.clear();
+
+        for (final IAccount account : accounts) {
+            addInternal(account);
+        }
+    }
+
+    /**
+     * Adds the account, replacing any previously indexed version of it.
+     *
+     * @param account the account returned by a token request.
+     */
+    public synchronized void put(@Nullable final IAccount account) {
+        if (account == null || TextUtils.isEmpty(account.getId())) {
+            return;
+        }
+
+        removeInternal(mAccountsByHomeAccountId.get(account.getId()));
+        addInternal(account);
+    }
+
+    /**
+     * Adds the account of a token result, replacing any previously indexed version of it once the
+     * index is next read.
+     *
+     * @param accountId the id of the result's account, as {@link IAccount#getId()} returns it.
+     * @param result    the result returned by a token request.
+     * @return true if the account was not indexed before.
+     */
+    public synchronized boolean putPending(@NonNull final String accountId,
+                                           @NonNull final IAuthenticationResult result) {
+        final boolean known = mAccountsByHomeAccountId.containsKey(accountId)
+                || mPendingResults.containsKey(accountId);
+        mPendingResults.put(accountId, result);
+        return !known;
+    }
+
+    /**
+     * Removes the account from the index.
+     *
+     * @param account the account being removed.
+     */
+    public synchronized void remove(@Nullable final IAccount account) {
+        if (account == null || TextUtils.isEmpty(account.getId())) {
+            return;
+        }
+
+        mPendingResults.remove(account.getId());
+        removeInternal(mAccountsByHomeAccountId.get(account.getId()));
+    }
+
+    /**
+     * Looks up an account by home account id, local account id or username, in that order.
+     *
+     * @param identifier the identifier supplied to getAccount.
+     * @return the indexed account or null if not indexed.
+     */
+    @Nullable
+    public synchronized IAccount get(@NonNull final String identifier) {
+        indexPendingResults();
+
+        final String trimmedIdentifier = identifier.trim();
+
+        // A home account id is <oid>.<tid>, accounts are indexed by the oid part.
+        final int separatorIndex = trimmedIdentifier.indexOf('.');
+        final String homeKey = separatorIndex > 0
+                ? trimmedIdentifier.substring(0, separatorIndex)
+                : trimmedIdentifier;
+
+        IAccount account = mAccountsByHomeAccountId.get(homeKey);
+
+        if (account == null) {
+            account = mAccountsByLocalAccountId.get(trimmedIdentifier);
+        }
+
+        if (account == null) {
+            account = mAccountsByUsername.get(trimmedIdentifier.toLowerCase(Locale.ROOT));
+        }
+
+        return account;
+    }
+
+    public synchronized void clear() {
+        mPendingResults.clear();
+        mAccountsByHomeAccountId.clear();
+        mAccountsByLocalAccountId.clear();
+        mAccountsByUsername.clear();
+    }
+
+    private void indexPendingResults() {
+        for (final IAuthenticationResult result : mPendingResults.values()) {
+            final IAccount account = result.getAccount();
+            if (!TextUtils.isEmpty(account.getId())) {
+                removeInternal(mAccountsByHomeAccountId.get(account.getId()));
+                addInternal(account);
+            }
+        }
+        mPendingResults.clear();
+    }
+
+    private void addInternal(@NonNull final IAccount account) {
+        if (TextUtils.isEmpty(account.getId())) {
+            return;
+        }
+
+        mAccountsByHomeAccountId.put(account.getId(), account);
+
+        for (final String localAccountId : getLocalAccountIds(account)) {
+            mAccountsByLocalAccountId.put(localAccountId, account);
+        }
+
+        for (final String username : getUsernames(account)) {
+            mAccountsByUsername.put(username, account);
+        }
+    }
+
+    private void removeInternal(@Nullable final IAccount account) {
+        if (account == null) {
+            return;
+        }
+
+        mAccountsByHomeAccountId.remove(account.getId());
+
+        for (final String localAccountId : getLocalAccountIds(account)) {
+            if (mAccountsByLocalAccountId.get(localAccountId) == account) {
+                mAccountsByLocalAccountId.remove(localAccountId);
+            }
+        }
+
+        for (final String username : getUsernames(account)) {
+            if (mAccountsByUsername.get(username) == account) {
+                mAccountsByUsername.remove(username);
+            }
+        }
+    }
+
+    @NonNull
+    private static List<String> getLocalAccountIds(@NonNull final IAccount account) {
+        final List<String> localAccountIds = new ArrayList<>();
+        localAccountIds.add(account.getId());
+
+        for (final ITenantProfile profile : getTenantProfiles(account)) {
+            if (!TextUtils.isEmpty(profile.getId())) {
+                localAccountIds.add(profile.getId());
+            }
+        }
+
+        return localAccountIds;
+    }
+
+    @NonNull
+    private static List<String> getUsernames(@NonNull final IAccount account) {
+        final List<IClaimable> thingsWithClaims = new ArrayList<>();
+        thingsWithClaims.add(account);
+        thingsWithClaims.addAll(getTenantProfiles(account));
+
+        final List<String> usernames = new ArrayList<>();
+        for (final IClaimable thingWithClaims : thingsWithClaims) {
+            final Map<String, ?> claims = thingWithClaims.getClaims();
+            if (null != claims) {
+                final String username = SchemaUtil.getDisplayableId(claims);
+                if (!TextUtils.isEmpty(username)) {
+                    usernames.add(username.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+
+        return usernames;
+    }
+
+    @NonNull
+    private static List<ITenantProfile> getTenantProfiles(@NonNull final IAccount account) {
+        if (account instanceof MultiTenantAccount) {
+            final Map<String, ITenantProfile> profiles = ((MultiTenantAccount) account).getTenantProfiles();
+            if (null != profiles) {
+                return new ArrayList<>(profiles.values());
+            }
+        }
+
+        return new ArrayList<>();
+    }
+}
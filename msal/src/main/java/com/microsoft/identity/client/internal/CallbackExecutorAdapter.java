@@ -0,0 +1,122 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.AuthenticationCallback;
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.client.SilentAuthenticationCallback;
+import com.microsoft.identity.client.exception.MsalException;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Wraps authentication callbacks so that they are invoked on a caller-chosen {@link Executor}.
+ * The wrapped callback may then be called from any thread.
+ */
+public final class CallbackExecutorAdapter {
+
+    private CallbackExecutorAdapter() {
+    }
+
+    /**
+     * @return a callback delivering on the executor, or the callback itself if either is null.
+     */
+    @Nullable
+    public static SilentAuthenticationCallback wrap(@Nullable final SilentAuthenticationCallback callback,
+                                                    @Nullable final Executor executor) {
+        if (callback == null || executor == null) {
+            return callback;
+        }
+        if (callback instanceof AuthenticationCallback) {
+            return new ExecutorAuthenticationCallback((AuthenticationCallback) callback, executor);
+        }
+        return new ExecutorSilentAuthenticationCallback(callback, executor);
+    }
+
+    /**
+     * @return a callback delivering on the executor, or the callback itself if either is null.
+     */
+    @Nullable
+    public static AuthenticationCallback wrap(@Nullable final AuthenticationCallback callback,
+                                              @Nullable final Executor executor) {
+        if (callback == null || executor == null) {
+            return callback;
+        }
+        return new ExecutorAuthenticationCallback(callback, executor);
+    }
+
+    private static class ExecutorSilentAuthenticationCallback implements SilentAuthenticationCallback {
+        private final SilentAuthenticationCallback mCallback;
+        final Executor mExecutor;
+
+        ExecutorSilentAuthenticationCallback(@NonNull final SilentAuthenticationCallback callback,
+                                             @NonNull final Executor executor) {
+            mCallback = callback;
+            mExecutor = executor;
+        }
+
+        @Override
+        public void onSuccess(final IAuthenticationResult authenticationResult) {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mCallback.onSuccess(authenticationResult);
+                }
+            });
+        }
+
+        @Override
+        public void onError(final MsalException exception) {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mCallback.onError(exception);
+                }
+            });
+        }
+    }
+
+    private static final class ExecutorAuthenticationCallback extends ExecutorSilentAuthenticationCallback
+            implements AuthenticationCallback {
+        private final AuthenticationCallback mAuthenticationCallback;
+
+        ExecutorAuthenticationCallback(@NonNull final AuthenticationCallback callback,
+                                       @NonNull final Executor executor) {
+            super(callback, executor);
+            mAuthenticationCallback = callback;
+        }
+
+        @Override
+        public void onCancel() {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mAuthenticationCallback.onCancel();
+                }
+            });
+        }
+    }
+}
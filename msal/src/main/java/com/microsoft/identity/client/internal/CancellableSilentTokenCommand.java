@@ -0,0 +1,63 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.common.java.commands.CommandCallback;
+import com.microsoft.identity.common.java.commands.SilentTokenCommand;
+import com.microsoft.identity.common.java.commands.parameters.SilentTokenCommandParameters;
+import com.microsoft.identity.common.java.controllers.IControllerFactory;
+import com.microsoft.identity.common.java.result.AcquireTokenResult;
+
+/**
+ * {@link SilentTokenCommand} that gives up without reaching the cache or the network if its
+ * request is cancelled while it waits in the dispatcher's queue.
+ */
+public class CancellableSilentTokenCommand extends SilentTokenCommand {
+
+    private final CancellationToken mCancellationToken;
+
+    public CancellableSilentTokenCommand(@NonNull final SilentTokenCommandParameters parameters,
+                                         @NonNull final IControllerFactory controllerFactory,
+                                         @SuppressWarnings("rawtypes") @NonNull final CommandCallback callback,
+                                         @NonNull final String publicApiId,
+                                         @NonNull final CancellationToken cancellationToken) {
+        super(parameters, controllerFactory, callback, publicApiId);
+        mCancellationToken = cancellationToken;
+    }
+
+    @Override
+    public AcquireTokenResult execute() throws Exception {
+        mCancellationToken.throwIfCancelled();
+        return super.execute();
+    }
+
+    /**
+     * Never shared with an identical request: a cancelled command must not fail the other one.
+     */
+    @Override
+    public boolean isEligibleForCaching() {
+        return false;
+    }
+}
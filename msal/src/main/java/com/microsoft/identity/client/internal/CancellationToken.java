@@ -0,0 +1,101 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.client.ICancellableRequest;
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.common.java.exception.ClientException;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cancellation state shared by every step of one request. Each step checks it before starting
+ * work, and steps that hold resources register a listener to release them. Once cancelled, the
+ * request delivers nothing further to its caller.
+ */
+public final class CancellationToken implements ICancellableRequest {
+
+    private static final String TAG = CancellationToken.class.getSimpleName();
+
+    // Guarded by this.
+    private final List<Runnable> mListeners = new ArrayList<>();
+    private volatile boolean mCancelled;
+
+    /**
+     * Cancels the request and runs the registered listeners on the calling thread. Has no effect
+     * if the request is already cancelled. A listener removed before this is called is not run.
+     */
+    @Override
+    public void cancel() {
+        final List<Runnable> listeners;
+        synchronized (this) {
+            if (mCancelled) {
+                return;
+            }
+            mCancelled = true;
+            listeners = new ArrayList<>(mListeners);
+            mListeners.clear();
+        }
+
+        for (final Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return mCancelled;
+    }
+
+    /**
+     * @throws ClientException with {@link MsalClientException#REQUEST_CANCELLED} if cancelled.
+     */
+    public void throwIfCancelled() throws ClientException {
+        if (mCancelled) {
+            throw new ClientException(MsalClientException.REQUEST_CANCELLED, "The request was cancelled.");
+        }
+    }
+
+    /**
+     * Runs the listener when the request is cancelled, or right away if it already is.
+     */
+    public void addOnCancelListener(@NonNull final Runnable listener) {
+        synchronized (this) {
+            if (!mCancelled) {
+                mListeners.add(listener);
+                return;
+            }
+        }
+
+        Logger.verbose(TAG + ":addOnCancelListener", "Already cancelled.");
+        listener.run();
+    }
+
+    public synchronized void removeOnCancelListener(@NonNull final Runnable listener) {
+        mListeners.remove(listener);
+    }
+}
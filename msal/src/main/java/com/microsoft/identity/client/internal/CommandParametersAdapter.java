@@ -23,8 +23,6 @@
 package com.microsoft.identity.client.internal;
 
 import android.content.Context;
-import android.content.pm.PackageInfo;
-import android.content.pm.PackageManager;
 
 import com.microsoft.identity.client.AcquireTokenParameters;
 import com.microsoft.identity.client.AcquireTokenSilentParameters;
@@ -151,20 +149,34 @@ public class CommandParametersAdapter {
             @NonNull final PublicClientApplicationConfiguration configuration,
             @NonNull final OAuth2TokenCache tokenCache,
             @NonNull final AcquireTokenParameters parameters) throws ClientException {
+        return createInteractiveTokenCommandParameters(
+                new CommandParametersTemplate(configuration),
+                tokenCache,
+                parameters
+        );
+    }
+
+    /**
+     * Creates InteractiveTokenCommandParameters, taking the per-application values from the
+     * supplied template.
+     */
+    public static InteractiveTokenCommandParameters createInteractiveTokenCommandParameters(
+            @NonNull final CommandParametersTemplate template,
+            @NonNull final OAuth2TokenCache tokenCache,
+            @NonNull final AcquireTokenParameters parameters) throws ClientException {
+        final PublicClientApplicationConfiguration configuration = template.getConfiguration();
 
         final AbstractAuthenticationScheme authenticationScheme = AuthenticationSchemeFactory.createScheme(
                 AndroidPlatformComponentsFactory.createFromContext(parameters.getActivity()),
                 parameters.getAuthenticationScheme()
         );
 
-        final Authority authority = getAuthority(configuration, parameters);
+        final Authority authority = getAuthority(template, parameters);
 
-        final String claimsRequestJson = ClaimsRequest.getJsonStringFromClaimsRequest(
-                getClaimsRequest(
-                        parameters.getClaimsRequest(),
-                        configuration,
-                        authority
-                ));
+        final String claimsRequestJson = template.getClaimsRequestJson(
+                parameters.getClaimsRequest(),
+                authority
+        );
 
         final InteractiveTokenCommandParameters commandParameters = AndroidActivityInteractiveTokenCommandParameters
                 .builder()
@@ -172,15 +184,15 @@ public class CommandParametersAdapter {
                 .platformComponents(AndroidPlatformComponentsFactory.createFromActivity(
                         parameters.getActivity(),
                         parameters.getFragment()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
-                .clientId(configuration.getClientId())
+                .applicationName(template.getApplicationName())
+                .applicationVersion(template.getApplicationVersion())
+                .clientId(template.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .oAuth2TokenCache(tokenCache)
-                .redirectUri(configuration.getRedirectUri())
-                .requiredBrokerProtocolVersion(configuration.getRequiredBrokerProtocolVersion())
+                .redirectUri(template.getRedirectUri())
+                .requiredBrokerProtocolVersion(template.getRequiredBrokerProtocolVersion())
                 .sdkType(SdkType.MSAL)
-                .sdkVersion(PublicClientApplication.getSdkVersion())
+                .sdkVersion(template.getSdkVersion())
                 .preferredBrowser(configuration.getPreferredBrowser())
                 .browserSafeList(configuration.getBrowserSafeList())
                 .authority(authority)
@@ -212,38 +224,51 @@ public class CommandParametersAdapter {
             @NonNull final PublicClientApplicationConfiguration configuration,
             @NonNull final OAuth2TokenCache tokenCache,
             @NonNull final AcquireTokenSilentParameters parameters) throws ClientException {
-        final Authority authority = getAuthority(configuration, parameters);
+        return createSilentTokenCommandParameters(
+                new CommandParametersTemplate(configuration),
+                tokenCache,
+                parameters
+        );
+    }
 
-        final ClaimsRequest claimsRequest = parameters.getClaimsRequest();
+    /**
+     * Creates SilentTokenCommandParameters, taking the per-application values and the parsed
+     * authority from the supplied template.
+     */
+    public static SilentTokenCommandParameters createSilentTokenCommandParameters(
+            @NonNull final CommandParametersTemplate template,
+            @NonNull final OAuth2TokenCache tokenCache,
+            @NonNull final AcquireTokenSilentParameters parameters) throws ClientException {
+        final PublicClientApplicationConfiguration configuration = template.getConfiguration();
 
-        final ClaimsRequest mergedClaimsRequest = getClaimsRequest(
-                parameters.getClaimsRequest(),
-                configuration,
-                authority);
+        final Authority authority = template.getAuthority(parameters.getAuthority());
 
-        final String claimsRequestJson = ClaimsRequest.getJsonStringFromClaimsRequest(
-                mergedClaimsRequest
+        final ClaimsRequest claimsRequest = parameters.getClaimsRequest();
+
+        final String claimsRequestJson = template.getClaimsRequestJson(
+                claimsRequest,
+                authority
         );
 
         final boolean forceRefresh = claimsRequest != null || parameters.getForceRefresh();
 
         final AbstractAuthenticationScheme authenticationScheme = AuthenticationSchemeFactory.createScheme(
-                AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()),
+                template.getPlatformComponents(),
                 parameters.getAuthenticationScheme()
         );
 
         final SilentTokenCommandParameters commandParameters = SilentTokenCommandParameters
                 .builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
-                .clientId(configuration.getClientId())
+                .platformComponents(template.getPlatformComponents())
+                .applicationName(template.getApplicationName())
+                .applicationVersion(template.getApplicationVersion())
+                .clientId(template.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .oAuth2TokenCache(tokenCache)
-                .redirectUri(configuration.getRedirectUri())
-                .requiredBrokerProtocolVersion(configuration.getRequiredBrokerProtocolVersion())
+                .redirectUri(template.getRedirectUri())
+                .requiredBrokerProtocolVersion(template.getRequiredBrokerProtocolVersion())
                 .sdkType(SdkType.MSAL)
-                .sdkVersion(PublicClientApplication.getSdkVersion())
+                .sdkVersion(template.getSdkVersion())
                 .authority(authority)
                 .claimsRequestJson(claimsRequestJson)
                 .forceRefresh(forceRefresh)
@@ -1112,14 +1137,7 @@ public class CommandParametersAdapter {
     }
 
     private static String getPackageVersion(@NonNull final Context context) {
-        final String packageName = context.getPackageName();
-        try {
-            final PackageInfo packageInfo = context.getPackageManager().getPackageInfo(packageName, 0);
-            return packageInfo.versionName;
-        } catch (PackageManager.NameNotFoundException e) {
-            e.printStackTrace();
-        }
-        return null;
+        return CommandParametersTemplate.getPackageVersion(context);
     }
 
     public static Authority getRequestAuthority(
@@ -1189,64 +1207,26 @@ public class CommandParametersAdapter {
     }
 
     private static Authority getAuthority(
-            final PublicClientApplicationConfiguration configuration,
+            @NonNull final CommandParametersTemplate template,
             @NonNull final AcquireTokenParameters parameters) {
-        Authority authority;
+        final PublicClientApplicationConfiguration configuration = template.getConfiguration();
 
-        if (StringUtil.isEmpty(parameters.getAuthority())) {
-            if (parameters.getAccount() != null) {
-                authority = getRequestAuthority(configuration);
-            } else {
-                authority = configuration.getDefaultAuthority();
-            }
-        } else {
-            authority = Authority.getAuthorityFromAuthorityUrl(
-                    parameters.getAuthority()
-            );
+        if (!StringUtil.isEmpty(parameters.getAuthority())) {
+            return template.getAuthority(parameters.getAuthority());
         }
 
-        if (authority instanceof AzureActiveDirectoryAuthority) {
-            AzureActiveDirectoryAuthority aadAuthority =
-                    (AzureActiveDirectoryAuthority) authority;
-
-            aadAuthority.setMultipleCloudsSupported(
-                    configuration.getMultipleCloudsSupported()
-            );
+        final Authority authority;
+        if (parameters.getAccount() != null) {
+            authority = getRequestAuthority(configuration);
+        } else {
+            authority = configuration.getDefaultAuthority();
         }
 
-        return authority;
-    }
-
-    private static Authority getAuthority(
-            @NonNull final PublicClientApplicationConfiguration configuration,
-            @NonNull final AcquireTokenSilentParameters parameters) {
-        final String requestAuthority = parameters.getAuthority();
-        final Authority authority = Authority.getAuthorityFromAuthorityUrl(requestAuthority);
-
-        if (authority instanceof AzureActiveDirectoryAuthority) {
-            AzureActiveDirectoryAuthority aadAuthority =
-                    (AzureActiveDirectoryAuthority) authority;
-
-            aadAuthority.setMultipleCloudsSupported(configuration.getMultipleCloudsSupported());
-        }
+        template.applyMultipleCloudsSupported(authority);
 
         return authority;
     }
 
-    private static ClaimsRequest getClaimsRequest(
-            @NonNull final ClaimsRequest requestedClaims,
-            @NonNull final PublicClientApplicationConfiguration configuration,
-            @NonNull final Authority authority
-    ) {
-        if (authority instanceof AzureActiveDirectoryAuthority) {
-            //AzureActiveDirectory supports client capabilities
-            return addClientCapabilitiesToClaimsRequest(requestedClaims,
-                    configuration.getClientCapabilities());
-        } else {
-            return requestedClaims;
-        }
-    }
-
     private static String getLoginHint(@NonNull final AcquireTokenParameters parameters) {
         if (parameters.getAccount() != null) {
             final IAccount account = parameters.getAccount();
@@ -0,0 +1,232 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.PublicClientApplication;
+import com.microsoft.identity.client.PublicClientApplicationConfiguration;
+import com.microsoft.identity.client.claims.ClaimsRequest;
+import com.microsoft.identity.client.claims.RequestedClaimAdditionalInformation;
+import com.microsoft.identity.common.components.AndroidPlatformComponentsFactory;
+import com.microsoft.identity.common.java.authorities.Authority;
+import com.microsoft.identity.common.java.authorities.AzureActiveDirectoryAuthority;
+import com.microsoft.identity.common.java.interfaces.IPlatformComponents;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parts of a token command's parameters that do not change between requests made through one
+ * PublicClientApplication.
+ * <p>
+ * The package version lookup, platform components, client capability parsing and authority parsing
+ * used to be repeated for every acquireToken call. A template does that work once per application
+ * (and once per authority URL) and {@link CommandParametersAdapter} fills in only the per-request
+ * fields. Values that can change after the application is created, such as the shared device flag,
+ * are still read from the configuration on every request.
+ */
+public final class CommandParametersTemplate {
+
+    private static final String TAG = CommandParametersTemplate.class.getSimpleName();
+
+    /**
+     * Number of parsed authorities kept per application. Apps talk to one or two authorities.
+     */
+    static final int MAX_AUTHORITIES = 8;
+
+    private final PublicClientApplicationConfiguration mConfiguration;
+    private final IPlatformComponents mPlatformComponents;
+    private final String mApplicationName;
+    private final String mApplicationVersion;
+    private final String mClientId;
+    private final String mRedirectUri;
+    private final String mRequiredBrokerProtocolVersion;
+    private final String mSdkVersion;
+    private final Boolean mMultipleCloudsSupported;
+    private final List<Object> mClientCapabilities;
+    private final String mClientCapabilitiesClaimsJson;
+
+    private final Map<String, Authority> mAuthorities =
+            new LinkedHashMap<String, Authority>(MAX_AUTHORITIES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Authority> eldest) {
+                    return size() > MAX_AUTHORITIES;
+                }
+            };
+
+    public CommandParametersTemplate(@NonNull final PublicClientApplicationConfiguration configuration) {
+        final Context context = configuration.getAppContext();
+        mConfiguration = configuration;
+        mPlatformComponents = AndroidPlatformComponentsFactory.createFromContext(context);
+        mApplicationName = context.getPackageName();
+        mApplicationVersion = getPackageVersion(context);
+        mClientId = configuration.getClientId();
+        mRedirectUri = configuration.getRedirectUri();
+        mRequiredBrokerProtocolVersion = configuration.getRequiredBrokerProtocolVersion();
+        mSdkVersion = PublicClientApplication.getSdkVersion();
+        mMultipleCloudsSupported = configuration.getMultipleCloudsSupported();
+
+        final String clientCapabilities = configuration.getClientCapabilities();
+        mClientCapabilities = clientCapabilities == null
+                ? null
+                : Collections.unmodifiableList(new ArrayList<Object>(Arrays.asList(clientCapabilities.split(","))));
+        mClientCapabilitiesClaimsJson = ClaimsRequest.getJsonStringFromClaimsRequest(
+                addClientCapabilities(new ClaimsRequest())
+        );
+    }
+
+    @NonNull
+    public PublicClientApplicationConfiguration getConfiguration() {
+        return mConfiguration;
+    }
+
+    @NonNull
+    public IPlatformComponents getPlatformComponents() {
+        return mPlatformComponents;
+    }
+
+    public String getApplicationName() {
+        return mApplicationName;
+    }
+
+    public String getApplicationVersion() {
+        return mApplicationVersion;
+    }
+
+    public String getClientId() {
+        return mClientId;
+    }
+
+    public String getRedirectUri() {
+        return mRedirectUri;
+    }
+
+    public String getRequiredBrokerProtocolVersion() {
+        return mRequiredBrokerProtocolVersion;
+    }
+
+    public String getSdkVersion() {
+        return mSdkVersion;
+    }
+
+    /**
+     * Returns the parsed authority for the supplied URL, parsing it only the first time it is seen.
+     * <p>
+     * The returned instance is shared by every command created for this URL, the same way the
+     * controller factory for it is shared. It is not mutated after it has been cached.
+     */
+    @NonNull
+    public Authority getAuthority(@Nullable final String authorityUrl) {
+        final String key = authorityUrl == null ? "" : authorityUrl;
+        synchronized (mAuthorities) {
+            final Authority cached = mAuthorities.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        final Authority authority = Authority.getAuthorityFromAuthorityUrl(authorityUrl);
+        applyMultipleCloudsSupported(authority);
+
+        synchronized (mAuthorities) {
+            final Authority raced = mAuthorities.get(key);
+            if (raced != null) {
+                return raced;
+            }
+            mAuthorities.put(key, authority);
+        }
+
+        return authority;
+    }
+
+    /**
+     * Sets the configured multiple clouds flag on an AAD authority.
+     */
+    void applyMultipleCloudsSupported(@Nullable final Authority authority) {
+        if (authority instanceof AzureActiveDirectoryAuthority) {
+            ((AzureActiveDirectoryAuthority) authority).setMultipleCloudsSupported(mMultipleCloudsSupported);
+        }
+    }
+
+    /**
+     * Returns the claims JSON to send for a request, adding the configured client capabilities
+     * for AAD authorities. The common case of no requested claims reuses a precomputed value.
+     */
+    @Nullable
+    public String getClaimsRequestJson(@Nullable final ClaimsRequest requestedClaims,
+                                       @NonNull final Authority authority) {
+        if (!(authority instanceof AzureActiveDirectoryAuthority)) {
+            return ClaimsRequest.getJsonStringFromClaimsRequest(requestedClaims);
+        }
+
+        if (requestedClaims == null) {
+            return mClientCapabilitiesClaimsJson;
+        }
+
+        return ClaimsRequest.getJsonStringFromClaimsRequest(addClientCapabilities(requestedClaims));
+    }
+
+    /**
+     * Number of parsed authorities currently held.
+     */
+    int getCachedAuthorityCount() {
+        synchronized (mAuthorities) {
+            return mAuthorities.size();
+        }
+    }
+
+    @NonNull
+    private ClaimsRequest addClientCapabilities(@NonNull final ClaimsRequest claimsRequest) {
+        if (mClientCapabilities != null) {
+            final RequestedClaimAdditionalInformation info = new RequestedClaimAdditionalInformation();
+            info.setValues(new ArrayList<>(mClientCapabilities));
+            claimsRequest.requestClaimInAccessToken(CommandParametersAdapter.CLIENT_CAPABILITIES_CLAIM, info);
+        }
+
+        return claimsRequest;
+    }
+
+    @Nullable
+    static String getPackageVersion(@NonNull final Context context) {
+        final String methodTag = TAG + ":getPackageVersion";
+        final String packageName = context.getPackageName();
+        try {
+            final PackageInfo packageInfo = context.getPackageManager().getPackageInfo(packageName, 0);
+            return packageInfo.versionName;
+        } catch (PackageManager.NameNotFoundException e) {
+            Logger.warn(methodTag, "Unable to read the version of " + packageName);
+        }
+        return null;
+    }
+}
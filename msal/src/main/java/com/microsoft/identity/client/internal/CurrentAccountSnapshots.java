@@ -0,0 +1,96 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.MultiTenantAccount;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide in-memory copies of the current account persisted by single account applications,
+ * by client id.
+ * <p>
+ * Every single account application in the process persists its current account to the same shared
+ * preferences, so a write through any of them drops the copies held for every client id. Writers
+ * and loaders hold the SingleAccountPublicClientApplication class lock.
+ */
+public final class CurrentAccountSnapshots {
+
+    /**
+     * Immutable holder of the current account, distinguishing "no current account" from
+     * "not loaded yet".
+     */
+    public static final class Snapshot {
+        @Nullable
+        private final MultiTenantAccount mAccount;
+
+        private Snapshot(@Nullable final MultiTenantAccount account) {
+            mAccount = account;
+        }
+
+        @Nullable
+        public MultiTenantAccount getAccount() {
+            return mAccount;
+        }
+    }
+
+    private static final Map<String, Snapshot> sSnapshots = new ConcurrentHashMap<>();
+
+    private CurrentAccountSnapshots() {
+    }
+
+    /**
+     * @return the snapshot loaded for the client id, or null if it has to be loaded.
+     */
+    @Nullable
+    public static Snapshot get(@NonNull final String clientId) {
+        return sSnapshots.get(clientId);
+    }
+
+    /**
+     * Records the account loaded from shared preferences for the client id.
+     */
+    public static void onLoaded(@NonNull final String clientId, @Nullable final MultiTenantAccount account) {
+        sSnapshots.put(clientId, new Snapshot(account));
+    }
+
+    /**
+     * Records the account just written to shared preferences through the client id. The copies of
+     * every other client id are dropped.
+     */
+    public static void onWritten(@NonNull final String clientId, @Nullable final MultiTenantAccount account) {
+        sSnapshots.clear();
+        sSnapshots.put(clientId, new Snapshot(account));
+    }
+
+    /**
+     * Drops every copy, after the persisted account was removed without a new one being known.
+     */
+    public static void invalidate() {
+        sSnapshots.clear();
+    }
+}
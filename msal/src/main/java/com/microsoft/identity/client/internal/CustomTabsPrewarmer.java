@@ -0,0 +1,210 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.browser.customtabs.CustomTabsClient;
+import androidx.browser.customtabs.CustomTabsServiceConnection;
+
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide connection to the Custom Tabs service of the browser used for interactive requests,
+ * held only to warm the browser up ahead of the next interactive request.
+ * <p>
+ * Binding is asynchronous: {@link #prewarm(Context, String)} returns as soon as the bind has been
+ * requested, and the browser is warmed up from the connection callback. The browser launch of an
+ * interactive request binds its own connection, so this one is released when an interactive
+ * request starts, or once it has been idle for {@link #IDLE_TIMEOUT_MILLIS}, whichever comes first.
+ */
+public final class CustomTabsPrewarmer {
+
+    private static final String TAG = CustomTabsPrewarmer.class.getSimpleName();
+
+    /**
+     * Time after the last prewarm at which the connection is released if no interactive request
+     * started in the meantime.
+     */
+    static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final CustomTabsPrewarmer INSTANCE = new CustomTabsPrewarmer(
+            new IServiceBinder() {
+                @Override
+                public boolean bind(@NonNull final Context context,
+                                    @NonNull final String browserPackage,
+                                    @NonNull final CustomTabsServiceConnection connection) {
+                    return CustomTabsClient.bindCustomTabsService(context, browserPackage, connection);
+                }
+            },
+            new Handler(Looper.getMainLooper())
+    );
+
+    /**
+     * Starts the bind of a Custom Tabs service. Exists so that tests can drive the connection.
+     */
+    interface IServiceBinder {
+        boolean bind(@NonNull Context context,
+                     @NonNull String browserPackage,
+                     @NonNull CustomTabsServiceConnection connection);
+    }
+
+    private final IServiceBinder mServiceBinder;
+    private final Handler mHandler;
+    private final Object mLock = new Object();
+    private final Runnable mIdleRelease = new Runnable() {
+        @Override
+        public void run() {
+            Logger.verbose(TAG + ":idleRelease", "No interactive request followed the prewarm, releasing.");
+            release();
+        }
+    };
+
+    // Guarded by mLock.
+    private PrewarmConnection mConnection;
+
+    CustomTabsPrewarmer(@NonNull final IServiceBinder serviceBinder,
+                        @NonNull final Handler handler) {
+        mServiceBinder = serviceBinder;
+        mHandler = handler;
+    }
+
+    /**
+     * @return the process-wide instance.
+     */
+    @NonNull
+    public static CustomTabsPrewarmer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Binds the Custom Tabs service of the given browser and warms the browser up, if not done
+     * already. Never blocks on the service connection.
+     *
+     * @param context        any context; the application context is used for the bind.
+     * @param browserPackage package of the browser whose Custom Tabs service is used.
+     */
+    public void prewarm(@NonNull final Context context,
+                        @NonNull final String browserPackage) {
+        final String methodTag = TAG + ":prewarm";
+
+        synchronized (mLock) {
+            if (mConnection == null || !mConnection.mBrowserPackage.equals(browserPackage)) {
+                releaseLocked();
+
+                final Context appContext = context.getApplicationContext();
+                final PrewarmConnection connection = new PrewarmConnection(appContext, browserPackage);
+                if (!mServiceBinder.bind(appContext, browserPackage, connection)) {
+                    Logger.warn(methodTag, "Failed to bind the Custom Tabs service of " + browserPackage);
+                    return;
+                }
+                mConnection = connection;
+            }
+        }
+
+        mHandler.removeCallbacks(mIdleRelease);
+        mHandler.postDelayed(mIdleRelease, IDLE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @return whether a connection is bound, or being bound.
+     */
+    boolean isBound() {
+        synchronized (mLock) {
+            return mConnection != null;
+        }
+    }
+
+    /**
+     * Unbinds the Custom Tabs service, if bound. Called when an interactive request starts, since
+     * its browser launch binds its own connection; the browser stays warm.
+     */
+    public void release() {
+        mHandler.removeCallbacks(mIdleRelease);
+        synchronized (mLock) {
+            releaseLocked();
+        }
+    }
+
+    private void releaseLocked() {
+        final String methodTag = TAG + ":releaseLocked";
+        if (mConnection == null) {
+            return;
+        }
+
+        final PrewarmConnection connection = mConnection;
+        mConnection = null;
+        try {
+            connection.mAppContext.unbindService(connection);
+        } catch (final IllegalArgumentException e) {
+            // The service was never connected or has already gone away.
+            Logger.warn(methodTag, "Custom Tabs service was not bound: " + e.getMessage());
+        }
+    }
+
+    private final class PrewarmConnection extends CustomTabsServiceConnection {
+
+        private final Context mAppContext;
+        private final String mBrowserPackage;
+
+        PrewarmConnection(@NonNull final Context appContext,
+                          @NonNull final String browserPackage) {
+            mAppContext = appContext;
+            mBrowserPackage = browserPackage;
+        }
+
+        @Override
+        public void onCustomTabsServiceConnected(@NonNull final ComponentName name,
+                                                 @NonNull final CustomTabsClient client) {
+            final String methodTag = TAG + ":onCustomTabsServiceConnected";
+            synchronized (mLock) {
+                if (mConnection != this) {
+                    // Released or replaced while connecting.
+                    return;
+                }
+            }
+
+            if (client.warmup(0L)) {
+                Logger.info(methodTag, "Custom Tabs service of " + mBrowserPackage + " is warmed up.");
+            } else {
+                Logger.verbose(methodTag, "Browser declined to warm up.");
+            }
+        }
+
+        @Override
+        public void onServiceDisconnected(@NonNull final ComponentName name) {
+            // Drop the binding so that the next prewarm starts over.
+            synchronized (mLock) {
+                if (mConnection == this) {
+                    releaseLocked();
+                }
+            }
+        }
+    }
+}
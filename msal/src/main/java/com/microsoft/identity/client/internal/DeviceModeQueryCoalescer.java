@@ -0,0 +1,105 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.common.java.commands.CommandCallback;
+import com.microsoft.identity.common.java.exception.BaseException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process-wide coalescing of the device mode (shared or not) queries made to the broker.
+ * <p>
+ * Creating an application asks the broker for the device mode, which is a cross-process call.
+ * Applications created while a query is in flight wait for its answer instead of making their own.
+ * Queries are keyed by broker eligibility: an application that cannot use the broker is answered by
+ * the local controller, so it never shares a query with one that asks the broker.
+ * The answer is not kept once delivered: the device can be registered as shared without any package
+ * changing, so every later application asks the broker again.
+ */
+public final class DeviceModeQueryCoalescer {
+
+    private static final DeviceModeQueryCoalescer sInstance = new DeviceModeQueryCoalescer();
+
+    // Guarded by this. A key is absent when no query is in flight for it.
+    private final Map<Boolean, List<CommandCallback<Boolean, BaseException>>> mWaiters = new HashMap<>();
+
+    DeviceModeQueryCoalescer() {
+    }
+
+    @NonNull
+    public static DeviceModeQueryCoalescer getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Registers a caller interested in the device mode.
+     *
+     * @param brokerEligible whether the caller's application may use the broker.
+     * @param callback       notified with the answer of the query.
+     * @return true if no query is in flight for the same broker eligibility and the caller must
+     * start one, reporting its outcome with {@link #onQueryCompleted} or {@link #onQueryFailed}.
+     */
+    public synchronized boolean join(final boolean brokerEligible,
+                                     @NonNull final CommandCallback<Boolean, BaseException> callback) {
+        final List<CommandCallback<Boolean, BaseException>> waiters = mWaiters.get(brokerEligible);
+        if (waiters != null) {
+            waiters.add(callback);
+            return false;
+        }
+
+        final List<CommandCallback<Boolean, BaseException>> newWaiters = new ArrayList<>();
+        newWaiters.add(callback);
+        mWaiters.put(brokerEligible, newWaiters);
+        return true;
+    }
+
+    /**
+     * Delivers the answer of the query in flight to every caller waiting on it.
+     */
+    public void onQueryCompleted(final boolean brokerEligible, final boolean isSharedDevice) {
+        for (final CommandCallback<Boolean, BaseException> waiter : takeWaiters(brokerEligible)) {
+            waiter.onTaskCompleted(isSharedDevice);
+        }
+    }
+
+    /**
+     * Delivers the failure of the query in flight to every caller waiting on it.
+     */
+    public void onQueryFailed(final boolean brokerEligible, @NonNull final BaseException error) {
+        for (final CommandCallback<Boolean, BaseException> waiter : takeWaiters(brokerEligible)) {
+            waiter.onError(error);
+        }
+    }
+
+    @NonNull
+    private synchronized List<CommandCallback<Boolean, BaseException>> takeWaiters(final boolean brokerEligible) {
+        final List<CommandCallback<Boolean, BaseException>> waiters = mWaiters.remove(brokerEligible);
+        return waiters != null ? waiters : new ArrayList<CommandCallback<Boolean, BaseException>>();
+    }
+}
@@ -0,0 +1,225 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.configuration.ThreadingConfiguration;
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded executor used by {@link com.microsoft.identity.client.PublicClientApplication} to prepare
+ * requests off the calling thread.
+ * <p>
+ * At most {@link #getPoolSize()} threads, named "msal-background-N", run at once and at most
+ * {@link #getQueueCapacity()} tasks wait for one of them. Idle threads are released after the
+ * keep-alive time. Tasks submitted past those limits are rejected with an
+ * {@link MsalClientException} carrying {@link MsalClientException#BACKGROUND_EXECUTOR_REJECTED}
+ * instead of spawning more threads. Queue depth, active threads and queue wait time are exposed
+ * so that saturation can be observed.
+ * <p>
+ * Instances are shared per distinct configuration, so several applications created with the
+ * same settings do not multiply the thread count.
+ */
+public class MsalExecutor {
+
+    private static final String TAG = MsalExecutor.class.getSimpleName();
+
+    public static final int DEFAULT_POOL_SIZE = 8;
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+    public static final long DEFAULT_KEEP_ALIVE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final String THREAD_NAME_PREFIX = "msal-background-";
+    private static final AtomicInteger sThreadCount = new AtomicInteger();
+    private static final Map<String, MsalExecutor> sExecutors = new HashMap<>();
+
+    private final int mPoolSize;
+    private final int mQueueCapacity;
+    private final ThreadPoolExecutor mExecutor;
+
+    private final AtomicLong mTotalWaitNanos = new AtomicLong();
+    private final AtomicLong mMaxWaitNanos = new AtomicLong();
+    private final AtomicLong mStartedTaskCount = new AtomicLong();
+    private final AtomicLong mRejectedTaskCount = new AtomicLong();
+
+    /**
+     * Returns the executor for the library defaults.
+     */
+    @NonNull
+    public static MsalExecutor getDefault() {
+        return forConfiguration(null);
+    }
+
+    /**
+     * Returns the shared executor for the given settings, creating it on first use.
+     *
+     * @param configuration The threading settings, or null for the library defaults.
+     */
+    @NonNull
+    public static MsalExecutor forConfiguration(@Nullable final ThreadingConfiguration configuration) {
+        final int poolSize = configuration != null && configuration.getPoolSize() > 0
+                ? configuration.getPoolSize()
+                : DEFAULT_POOL_SIZE;
+        final int queueCapacity = configuration != null && configuration.getQueueCapacity() > 0
+                ? configuration.getQueueCapacity()
+                : DEFAULT_QUEUE_CAPACITY;
+        final long keepAliveMillis = configuration != null && configuration.getKeepAliveMillis() > 0
+                ? configuration.getKeepAliveMillis()
+                : DEFAULT_KEEP_ALIVE_MILLIS;
+
+        final String key = poolSize + "|" + queueCapacity + "|" + keepAliveMillis;
+        synchronized (sExecutors) {
+            MsalExecutor executor = sExecutors.get(key);
+            if (executor == null) {
+                executor = new MsalExecutor(poolSize, queueCapacity, keepAliveMillis);
+                sExecutors.put(key, executor);
+            }
+            return executor;
+        }
+    }
+
+    MsalExecutor(final int poolSize, final int queueCapacity, final long keepAliveMillis) {
+        mPoolSize = poolSize;
+        mQueueCapacity = queueCapacity;
+        // core == max with core time-out: grows to poolSize before queueing, shrinks when idle.
+        mExecutor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                keepAliveMillis,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(queueCapacity),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(@NonNull final Runnable runnable) {
+                        final Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + sThreadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        mExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Schedules the task.
+     *
+     * @param task The task to run.
+     * @throws MsalClientException with {@link MsalClientException#BACKGROUND_EXECUTOR_REJECTED}
+     *                             if both the threads and the queue are full.
+     */
+    public void execute(@NonNull final Runnable task) throws MsalClientException {
+        final String methodTag = TAG + ":execute";
+        final long enqueuedAt = System.nanoTime();
+        try {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    recordWait(System.nanoTime() - enqueuedAt);
+                    task.run();
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            mRejectedTaskCount.incrementAndGet();
+            Logger.warn(methodTag, "Background executor saturated: active="
+                    + getActiveCount() + ", queued=" + getQueueDepth());
+            throw new MsalClientException(
+                    MsalClientException.BACKGROUND_EXECUTOR_REJECTED,
+                    "MSAL background executor is saturated (" + mPoolSize + " threads, "
+                            + mQueueCapacity + " queued tasks).",
+                    e
+            );
+        }
+    }
+
+    private void recordWait(final long waitNanos) {
+        mStartedTaskCount.incrementAndGet();
+        mTotalWaitNanos.addAndGet(waitNanos);
+        long max = mMaxWaitNanos.get();
+        while (waitNanos > max && !mMaxWaitNanos.compareAndSet(max, waitNanos)) {
+            max = mMaxWaitNanos.get();
+        }
+    }
+
+    /**
+     * @return The maximum number of threads.
+     */
+    public int getPoolSize() {
+        return mPoolSize;
+    }
+
+    /**
+     * @return The maximum number of tasks waiting for a thread.
+     */
+    public int getQueueCapacity() {
+        return mQueueCapacity;
+    }
+
+    /**
+     * @return The number of tasks currently waiting for a thread.
+     */
+    public int getQueueDepth() {
+        return mExecutor.getQueue().size();
+    }
+
+    /**
+     * @return The approximate number of threads currently running a task.
+     */
+    public int getActiveCount() {
+        return mExecutor.getActiveCount();
+    }
+
+    /**
+     * @return The number of tasks rejected because the executor was saturated.
+     */
+    public long getRejectedTaskCount() {
+        return mRejectedTaskCount.get();
+    }
+
+    /**
+     * @return The mean time, in milliseconds, a task spent queued before it started.
+     */
+    public long getAverageWaitTimeMillis() {
+        final long started = mStartedTaskCount.get();
+        return started == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(mTotalWaitNanos.get() / started);
+    }
+
+    /**
+     * @return The longest time, in milliseconds, a task spent queued before it started.
+     */
+    public long getMaxWaitTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(mMaxWaitNanos.get());
+    }
+}
@@ -240,22 +240,7 @@ public final class MsalUtils {
     @Deprecated
     public static boolean hasCustomTabRedirectActivity(@NonNull final Context context,
                                                        @NonNull final String url) {
-        final PackageManager packageManager = context.getPackageManager();
-
-        if (packageManager == null) {
-            return false;
-        }
-
-        final Intent intent = new Intent();
-        intent.setAction(Intent.ACTION_VIEW);
-        intent.addCategory(Intent.CATEGORY_DEFAULT);
-        intent.addCategory(Intent.CATEGORY_BROWSABLE);
-        intent.setDataAndNormalize(Uri.parse(url));
-
-        final List<ResolveInfo> resolveInfoList = packageManager.queryIntentActivities(
-                intent,
-                PackageManager.GET_RESOLVED_FILTER
-        );
+        final List<ResolveInfo> resolveInfoList = queryRedirectActivities(context, url);
 
         // resolve info list will never be null, if no matching activities are found, empty list will be returned.
         boolean hasActivity = false;
@@ -284,6 +269,28 @@ public final class MsalUtils {
         return hasActivity;
     }
 
+    /**
+     * Gets the activities that handle the given redirect uri, through {@link PackageResolutionCache}.
+     *
+     * @param context the context of the application
+     * @param url     the redirect uri of the app
+     * @return the matching activities; never null.
+     */
+    @NonNull
+    public static List<ResolveInfo> queryRedirectActivities(@NonNull final Context context,
+                                                            @NonNull final String url) {
+        final Intent intent = new Intent();
+        intent.setAction(Intent.ACTION_VIEW);
+        intent.addCategory(Intent.CATEGORY_DEFAULT);
+        intent.addCategory(Intent.CATEGORY_BROWSABLE);
+        intent.setDataAndNormalize(Uri.parse(url));
+
+        return PackageResolutionCache.getInstance(context).queryIntentActivities(
+                intent,
+                PackageManager.GET_RESOLVED_FILTER
+        );
+    }
+
     /**
      * Check if the chrome package with custom tab support is available on the device, and return the package name if
      * available.
@@ -293,20 +300,12 @@ public final class MsalUtils {
      */
     public static String getChromePackageWithCustomTabSupport(final Context context) {
         final String methodTag = TAG + ":getChromePackageWithCustomTabSupport";
-        if (context.getPackageManager() == null) {
-            com.microsoft.identity.common.internal.logging.Logger.warn(
-                    methodTag,
-                    "getPackageManager() returned null."
-            );
-            return null;
-        }
-
         final Intent customTabServiceIntent = new Intent(CustomTabsService.ACTION_CUSTOM_TABS_CONNECTION);
-        final List<ResolveInfo> resolveInfoList = context.getPackageManager().queryIntentServices(
+        final List<ResolveInfo> resolveInfoList = PackageResolutionCache.getInstance(context).queryIntentServices(
                 customTabServiceIntent, 0);
 
-        // queryIntentServices could return null or an empty list if no matching service existed.
-        if (resolveInfoList == null || resolveInfoList.isEmpty()) {
+        // The list is empty if no matching service existed or the PackageManager is unavailable.
+        if (resolveInfoList.isEmpty()) {
             com.microsoft.identity.common.internal.logging.Logger.warn(
                     methodTag,
                     "No Service responded to Intent: " + CustomTabsService.ACTION_CUSTOM_TABS_CONNECTION
@@ -338,25 +337,20 @@ public final class MsalUtils {
      */
     public static String getChromePackage(final Context context) {
         final String methodTag = TAG + ":getChromePackage";
-        final PackageManager packageManager = context.getPackageManager();
-        if (packageManager == null) {
+        final PackageInfo packageInfo = PackageResolutionCache.getInstance(context)
+                .getPackageInfo(CHROME_PACKAGE, PackageManager.GET_ACTIVITIES);
+        if (packageInfo == null) {
+            com.microsoft.identity.common.internal.logging.Logger.warn(
+                    methodTag,
+                    "Failed to retrieve chrome package info."
+            );
             return null;
         }
 
         String installedChromePackage = null;
-        try {
-            PackageInfo packageInfo = packageManager.getPackageInfo(CHROME_PACKAGE, PackageManager.GET_ACTIVITIES);
-            ApplicationInfo applicationInfo = packageInfo.applicationInfo;
-            if (applicationInfo != null && applicationInfo.enabled) {
-                installedChromePackage = CHROME_PACKAGE;
-            }
-        } catch (final PackageManager.NameNotFoundException e) {
-            // swallow this exception. If the package is not existed, the exception will be thrown.
-            com.microsoft.identity.common.internal.logging.Logger.error(
-                    methodTag,
-                    "Failed to retrieve chrome package info.",
-                    e
-            );
+        final ApplicationInfo applicationInfo = packageInfo.applicationInfo;
+        if (applicationInfo != null && applicationInfo.enabled) {
+            installedChromePackage = CHROME_PACKAGE;
         }
 
         return installedChromePackage;
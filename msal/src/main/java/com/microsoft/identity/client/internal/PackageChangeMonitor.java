@@ -0,0 +1,124 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Notifies listeners when an app is installed, updated or removed.
+ * <p>
+ * Results that depend on which broker apps are installed (such as broker discovery) are
+ * cached and dropped when this fires. The receiver is registered once per process.
+ */
+public final class PackageChangeMonitor {
+
+    private static final String TAG = PackageChangeMonitor.class.getSimpleName();
+
+    private static volatile PackageChangeMonitor sInstance;
+
+    /**
+     * Called on the main thread when a package changes.
+     */
+    public interface IPackageChangeListener {
+        void onPackageChanged(@Nullable String packageName);
+    }
+
+    private final List<IPackageChangeListener> mListeners = new CopyOnWriteArrayList<>();
+
+    PackageChangeMonitor() {
+    }
+
+    /**
+     * @return the process-wide monitor, registering its receiver on first use.
+     */
+    @NonNull
+    public static PackageChangeMonitor getInstance(@NonNull final Context context) {
+        PackageChangeMonitor instance = sInstance;
+        if (instance == null) {
+            synchronized (PackageChangeMonitor.class) {
+                instance = sInstance;
+                if (instance == null) {
+                    instance = new PackageChangeMonitor();
+                    instance.register(context.getApplicationContext());
+                    sInstance = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    public void addListener(@NonNull final IPackageChangeListener listener) {
+        mListeners.add(listener);
+    }
+
+    public void removeListener(@NonNull final IPackageChangeListener listener) {
+        mListeners.remove(listener);
+    }
+
+    @VisibleForTesting
+    int getListenerCount() {
+        return mListeners.size();
+    }
+
+    void notifyPackageChanged(@Nullable final String packageName) {
+        for (final IPackageChangeListener listener : mListeners) {
+            listener.onPackageChanged(packageName);
+        }
+    }
+
+    private void register(@NonNull final Context context) {
+        final String methodTag = TAG + ":register";
+        final IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        filter.addDataScheme("package");
+
+        try {
+            context.registerReceiver(new BroadcastReceiver() {
+                @Override
+                public void onReceive(final Context context, final Intent intent) {
+                    final Uri data = intent.getData();
+                    notifyPackageChanged(data == null ? null : data.getSchemeSpecificPart());
+                }
+            }, filter);
+        } catch (final RuntimeException e) {
+            // Caches relying on this fall back to their time-to-live.
+            Logger.warn(methodTag, "Unable to register for package changes: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,234 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide cache of the {@link PackageManager} lookups done for every interactive request:
+ * which browser supports Custom Tabs, whether Chrome is installed, and which activities handle the
+ * redirect URI.
+ * <p>
+ * Each lookup is a binder call into the system server. The answers only change when a package is
+ * installed, updated, enabled or removed, so they are kept until {@link PackageChangeMonitor}
+ * reports such a change. Returned objects are shared and must not be modified.
+ */
+public final class PackageResolutionCache {
+
+    private static final String TAG = PackageResolutionCache.class.getSimpleName();
+
+    // Stands in for a null result, which ConcurrentHashMap cannot hold.
+    private static final Object NOT_FOUND = new Object();
+
+    private static volatile PackageResolutionCache sInstance;
+
+    // Guarded by PackageResolutionCache.class. The listener always invalidates the current
+    // instance, so replacing the instance does not add another one.
+    private static boolean sPackageChangeListenerRegistered;
+
+    private final Context mContext;
+    private final Map<String, Object> mResults = new ConcurrentHashMap<>();
+    private final AtomicLong mGeneration = new AtomicLong();
+
+    PackageResolutionCache(@NonNull final Context context) {
+        mContext = context;
+    }
+
+    /**
+     * @return the process-wide cache, invalidated on package changes. A new cache is started if
+     * the application context is not the one the current cache was created with, which only happens
+     * in tests.
+     */
+    @NonNull
+    public static PackageResolutionCache getInstance(@NonNull final Context context) {
+        final Context appContext = context.getApplicationContext() != null
+                ? context.getApplicationContext()
+                : context;
+        PackageResolutionCache instance = sInstance;
+        if (instance == null || instance.mContext != appContext) {
+            synchronized (PackageResolutionCache.class) {
+                instance = sInstance;
+                if (instance == null || instance.mContext != appContext) {
+                    instance = new PackageResolutionCache(appContext);
+                    sInstance = instance;
+                    registerPackageChangeListener(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static void registerPackageChangeListener(@NonNull final Context context) {
+        if (sPackageChangeListenerRegistered) {
+            return;
+        }
+
+        PackageChangeMonitor.getInstance(context).addListener(
+                new PackageChangeMonitor.IPackageChangeListener() {
+                    @Override
+                    public void onPackageChanged(@Nullable final String packageName) {
+                        final PackageResolutionCache instance = sInstance;
+                        if (instance != null) {
+                            instance.invalidate();
+                        }
+                    }
+                }
+        );
+        sPackageChangeListenerRegistered = true;
+    }
+
+    /**
+     * Cached {@link PackageManager#queryIntentServices(Intent, int)}.
+     *
+     * @return the matching services, empty if there are none or the PackageManager is unavailable.
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public List<ResolveInfo> queryIntentServices(@NonNull final Intent intent, final int flags) {
+        final String key = "services:" + flags + ":" + intent.toUri(0);
+        final Object cached = mResults.get(key);
+        if (cached != null) {
+            return (List<ResolveInfo>) cached;
+        }
+
+        final long generation = mGeneration.get();
+        final PackageManager packageManager = getPackageManager();
+        final List<ResolveInfo> result = packageManager == null
+                ? null
+                : packageManager.queryIntentServices(intent, flags);
+        return (List<ResolveInfo>) publish(key, generation, immutable(result));
+    }
+
+    /**
+     * Cached {@link PackageManager#queryIntentActivities(Intent, int)}.
+     *
+     * @return the matching activities, empty if there are none or the PackageManager is unavailable.
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public List<ResolveInfo> queryIntentActivities(@NonNull final Intent intent, final int flags) {
+        final String key = "activities:" + flags + ":" + intent.toUri(0);
+        final Object cached = mResults.get(key);
+        if (cached != null) {
+            return (List<ResolveInfo>) cached;
+        }
+
+        final long generation = mGeneration.get();
+        final PackageManager packageManager = getPackageManager();
+        final List<ResolveInfo> result = packageManager == null
+                ? null
+                : packageManager.queryIntentActivities(intent, flags);
+        return (List<ResolveInfo>) publish(key, generation, immutable(result));
+    }
+
+    /**
+     * Cached {@link PackageManager#getPackageInfo(String, int)}.
+     *
+     * @return the package info, or null if the package is not installed or the PackageManager is
+     * unavailable.
+     */
+    @Nullable
+    public PackageInfo getPackageInfo(@NonNull final String packageName, final int flags) {
+        final String methodTag = TAG + ":getPackageInfo";
+        final String key = "package:" + flags + ":" + packageName;
+        final Object cached = mResults.get(key);
+        if (cached != null) {
+            return cached == NOT_FOUND ? null : (PackageInfo) cached;
+        }
+
+        final long generation = mGeneration.get();
+        final PackageManager packageManager = getPackageManager();
+        PackageInfo result = null;
+        if (packageManager != null) {
+            try {
+                result = packageManager.getPackageInfo(packageName, flags);
+            } catch (final PackageManager.NameNotFoundException e) {
+                Logger.verbose(methodTag, "Package " + packageName + " is not installed.");
+            }
+        }
+
+        final Object published = publish(key, generation, result == null ? NOT_FOUND : result);
+        return published == NOT_FOUND ? null : (PackageInfo) published;
+    }
+
+    /**
+     * Drops every cached answer.
+     */
+    public void invalidate() {
+        mGeneration.incrementAndGet();
+        mResults.clear();
+    }
+
+    @Nullable
+    private PackageManager getPackageManager() {
+        final String methodTag = TAG + ":getPackageManager";
+        final PackageManager packageManager = mContext.getPackageManager();
+        if (packageManager == null) {
+            Logger.warn(methodTag, "getPackageManager() returned null.");
+        }
+        return packageManager;
+    }
+
+    /**
+     * Stores the result unless the cache was invalidated while it was being looked up, in which
+     * case it may already be stale and is only handed to this caller.
+     */
+    @NonNull
+    private Object publish(@NonNull final String key, final long generation, @NonNull final Object result) {
+        if (mGeneration.get() != generation) {
+            return result;
+        }
+
+        final Object existing = mResults.putIfAbsent(key, result);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (mGeneration.get() != generation) {
+            mResults.remove(key, result);
+        }
+        return result;
+    }
+
+    @NonNull
+    private static List<ResolveInfo> immutable(@Nullable final List<ResolveInfo> list) {
+        return list == null || list.isEmpty()
+                ? Collections.<ResolveInfo>emptyList()
+                : Collections.unmodifiableList(list);
+    }
+}
@@ -0,0 +1,261 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, normalized set of scopes.
+ * <p>
+ * Scopes are trimmed, lower-cased, de-duplicated and sorted once, and the canonical space-delimited
+ * form and hash are computed up front. Instances are interned: equal scope sets created while the
+ * intern table holds them are the same object, so comparisons on the hot path are usually an
+ * identity check. Set operations walk the two sorted arrays in a single pass.
+ */
+public final class ScopeSet {
+
+    /**
+     * Number of distinct scope sets kept in the intern table. Apps request a handful of distinct
+     * scope sets, so this is far above the expected working set.
+     */
+    static final int MAX_INTERNED = 128;
+
+    private static final ScopeSet EMPTY = new ScopeSet(new String[0], "");
+
+    private static final Map<String, ScopeSet> sInterned =
+            new LinkedHashMap<String, ScopeSet>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, ScopeSet> eldest) {
+                    return size() > MAX_INTERNED;
+                }
+            };
+
+    private final String[] mScopes;
+    private final String mCanonical;
+    private final int mHash;
+    private final List<String> mScopeList;
+
+    private ScopeSet(@NonNull final String[] sortedScopes, @NonNull final String canonical) {
+        mScopes = sortedScopes;
+        mCanonical = canonical;
+        mHash = canonical.hashCode();
+        mScopeList = Collections.unmodifiableList(Arrays.asList(sortedScopes));
+    }
+
+    /**
+     * @return the scope set for the supplied scopes; null and blank entries are ignored.
+     */
+    @NonNull
+    public static ScopeSet of(@Nullable final Collection<String> scopes) {
+        if (scopes == null || scopes.isEmpty()) {
+            return EMPTY;
+        }
+        return create(scopes.toArray(new String[0]));
+    }
+
+    /**
+     * @return the scope set for the supplied scopes; null and blank entries are ignored.
+     */
+    @NonNull
+    public static ScopeSet of(@Nullable final String[] scopes) {
+        if (scopes == null || scopes.length == 0) {
+            return EMPTY;
+        }
+        return create(scopes.clone());
+    }
+
+    /**
+     * @return the scope set for a whitespace-delimited scope string, as found in token responses.
+     */
+    @NonNull
+    public static ScopeSet parse(@Nullable final String scopes) {
+        if (scopes == null || scopes.trim().isEmpty()) {
+            return EMPTY;
+        }
+        return create(scopes.trim().split("\\s+"));
+    }
+
+    /**
+     * @param scopes a scratch array that may be modified.
+     */
+    @NonNull
+    private static ScopeSet create(@NonNull final String[] scopes) {
+        int count = 0;
+        for (final String scope : scopes) {
+            final String normalized = scope == null ? "" : scope.trim().toLowerCase(Locale.ROOT);
+            if (!normalized.isEmpty()) {
+                scopes[count++] = normalized;
+            }
+        }
+
+        if (count == 0) {
+            return EMPTY;
+        }
+
+        Arrays.sort(scopes, 0, count);
+
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (!scopes[i].equals(scopes[distinct - 1])) {
+                scopes[distinct++] = scopes[i];
+            }
+        }
+
+        final String[] sorted = Arrays.copyOf(scopes, distinct);
+        final StringBuilder canonical = new StringBuilder(sorted[0]);
+        for (int i = 1; i < sorted.length; i++) {
+            canonical.append(' ').append(sorted[i]);
+        }
+
+        return intern(sorted, canonical.toString());
+    }
+
+    @NonNull
+    private static ScopeSet intern(@NonNull final String[] sorted, @NonNull final String canonical) {
+        synchronized (sInterned) {
+            ScopeSet scopeSet = sInterned.get(canonical);
+            if (scopeSet == null) {
+                scopeSet = new ScopeSet(sorted, canonical);
+                sInterned.put(canonical, scopeSet);
+            }
+            return scopeSet;
+        }
+    }
+
+    public int size() {
+        return mScopes.length;
+    }
+
+    public boolean isEmpty() {
+        return mScopes.length == 0;
+    }
+
+    /**
+     * @return true if the scope, compared case-insensitively, is in this set.
+     */
+    public boolean contains(@Nullable final String scope) {
+        return scope != null
+                && Arrays.binarySearch(mScopes, scope.trim().toLowerCase(Locale.ROOT)) >= 0;
+    }
+
+    /**
+     * @return true if every scope of {@code other} is in this set.
+     */
+    public boolean containsAll(@NonNull final ScopeSet other) {
+        return this == other || other.difference(this).isEmpty();
+    }
+
+    /**
+     * @return true if the two sets share at least one scope.
+     */
+    public boolean intersects(@NonNull final ScopeSet other) {
+        if (this == other) {
+            return !isEmpty();
+        }
+
+        int i = 0;
+        int j = 0;
+        while (i < mScopes.length && j < other.mScopes.length) {
+            final int comparison = mScopes[i].compareTo(other.mScopes[j]);
+            if (comparison == 0) {
+                return true;
+            } else if (comparison < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the scopes in this set that are not in {@code other}, in sorted order.
+     */
+    @NonNull
+    public List<String> difference(@NonNull final ScopeSet other) {
+        if (this == other) {
+            return new ArrayList<>();
+        }
+
+        final List<String> difference = new ArrayList<>();
+        int j = 0;
+        for (final String scope : mScopes) {
+            while (j < other.mScopes.length && other.mScopes[j].compareTo(scope) < 0) {
+                j++;
+            }
+            if (j == other.mScopes.length || !other.mScopes[j].equals(scope)) {
+                difference.add(scope);
+            }
+        }
+        return difference;
+    }
+
+    /**
+     * @return the normalized scopes, sorted.
+     */
+    @NonNull
+    public List<String> asList() {
+        return mScopeList;
+    }
+
+    /**
+     * @return the normalized scopes, sorted and space-delimited.
+     */
+    @NonNull
+    public String getCanonicalString() {
+        return mCanonical;
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ScopeSet)) {
+            return false;
+        }
+        final ScopeSet other = (ScopeSet) o;
+        return mHash == other.mHash && mCanonical.equals(other.mCanonical);
+    }
+
+    @Override
+    public int hashCode() {
+        return mHash;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return mCanonical;
+    }
+}
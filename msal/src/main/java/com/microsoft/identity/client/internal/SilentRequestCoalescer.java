@@ -0,0 +1,296 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.client.SilentAuthenticationCallback;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces identical concurrent silent token requests.
+ * <p>
+ * The first request for a given key executes normally; identical requests that arrive while it is
+ * in flight are parked and receive the same result (or error) once it completes. Successful results
+ * are additionally kept for {@link #DEFAULT_RESULT_TTL_MILLIS} so that a burst straddling the
+ * completion still produces a single network call. A request that forces a refresh is never
+ * answered from these results; it can only share an identical force-refresh request in flight.
+ * <p>
+ * The shared execution is only cancelled once every request attached to it has been cancelled.
+ */
+public class SilentRequestCoalescer {
+
+    private static final String TAG = SilentRequestCoalescer.class.getSimpleName();
+
+    /**
+     * How long a completed result is shared with identical requests.
+     */
+    public static final long DEFAULT_RESULT_TTL_MILLIS = TimeUnit.SECONDS.toMillis(2);
+
+    /**
+     * Maximum number of completed results retained.
+     */
+    public static final int DEFAULT_MAX_RESULTS = 16;
+
+    private final long mResultTtlMillis;
+    private final Map<String, InFlightRequest> mInFlightRequests = new HashMap<>();
+    private final Map<String, CompletedResult> mCompletedResults;
+
+    public SilentRequestCoalescer() {
+        this(DEFAULT_MAX_RESULTS, DEFAULT_RESULT_TTL_MILLIS);
+    }
+
+    public SilentRequestCoalescer(final int maxResults, final long resultTtlMillis) {
+        mResultTtlMillis = resultTtlMillis;
+        mCompletedResults = new LinkedHashMap<String, CompletedResult>(maxResults, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CompletedResult> eldest) {
+                return size() > maxResults;
+            }
+        };
+    }
+
+    /**
+     * Registers a silent request.
+     *
+     * @param parameters       the request; its callback is the one to notify.
+     * @param defaultAuthority the authority used when the request does not specify one.
+     * @return the callback the caller should execute the request with, or null if the request was
+     * attached to an identical in-flight request or already answered from a recent result.
+     */
+    @Nullable
+    public SilentAuthenticationCallback join(@NonNull final AcquireTokenSilentParameters parameters,
+                                             @Nullable final String defaultAuthority) {
+        return join(parameters, parameters.getCallback(), defaultAuthority);
+    }
+
+    /**
+     * Registers a silent request, notifying the supplied callback instead of the request's own.
+     *
+     * @param parameters       the request.
+     * @param callback         the callback to notify.
+     * @param defaultAuthority the authority used when the request does not specify one.
+     * @return the callback the caller should execute the request with, or null if the request was
+     * attached to an identical in-flight request or already answered from a recent result.
+     */
+    @Nullable
+    public SilentAuthenticationCallback join(@NonNull final AcquireTokenSilentParameters parameters,
+                                             @Nullable final SilentAuthenticationCallback callback,
+                                             @Nullable final String defaultAuthority) {
+        return join(parameters, callback, defaultAuthority, null, new CancellationToken());
+    }
+
+    /**
+     * Registers a cancellable silent request.
+     *
+     * @param parameters        the request.
+     * @param callback          the callback to notify.
+     * @param defaultAuthority  the authority used when the request does not specify one.
+     * @param cancellationToken cancels this request, or null if it cannot be cancelled.
+     * @param executionToken    the token the caller executes the request with, if it has to. It is
+     *                          cancelled once every request attached to the execution is.
+     * @return the callback the caller should execute the request with, or null if the request was
+     * attached to an identical in-flight request or already answered from a recent result.
+     */
+    @Nullable
+    public SilentAuthenticationCallback join(@NonNull final AcquireTokenSilentParameters parameters,
+                                             @Nullable final SilentAuthenticationCallback callback,
+                                             @Nullable final String defaultAuthority,
+                                             @Nullable final CancellationToken cancellationToken,
+                                             @NonNull final CancellationToken executionToken) {
+        final String methodTag = TAG + ":join";
+        final String tokenKey = AccessTokenMemoryCache.createKey(parameters, defaultAuthority, null);
+
+        if (callback == null || tokenKey == null) {
+            return callback;
+        }
+
+        final boolean forceRefresh = parameters.getForceRefresh();
+        final String key = tokenKey + "|" + forceRefresh;
+        final IAuthenticationResult recentResult;
+
+        synchronized (this) {
+            final CompletedResult completedResult = forceRefresh ? null : mCompletedResults.get(key);
+            if (completedResult == null || completedResult.mCompletedAtMillis + mResultTtlMillis <= System.currentTimeMillis()) {
+                mCompletedResults.remove(key);
+
+                final InFlightRequest inFlightRequest = mInFlightRequests.get(key);
+                if (inFlightRequest != null) {
+                    Logger.verbose(methodTag, "Identical request in flight, attaching to it.");
+                    inFlightRequest.attach(callback, cancellationToken);
+                    return null;
+                }
+
+                final InFlightRequest newInFlightRequest = new InFlightRequest(key, !forceRefresh, executionToken);
+                mInFlightRequests.put(key, newInFlightRequest);
+                newInFlightRequest.attach(callback, cancellationToken);
+
+                return new FanOutCallback(newInFlightRequest);
+            }
+
+            recentResult = completedResult.mResult;
+        }
+
+        Logger.verbose(methodTag, "Returning result of a recently completed identical request.");
+        callback.onSuccess(recentResult);
+        return null;
+    }
+
+    /**
+     * Drops the completed results belonging to the supplied account. In-flight requests are left
+     * untouched.
+     *
+     * @param account the account being removed or signed out.
+     */
+    public synchronized void removeAccount(@Nullable final IAccount account) {
+        if (account == null || TextUtils.isEmpty(account.getId())) {
+            return;
+        }
+
+        final String prefix = account.getId() + "|";
+        final Iterator<String> iterator = mCompletedResults.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().startsWith(prefix)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @NonNull
+    private synchronized List<SilentAuthenticationCallback> complete(@NonNull final InFlightRequest inFlightRequest,
+                                                                     @Nullable final IAuthenticationResult result) {
+        if (result != null && inFlightRequest.mShareable) {
+            mCompletedResults.put(inFlightRequest.mKey, new CompletedResult(result, System.currentTimeMillis()));
+        }
+
+        // A cancelled execution has already made way for a new one with the same key.
+        if (mInFlightRequests.get(inFlightRequest.mKey) == inFlightRequest) {
+            mInFlightRequests.remove(inFlightRequest.mKey);
+        }
+        return inFlightRequest.mWaiters;
+    }
+
+    /**
+     * Called when a request attached to the execution is cancelled. Once none is left, the
+     * execution is cancelled and stops being offered to new identical requests.
+     */
+    private void onWaiterCancelled(@NonNull final InFlightRequest inFlightRequest) {
+        final String methodTag = TAG + ":onWaiterCancelled";
+        synchronized (this) {
+            inFlightRequest.mActiveWaiters--;
+            if (inFlightRequest.mActiveWaiters > 0) {
+                return;
+            }
+
+            if (mInFlightRequests.get(inFlightRequest.mKey) == inFlightRequest) {
+                mInFlightRequests.remove(inFlightRequest.mKey);
+            }
+        }
+
+        Logger.verbose(methodTag, "Every attached request was cancelled, cancelling the execution.");
+        inFlightRequest.mExecutionToken.cancel();
+    }
+
+    private final class InFlightRequest {
+        private final String mKey;
+        private final boolean mShareable;
+        private final CancellationToken mExecutionToken;
+        private final List<SilentAuthenticationCallback> mWaiters = new ArrayList<>();
+
+        // Guarded by the coalescer.
+        private int mActiveWaiters;
+
+        private InFlightRequest(@NonNull final String key,
+                                final boolean shareable,
+                                @NonNull final CancellationToken executionToken) {
+            mKey = key;
+            mShareable = shareable;
+            mExecutionToken = executionToken;
+        }
+
+        /**
+         * Must be called while holding the coalescer's lock.
+         */
+        private void attach(@NonNull final SilentAuthenticationCallback callback,
+                            @Nullable final CancellationToken cancellationToken) {
+            mWaiters.add(callback);
+            mActiveWaiters++;
+
+            if (cancellationToken != null) {
+                cancellationToken.addOnCancelListener(new Runnable() {
+                    @Override
+                    public void run() {
+                        onWaiterCancelled(InFlightRequest.this);
+                    }
+                });
+            }
+        }
+    }
+
+    private final class FanOutCallback implements SilentAuthenticationCallback {
+        private final InFlightRequest mInFlightRequest;
+
+        private FanOutCallback(@NonNull final InFlightRequest inFlightRequest) {
+            mInFlightRequest = inFlightRequest;
+        }
+
+        @Override
+        public void onSuccess(final IAuthenticationResult authenticationResult) {
+            for (final SilentAuthenticationCallback waiter : complete(mInFlightRequest, authenticationResult)) {
+                waiter.onSuccess(authenticationResult);
+            }
+        }
+
+        @Override
+        public void onError(final MsalException exception) {
+            for (final SilentAuthenticationCallback waiter : complete(mInFlightRequest, null)) {
+                waiter.onError(exception);
+            }
+        }
+    }
+
+    private static final class CompletedResult {
+        private final IAuthenticationResult mResult;
+        private final long mCompletedAtMillis;
+
+        private CompletedResult(@NonNull final IAuthenticationResult result, final long completedAtMillis) {
+            mResult = result;
+            mCompletedAtMillis = completedAtMillis;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.client.SilentAuthenticationCallback;
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Enforces the deadline of a silent request. The request's callback gets either its result or, if
+ * the deadline passes first, a {@link MsalClientException#DEADLINE_EXCEEDED} error, after which the
+ * request is cancelled so that it stops holding a thread or a connection.
+ */
+public final class SilentRequestDeadline implements SilentAuthenticationCallback {
+
+    private static final String TAG = SilentRequestDeadline.class.getSimpleName();
+
+    private static final ScheduledThreadPoolExecutor sTimer = createTimer();
+
+    private final SilentAuthenticationCallback mCallback;
+    private final AtomicBoolean mCompleted = new AtomicBoolean();
+    private volatile ScheduledFuture<?> mExpiry;
+
+    private SilentRequestDeadline(@NonNull final SilentAuthenticationCallback callback) {
+        mCallback = callback;
+    }
+
+    /**
+     * Starts the deadline of a request.
+     *
+     * @param callback          the request's callback.
+     * @param deadlineMillis    the deadline in milliseconds, or 0 for none.
+     * @param cancellationToken cancels the request once the deadline has passed.
+     * @param deliveryExecutor  runs the deadline error on the thread the callback expects.
+     * @return the callback to deliver the request's result to.
+     */
+    @Nullable
+    public static SilentAuthenticationCallback start(@Nullable final SilentAuthenticationCallback callback,
+                                                     final long deadlineMillis,
+                                                     @NonNull final CancellationToken cancellationToken,
+                                                     @NonNull final Executor deliveryExecutor) {
+        if (callback == null || deadlineMillis <= 0) {
+            return callback;
+        }
+
+        final SilentRequestDeadline deadline = new SilentRequestDeadline(callback);
+        final ScheduledFuture<?> expiry = sTimer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                deadline.expire(deadlineMillis, cancellationToken, deliveryExecutor);
+            }
+        }, deadlineMillis, TimeUnit.MILLISECONDS);
+
+        deadline.mExpiry = expiry;
+        cancellationToken.addOnCancelListener(new Runnable() {
+            @Override
+            public void run() {
+                expiry.cancel(false);
+            }
+        });
+
+        return deadline;
+    }
+
+    @Override
+    public void onSuccess(final IAuthenticationResult authenticationResult) {
+        if (complete()) {
+            mCallback.onSuccess(authenticationResult);
+        }
+    }
+
+    @Override
+    public void onError(final MsalException exception) {
+        if (complete()) {
+            mCallback.onError(exception);
+        }
+    }
+
+    private boolean complete() {
+        if (!mCompleted.compareAndSet(false, true)) {
+            return false;
+        }
+
+        final ScheduledFuture<?> expiry = mExpiry;
+        if (expiry != null) {
+            expiry.cancel(false);
+        }
+        return true;
+    }
+
+    private void expire(final long deadlineMillis,
+                        @NonNull final CancellationToken cancellationToken,
+                        @NonNull final Executor deliveryExecutor) {
+        final String methodTag = TAG + ":expire";
+        if (mCompleted.get() || cancellationToken.isCancelled()) {
+            return;
+        }
+
+        Logger.warn(methodTag, "Silent request did not complete within " + deadlineMillis + " ms, cancelling it.");
+        deliveryExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                onError(new MsalClientException(
+                        MsalClientException.DEADLINE_EXCEEDED,
+                        "The request did not complete within " + deadlineMillis + " ms."
+                ));
+            }
+        });
+        cancellationToken.cancel();
+    }
+
+    private static ScheduledThreadPoolExecutor createTimer() {
+        final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "msal-request-deadline");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // Most deadlines are stopped by the result, don't keep them queued until they would expire.
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+}
@@ -0,0 +1,80 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.client.IPublicClientApplication;
+import com.microsoft.identity.client.SilentAuthenticationCallback;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.client.exception.MsalUiRequiredException;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Refreshes a {@link TokenRefreshScheduler.Registration} with a silent request on the given
+ * application. Results are taken on the thread that completes the request, never the main thread.
+ */
+public final class SilentTokenRefresher implements TokenRefreshScheduler.IRefresher {
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(@NonNull final Runnable command) {
+            command.run();
+        }
+    };
+
+    private final IPublicClientApplication mApplication;
+
+    public SilentTokenRefresher(@NonNull final IPublicClientApplication application) {
+        mApplication = application;
+    }
+
+    @Override
+    public void refresh(@NonNull final TokenRefreshScheduler.Registration registration,
+                        final boolean forceRefresh,
+                        @NonNull final TokenRefreshScheduler.IRefreshCallback callback) {
+        final AcquireTokenSilentParameters parameters = new AcquireTokenSilentParameters.Builder()
+                .forAccount(registration.getAccount())
+                .fromAuthority(registration.getAuthority())
+                .withScopes(registration.getScopes().asList())
+                .forceRefresh(forceRefresh)
+                .withCallbackExecutor(DIRECT_EXECUTOR)
+                .withCallback(new SilentAuthenticationCallback() {
+                    @Override
+                    public void onSuccess(final IAuthenticationResult authenticationResult) {
+                        callback.onRefreshed(authenticationResult.getExpiresOn().getTime());
+                    }
+
+                    @Override
+                    public void onError(final MsalException exception) {
+                        callback.onFailed(!(exception instanceof MsalUiRequiredException));
+                    }
+                })
+                .build();
+
+        mApplication.acquireTokenSilentAsync(parameters);
+    }
+}
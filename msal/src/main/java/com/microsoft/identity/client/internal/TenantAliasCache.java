@@ -0,0 +1,321 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.common.java.authorities.AzureActiveDirectoryAuthority;
+import com.microsoft.identity.common.java.exception.ClientException;
+import com.microsoft.identity.common.java.exception.ServiceException;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persisted map from named-tenant authorities (e.g. https://login.microsoftonline.com/contoso.onmicrosoft.com)
+ * to their tenant id.
+ * <p>
+ * Resolving a named tenant requires the OpenID provider metadata, which is a network call on the
+ * request thread. Results are kept in memory and in SharedPreferences:
+ * <ul>
+ * <li>An entry younger than the TTL is returned with no network I/O.</li>
+ * <li>An entry older than the TTL but younger than the maximum age is returned as well, and a
+ * background revalidation is scheduled.</li>
+ * <li>A missing or expired entry is resolved on the calling thread, as before.</li>
+ * </ul>
+ */
+public class TenantAliasCache {
+
+    private static final String TAG = TenantAliasCache.class.getSimpleName();
+
+    static final String SHARED_PREFERENCES_NAME = "com.microsoft.identity.client.tenant_alias_cache";
+
+    /**
+     * Age after which an entry is revalidated in the background.
+     */
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+    /**
+     * Age after which an entry is no longer used and the alias is resolved on the request thread.
+     */
+    public static final long DEFAULT_MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private static final String VALUE_SEPARATOR = "|";
+
+    private static volatile TenantAliasCache sInstance;
+
+    /**
+     * Resolves a named-tenant authority to its tenant id over the network.
+     */
+    interface IAliasResolver {
+        @Nullable
+        String resolve(@NonNull String authorityUrl) throws ServiceException, ClientException;
+    }
+
+    private static final class Entry {
+        final String mTenantId;
+        final long mResolvedAtMillis;
+
+        Entry(@NonNull final String tenantId, final long resolvedAtMillis) {
+            mTenantId = tenantId;
+            mResolvedAtMillis = resolvedAtMillis;
+        }
+    }
+
+    private final SharedPreferences mSharedPreferences;
+    private final Executor mExecutor;
+    private final IClock mClock;
+    private final long mTtlMillis;
+    private final long mMaxAgeMillis;
+    private final Map<String, Entry> mEntries = new ConcurrentHashMap<>();
+    private final Set<String> mInFlight = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    TenantAliasCache(@NonNull final SharedPreferences sharedPreferences,
+                     @NonNull final Executor executor,
+                     @NonNull final IClock clock,
+                     final long ttlMillis,
+                     final long maxAgeMillis) {
+        mSharedPreferences = sharedPreferences;
+        mExecutor = executor;
+        mClock = clock;
+        mTtlMillis = ttlMillis;
+        mMaxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * @return the process-wide cache, backed by the application's SharedPreferences.
+     */
+    @NonNull
+    public static TenantAliasCache getInstance(@NonNull final Context context) {
+        TenantAliasCache instance = sInstance;
+        if (instance == null) {
+            synchronized (TenantAliasCache.class) {
+                instance = sInstance;
+                if (instance == null) {
+                    instance = new TenantAliasCache(
+                            context.getApplicationContext().getSharedPreferences(SHARED_PREFERENCES_NAME, Context.MODE_PRIVATE),
+                            new Executor() {
+                                @Override
+                                public void execute(@NonNull final Runnable runnable) {
+                                    try {
+                                        MsalExecutor.getDefault().execute(runnable);
+                                    } catch (final MsalClientException e) {
+                                        throw new RejectedExecutionException(e.getMessage(), e);
+                                    }
+                                }
+                            },
+                            IClock.SYSTEM,
+                            DEFAULT_TTL_MILLIS,
+                            DEFAULT_MAX_AGE_MILLIS
+                    );
+                    sInstance = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the tenant id for the named tenant of the supplied authority, using the cache when
+     * it holds a usable entry.
+     */
+    @Nullable
+    public String getTenantId(@NonNull final AzureActiveDirectoryAuthority authority)
+            throws ServiceException, ClientException {
+        return getTenantId(authority.getAuthorityURL().toString(), getResolver(authority));
+    }
+
+    /**
+     * Resolves the named tenant of the supplied authority in the background unless a fresh entry
+     * is already cached. Used to warm the cache when an application is created, so the persisted
+     * entry is only read on the background thread.
+     */
+    public void prefetch(@NonNull final AzureActiveDirectoryAuthority authority) {
+        prefetch(authority.getAuthorityURL().toString(), getResolver(authority));
+    }
+
+    @Nullable
+    String getTenantId(@NonNull final String authorityUrl, @NonNull final IAliasResolver resolver)
+            throws ServiceException, ClientException {
+        final String methodTag = TAG + ":getTenantId";
+        final String key = getKey(authorityUrl);
+        final Entry entry = getEntry(key);
+        final long now = mClock.currentTimeMillis();
+
+        if (entry != null) {
+            final long age = now - entry.mResolvedAtMillis;
+            if (age >= 0 && age < mMaxAgeMillis) {
+                if (age >= mTtlMillis) {
+                    Logger.verbose(methodTag, "Tenant alias entry is stale, revalidating in the background.");
+                    revalidate(authorityUrl, key, resolver, false);
+                }
+                return entry.mTenantId;
+            }
+        }
+
+        Logger.verbose(methodTag, "Tenant alias not cached, resolving on the request thread.");
+        return resolveAndStore(authorityUrl, key, resolver);
+    }
+
+    void prefetch(@NonNull final String authorityUrl, @NonNull final IAliasResolver resolver) {
+        final String key = getKey(authorityUrl);
+        if (isFresh(mEntries.get(key))) {
+            return;
+        }
+        revalidate(authorityUrl, key, resolver, true);
+    }
+
+    /**
+     * Drops every entry, in memory and on disk.
+     */
+    public void clear() {
+        mEntries.clear();
+        mSharedPreferences.edit().clear().apply();
+    }
+
+    /**
+     * Resolves the alias on the executor, unless it is already being resolved.
+     *
+     * @param skipIfFresh whether to first check, on the executor, if a fresh entry is persisted.
+     */
+    private void revalidate(@NonNull final String authorityUrl,
+                            @NonNull final String key,
+                            @NonNull final IAliasResolver resolver,
+                            final boolean skipIfFresh) {
+        final String methodTag = TAG + ":revalidate";
+
+        if (!mInFlight.add(key)) {
+            return;
+        }
+
+        try {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (!skipIfFresh || !isFresh(getEntry(key))) {
+                            resolveAndStore(authorityUrl, key, resolver);
+                        }
+                    } catch (final ServiceException | ClientException e) {
+                        Logger.warn(methodTag, "Unable to revalidate tenant alias: " + e.getErrorCode());
+                    } catch (final RuntimeException e) {
+                        Logger.error(methodTag, "Unexpected error while revalidating tenant alias.", e);
+                    } finally {
+                        mInFlight.remove(key);
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            // Let a later request schedule it again.
+            mInFlight.remove(key);
+            Logger.warn(methodTag, "Background executor rejected tenant alias revalidation.");
+        }
+    }
+
+    private boolean isFresh(@Nullable final Entry entry) {
+        if (entry == null) {
+            return false;
+        }
+
+        final long age = mClock.currentTimeMillis() - entry.mResolvedAtMillis;
+        return age >= 0 && age < mTtlMillis;
+    }
+
+    @Nullable
+    private String resolveAndStore(@NonNull final String authorityUrl,
+                                   @NonNull final String key,
+                                   @NonNull final IAliasResolver resolver)
+            throws ServiceException, ClientException {
+        final String tenantId = resolver.resolve(authorityUrl);
+        if (tenantId != null) {
+            final Entry entry = new Entry(tenantId, mClock.currentTimeMillis());
+            mEntries.put(key, entry);
+            mSharedPreferences.edit()
+                    .putString(key, entry.mTenantId + VALUE_SEPARATOR + entry.mResolvedAtMillis)
+                    .apply();
+        }
+        return tenantId;
+    }
+
+    @Nullable
+    private Entry getEntry(@NonNull final String key) {
+        final Entry cached = mEntries.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Entry persisted = parse(mSharedPreferences.getString(key, null));
+        if (persisted != null) {
+            mEntries.put(key, persisted);
+        }
+        return persisted;
+    }
+
+    @Nullable
+    private static Entry parse(@Nullable final String value) {
+        if (value == null) {
+            return null;
+        }
+
+        final int separator = value.lastIndexOf(VALUE_SEPARATOR);
+        if (separator <= 0) {
+            return null;
+        }
+
+        try {
+            return new Entry(
+                    value.substring(0, separator),
+                    Long.parseLong(value.substring(separator + 1))
+            );
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @NonNull
+    private static String getKey(@NonNull final String authorityUrl) {
+        return authorityUrl.toLowerCase(Locale.US);
+    }
+
+    @NonNull
+    private static IAliasResolver getResolver(@NonNull final AzureActiveDirectoryAuthority authority) {
+        return new IAliasResolver() {
+            @Override
+            public String resolve(@NonNull final String authorityUrl) throws ServiceException, ClientException {
+                return authority.getAudience().getTenantUuidForAlias(authorityUrl);
+            }
+        };
+    }
+}
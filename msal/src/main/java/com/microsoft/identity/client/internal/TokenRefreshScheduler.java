@@ -0,0 +1,552 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import android.annotation.SuppressLint;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.os.Build;
+import android.os.PowerManager;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refreshes the access tokens the app has registered ahead of their expiry, so that silent
+ * requests are served from the cache instead of waiting on the token endpoint.
+ * <p>
+ * A registration is an (account, authority, scopes) triple. Its refresh is due at the refresh_on
+ * time given by the server, else {@link #DEFAULT_LEAD_MILLIS} before the access token expires. When
+ * a refresh is due, every registration of the same account that is due within
+ * {@link #DEFAULT_BATCH_WINDOW_MILLIS} is refreshed with it, so an account's tokens are renewed in a
+ * single wake-up. Refreshes are held back while the device is offline or dozing, and run as soon
+ * as it leaves either state. A refresh that has not completed within
+ * {@link #DEFAULT_IN_FLIGHT_TIMEOUT_MILLIS} is given up on and tried again.
+ */
+public final class TokenRefreshScheduler {
+
+    private static final String TAG = TokenRefreshScheduler.class.getSimpleName();
+
+    /**
+     * Without a refresh_on time, tokens are refreshed this long before they expire. Longer than the
+     * expiry buffer of the token cache, so that silent requests never see a token it would refresh.
+     */
+    public static final long DEFAULT_LEAD_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * Registrations of the same account that are due within this window are refreshed together.
+     */
+    public static final long DEFAULT_BATCH_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * Delay before a failed refresh, or one held back by the device state, is tried again.
+     */
+    public static final long DEFAULT_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Time after which a refresh whose callback has not arrived is given up on.
+     */
+    public static final long DEFAULT_IN_FLIGHT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final char KEY_DELIMITER = '|';
+
+    /**
+     * Fetches a token for a registration.
+     */
+    public interface IRefresher {
+
+        /**
+         * @param registration the registration to fetch a token for.
+         * @param forceRefresh false for the first fetch of a registration, which only needs to
+         *                     learn when the cached token expires.
+         * @param callback     to be notified once, from any thread.
+         */
+        void refresh(@NonNull Registration registration,
+                     boolean forceRefresh,
+                     @NonNull IRefreshCallback callback);
+    }
+
+    /**
+     * Outcome of a single {@link IRefresher#refresh(Registration, boolean, IRefreshCallback)}.
+     */
+    public interface IRefreshCallback {
+
+        void onRefreshed(long expiresOnMillis);
+
+        /**
+         * @param retryable false if the token cannot be refreshed without the user, in which case
+         *                  the registration is dropped.
+         */
+        void onFailed(boolean retryable);
+    }
+
+    /**
+     * Runs the scheduler's wake-up after a delay. Setting it again replaces the pending wake-up.
+     */
+    public interface IAlarm {
+
+        void set(long delayMillis, @NonNull Runnable wakeUp);
+
+        /**
+         * Cancels the pending wake-up, if any, and releases what was held for it.
+         */
+        void cancel();
+    }
+
+    /**
+     * Tells whether the device is in a state where refreshing makes sense.
+     */
+    public interface IDeviceConditions {
+
+        boolean canRefreshNow();
+
+        /**
+         * @param listener run when the device may have become ready, or null to stop listening.
+         */
+        void setOnReadyListener(@Nullable Runnable listener);
+    }
+
+    /**
+     * A token the app has asked to keep fresh.
+     */
+    public static final class Registration {
+
+        private final IAccount mAccount;
+        private final String mAuthority;
+        private final ScopeSet mScopes;
+
+        // Guarded by the scheduler.
+        private long mExpiresOnMillis;
+        private long mRefreshAtMillis;
+        private boolean mInFlight;
+        private long mInFlightSinceMillis;
+        // Incremented for every refresh, so that callbacks of a refresh that was given up on are ignored.
+        private int mAttempt;
+
+        Registration(@NonNull final IAccount account,
+                     @NonNull final String authority,
+                     @NonNull final ScopeSet scopes,
+                     final long refreshAtMillis) {
+            mAccount = account;
+            mAuthority = authority;
+            mScopes = scopes;
+            mRefreshAtMillis = refreshAtMillis;
+        }
+
+        @NonNull
+        public IAccount getAccount() {
+            return mAccount;
+        }
+
+        @NonNull
+        public String getAuthority() {
+            return mAuthority;
+        }
+
+        @NonNull
+        public ScopeSet getScopes() {
+            return mScopes;
+        }
+    }
+
+    private final IClock mClock;
+    private final IAlarm mAlarm;
+    private final IDeviceConditions mDeviceConditions;
+    private final IRefresher mRefresher;
+    private final Map<String, Registration> mRegistrations = new LinkedHashMap<>();
+
+    private final Runnable mWakeUp = new Runnable() {
+        @Override
+        public void run() {
+            runDueRefreshes();
+        }
+    };
+
+    public TokenRefreshScheduler(@NonNull final IClock clock,
+                                 @NonNull final IAlarm alarm,
+                                 @NonNull final IDeviceConditions deviceConditions,
+                                 @NonNull final IRefresher refresher) {
+        mClock = clock;
+        mAlarm = alarm;
+        mDeviceConditions = deviceConditions;
+        mRefresher = refresher;
+    }
+
+    /**
+     * Creates a scheduler that wakes up on its own thread and watches the device's connectivity
+     * and doze state.
+     */
+    @NonNull
+    public static TokenRefreshScheduler create(@NonNull final Context context,
+                                               @NonNull final IRefresher refresher) {
+        return new TokenRefreshScheduler(
+                IClock.SYSTEM,
+                new ExecutorAlarm(),
+                new DeviceConditions(context.getApplicationContext()),
+                refresher
+        );
+    }
+
+    /**
+     * Starts keeping the token for the given account, authority and scopes fresh. The token is
+     * looked up right away to learn when it expires.
+     */
+    public void register(@NonNull final IAccount account,
+                         @NonNull final String authority,
+                         @NonNull final ScopeSet scopes) {
+        synchronized (this) {
+            final String key = key(account.getId(), authority, scopes);
+            if (mRegistrations.containsKey(key)) {
+                return;
+            }
+
+            if (mRegistrations.isEmpty()) {
+                mDeviceConditions.setOnReadyListener(mWakeUp);
+            }
+            mRegistrations.put(key, new Registration(account, authority, scopes, mClock.currentTimeMillis()));
+            scheduleNextLocked();
+        }
+    }
+
+    /**
+     * Stops refreshing every token of the given account.
+     */
+    public void unregister(@NonNull final IAccount account) {
+        synchronized (this) {
+            final Iterator<Registration> iterator = mRegistrations.values().iterator();
+            while (iterator.hasNext()) {
+                if (account.getId().equals(iterator.next().mAccount.getId())) {
+                    iterator.remove();
+                }
+            }
+            scheduleNextLocked();
+        }
+    }
+
+    /**
+     * @return the number of tokens being kept fresh.
+     */
+    public int getRegistrationCount() {
+        synchronized (this) {
+            return mRegistrations.size();
+        }
+    }
+
+    /**
+     * Records a token issued by any request, proactive or not. If it belongs to a registration, the
+     * registration's next refresh is moved accordingly.
+     *
+     * @param refreshOnMillis the refresh_on time given by the server, or null if there was none.
+     */
+    public void onTokenIssued(@NonNull final String accountId,
+                              @NonNull final String authority,
+                              @NonNull final ScopeSet scopes,
+                              final long expiresOnMillis,
+                              @Nullable final Long refreshOnMillis) {
+        synchronized (this) {
+            final Registration registration = mRegistrations.get(key(accountId, authority, scopes));
+            if (registration != null) {
+                updateLocked(registration, expiresOnMillis, refreshOnMillis);
+                scheduleNextLocked();
+            }
+        }
+    }
+
+    /**
+     * Refreshes the registrations that are due, batched per account, if the device allows it.
+     * Runs on every wake-up of the alarm and whenever the device becomes ready.
+     */
+    public void runDueRefreshes() {
+        final String methodTag = TAG + ":runDueRefreshes";
+        final List<Registration> batch = new ArrayList<>();
+
+        synchronized (this) {
+            if (mRegistrations.isEmpty()) {
+                return;
+            }
+
+            if (!mDeviceConditions.canRefreshNow()) {
+                Logger.verbose(methodTag, "Device is offline or idle, holding refreshes back.");
+                mAlarm.set(DEFAULT_RETRY_DELAY_MILLIS, mWakeUp);
+                return;
+            }
+
+            final long now = mClock.currentTimeMillis();
+            for (final Registration registration : mRegistrations.values()) {
+                if (registration.mInFlight
+                        && now - registration.mInFlightSinceMillis >= DEFAULT_IN_FLIGHT_TIMEOUT_MILLIS) {
+                    Logger.warn(methodTag, "Refresh did not complete in time, trying again.");
+                    registration.mInFlight = false;
+                    registration.mRefreshAtMillis = now;
+                }
+            }
+
+            final Set<String> dueAccounts = new HashSet<>();
+            for (final Registration registration : mRegistrations.values()) {
+                if (!registration.mInFlight && registration.mRefreshAtMillis <= now) {
+                    dueAccounts.add(registration.mAccount.getId());
+                }
+            }
+
+            for (final Registration registration : mRegistrations.values()) {
+                if (!registration.mInFlight
+                        && dueAccounts.contains(registration.mAccount.getId())
+                        && registration.mRefreshAtMillis <= now + DEFAULT_BATCH_WINDOW_MILLIS) {
+                    registration.mInFlight = true;
+                    registration.mInFlightSinceMillis = now;
+                    registration.mAttempt++;
+                    batch.add(registration);
+                }
+            }
+
+            scheduleNextLocked();
+        }
+
+        if (!batch.isEmpty()) {
+            Logger.info(methodTag, "Refreshing " + batch.size() + " token(s) ahead of expiry.");
+        }
+
+        for (final Registration registration : batch) {
+            final int attempt;
+            final boolean forceRefresh;
+            synchronized (this) {
+                attempt = registration.mAttempt;
+                forceRefresh = registration.mExpiresOnMillis != 0;
+            }
+
+            mRefresher.refresh(registration, forceRefresh, new IRefreshCallback() {
+                @Override
+                public void onRefreshed(final long expiresOnMillis) {
+                    synchronized (TokenRefreshScheduler.this) {
+                        // onTokenIssued() may already have recorded this token with its refresh_on time.
+                        if (isPendingLocked(registration, attempt)) {
+                            updateLocked(registration, expiresOnMillis, null);
+                            scheduleNextLocked();
+                        }
+                    }
+                }
+
+                @Override
+                public void onFailed(final boolean retryable) {
+                    onRefreshFailed(registration, attempt, retryable);
+                }
+            });
+        }
+    }
+
+    private static boolean isPendingLocked(@NonNull final Registration registration, final int attempt) {
+        return registration.mInFlight && registration.mAttempt == attempt;
+    }
+
+    private void onRefreshFailed(@NonNull final Registration registration,
+                                 final int attempt,
+                                 final boolean retryable) {
+        final String methodTag = TAG + ":onRefreshFailed";
+        synchronized (this) {
+            if (!isPendingLocked(registration, attempt)) {
+                return;
+            }
+
+            registration.mInFlight = false;
+            if (retryable) {
+                registration.mRefreshAtMillis = mClock.currentTimeMillis() + DEFAULT_RETRY_DELAY_MILLIS;
+            } else {
+                Logger.warn(methodTag, "Token can no longer be refreshed silently, dropping its registration.");
+                mRegistrations.remove(key(registration.mAccount.getId(), registration.mAuthority, registration.mScopes));
+            }
+            scheduleNextLocked();
+        }
+    }
+
+    private void updateLocked(@NonNull final Registration registration,
+                              final long expiresOnMillis,
+                              @Nullable final Long refreshOnMillis) {
+        final long now = mClock.currentTimeMillis();
+        registration.mInFlight = false;
+        registration.mExpiresOnMillis = expiresOnMillis;
+
+        if (refreshOnMillis != null && refreshOnMillis > now && refreshOnMillis < expiresOnMillis) {
+            registration.mRefreshAtMillis = refreshOnMillis;
+        } else {
+            // Short-lived tokens are refreshed half way through, rather than right away.
+            registration.mRefreshAtMillis = Math.max(
+                    expiresOnMillis - DEFAULT_LEAD_MILLIS,
+                    now + (expiresOnMillis - now) / 2
+            );
+        }
+    }
+
+    private void scheduleNextLocked() {
+        long next = Long.MAX_VALUE;
+        for (final Registration registration : mRegistrations.values()) {
+            if (registration.mInFlight) {
+                next = Math.min(next, registration.mInFlightSinceMillis + DEFAULT_IN_FLIGHT_TIMEOUT_MILLIS);
+            } else {
+                next = Math.min(next, registration.mRefreshAtMillis);
+            }
+        }
+
+        if (mRegistrations.isEmpty()) {
+            mDeviceConditions.setOnReadyListener(null);
+        }
+
+        if (next == Long.MAX_VALUE) {
+            mAlarm.cancel();
+        } else {
+            mAlarm.set(Math.max(0, next - mClock.currentTimeMillis()), mWakeUp);
+        }
+    }
+
+    private static String key(@NonNull final String accountId,
+                              @NonNull final String authority,
+                              @NonNull final ScopeSet scopes) {
+        return accountId + KEY_DELIMITER + authority + KEY_DELIMITER + scopes.getCanonicalString();
+    }
+
+    /**
+     * Wakes the scheduler up on a dedicated daemon thread. Delays are measured on the uptime clock,
+     * so wake-ups that fall during deep sleep happen once the device is awake again. The thread is
+     * shut down while no wake-up is pending, and started again by the next {@link #set}.
+     */
+    private static final class ExecutorAlarm implements IAlarm {
+
+        private ScheduledExecutorService mExecutor;
+        private ScheduledFuture<?> mPending;
+
+        @Override
+        public synchronized void set(final long delayMillis, @NonNull final Runnable wakeUp) {
+            if (mPending != null) {
+                mPending.cancel(false);
+            }
+
+            if (mExecutor == null) {
+                mExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(@NonNull final Runnable runnable) {
+                        final Thread thread = new Thread(runnable, "msal-token-refresh");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            mPending = mExecutor.schedule(wakeUp, delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public synchronized void cancel() {
+            if (mPending != null) {
+                mPending.cancel(false);
+                mPending = null;
+            }
+
+            if (mExecutor != null) {
+                // Lets a wake-up that is already running finish.
+                mExecutor.shutdown();
+                mExecutor = null;
+            }
+        }
+    }
+
+    /**
+     * Ready when there is a connected network and the device is not in doze. Listens for
+     * connectivity and doze changes, so that held-back refreshes run in the next window.
+     */
+    @SuppressWarnings("deprecation")
+    private static final class DeviceConditions extends BroadcastReceiver implements IDeviceConditions {
+
+        private final Context mContext;
+        private volatile Runnable mListener;
+        private boolean mRegistered;
+
+        DeviceConditions(@NonNull final Context context) {
+            mContext = context;
+        }
+
+        @Override
+        @SuppressLint("MissingPermission")
+        public boolean canRefreshNow() {
+            final ConnectivityManager connectivityManager =
+                    (ConnectivityManager) mContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+            final NetworkInfo networkInfo = connectivityManager == null ? null : connectivityManager.getActiveNetworkInfo();
+            if (networkInfo == null || !networkInfo.isConnected()) {
+                return false;
+            }
+
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                final PowerManager powerManager = (PowerManager) mContext.getSystemService(Context.POWER_SERVICE);
+                return powerManager == null || !powerManager.isDeviceIdleMode();
+            }
+            return true;
+        }
+
+        @Override
+        public synchronized void setOnReadyListener(@Nullable final Runnable listener) {
+            final String methodTag = TAG + ":setOnReadyListener";
+            mListener = listener;
+            if (listener != null && !mRegistered) {
+                final IntentFilter filter = new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION);
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                    filter.addAction(PowerManager.ACTION_DEVICE_IDLE_MODE_CHANGED);
+                }
+                try {
+                    mContext.registerReceiver(this, filter);
+                    mRegistered = true;
+                } catch (final RuntimeException e) {
+                    // Held-back refreshes fall back to the retry delay.
+                    Logger.warn(methodTag, "Unable to listen for device state changes: " + e.getMessage());
+                }
+            } else if (listener == null && mRegistered) {
+                mContext.unregisterReceiver(this);
+                mRegistered = false;
+            }
+        }
+
+        @Override
+        public void onReceive(final Context context, final Intent intent) {
+            final Runnable listener = mListener;
+            if (listener != null && canRefreshNow()) {
+                listener.run();
+            }
+        }
+    }
+}
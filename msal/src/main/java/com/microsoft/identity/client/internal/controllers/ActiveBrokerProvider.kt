@@ -0,0 +1,217 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal.controllers
+
+import android.content.Context
+import androidx.annotation.VisibleForTesting
+import androidx.annotation.WorkerThread
+import com.microsoft.identity.client.internal.MsalExecutor
+import com.microsoft.identity.client.internal.PackageChangeMonitor
+import com.microsoft.identity.common.internal.activebrokerdiscovery.BrokerDiscoveryClientFactory
+import com.microsoft.identity.common.java.interfaces.IPlatformComponents
+import com.microsoft.identity.common.logging.Logger
+import java.util.Collections
+import java.util.WeakHashMap
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executor
+import java.util.concurrent.FutureTask
+
+/**
+ * Prefetched result of active broker discovery for one application.
+ *
+ * Discovery may involve IPC with every installed broker app, so it is started in the background
+ * as soon as an application is created, and the result is published as an immutable [Snapshot].
+ * Controller factories read the snapshot without blocking. Only a request that arrives before the
+ * first discovery has finished waits for it (or runs it, if it has not started yet).
+ *
+ * The snapshot is dropped, and discovery restarted, whenever a package is installed, updated or
+ * removed.
+ */
+class ActiveBrokerProvider @VisibleForTesting internal constructor(
+    private val discover: () -> String?,
+    private val executor: Executor
+) {
+
+    /**
+     * Outcome of one broker discovery.
+     */
+    data class Snapshot(val activeBrokerPackageName: String?)
+
+    companion object {
+        private val TAG = ActiveBrokerProvider::class.simpleName
+
+        /**
+         * Providers in use, invalidated on package changes. Weakly held, since the monitor lives
+         * for the whole process and must not keep providers alive.
+         */
+        private val liveProviders: MutableSet<ActiveBrokerProvider> =
+            Collections.newSetFromMap(WeakHashMap<ActiveBrokerProvider, Boolean>())
+
+        // Guarded by liveProviders. One listener serves every provider, so creating providers
+        // does not add listeners to the process-wide monitor.
+        private var packageChangeListenerRegistered = false
+
+        /**
+         * Starts invalidating the provider on package changes.
+         *
+         * @return true if the package change listener still has to be registered, which happens
+         * once per process.
+         */
+        @VisibleForTesting
+        internal fun track(provider: ActiveBrokerProvider): Boolean {
+            synchronized(liveProviders) {
+                liveProviders.add(provider)
+                if (packageChangeListenerRegistered) {
+                    return false
+                }
+                packageChangeListenerRegistered = true
+                return true
+            }
+        }
+
+        @VisibleForTesting
+        internal fun invalidateAll() {
+            val providers = synchronized(liveProviders) { liveProviders.toList() }
+            providers.forEach { it.invalidate() }
+        }
+
+        /**
+         * Creates a provider backed by the broker discovery client for client SDKs. It is
+         * invalidated on package changes for as long as it is in use.
+         */
+        @JvmStatic
+        fun create(context: Context, platformComponents: IPlatformComponents): ActiveBrokerProvider {
+            val discoveryClient = BrokerDiscoveryClientFactory.getInstanceForClientSdk(
+                context = context.applicationContext,
+                platformComponents = platformComponents
+            )
+            val provider = ActiveBrokerProvider(
+                discover = { discoveryClient.getActiveBroker(shouldSkipCache = false)?.packageName },
+                executor = Executor { task -> MsalExecutor.getDefault().execute(task) }
+            )
+
+            if (track(provider)) {
+                PackageChangeMonitor.getInstance(context).addListener(object : PackageChangeMonitor.IPackageChangeListener {
+                    override fun onPackageChanged(packageName: String?) {
+                        invalidateAll()
+                    }
+                })
+            }
+            return provider
+        }
+    }
+
+    private val lock = Any()
+
+    @Volatile
+    private var snapshot: Snapshot? = null
+
+    // Guarded by lock.
+    private var pendingDiscovery: FutureTask<Snapshot>? = null
+    private var generation = 0
+
+    /**
+     * Starts discovery in the background unless a snapshot is available or discovery is running.
+     */
+    fun prefetch() {
+        if (snapshot == null) {
+            startDiscovery()
+        }
+    }
+
+    /**
+     * Returns the current snapshot, or null if discovery has not finished yet.
+     */
+    fun peek(): Snapshot? = snapshot
+
+    /**
+     * Returns the package name of the active broker, or null if none is installed.
+     *
+     * Does not block once a snapshot has been published.
+     */
+    @WorkerThread
+    fun getActiveBrokerPackageName(): String? {
+        snapshot?.let { return it.activeBrokerPackageName }
+
+        val discovery = startDiscovery()
+        // Runs the discovery on this thread if the executor has not picked it up yet; otherwise
+        // returns immediately and get() waits for the running discovery.
+        discovery.run()
+        try {
+            return discovery.get().activeBrokerPackageName
+        } catch (e: ExecutionException) {
+            throw e.cause ?: e
+        }
+    }
+
+    /**
+     * Drops the snapshot and starts a new discovery.
+     */
+    fun invalidate() {
+        synchronized(lock) {
+            generation++
+            snapshot = null
+            pendingDiscovery = null
+        }
+        startDiscovery()
+    }
+
+    private fun startDiscovery(): FutureTask<Snapshot> {
+        val methodTag = "$TAG:startDiscovery"
+        val discovery: FutureTask<Snapshot>
+        synchronized(lock) {
+            pendingDiscovery?.let { return it }
+
+            val discoveryGeneration = generation
+            discovery = FutureTask {
+                val result = try {
+                    Snapshot(discover())
+                } catch (e: Exception) {
+                    synchronized(lock) {
+                        // Let the next caller try again.
+                        if (discoveryGeneration == generation) {
+                            pendingDiscovery = null
+                        }
+                    }
+                    throw e
+                }
+                synchronized(lock) {
+                    // A package change while discovering makes this result stale.
+                    if (discoveryGeneration == generation) {
+                        snapshot = result
+                    }
+                }
+                result
+            }
+            pendingDiscovery = discovery
+        }
+
+        try {
+            executor.execute(discovery)
+        } catch (e: Exception) {
+            Logger.warn(methodTag, "Unable to start broker discovery in the background: ${e.message}")
+        }
+
+        return discovery
+    }
+}
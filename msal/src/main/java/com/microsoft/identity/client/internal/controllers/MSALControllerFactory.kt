@@ -28,8 +28,9 @@ import android.os.PowerManager
 import androidx.annotation.VisibleForTesting
 import androidx.annotation.WorkerThread
 import com.microsoft.identity.client.PublicClientApplicationConfiguration
+import com.microsoft.identity.client.metrics.MsalCounter
+import com.microsoft.identity.client.metrics.MsalMetrics
 import com.microsoft.identity.common.components.AndroidPlatformComponentsFactory
-import com.microsoft.identity.common.internal.activebrokerdiscovery.BrokerDiscoveryClientFactory
 import com.microsoft.identity.common.internal.controllers.BrokerMsalController
 import com.microsoft.identity.common.internal.controllers.LocalMSALController
 import com.microsoft.identity.common.java.authorities.Authority
@@ -44,13 +45,23 @@ class MSALControllerFactory(
     private val applicationContext: Context,
     private val platformComponents: IPlatformComponents,
     private val authority: Authority,
-    private val applicationConfiguration: PublicClientApplicationConfiguration) :
+    private val applicationConfiguration: PublicClientApplicationConfiguration,
+    private val activeBrokerProvider: ActiveBrokerProvider =
+        ActiveBrokerProvider.create(applicationContext, platformComponents)) :
     IControllerFactory {
 
-    private val discoveryClient = BrokerDiscoveryClientFactory.getInstanceForClientSdk(
-        context = applicationContext,
-        platformComponents = platformComponents
-    )
+    /**
+     * Eligibility only depends on the configuration and the authority type, neither of which
+     * changes over the lifetime of this factory. Does not check if a broker is installed.
+     */
+    val isBrokerEligible: Boolean by lazy { brokerEligible() }
+
+    /**
+     * The broker controller built for the last active broker package seen by this factory.
+     * Rebuilt whenever the active broker package changes.
+     */
+    @Volatile
+    private var cachedBrokerController: Pair<String, BrokerMsalController>? = null
 
     // todo: always take in a component?
     constructor(applicationConfiguration: PublicClientApplicationConfiguration):
@@ -90,9 +101,11 @@ class MSALControllerFactory(
         }
 
         val activeBroker = getActiveBrokerPackageName()
-        return if (!activeBroker.isNullOrEmpty() && brokerEligible()) {
-            BrokerMsalController(applicationContext, platformComponents, activeBroker)
+        return if (!activeBroker.isNullOrEmpty() && isBrokerEligible) {
+            MsalMetrics.count(MsalCounter.BROKER_CONTROLLER)
+            getBrokerController(activeBroker)
         } else {
+            MsalMetrics.count(MsalCounter.LOCAL_CONTROLLER)
             LocalMSALController()
         }
     }
@@ -113,10 +126,12 @@ class MSALControllerFactory(
     override fun getAllControllers(): List<BaseController> {
         val activeBroker = getActiveBrokerPackageName()
         val controllers: MutableList<BaseController> = ArrayList()
-        if (!activeBroker.isNullOrEmpty() && brokerEligible()) {
-            controllers.add(
-                BrokerMsalController(applicationContext, platformComponents, activeBroker)
-            )
+        // Counted by the controller that is tried first.
+        if (!activeBroker.isNullOrEmpty() && isBrokerEligible) {
+            MsalMetrics.count(MsalCounter.BROKER_CONTROLLER)
+            controllers.add(getBrokerController(activeBroker))
+        } else {
+            MsalMetrics.count(MsalCounter.LOCAL_CONTROLLER)
         }
         controllers.add(LocalMSALController())
 
@@ -128,7 +143,22 @@ class MSALControllerFactory(
      * AND if a valid broker is found.
      **/
     fun brokerEligibleAndInstalled(): Boolean {
-        return getActiveBrokerPackageName() != null && brokerEligible()
+        return getActiveBrokerPackageName() != null && isBrokerEligible
+    }
+
+    private fun getBrokerController(activeBroker: String): BrokerMsalController {
+        val methodTag = "$TAG:getBrokerController"
+
+        cachedBrokerController?.let { (packageName, controller) ->
+            if (packageName == activeBroker) {
+                return controller
+            }
+            Logger.info(methodTag, "Active broker changed from $packageName to $activeBroker.")
+        }
+
+        val controller = BrokerMsalController(applicationContext, platformComponents, activeBroker)
+        cachedBrokerController = Pair(activeBroker, controller)
+        return controller
     }
 
     /**
@@ -180,10 +210,11 @@ class MSALControllerFactory(
     private fun getActiveBrokerPackageName(): String? {
         val methodTag = "$TAG:getActiveBrokerPackageName"
 
-        // This operation *might* be long running, so this method should be invoked in a background thread.
-        val activeBroker = discoveryClient.getActiveBroker(shouldSkipCache = false)
+        // Normally answered from the snapshot prefetched when the application was created. Before
+        // the first discovery has finished this waits for it, so call it on a background thread.
+        val activeBroker = activeBrokerProvider.getActiveBrokerPackageName()
         activeBroker?.let {
-            return it.packageName
+            return it
         }
 
         Logger.info(methodTag,"Broker application is not installed.")
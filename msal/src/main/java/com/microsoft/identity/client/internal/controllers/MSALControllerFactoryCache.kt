@@ -0,0 +1,107 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal.controllers
+
+import com.microsoft.identity.client.PublicClientApplicationConfiguration
+import com.microsoft.identity.common.components.AndroidPlatformComponentsFactory
+import com.microsoft.identity.common.java.authorities.Authority
+import com.microsoft.identity.common.java.interfaces.IPlatformComponents
+
+/**
+ * Holds one [MSALControllerFactory] per authority for a single PublicClientApplication, so that
+ * platform components, broker discovery and controllers are not rebuilt on every request.
+ * Broker discovery is shared by all of its factories and can be started ahead of the first request.
+ *
+ * The cache is bounded; the least recently used factory is dropped once [maxEntries] is exceeded.
+ * Each factory rebuilds its broker controller on its own when the active broker package changes.
+ */
+class MSALControllerFactoryCache @JvmOverloads constructor(
+    private val applicationConfiguration: PublicClientApplicationConfiguration,
+    private val maxEntries: Int = DEFAULT_MAX_ENTRIES
+) {
+
+    companion object {
+        const val DEFAULT_MAX_ENTRIES = 8
+    }
+
+    private val platformComponents: IPlatformComponents by lazy {
+        AndroidPlatformComponentsFactory.createFromContext(applicationConfiguration.appContext)
+    }
+
+    /**
+     * Shared by all factories of this application, so broker discovery runs once for all of them.
+     */
+    private val activeBrokerProvider: ActiveBrokerProvider by lazy {
+        ActiveBrokerProvider.create(applicationConfiguration.appContext, platformComponents)
+    }
+
+    private val factories = object : LinkedHashMap<String, MSALControllerFactory>(maxEntries, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, MSALControllerFactory>?): Boolean {
+            return size > maxEntries
+        }
+    }
+
+    /**
+     * Returns the factory for the configured default authority.
+     */
+    fun get(): MSALControllerFactory {
+        return get(applicationConfiguration.defaultAuthority)
+    }
+
+    /**
+     * Returns the factory for the supplied authority, creating it if needed.
+     */
+    @Synchronized
+    fun get(authority: Authority): MSALControllerFactory {
+        val key = authority.javaClass.name + "|" + authority.authorityURL
+        return factories.getOrPut(key) {
+            MSALControllerFactory(
+                applicationContext = applicationConfiguration.appContext,
+                platformComponents = platformComponents,
+                authority = authority,
+                applicationConfiguration = applicationConfiguration,
+                activeBrokerProvider = activeBrokerProvider
+            )
+        }
+    }
+
+    /**
+     * Starts active broker discovery in the background if this application may use the broker,
+     * so that the first request does not wait for it.
+     */
+    fun prefetchActiveBroker() {
+        if (applicationConfiguration.useBroker == true) {
+            activeBrokerProvider.prefetch()
+        }
+    }
+
+    @Synchronized
+    fun size(): Int {
+        return factories.size
+    }
+
+    @Synchronized
+    fun clear() {
+        factories.clear()
+    }
+}
@@ -0,0 +1,52 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.metrics;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Receives the metrics MSAL records. Register one with {@link MsalMetrics#addExporter}.
+ * <p>
+ * Methods are called on the thread that recorded the metric, often one MSAL runs requests on,
+ * so they must be thread-safe and return quickly.
+ */
+public interface IMsalMetricsExporter {
+
+    /**
+     * Invoked when a counter is incremented.
+     *
+     * @param counter   the counter.
+     * @param increment the amount it was incremented by.
+     */
+    void onCount(@NonNull final MsalCounter counter, final long increment);
+
+    /**
+     * Invoked when a request has completed.
+     *
+     * @param publicApiId   the {@link com.microsoft.identity.common.java.eststelemetry.PublicApiId}
+     *                      of the API the request was made with.
+     * @param durationNanos the time from the call to the delivery of the result.
+     * @param succeeded     true if the request returned a result, false if it failed.
+     */
+    void onLatency(@NonNull final String publicApiId, final long durationNanos, final boolean succeeded);
+}
@@ -0,0 +1,106 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps MSAL metrics in memory, for apps that read them on their own schedule: counter totals,
+ * and a latency histogram per public API id with the buckets of {@link #getLatencyBucketBoundsMillis()}.
+ */
+public final class InMemoryMetricsExporter implements IMsalMetricsExporter {
+
+    private static final long[] LATENCY_BUCKET_BOUNDS_MILLIS =
+            {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final AtomicLongArray mCounts = new AtomicLongArray(MsalCounter.values().length);
+    private final ConcurrentMap<String, AtomicLongArray> mLatencyHistograms = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the upper bounds, inclusive, of the latency histogram buckets. The histogram has one
+     * more bucket, for the latencies above the last bound.
+     *
+     * @return the bounds in milliseconds, in ascending order.
+     */
+    @NonNull
+    public static long[] getLatencyBucketBoundsMillis() {
+        return LATENCY_BUCKET_BOUNDS_MILLIS.clone();
+    }
+
+    @Override
+    public void onCount(@NonNull final MsalCounter counter, final long increment) {
+        mCounts.addAndGet(counter.ordinal(), increment);
+    }
+
+    @Override
+    public void onLatency(@NonNull final String publicApiId, final long durationNanos, final boolean succeeded) {
+        AtomicLongArray histogram = mLatencyHistograms.get(publicApiId);
+        if (histogram == null) {
+            histogram = new AtomicLongArray(LATENCY_BUCKET_BOUNDS_MILLIS.length + 1);
+            final AtomicLongArray existing = mLatencyHistograms.putIfAbsent(publicApiId, histogram);
+            if (existing != null) {
+                histogram = existing;
+            }
+        }
+        histogram.incrementAndGet(getBucket(TimeUnit.NANOSECONDS.toMillis(durationNanos)));
+    }
+
+    /**
+     * Gets the total of a counter.
+     *
+     * @param counter the counter.
+     * @return the sum of its increments so far.
+     */
+    public long getCount(@NonNull final MsalCounter counter) {
+        return mCounts.get(counter.ordinal());
+    }
+
+    /**
+     * Gets the latency histogram of an API.
+     *
+     * @param publicApiId the public API id.
+     * @return the number of requests per bucket, see {@link #getLatencyBucketBoundsMillis()}.
+     */
+    @NonNull
+    public long[] getLatencyHistogram(@NonNull final String publicApiId) {
+        final long[] counts = new long[LATENCY_BUCKET_BOUNDS_MILLIS.length + 1];
+        final AtomicLongArray histogram = mLatencyHistograms.get(publicApiId);
+        if (histogram != null) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = histogram.get(i);
+            }
+        }
+        return counts;
+    }
+
+    private static int getBucket(final long durationMillis) {
+        final int index = Arrays.binarySearch(LATENCY_BUCKET_BOUNDS_MILLIS, durationMillis);
+        return index >= 0 ? index : -index - 1;
+    }
+}
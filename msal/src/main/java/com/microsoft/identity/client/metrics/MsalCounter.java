@@ -0,0 +1,81 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.metrics;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The counters MSAL reports to {@link IMsalMetricsExporter}s.
+ */
+public enum MsalCounter {
+    /**
+     * A silent request was answered from the in-memory access token cache.
+     */
+    ACCESS_TOKEN_CACHE_HIT("msal.access_token_cache.hits"),
+
+    /**
+     * A silent request did not find its access token in the in-memory cache.
+     */
+    ACCESS_TOKEN_CACHE_MISS("msal.access_token_cache.misses"),
+
+    /**
+     * A silent request got a new access token from the service or the broker, rather than from
+     * the token cache.
+     */
+    TOKEN_REFRESH("msal.token_refreshes"),
+
+    /**
+     * A command was routed to the broker.
+     */
+    BROKER_CONTROLLER("msal.controller.broker"),
+
+    /**
+     * A command was handled by MSAL itself, without the broker.
+     */
+    LOCAL_CONTROLLER("msal.controller.local"),
+
+    /**
+     * An interactive request was started.
+     */
+    INTERACTIVE_LAUNCH("msal.interactive_launches"),
+
+    /**
+     * A request failed with HTTP 429 or 503. Every 503 is counted, with or without a Retry-After
+     * header, so this also includes outages that were not throttling.
+     */
+    THROTTLED_REQUEST("msal.throttled_requests");
+
+    private final String mMetricName;
+
+    MsalCounter(@NonNull final String metricName) {
+        mMetricName = metricName;
+    }
+
+    /**
+     * @return the name the counter is exported with.
+     */
+    @NonNull
+    public String getMetricName() {
+        return mMetricName;
+    }
+}
@@ -0,0 +1,148 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.client.exception.MsalServiceException;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.net.HttpURLConnection;
+import java.util.Arrays;
+
+/**
+ * Process-wide registry of {@link IMsalMetricsExporter}s. Metrics are handed to the exporters as
+ * they are recorded; MSAL does nothing but a field read for them while no exporter is registered.
+ */
+public final class MsalMetrics {
+
+    private static final String TAG = MsalMetrics.class.getSimpleName();
+
+    // The service throttles with 429, or with 503 and a Retry-After header. MsalServiceException
+    // does not carry the response headers, so every 503 is counted as throttled.
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private static final Object sLock = new Object();
+
+    // Replaced rather than modified, so recording does not lock or allocate.
+    private static volatile IMsalMetricsExporter[] sExporters = new IMsalMetricsExporter[0];
+
+    private MsalMetrics() {
+        // Utility class.
+    }
+
+    /**
+     * Registers an exporter. Registering the same exporter again has no effect.
+     *
+     * @param exporter the exporter.
+     */
+    public static void addExporter(@NonNull final IMsalMetricsExporter exporter) {
+        synchronized (sLock) {
+            final IMsalMetricsExporter[] exporters = sExporters;
+            if (Arrays.asList(exporters).contains(exporter)) {
+                return;
+            }
+
+            final IMsalMetricsExporter[] updated = Arrays.copyOf(exporters, exporters.length + 1);
+            updated[exporters.length] = exporter;
+            sExporters = updated;
+        }
+    }
+
+    /**
+     * Unregisters an exporter.
+     *
+     * @param exporter the exporter.
+     */
+    public static void removeExporter(@NonNull final IMsalMetricsExporter exporter) {
+        synchronized (sLock) {
+            final IMsalMetricsExporter[] exporters = sExporters;
+            final int index = Arrays.asList(exporters).indexOf(exporter);
+            if (index < 0) {
+                return;
+            }
+
+            final IMsalMetricsExporter[] updated = new IMsalMetricsExporter[exporters.length - 1];
+            System.arraycopy(exporters, 0, updated, 0, index);
+            System.arraycopy(exporters, index + 1, updated, index, updated.length - index);
+            sExporters = updated;
+        }
+    }
+
+    /**
+     * Increments a counter by one. Called by MSAL.
+     *
+     * @param counter the counter.
+     */
+    public static void count(@NonNull final MsalCounter counter) {
+        final String methodTag = TAG + ":count";
+        for (final IMsalMetricsExporter exporter : sExporters) {
+            try {
+                exporter.onCount(counter, 1);
+            } catch (final RuntimeException e) {
+                Logger.error(methodTag, "Metrics exporter failed.", e);
+            }
+        }
+    }
+
+    /**
+     * Records the latency of a completed request. Called by MSAL.
+     *
+     * @param publicApiId   the API the request was made with.
+     * @param durationNanos the time from the call to the delivery of the result.
+     * @param exception     the exception the request failed with, or null if it succeeded.
+     */
+    public static void recordLatency(@NonNull final String publicApiId,
+                                     final long durationNanos,
+                                     @Nullable final MsalException exception) {
+        final String methodTag = TAG + ":recordLatency";
+        final IMsalMetricsExporter[] exporters = sExporters;
+        if (exporters.length == 0) {
+            return;
+        }
+
+        if (isThrottled(exception)) {
+            count(MsalCounter.THROTTLED_REQUEST);
+        }
+
+        for (final IMsalMetricsExporter exporter : exporters) {
+            try {
+                exporter.onLatency(publicApiId, durationNanos, exception == null);
+            } catch (final RuntimeException e) {
+                Logger.error(methodTag, "Metrics exporter failed.", e);
+            }
+        }
+    }
+
+    private static boolean isThrottled(@Nullable final MsalException exception) {
+        if (!(exception instanceof MsalServiceException)) {
+            return false;
+        }
+
+        final int httpStatusCode = ((MsalServiceException) exception).getHttpStatusCode();
+        return httpStatusCode == HTTP_TOO_MANY_REQUESTS
+                || httpStatusCode == HttpURLConnection.HTTP_UNAVAILABLE;
+    }
+}
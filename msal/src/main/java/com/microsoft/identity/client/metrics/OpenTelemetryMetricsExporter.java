@@ -0,0 +1,114 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.metrics;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.msal.BuildConfig;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+
+/**
+ * Exports MSAL metrics through an OpenTelemetry {@link Meter}: each {@link MsalCounter} as a
+ * counter, and request latencies as the {@value #REQUEST_DURATION} histogram, in milliseconds,
+ * with the public API id and the outcome as attributes.
+ */
+public final class OpenTelemetryMetricsExporter implements IMsalMetricsExporter {
+
+    private static final String INSTRUMENTATION_NAME = "com.microsoft.identity.client";
+    static final String REQUEST_DURATION = "msal.request.duration";
+    static final AttributeKey<String> PUBLIC_API_ID = AttributeKey.stringKey("public_api_id");
+    static final AttributeKey<Boolean> SUCCEEDED = AttributeKey.booleanKey("succeeded");
+
+    private final Map<MsalCounter, LongCounter> mCounters = new EnumMap<>(MsalCounter.class);
+    private final DoubleHistogram mRequestDuration;
+
+    // Attributes are built once per public API id and outcome, not per request.
+    private final ConcurrentMap<String, Attributes> mSucceededAttributes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Attributes> mFailedAttributes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an exporter that uses the meter of the globally registered OpenTelemetry instance.
+     */
+    public OpenTelemetryMetricsExporter() {
+        this(GlobalOpenTelemetry.getMeterProvider()
+                .meterBuilder(INSTRUMENTATION_NAME)
+                .setInstrumentationVersion(BuildConfig.VERSION_NAME)
+                .build());
+    }
+
+    /**
+     * Creates an exporter that uses the given meter.
+     *
+     * @param meter the meter to create the instruments with.
+     */
+    public OpenTelemetryMetricsExporter(@NonNull final Meter meter) {
+        for (final MsalCounter counter : MsalCounter.values()) {
+            mCounters.put(counter, meter.counterBuilder(counter.getMetricName()).build());
+        }
+        mRequestDuration = meter.histogramBuilder(REQUEST_DURATION)
+                .setDescription("Duration of MSAL requests, from the call to the delivery of the result.")
+                .setUnit("ms")
+                .build();
+    }
+
+    @Override
+    public void onCount(@NonNull final MsalCounter counter, final long increment) {
+        mCounters.get(counter).add(increment);
+    }
+
+    @Override
+    public void onLatency(@NonNull final String publicApiId, final long durationNanos, final boolean succeeded) {
+        mRequestDuration.record(
+                (double) durationNanos / TimeUnit.MILLISECONDS.toNanos(1),
+                getAttributes(publicApiId, succeeded)
+        );
+    }
+
+    @NonNull
+    private Attributes getAttributes(@NonNull final String publicApiId, final boolean succeeded) {
+        final ConcurrentMap<String, Attributes> attributesByApiId =
+                succeeded ? mSucceededAttributes : mFailedAttributes;
+
+        Attributes attributes = attributesByApiId.get(publicApiId);
+        if (attributes == null) {
+            attributes = Attributes.of(PUBLIC_API_ID, publicApiId, SUCCEEDED, succeeded);
+            final Attributes existing = attributesByApiId.putIfAbsent(publicApiId, attributes);
+            if (existing != null) {
+                attributes = existing;
+            }
+        }
+        return attributes;
+    }
+}
@@ -61,6 +61,9 @@ class NativeAuthPublicClientApplicationConfigurationFactory :
     companion object {
         private val TAG = NativeAuthPublicClientApplicationConfigurationFactory::class.java.simpleName
 
+        // Gson is thread safe; build it with its type adapters once.
+        private val configurationGson: Gson by lazy { getGsonForLoadingConfiguration() }
+
         /**
          * Initialize default [NativeAuthPublicClientApplicationConfiguration] object with default fields
          */
@@ -93,7 +96,7 @@ class NativeAuthPublicClientApplicationConfigurationFactory :
         @WorkerThread
         private fun initializeNativeAuthConfigurationInternal(context: Context, developerConfig: NativeAuthPublicClientApplicationConfiguration?): NativeAuthPublicClientApplicationConfiguration {
             // This will create the default msal configuration
-            val defaultMsalConfiguration: PublicClientApplicationConfiguration = PublicClientApplicationConfigurationFactory.loadConfiguration(context, R.raw.msal_default_config)
+            val defaultMsalConfiguration: PublicClientApplicationConfiguration = PublicClientApplicationConfigurationFactory.getDefaultConfiguration(context)
 
             // This will create the default native auth configuration
             val defaultNativeAuthConfiguration = loadDefaultNativeAuthConfiguration(context)
@@ -208,9 +211,8 @@ class NativeAuthPublicClientApplicationConfigurationFactory :
             }
 
             val config = String(buffer)
-            val gson = getGsonForLoadingConfiguration()
             return try {
-                gson.fromJson(config, NativeAuthPublicClientApplicationConfiguration::class.java)
+                configurationGson.fromJson(config, NativeAuthPublicClientApplicationConfiguration::class.java)
             } catch (e: Exception) {
                 if (e is InterruptedException) {
                     Thread.currentThread().interrupt()
@@ -0,0 +1,196 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.common.java.cache.CacheRecord;
+import com.microsoft.identity.common.java.cache.ICacheRecord;
+import com.microsoft.identity.common.java.dto.AccountRecord;
+import com.microsoft.identity.common.java.dto.IdTokenRecord;
+import com.microsoft.identity.internal.testutils.mocks.MockTokenCreator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccountAdapterTest {
+
+    private static final String ENVIRONMENT = "login.microsoftonline.com";
+
+    @Test
+    public void testGuestProfilesAreAttachedToHomeAccount() {
+        final List<IAccount> accounts = AccountAdapter.adapt(Arrays.asList(
+                createRecord("uid", "utid", "uid", "utid"),
+                createRecord("uid", "utid", "guest-oid-1", "guest-tid-1"),
+                createRecord("uid", "utid", "guest-oid-2", "guest-tid-2")
+        ));
+
+        Assert.assertEquals(1, accounts.size());
+        final MultiTenantAccount account = (MultiTenantAccount) accounts.get(0);
+        Assert.assertEquals("uid.utid", account.getHomeAccountId());
+        Assert.assertEquals(2, account.getTenantProfiles().size());
+        Assert.assertTrue(account.getTenantProfiles().containsKey("guest-tid-1"));
+        Assert.assertTrue(account.getTenantProfiles().containsKey("guest-tid-2"));
+    }
+
+    @Test
+    public void testHomeAccountWithoutGuestsHasNoProfiles() {
+        final List<IAccount> accounts = AccountAdapter.adapt(Arrays.asList(
+                createRecord("uid", "utid", "uid", "utid"),
+                createRecord("other", "utid", "other", "utid")
+        ));
+
+        Assert.assertEquals(2, accounts.size());
+        for (final IAccount account : accounts) {
+            Assert.assertTrue(((MultiTenantAccount) account).getTenantProfiles().isEmpty());
+        }
+    }
+
+    @Test
+    public void testGuestsWithoutHomeAccountAreGroupedIntoOneAccount() {
+        final List<IAccount> accounts = AccountAdapter.adapt(Arrays.asList(
+                createRecord("uid", "utid", "guest-oid-1", "guest-tid-1"),
+                createRecord("uid", "utid", "guest-oid-2", "guest-tid-2")
+        ));
+
+        Assert.assertEquals(1, accounts.size());
+        final MultiTenantAccount account = (MultiTenantAccount) accounts.get(0);
+        Assert.assertEquals("uid", account.getId());
+        Assert.assertEquals("utid", account.getTenantId());
+        Assert.assertEquals(2, account.getTenantProfiles().size());
+    }
+
+    @Test
+    public void testParsedIdTokensAreDroppedWhenCleared() {
+        AccountAdapter.clearIdTokenCache();
+        final ICacheRecord record = createRecordWithIdToken("uid", "utid");
+
+        AccountAdapter.adapt(Collections.singletonList(record));
+        AccountAdapter.adapt(Collections.singletonList(record));
+        Assert.assertEquals(1, AccountAdapter.getIdTokenCacheSize());
+
+        AccountAdapter.clearIdTokenCache();
+        Assert.assertEquals(0, AccountAdapter.getIdTokenCacheSize());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testClaimsCannotBeModified() {
+        final IAccount account = AccountAdapter.adapt(
+                Collections.singletonList(createRecordWithIdToken("uid", "utid"))
+        ).get(0);
+
+        Assert.assertNotNull(account.getClaims());
+        account.getClaims().clear();
+    }
+
+    @Test
+    public void testGuestIsNotAttachedToHomeAccountWhoseIdItOnlyContains() {
+        final List<IAccount> accounts = AccountAdapter.adapt(Arrays.asList(
+                createRecord("uid", "utid", "uid", "utid"),
+                createRecord("xuid", "utid", "guest-oid", "guest-tid")
+        ));
+
+        Assert.assertEquals(2, accounts.size());
+        Assert.assertTrue(((MultiTenantAccount) accounts.get(0)).getTenantProfiles().isEmpty());
+        Assert.assertEquals("xuid", accounts.get(1).getId());
+    }
+
+    /**
+     * The previous implementation compared every guest record with every home account. Each record
+     * is now read a fixed number of times, however many records there are.
+     */
+    @Test
+    public void testEachRecordIsReadAFixedNumberOfTimes() {
+        final List<ICacheRecord> records = new ArrayList<>();
+        final List<AccountRecord> accountRecords = new ArrayList<>();
+        for (final ICacheRecord record : createRecords(200)) {
+            final AccountRecord accountRecord = Mockito.spy((AccountRecord) record.getAccount());
+            accountRecords.add(accountRecord);
+            records.add(CacheRecord.builder().account(accountRecord).build());
+        }
+
+        final List<IAccount> accounts = AccountAdapter.adapt(records);
+
+        Assert.assertEquals(100, accounts.size());
+        for (final AccountRecord accountRecord : accountRecords) {
+            Mockito.verify(accountRecord, Mockito.atMost(3)).getHomeAccountId();
+        }
+    }
+
+    /**
+     * Creates one home record and one guest record per account.
+     */
+    @NonNull
+    private static List<ICacheRecord> createRecords(final int count) {
+        final List<ICacheRecord> records = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            final String uid = "uid-" + (i / 2);
+            if (i % 2 == 0) {
+                records.add(createRecord(uid, "utid", uid, "utid"));
+            } else {
+                records.add(createRecord(uid, "utid", "guest-" + i, "guest-tid"));
+            }
+        }
+
+        return records;
+    }
+
+    @NonNull
+    private static ICacheRecord createRecord(@NonNull final String homeOid,
+                                             @NonNull final String homeTenantId,
+                                             @NonNull final String localAccountId,
+                                             @NonNull final String realm) {
+        final AccountRecord accountRecord = new AccountRecord();
+        accountRecord.setHomeAccountId(homeOid + "." + homeTenantId);
+        accountRecord.setLocalAccountId(localAccountId);
+        accountRecord.setRealm(realm);
+        accountRecord.setEnvironment(ENVIRONMENT);
+
+        return CacheRecord.builder().account(accountRecord).build();
+    }
+
+    @NonNull
+    private static ICacheRecord createRecordWithIdToken(@NonNull final String homeOid,
+                                                        @NonNull final String homeTenantId) {
+        final AccountRecord accountRecord = new AccountRecord();
+        accountRecord.setHomeAccountId(homeOid + "." + homeTenantId);
+        accountRecord.setLocalAccountId(homeOid);
+        accountRecord.setRealm(homeTenantId);
+        accountRecord.setEnvironment(ENVIRONMENT);
+
+        final IdTokenRecord idTokenRecord = new IdTokenRecord();
+        idTokenRecord.setSecret(MockTokenCreator.createMockIdToken());
+
+        return CacheRecord.builder().account(accountRecord).idToken(idTokenRecord).build();
+    }
+}
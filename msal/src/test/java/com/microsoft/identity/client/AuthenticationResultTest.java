@@ -24,6 +24,7 @@ package com.microsoft.identity.client;
 
 import com.microsoft.identity.common.java.cache.CacheRecord;
 import com.microsoft.identity.common.java.cache.ICacheRecord;
+import com.microsoft.identity.common.java.dto.AccessTokenRecord;
 import com.microsoft.identity.common.java.dto.AccountRecord;
 import com.microsoft.identity.common.java.dto.IdTokenRecord;
 import com.microsoft.identity.internal.testutils.mocks.MockTokenCreator;
@@ -35,6 +36,8 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
@@ -55,9 +58,16 @@ public class AuthenticationResultTest {
         final IdTokenRecord idTokenRecord = new IdTokenRecord();
         idTokenRecord.setSecret(MockTokenCreator.createMockIdToken());
 
+        final AccessTokenRecord accessTokenRecord = new AccessTokenRecord();
+        accessTokenRecord.setSecret("access_token");
+        accessTokenRecord.setAccessTokenType("Bearer");
+        accessTokenRecord.setTarget("User.Read Mail.Read");
+        accessTokenRecord.setExpiresOn("1700000000");
+
         final CacheRecord.CacheRecordBuilder cacheRecord = CacheRecord.builder();
         cacheRecord.account(accountRecord);
         cacheRecord.idToken(idTokenRecord);
+        cacheRecord.accessToken(accessTokenRecord);
 
         cacheRecords.add(cacheRecord.build());
 
@@ -112,4 +122,51 @@ public class AuthenticationResultTest {
         Assert.assertNull(authenticationResult.getCorrelationId());
     }
 
+    @Test
+    public void testAccountIsAdaptedOnce() {
+        final AuthenticationResult authenticationResult = new AuthenticationResult(mCacheRecords, null);
+
+        final IAccount account = authenticationResult.getAccount();
+
+        Assert.assertNotNull(account);
+        Assert.assertSame(account, authenticationResult.getAccount());
+    }
+
+    @Test
+    public void testScopeIsMemoizedAndCopied() {
+        final AuthenticationResult authenticationResult = new AuthenticationResult(mCacheRecords, null);
+
+        final String[] scope = authenticationResult.getScope();
+        Assert.assertEquals(Arrays.asList("User.Read", "Mail.Read"), Arrays.asList(scope));
+
+        scope[0] = "tampered";
+        Assert.assertEquals("User.Read", authenticationResult.getScope()[0]);
+    }
+
+    @Test
+    public void testExpiresOnIsMemoizedAndCopied() {
+        final AuthenticationResult authenticationResult = new AuthenticationResult(mCacheRecords, null);
+
+        final Date expiresOn = authenticationResult.getExpiresOn();
+        Assert.assertEquals(1700000000000L, expiresOn.getTime());
+
+        expiresOn.setTime(0);
+        Assert.assertEquals(1700000000000L, authenticationResult.getExpiresOn().getTime());
+    }
+
+    @Test
+    public void testAccountIdAndExpiryAreReadFromRecords() {
+        mCacheRecords.get(0).getAccount().setHomeAccountId("uid.utid");
+        final AuthenticationResult authenticationResult = new AuthenticationResult(mCacheRecords, null);
+
+        Assert.assertEquals("uid", authenticationResult.getAccountId());
+        Assert.assertEquals(1700000000000L, authenticationResult.getExpiresOnMillis());
+    }
+
+    @Test
+    public void testAccountIdIsNullWithoutHomeAccountId() {
+        final AuthenticationResult authenticationResult = new AuthenticationResult(mCacheRecords, null);
+
+        Assert.assertNull(authenticationResult.getAccountId());
+    }
 }
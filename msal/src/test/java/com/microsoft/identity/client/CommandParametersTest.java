@@ -33,6 +33,7 @@ import com.microsoft.identity.client.claims.ClaimsRequest;
 import com.microsoft.identity.client.claims.RequestedClaim;
 import com.microsoft.identity.client.claims.RequestedClaimAdditionalInformation;
 import com.microsoft.identity.client.internal.CommandParametersAdapter;
+import com.microsoft.identity.client.internal.CommandParametersTemplate;
 import com.microsoft.identity.common.components.AndroidPlatformComponentsFactory;
 import com.microsoft.identity.common.java.cache.IAccountCredentialAdapter;
 import com.microsoft.identity.common.java.cache.IAccountCredentialCache;
@@ -58,6 +59,7 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -358,6 +360,63 @@ public class CommandParametersTest {
         Assert.assertEquals(combinedQueryParameters.size(), 1);
     }
 
+    @Test
+    public void testSilentParametersFromTemplateMatchPerRequestParameters() throws ClientException {
+        final PublicClientApplicationConfiguration configuration = getConfiguration(AAD_CP1_CONFIG_FILE);
+        final CommandParametersTemplate template = new CommandParametersTemplate(configuration);
+
+        final SilentTokenCommandParameters fromTemplate = CommandParametersAdapter.createSilentTokenCommandParameters(template, getCache(), getAcquireTokenSilentParametersWithoutClaims());
+        final SilentTokenCommandParameters perRequest = CommandParametersAdapter.createSilentTokenCommandParameters(configuration, getCache(), getAcquireTokenSilentParametersWithoutClaims());
+
+        Assert.assertEquals(perRequest.getApplicationName(), fromTemplate.getApplicationName());
+        Assert.assertEquals(perRequest.getApplicationVersion(), fromTemplate.getApplicationVersion());
+        Assert.assertEquals(perRequest.getClientId(), fromTemplate.getClientId());
+        Assert.assertEquals(perRequest.getRedirectUri(), fromTemplate.getRedirectUri());
+        Assert.assertEquals(perRequest.getSdkVersion(), fromTemplate.getSdkVersion());
+        Assert.assertEquals(perRequest.getClaimsRequestJson(), fromTemplate.getClaimsRequestJson());
+        Assert.assertEquals(perRequest.getAuthority(), fromTemplate.getAuthority());
+    }
+
+    @Test
+    public void testTemplateMergesRequestedClaimsWithCapabilities() throws ClientException {
+        final PublicClientApplicationConfiguration configuration = getConfiguration(AAD_CP1_CONFIG_FILE);
+        final CommandParametersTemplate template = new CommandParametersTemplate(configuration);
+
+        final SilentTokenCommandParameters fromTemplate = CommandParametersAdapter.createSilentTokenCommandParameters(template, getCache(), getAcquireTokenSilentParametersWithClaims());
+        final SilentTokenCommandParameters perRequest = CommandParametersAdapter.createSilentTokenCommandParameters(configuration, getCache(), getAcquireTokenSilentParametersWithClaims());
+
+        Assert.assertEquals(perRequest.getClaimsRequestJson(), fromTemplate.getClaimsRequestJson());
+        Assert.assertTrue(fromTemplate.getClaimsRequestJson().contains(CommandParametersAdapter.CLIENT_CAPABILITIES_CLAIM));
+        Assert.assertTrue(fromTemplate.isForceRefresh());
+    }
+
+    @Test
+    public void testTemplateReusesParsedAuthority() throws ClientException {
+        final CommandParametersTemplate template = new CommandParametersTemplate(getConfiguration(AAD_NONE_CONFIG_FILE));
+
+        final SilentTokenCommandParameters first = CommandParametersAdapter.createSilentTokenCommandParameters(template, getCache(), getAcquireTokenSilentParametersWithoutClaims());
+        final SilentTokenCommandParameters second = CommandParametersAdapter.createSilentTokenCommandParameters(template, getCache(), getAcquireTokenSilentParametersWithoutClaims());
+
+        Assert.assertSame(first.getAuthority(), second.getAuthority());
+        Assert.assertSame(first.getPlatformComponents(), second.getPlatformComponents());
+    }
+
+    @Test
+    public void testTemplateSharesPrecomputedValuesAndCopiesRequestValues() throws ClientException {
+        final CommandParametersTemplate template = new CommandParametersTemplate(getConfiguration(AAD_CP1_CONFIG_FILE));
+        final AcquireTokenSilentParameters parameters = getAcquireTokenSilentParametersWithoutClaims();
+
+        final SilentTokenCommandParameters first = CommandParametersAdapter.createSilentTokenCommandParameters(template, getCache(), parameters);
+        final SilentTokenCommandParameters second = CommandParametersAdapter.createSilentTokenCommandParameters(template, getCache(), parameters);
+
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(first.getClaimsRequestJson(), second.getClaimsRequestJson());
+        Assert.assertSame(first.getApplicationVersion(), second.getApplicationVersion());
+        Assert.assertNotSame(first.getScopes(), second.getScopes());
+        Assert.assertNotSame(parameters.getScopes(), first.getScopes());
+        Assert.assertEquals(new HashSet<>(parameters.getScopes()), first.getScopes());
+    }
+
     private ClaimsRequest getAccessTokenClaimsRequest(@NonNull String claimName, @NonNull String claimValue) {
         ClaimsRequest cp1ClaimsRequest = new ClaimsRequest();
         RequestedClaimAdditionalInformation info = new RequestedClaimAdditionalInformation();
@@ -0,0 +1,267 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import static com.microsoft.identity.client.e2e.utils.RoboTestUtils.flushScheduler;
+import static com.microsoft.identity.internal.testutils.TestConstants.Authorities.AAD_MOCK_AUTHORITY_HTTP_RESPONSE;
+import static com.microsoft.identity.internal.testutils.TestConstants.Configurations.MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+import static com.microsoft.identity.internal.testutils.TestConstants.Scopes.USER_READ_SCOPE;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.e2e.shadows.ShadowAndroidSdkStorageEncryptionManager;
+import com.microsoft.identity.client.e2e.shadows.ShadowMockAuthority;
+import com.microsoft.identity.client.e2e.shadows.ShadowOpenIdProviderConfigurationClient;
+import com.microsoft.identity.client.e2e.shadows.ShadowPublicClientApplicationConfiguration;
+import com.microsoft.identity.client.e2e.tests.AcquireTokenAbstractTest;
+import com.microsoft.identity.client.e2e.utils.AcquireTokenTestHelper;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.client.internal.IClock;
+import com.microsoft.identity.client.internal.SilentTokenRefresher;
+import com.microsoft.identity.client.internal.TokenRefreshScheduler;
+import com.microsoft.identity.common.java.net.HttpClient;
+import com.microsoft.identity.common.java.net.HttpResponse;
+import com.microsoft.identity.http.HttpRequestInterceptor;
+import com.microsoft.identity.http.HttpRequestMatcher;
+import com.microsoft.identity.internal.testutils.mocks.MockServerResponse;
+import com.microsoft.identity.shadow.ShadowHttpClient;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives proactive refresh through a {@link PublicClientApplication}, against a mocked token
+ * endpoint and with a fake clock.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = {
+        ShadowAndroidSdkStorageEncryptionManager.class,
+        ShadowMockAuthority.class,
+        ShadowHttpClient.class,
+        ShadowPublicClientApplicationConfiguration.class,
+        ShadowOpenIdProviderConfigurationClient.class
+})
+public final class ProactiveRefreshMockTest extends AcquireTokenAbstractTest {
+
+    private static final long CALLBACK_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final AtomicInteger mTokenRequestCount = new AtomicInteger();
+    private final BlockingQueue<Boolean> mCompletedRefreshes = new LinkedBlockingQueue<>();
+    private volatile long mNow;
+    private volatile Long mAlarmAt;
+    private TokenRefreshScheduler mScheduler;
+
+    @Before
+    public void before() {
+        mockHttpClient.intercept(
+                HttpRequestMatcher.builder().isPOST().build(), new HttpRequestInterceptor() {
+                    @Override
+                    public HttpResponse performIntercept(
+                            @NonNull HttpClient.HttpMethod httpMethod,
+                            @NonNull URL requestUrl,
+                            @NonNull Map<String, String> requestHeaders,
+                            @Nullable byte[] requestContent) {
+                        mTokenRequestCount.incrementAndGet();
+                        return MockServerResponse.getMockTokenSuccessResponse();
+                    }
+                });
+
+        final AcquireTokenParameters parameters = new AcquireTokenParameters.Builder()
+                .startAuthorizationFromActivity(mActivity)
+                .withLoginHint("fake@test.com")
+                .withScopes(Arrays.asList(mScopes))
+                .fromAuthority(getAuthority())
+                .withCallback(AcquireTokenTestHelper.successfulInteractiveCallback())
+                .build();
+
+        mApplication.acquireToken(parameters);
+        flushScheduler();
+        mTokenRequestCount.set(0);
+
+        mNow = System.currentTimeMillis();
+        final SilentTokenRefresher refresher = new SilentTokenRefresher(mApplication);
+        mScheduler = new TokenRefreshScheduler(
+                new IClock() {
+                    @Override
+                    public long currentTimeMillis() {
+                        return mNow;
+                    }
+                },
+                new TokenRefreshScheduler.IAlarm() {
+                    @Override
+                    public void set(final long delayMillis, @NonNull final Runnable wakeUp) {
+                        mAlarmAt = mNow + delayMillis;
+                    }
+
+                    @Override
+                    public void cancel() {
+                        mAlarmAt = null;
+                    }
+                },
+                new TokenRefreshScheduler.IDeviceConditions() {
+                    @Override
+                    public boolean canRefreshNow() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setOnReadyListener(@Nullable final Runnable listener) {
+                    }
+                },
+                new TokenRefreshScheduler.IRefresher() {
+                    @Override
+                    public void refresh(@NonNull final TokenRefreshScheduler.Registration registration,
+                                        final boolean forceRefresh,
+                                        @NonNull final TokenRefreshScheduler.IRefreshCallback callback) {
+                        refresher.refresh(registration, forceRefresh, new TokenRefreshScheduler.IRefreshCallback() {
+                            @Override
+                            public void onRefreshed(final long expiresOnMillis) {
+                                callback.onRefreshed(expiresOnMillis);
+                                mCompletedRefreshes.add(true);
+                            }
+
+                            @Override
+                            public void onFailed(final boolean retryable) {
+                                callback.onFailed(retryable);
+                                mCompletedRefreshes.add(false);
+                            }
+                        });
+                    }
+                }
+        );
+        ((PublicClientApplication) mApplication).setTokenRefreshScheduler(mScheduler);
+    }
+
+    @Test
+    public void testRegisteredTokenIsRefreshedAheadOfExpiry() throws InterruptedException {
+        final IAccount account = AcquireTokenTestHelper.getAccount();
+        final long expiresOnMillis = acquireExpiresOnMillis(account);
+
+        mApplication.registerForProactiveRefresh(account, Arrays.asList(mScopes), getAuthority());
+        Assert.assertEquals(Long.valueOf(mNow), mAlarmAt);
+
+        // The first run only learns when the cached token expires.
+        mScheduler.runDueRefreshes();
+        Assert.assertTrue(awaitRefresh());
+        Assert.assertEquals(0, mTokenRequestCount.get());
+        Assert.assertTrue(mAlarmAt > mNow);
+        Assert.assertTrue(mAlarmAt <= expiresOnMillis - TokenRefreshScheduler.DEFAULT_LEAD_MILLIS);
+
+        mNow = mAlarmAt;
+        mScheduler.runDueRefreshes();
+        Assert.assertTrue(awaitRefresh());
+        Assert.assertEquals(1, mTokenRequestCount.get());
+        Assert.assertEquals(1, mScheduler.getRegistrationCount());
+    }
+
+    @Test
+    public void testUnregisterStopsRefreshing() throws InterruptedException {
+        final IAccount account = AcquireTokenTestHelper.getAccount();
+        mApplication.registerForProactiveRefresh(account, Arrays.asList(mScopes), getAuthority());
+        mScheduler.runDueRefreshes();
+        Assert.assertTrue(awaitRefresh());
+
+        mApplication.unregisterFromProactiveRefresh(account);
+
+        Assert.assertEquals(0, mScheduler.getRegistrationCount());
+        Assert.assertNull(mAlarmAt);
+        mNow += TimeUnit.DAYS.toMillis(1);
+        mScheduler.runDueRefreshes();
+        flushScheduler();
+        Assert.assertTrue(mCompletedRefreshes.isEmpty());
+        Assert.assertEquals(0, mTokenRequestCount.get());
+    }
+
+    private long acquireExpiresOnMillis(@NonNull final IAccount account) throws InterruptedException {
+        final BlockingQueue<IAuthenticationResult> results = new LinkedBlockingQueue<>();
+        mApplication.acquireTokenSilentAsync(new AcquireTokenSilentParameters.Builder()
+                .forAccount(account)
+                .withScopes(Arrays.asList(mScopes))
+                .fromAuthority(getAuthority())
+                .withCallback(new SilentAuthenticationCallback() {
+                    @Override
+                    public void onSuccess(final IAuthenticationResult authenticationResult) {
+                        results.add(authenticationResult);
+                    }
+
+                    @Override
+                    public void onError(final MsalException exception) {
+                        throw new AssertionError(exception);
+                    }
+                })
+                .build());
+
+        IAuthenticationResult result = null;
+        final long deadline = System.currentTimeMillis() + CALLBACK_TIMEOUT_MILLIS;
+        while (result == null && System.currentTimeMillis() < deadline) {
+            flushScheduler();
+            result = results.poll(50, TimeUnit.MILLISECONDS);
+        }
+
+        Assert.assertNotNull("The silent request did not complete.", result);
+        return result.getExpiresOn().getTime();
+    }
+
+    /**
+     * @return whether the refresh that was started last succeeded.
+     */
+    private boolean awaitRefresh() throws InterruptedException {
+        Boolean succeeded = null;
+        final long deadline = System.currentTimeMillis() + CALLBACK_TIMEOUT_MILLIS;
+        while (succeeded == null && System.currentTimeMillis() < deadline) {
+            flushScheduler();
+            succeeded = mCompletedRefreshes.poll(50, TimeUnit.MILLISECONDS);
+        }
+
+        Assert.assertNotNull("The refresh did not complete.", succeeded);
+        return succeeded;
+    }
+
+    @Override
+    public String getAuthority() {
+        return AAD_MOCK_AUTHORITY_HTTP_RESPONSE;
+    }
+
+    @Override
+    public String getConfigFilePath() {
+        return MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+    }
+
+    @Override
+    public String[] getScopes() {
+        return USER_READ_SCOPE;
+    }
+}
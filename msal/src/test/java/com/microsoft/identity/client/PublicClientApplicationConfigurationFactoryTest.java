@@ -0,0 +1,95 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.microsoft.identity.msal.test.R;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class PublicClientApplicationConfigurationFactoryTest {
+
+    @Test
+    public void testDefaultConfigurationIsACopy() {
+        final Context context = ApplicationProvider.getApplicationContext();
+
+        final PublicClientApplicationConfiguration first = PublicClientApplicationConfigurationFactory.getDefaultConfiguration(context);
+        final PublicClientApplicationConfiguration second = PublicClientApplicationConfigurationFactory.getDefaultConfiguration(context);
+
+        Assert.assertNotSame(first, second);
+        Assert.assertNotSame(first.getAuthorities(), second.getAuthorities());
+        Assert.assertNotSame(first.getBrowserSafeList(), second.getBrowserSafeList());
+
+        final int authorityCount = second.getAuthorities().size();
+        final int browserCount = second.getBrowserSafeList().size();
+        first.getAuthorities().clear();
+        first.getBrowserSafeList().clear();
+
+        final PublicClientApplicationConfiguration third = PublicClientApplicationConfigurationFactory.getDefaultConfiguration(context);
+        Assert.assertEquals(authorityCount, third.getAuthorities().size());
+        Assert.assertEquals(browserCount, third.getBrowserSafeList().size());
+    }
+
+    @Test
+    public void testDefaultConfigurationMatchesParsedFile() {
+        final Context context = ApplicationProvider.getApplicationContext();
+
+        final PublicClientApplicationConfiguration copy = PublicClientApplicationConfigurationFactory.getDefaultConfiguration(context);
+        final PublicClientApplicationConfiguration parsed = PublicClientApplicationConfigurationFactory.loadConfiguration(
+                context,
+                R.raw.msal_default_config
+        );
+
+        Assert.assertEquals(parsed.getAccountMode(), copy.getAccountMode());
+        Assert.assertEquals(parsed.getAuthorizationAgent(), copy.getAuthorizationAgent());
+        Assert.assertEquals(parsed.getRequiredBrokerProtocolVersion(), copy.getRequiredBrokerProtocolVersion());
+        Assert.assertEquals(parsed.getMultipleCloudsSupported(), copy.getMultipleCloudsSupported());
+        Assert.assertEquals(parsed.getAuthorities().size(), copy.getAuthorities().size());
+        Assert.assertEquals(parsed.getBrowserSafeList().size(), copy.getBrowserSafeList().size());
+        Assert.assertEquals(parsed.isSilentRequestCoalescingEnabled(), copy.isSilentRequestCoalescingEnabled());
+    }
+
+    @Test
+    public void testChangingNestedConfigurationDoesNotReachDefaults() {
+        final Context context = ApplicationProvider.getApplicationContext();
+
+        final PublicClientApplicationConfiguration first = PublicClientApplicationConfigurationFactory.getDefaultConfiguration(context);
+        final int readTimeout = first.getHttpConfiguration().getReadTimeout();
+        final int poolSize = first.getThreadingConfiguration().getPoolSize();
+        first.getHttpConfiguration().setReadTimeout(readTimeout + 1);
+        first.getThreadingConfiguration().setPoolSize(poolSize + 1);
+
+        final PublicClientApplicationConfiguration second = PublicClientApplicationConfigurationFactory.getDefaultConfiguration(context);
+        Assert.assertNotSame(first.getHttpConfiguration(), second.getHttpConfiguration());
+        Assert.assertEquals(readTimeout, second.getHttpConfiguration().getReadTimeout());
+        Assert.assertEquals(poolSize, second.getThreadingConfiguration().getPoolSize());
+        Assert.assertNotSame(first.getLoggerConfiguration(), second.getLoggerConfiguration());
+    }
+}
@@ -0,0 +1,153 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client
+
+import com.microsoft.identity.client.IPublicClientApplication.LoadAccountsCallback
+import com.microsoft.identity.client.exception.MsalClientException
+import com.microsoft.identity.client.exception.MsalException
+import com.microsoft.identity.client.internal.CancellationToken
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.kotlin.any
+import org.mockito.kotlin.doAnswer
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+import org.robolectric.RobolectricTestRunner
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@RunWith(RobolectricTestRunner::class)
+class PublicClientApplicationCoroutinesTest {
+
+    private val first = mock<IAccount> { on { id } doReturn "first" }
+    private val second = mock<IAccount> { on { id } doReturn "second" }
+
+    @Test
+    fun testAwaitAcquireTokenSilentReturnsResult() = runTest {
+        val result = mock<IAuthenticationResult>()
+        val application = mock<IPublicClientApplication>()
+        doAnswer {
+            val parameters = it.arguments[0] as AcquireTokenSilentParameters
+            assertNotNull(parameters.cancellationToken)
+            assertNotNull(parameters.callbackExecutor)
+            parameters.callback.onSuccess(result)
+        }.whenever(application).acquireTokenSilentAsync(any())
+
+        assertSame(result, application.awaitAcquireTokenSilent(silentParameters()))
+    }
+
+    @Test
+    fun testAwaitAcquireTokenSilentThrowsError() = runTest {
+        val application = mock<IPublicClientApplication>()
+        doAnswer {
+            (it.arguments[0] as AcquireTokenSilentParameters).callback
+                .onError(MsalClientException(MsalClientException.NO_CURRENT_ACCOUNT))
+        }.whenever(application).acquireTokenSilentAsync(any())
+
+        try {
+            application.awaitAcquireTokenSilent(silentParameters())
+            fail("Expected an MsalException")
+        } catch (e: MsalException) {
+            assertEquals(MsalClientException.NO_CURRENT_ACCOUNT, e.errorCode)
+        }
+    }
+
+    @Test
+    fun testCancellingCoroutineCancelsSilentRequest() = runTest {
+        var parameters: AcquireTokenSilentParameters? = null
+        val application = mock<IPublicClientApplication>()
+        doAnswer {
+            parameters = it.arguments[0] as AcquireTokenSilentParameters
+            null
+        }.whenever(application).acquireTokenSilentAsync(any())
+
+        val job = launch { application.awaitAcquireTokenSilent(silentParameters()) }
+        runCurrent()
+        val cancellationToken = parameters!!.cancellationToken!!
+        assertFalse(cancellationToken.isCancelled)
+
+        job.cancel()
+        runCurrent()
+
+        assertTrue(cancellationToken.isCancelled)
+    }
+
+    @Test
+    fun testAwaitAccountsPassesCancellationToken() = runTest {
+        var cancellationToken: CancellationToken? = null
+        val application = mock<MultipleAccountPublicClientApplication>()
+        doAnswer {
+            cancellationToken = it.arguments[1] as CancellationToken
+            (it.arguments[0] as LoadAccountsCallback).onTaskCompleted(listOf(first))
+        }.whenever(application).getAccounts(any<LoadAccountsCallback>(), any<CancellationToken>())
+
+        assertEquals(listOf(first), application.awaitAccounts())
+        assertNotNull(cancellationToken)
+    }
+
+    @Test
+    fun testAccountChangesEmitsOnlyChanges() = runTest {
+        var listener: Runnable? = null
+        var accounts = listOf(first)
+        val application = mock<MultipleAccountPublicClientApplication>()
+        doAnswer {
+            listener = it.arguments[0] as Runnable
+            null
+        }.whenever(application).addAccountChangeListener(any())
+        doAnswer {
+            (it.arguments[0] as LoadAccountsCallback).onTaskCompleted(accounts)
+        }.whenever(application).getAccounts(any<LoadAccountsCallback>(), any<CancellationToken>())
+
+        val emissions = mutableListOf<List<IAccount>>()
+        val job = launch { application.accountChanges().collect { emissions.add(it) } }
+        runCurrent()
+
+        // Same accounts, nothing new to emit.
+        listener!!.run()
+        runCurrent()
+
+        accounts = listOf(first, second)
+        listener!!.run()
+        runCurrent()
+        job.cancel()
+
+        assertEquals(listOf(listOf(first), listOf(first, second)), emissions)
+    }
+
+    private fun silentParameters(): AcquireTokenSilentParameters =
+        AcquireTokenSilentParameters.Builder()
+            .forAccount(first)
+            .fromAuthority("https://login.microsoftonline.com/common")
+            .withScopes(listOf("user.read"))
+            .build()
+}
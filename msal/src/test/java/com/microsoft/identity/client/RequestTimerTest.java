@@ -0,0 +1,169 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.java.commands.CommandCallback;
+import com.microsoft.identity.common.java.exception.BaseException;
+import com.microsoft.identity.common.java.exception.ClientException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(RobolectricTestRunner.class)
+public class RequestTimerTest {
+
+    private static final String PUBLIC_API_ID = "test_api";
+
+    @Test
+    public void testPhaseIsTimedOnce() throws InterruptedException {
+        final RequestTimer timer = new RequestTimer(PUBLIC_API_ID);
+
+        timer.start(RequestTimings.Phase.ACCOUNT_SELECTION);
+        Thread.sleep(5);
+        timer.end(RequestTimings.Phase.ACCOUNT_SELECTION);
+        final long duration = timer.snapshot().getDuration(RequestTimings.Phase.ACCOUNT_SELECTION, TimeUnit.NANOSECONDS);
+
+        timer.start(RequestTimings.Phase.ACCOUNT_SELECTION);
+        Thread.sleep(5);
+        timer.end(RequestTimings.Phase.ACCOUNT_SELECTION);
+
+        Assert.assertTrue(duration >= TimeUnit.MILLISECONDS.toNanos(5));
+        Assert.assertEquals(duration, timer.snapshot().getDuration(RequestTimings.Phase.ACCOUNT_SELECTION, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testPhaseThatDidNotStartIsAbsent() {
+        final RequestTimer timer = new RequestTimer(PUBLIC_API_ID);
+
+        timer.end(RequestTimings.Phase.TOKEN_REQUEST);
+        final RequestTimings timings = timer.snapshot();
+
+        Assert.assertTrue(timings.getDurationsNanos().isEmpty());
+        Assert.assertEquals(-1, timings.getDuration(RequestTimings.Phase.TOKEN_REQUEST, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testFailedRequestReportsTimings() {
+        final RequestTimer timer = new RequestTimer(PUBLIC_API_ID);
+        final TimingsCallback delivered = new TimingsCallback();
+        final SilentAuthenticationCallback callback = timer.onResultReady(timer.reportTimings(delivered));
+        final CommandCallback commandCallback = timer.timeCommand(new CommandCallback<Object, BaseException>() {
+            @Override
+            public void onTaskCompleted(Object result) {
+                Assert.fail("Unexpected success");
+            }
+
+            @Override
+            public void onError(BaseException exception) {
+                callback.onError(new MsalClientException(exception.getErrorCode()));
+            }
+
+            @Override
+            public void onCancel() {
+                Assert.fail("Unexpected cancel");
+            }
+        });
+
+        timer.start(RequestTimings.Phase.TOKEN_REQUEST);
+        commandCallback.onError(new ClientException(ClientException.UNKNOWN_ERROR));
+
+        Assert.assertNotNull(delivered.mException);
+        final RequestTimings timings = delivered.mTimings;
+        Assert.assertNotNull(timings);
+        Assert.assertTrue(timings.getDurationsNanos().containsKey(RequestTimings.Phase.TOKEN_REQUEST));
+        Assert.assertTrue(timings.getDurationsNanos().containsKey(RequestTimings.Phase.CALLBACK_DELIVERY));
+        Assert.assertFalse(timings.getDurationsNanos().containsKey(RequestTimings.Phase.CACHE_WRITE));
+        Assert.assertTrue(timings.getTotalDuration(TimeUnit.NANOSECONDS)
+                >= timings.getDuration(RequestTimings.Phase.TOKEN_REQUEST, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testRequestsSharingAnExceptionGetTheirOwnTimings() {
+        final RequestTimer firstTimer = new RequestTimer(PUBLIC_API_ID);
+        final RequestTimer secondTimer = new RequestTimer(PUBLIC_API_ID);
+        final TimingsCallback first = new TimingsCallback();
+        final TimingsCallback second = new TimingsCallback();
+        final MsalException exception = new MsalClientException(ClientException.UNKNOWN_ERROR);
+
+        firstTimer.start(RequestTimings.Phase.ACCOUNT_SELECTION);
+        firstTimer.end(RequestTimings.Phase.ACCOUNT_SELECTION);
+        firstTimer.onResultReady(firstTimer.reportTimings(first)).onError(exception);
+        secondTimer.onResultReady(secondTimer.reportTimings(second)).onError(exception);
+
+        Assert.assertSame(exception, first.mException);
+        Assert.assertSame(exception, second.mException);
+        Assert.assertNotSame(first.mTimings, second.mTimings);
+        Assert.assertTrue(first.mTimings.getDurationsNanos().containsKey(RequestTimings.Phase.ACCOUNT_SELECTION));
+        Assert.assertFalse(second.mTimings.getDurationsNanos().containsKey(RequestTimings.Phase.ACCOUNT_SELECTION));
+    }
+
+    @Test
+    public void testCallbackWithoutTimingsIsStillDelivered() {
+        final RequestTimer timer = new RequestTimer(PUBLIC_API_ID);
+        final AtomicReference<MsalException> delivered = new AtomicReference<>();
+        final MsalException exception = new MsalClientException(ClientException.UNKNOWN_ERROR);
+
+        timer.onResultReady(timer.reportTimings(new SilentAuthenticationCallback() {
+            @Override
+            public void onSuccess(IAuthenticationResult authenticationResult) {
+                Assert.fail("Unexpected success");
+            }
+
+            @Override
+            public void onError(MsalException exception) {
+                delivered.set(exception);
+            }
+        })).onError(exception);
+
+        Assert.assertSame(exception, delivered.get());
+    }
+
+    private static final class TimingsCallback implements SilentAuthenticationCallback, RequestTimingsCallback {
+
+        private RequestTimings mTimings;
+        private MsalException mException;
+
+        @Override
+        public void onRequestTimings(RequestTimings requestTimings) {
+            Assert.assertNull("Timings must be reported before the result", mException);
+            mTimings = requestTimings;
+        }
+
+        @Override
+        public void onSuccess(IAuthenticationResult authenticationResult) {
+            Assert.fail("Unexpected success");
+        }
+
+        @Override
+        public void onError(MsalException exception) {
+            mException = exception;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+public class StartupTraceTest {
+
+    @Test
+    public void testPhasesAreReportedInCompletionOrder() {
+        final StartupTrace trace = new StartupTrace();
+        final long start = System.nanoTime();
+
+        trace.record(StartupTrace.LOAD_DEFAULT_CONFIGURATION, start);
+        trace.record(StartupTrace.PREPARE_APPLICATION, start);
+        trace.record(StartupTrace.GET_DEVICE_MODE, start);
+
+        final Map<String, Long> phases = trace.getPhaseDurationsMillis();
+        Assert.assertEquals(
+                Arrays.asList(
+                        StartupTrace.LOAD_DEFAULT_CONFIGURATION,
+                        StartupTrace.PREPARE_APPLICATION,
+                        StartupTrace.GET_DEVICE_MODE
+                ),
+                new ArrayList<>(phases.keySet())
+        );
+    }
+
+    @Test
+    public void testTotalIsFixedAtFinish() throws InterruptedException {
+        final StartupTrace trace = new StartupTrace();
+        Thread.sleep(20);
+        trace.finish();
+        final long total = trace.getTotalMillis();
+        Assert.assertTrue(total >= 20);
+
+        // Work deferred past creation does not move the total.
+        Thread.sleep(20);
+        trace.record(StartupTrace.DEFERRED_INITIALIZATION, System.nanoTime());
+        Assert.assertEquals(total, trace.getTotalMillis());
+        Assert.assertFalse(trace.getPhaseDurationsMillis().containsKey("total"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPhasesAreReadOnly() {
+        new StartupTrace().getPhaseDurationsMillis().put("phase", 1L);
+    }
+}
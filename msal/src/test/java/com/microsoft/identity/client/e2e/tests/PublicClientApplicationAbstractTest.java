@@ -35,6 +35,7 @@ import com.microsoft.identity.client.IPublicClientApplication;
 import com.microsoft.identity.client.Logger;
 import com.microsoft.identity.client.PublicClientApplication;
 import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.client.internal.CurrentAccountSnapshots;
 import com.microsoft.identity.common.components.AndroidPlatformComponentsFactory;
 import com.microsoft.identity.common.internal.controllers.CommandDispatcherHelper;
 import com.microsoft.identity.common.java.interfaces.IPlatformComponents;
@@ -62,6 +63,8 @@ public abstract class PublicClientApplicationAbstractTest implements IPublicClie
         mComponents = AndroidPlatformComponentsFactory.createFromContext(mContext);
         mActivity = Mockito.mock(Activity.class);
         Mockito.when(mActivity.getApplicationContext()).thenReturn(mContext);
+        // The current account copy outlives the shared preferences reset between tests.
+        CurrentAccountSnapshots.invalidate();
         setupPCA();
         Logger.getInstance().setEnableLogcatLog(true);
         Logger.getInstance().setEnablePII(true);
@@ -0,0 +1,276 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.e2e.tests.mocked;
+
+import com.microsoft.identity.client.AcquireTokenParameters;
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.AcquireTokenSilentResult;
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.client.SilentAuthenticationCallback;
+import com.microsoft.identity.client.claims.ClaimsRequest;
+import com.microsoft.identity.client.e2e.shadows.ShadowAndroidSdkStorageEncryptionManager;
+import com.microsoft.identity.client.e2e.shadows.ShadowMockAuthority;
+import com.microsoft.identity.client.e2e.shadows.ShadowOpenIdProviderConfigurationClient;
+import com.microsoft.identity.client.e2e.shadows.ShadowPublicClientApplicationConfiguration;
+import com.microsoft.identity.client.e2e.tests.AcquireTokenAbstractTest;
+import com.microsoft.identity.client.e2e.utils.AcquireTokenTestHelper;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.java.net.HttpClient;
+import com.microsoft.identity.common.java.net.HttpResponse;
+import com.microsoft.identity.http.HttpRequestInterceptor;
+import com.microsoft.identity.http.HttpRequestMatcher;
+import com.microsoft.identity.internal.testutils.mocks.MockServerResponse;
+import com.microsoft.identity.shadow.ShadowHttpClient;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.microsoft.identity.client.e2e.utils.RoboTestUtils.flushScheduler;
+import static com.microsoft.identity.internal.testutils.TestConstants.Authorities.AAD_MOCK_AUTHORITY_HTTP_RESPONSE;
+import static com.microsoft.identity.internal.testutils.TestConstants.Configurations.MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+import static com.microsoft.identity.internal.testutils.TestConstants.Scopes.USER_READ_SCOPE;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Tests for the batch acquireTokensSilent API.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = {
+        ShadowAndroidSdkStorageEncryptionManager.class,
+        ShadowMockAuthority.class,
+        ShadowHttpClient.class,
+        ShadowPublicClientApplicationConfiguration.class,
+        ShadowOpenIdProviderConfigurationClient.class
+})
+public final class AcquireTokensSilentMockTest extends AcquireTokenAbstractTest {
+
+    private static final long CALLBACK_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final AtomicInteger mTokenRequestCount = new AtomicInteger();
+    private volatile HttpResponse mTokenResponse;
+
+    @Before
+    public void before() {
+        mTokenResponse = MockServerResponse.getMockTokenSuccessResponse();
+        mockHttpClient.intercept(
+                HttpRequestMatcher.builder().isPOST().build(), new HttpRequestInterceptor() {
+                    @Override
+                    public HttpResponse performIntercept(
+                            @NonNull HttpClient.HttpMethod httpMethod,
+                            @NonNull URL requestUrl,
+                            @NonNull Map<String, String> requestHeaders,
+                            @Nullable byte[] requestContent) {
+                        mTokenRequestCount.incrementAndGet();
+                        return mTokenResponse;
+                    }
+                });
+
+        final AcquireTokenParameters parameters = new AcquireTokenParameters.Builder()
+                .startAuthorizationFromActivity(mActivity)
+                .withLoginHint("fake@test.com")
+                .withScopes(Arrays.asList(mScopes))
+                .fromAuthority(getAuthority())
+                .withCallback(AcquireTokenTestHelper.successfulInteractiveCallback())
+                .build();
+
+        mApplication.acquireToken(parameters);
+        flushScheduler();
+
+        mTokenRequestCount.set(0);
+    }
+
+    @Override
+    public String getAuthority() {
+        return AAD_MOCK_AUTHORITY_HTTP_RESPONSE;
+    }
+
+    /**
+     * Every request gets its own result, in order, and identical requests share one execution.
+     */
+    @Test
+    public void testReturnsOneResultPerRequest() throws Exception {
+        final List<AcquireTokenSilentParameters> requests = Arrays.asList(
+                buildForceRefreshParameters(createClaimsRequest("device_1")),
+                buildForceRefreshParameters(createClaimsRequest("device_2")),
+                buildForceRefreshParameters(createClaimsRequest("device_1"))
+        );
+
+        final List<AcquireTokenSilentResult> results = acquireTokensSilentOffMainThread(requests);
+
+        Assert.assertEquals(requests.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Assert.assertSame(requests.get(i), results.get(i).getParameters());
+            Assert.assertTrue(results.get(i).isSuccessful());
+            Assert.assertNull(results.get(i).getException());
+        }
+        Assert.assertEquals(2, mTokenRequestCount.get());
+    }
+
+    /**
+     * Identical requests in the batch share one execution even with request coalescing turned off.
+     */
+    @Test
+    public void testIdenticalRequestsShareOneExecutionWithoutCoalescing() throws Throwable {
+        mApplication.getConfiguration().setSilentRequestCoalescingEnabled(false);
+
+        final List<AcquireTokenSilentResult> results = acquireTokensSilentOffMainThread(Arrays.asList(
+                buildForceRefreshParameters(createClaimsRequest("device_1")),
+                buildForceRefreshParameters(createClaimsRequest("device_1"))
+        ));
+
+        Assert.assertTrue(results.get(0).isSuccessful());
+        Assert.assertSame(results.get(0).getResult(), results.get(1).getResult());
+        Assert.assertEquals(1, mTokenRequestCount.get());
+    }
+
+    /**
+     * The caller's parameters are left untouched, so the same batch can be submitted again.
+     */
+    @Test
+    public void testBatchCanBeSubmittedAgain() throws Throwable {
+        final AcquireTokenSilentParameters parameters = buildForceRefreshParameters(createClaimsRequest("device_1"));
+        final String authority = parameters.getAuthority();
+
+        acquireTokensSilentOffMainThread(Arrays.asList(parameters));
+        final List<AcquireTokenSilentResult> results = acquireTokensSilentOffMainThread(Arrays.asList(parameters));
+
+        Assert.assertNull(parameters.getCallback());
+        Assert.assertEquals(authority, parameters.getAuthority());
+        Assert.assertTrue(results.get(0).isSuccessful());
+    }
+
+    /**
+     * Failed requests are reported per request rather than thrown.
+     */
+    @Test
+    public void testFailuresAreReportedPerRequest() throws Exception {
+        mTokenResponse = MockServerResponse.getMockTokenFailureInvalidGrantResponse();
+
+        final List<AcquireTokenSilentResult> results = acquireTokensSilentOffMainThread(Arrays.asList(
+                buildForceRefreshParameters(createClaimsRequest("device_1")),
+                buildForceRefreshParameters(createClaimsRequest("device_2"))
+        ));
+
+        for (final AcquireTokenSilentResult result : results) {
+            Assert.assertFalse(result.isSuccessful());
+            Assert.assertEquals("invalid_grant", result.getException().getErrorCode());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRequestsWithCallbackAreRejected() throws Throwable {
+        final AcquireTokenSilentParameters parameters = new AcquireTokenSilentParameters.Builder()
+                .forAccount(AcquireTokenTestHelper.getAccount())
+                .withScopes(Arrays.asList(mScopes))
+                .fromAuthority(getAuthority())
+                .withCallback(new SilentAuthenticationCallback() {
+                    @Override
+                    public void onSuccess(IAuthenticationResult authenticationResult) {
+                    }
+
+                    @Override
+                    public void onError(MsalException exception) {
+                    }
+                })
+                .build();
+
+        acquireTokensSilentOffMainThread(Arrays.asList(parameters));
+    }
+
+    /**
+     * acquireTokensSilent may not run on the main thread, so run it on a worker and keep the main
+     * looper flowing until it returns.
+     */
+    private List<AcquireTokenSilentResult> acquireTokensSilentOffMainThread(
+            @NonNull final List<AcquireTokenSilentParameters> requests) throws Throwable {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<List<AcquireTokenSilentResult>> results = new AtomicReference<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    results.set(mApplication.acquireTokensSilent(requests));
+                } catch (final Throwable throwable) {
+                    failure.set(throwable);
+                } finally {
+                    latch.countDown();
+                }
+            }
+        }).start();
+
+        final long deadline = System.currentTimeMillis() + CALLBACK_TIMEOUT_MILLIS;
+        while (latch.getCount() > 0 && System.currentTimeMillis() < deadline) {
+            flushScheduler();
+            latch.await(50, TimeUnit.MILLISECONDS);
+        }
+
+        Assert.assertEquals("acquireTokensSilent did not return.", 0, latch.getCount());
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return results.get();
+    }
+
+    private AcquireTokenSilentParameters buildForceRefreshParameters(@NonNull final ClaimsRequest claimsRequest) {
+        return new AcquireTokenSilentParameters.Builder()
+                .forAccount(AcquireTokenTestHelper.getAccount())
+                .withScopes(Arrays.asList(mScopes))
+                .forceRefresh(true)
+                .fromAuthority(getAuthority())
+                .withClaims(claimsRequest)
+                .build();
+    }
+
+    private static ClaimsRequest createClaimsRequest(@NonNull final String claimName) {
+        final ClaimsRequest claimsRequest = new ClaimsRequest();
+        claimsRequest.requestClaimInAccessToken(claimName, null);
+        return claimsRequest;
+    }
+
+    @Override
+    public String getConfigFilePath() {
+        return MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+    }
+
+    @Override
+    public String[] getScopes() {
+        return USER_READ_SCOPE;
+    }
+}
@@ -0,0 +1,233 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.e2e.tests.mocked;
+
+import com.microsoft.identity.client.AcquireTokenParameters;
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.client.SilentAuthenticationCallback;
+import com.microsoft.identity.client.e2e.shadows.ShadowAndroidSdkStorageEncryptionManager;
+import com.microsoft.identity.client.e2e.shadows.ShadowMockAuthority;
+import com.microsoft.identity.client.e2e.shadows.ShadowOpenIdProviderConfigurationClient;
+import com.microsoft.identity.client.e2e.shadows.ShadowPublicClientApplicationConfiguration;
+import com.microsoft.identity.client.e2e.tests.AcquireTokenAbstractTest;
+import com.microsoft.identity.client.e2e.utils.AcquireTokenTestHelper;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.java.net.HttpClient;
+import com.microsoft.identity.common.java.net.HttpResponse;
+import com.microsoft.identity.http.HttpRequestInterceptor;
+import com.microsoft.identity.http.HttpRequestMatcher;
+import com.microsoft.identity.internal.testutils.mocks.MockServerResponse;
+import com.microsoft.identity.shadow.ShadowHttpClient;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.microsoft.identity.client.e2e.utils.RoboTestUtils.flushScheduler;
+import static com.microsoft.identity.internal.testutils.TestConstants.Authorities.AAD_MOCK_AUTHORITY_HTTP_RESPONSE;
+import static com.microsoft.identity.internal.testutils.TestConstants.Configurations.MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+import static com.microsoft.identity.internal.testutils.TestConstants.Scopes.USER_READ_SCOPE;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Verifies that token results are delivered on the caller-chosen callback executor.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = {
+        ShadowAndroidSdkStorageEncryptionManager.class,
+        ShadowMockAuthority.class,
+        ShadowHttpClient.class,
+        ShadowPublicClientApplicationConfiguration.class,
+        ShadowOpenIdProviderConfigurationClient.class
+})
+public final class CallbackExecutorTest extends AcquireTokenAbstractTest {
+
+    private static final String REQUEST_EXECUTOR_THREAD = "request-callback-executor";
+    private static final String CONFIGURED_EXECUTOR_THREAD = "configured-callback-executor";
+    private static final long CALLBACK_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private volatile HttpResponse mTokenResponse;
+    private ExecutorService mRequestExecutor;
+    private ExecutorService mConfiguredExecutor;
+
+    @Before
+    public void before() {
+        mRequestExecutor = Executors.newSingleThreadExecutor(namedThreadFactory(REQUEST_EXECUTOR_THREAD));
+        mConfiguredExecutor = Executors.newSingleThreadExecutor(namedThreadFactory(CONFIGURED_EXECUTOR_THREAD));
+
+        mTokenResponse = MockServerResponse.getMockTokenSuccessResponse();
+        mockHttpClient.intercept(
+                HttpRequestMatcher.builder().isPOST().build(), new HttpRequestInterceptor() {
+                    @Override
+                    public HttpResponse performIntercept(
+                            @NonNull HttpClient.HttpMethod httpMethod,
+                            @NonNull URL requestUrl,
+                            @NonNull Map<String, String> requestHeaders,
+                            @Nullable byte[] requestContent) {
+                        return mTokenResponse;
+                    }
+                });
+
+        final AcquireTokenParameters parameters = new AcquireTokenParameters.Builder()
+                .startAuthorizationFromActivity(mActivity)
+                .withLoginHint("fake@test.com")
+                .withScopes(Arrays.asList(mScopes))
+                .fromAuthority(getAuthority())
+                .withCallback(AcquireTokenTestHelper.successfulInteractiveCallback())
+                .build();
+
+        mApplication.acquireToken(parameters);
+        flushScheduler();
+    }
+
+    @After
+    public void after() {
+        mApplication.getConfiguration().setCallbackExecutor(null);
+        mRequestExecutor.shutdownNow();
+        mConfiguredExecutor.shutdownNow();
+    }
+
+    @Override
+    public String getAuthority() {
+        return AAD_MOCK_AUTHORITY_HTTP_RESPONSE;
+    }
+
+    @Test
+    public void testSuccessIsDeliveredOnRequestExecutor() throws InterruptedException {
+        Assert.assertEquals(REQUEST_EXECUTOR_THREAD, acquireTokenSilent(mRequestExecutor));
+    }
+
+    @Test
+    public void testErrorIsDeliveredOnRequestExecutor() throws InterruptedException {
+        mTokenResponse = MockServerResponse.getMockTokenFailureInvalidGrantResponse();
+
+        Assert.assertEquals(REQUEST_EXECUTOR_THREAD, acquireTokenSilent(mRequestExecutor));
+    }
+
+    @Test
+    public void testConfiguredExecutorIsUsedByDefault() throws InterruptedException {
+        mApplication.getConfiguration().setCallbackExecutor(mConfiguredExecutor);
+
+        Assert.assertEquals(CONFIGURED_EXECUTOR_THREAD, acquireTokenSilent(null));
+    }
+
+    @Test
+    public void testRequestExecutorOverridesConfiguredExecutor() throws InterruptedException {
+        mApplication.getConfiguration().setCallbackExecutor(mConfiguredExecutor);
+
+        Assert.assertEquals(REQUEST_EXECUTOR_THREAD, acquireTokenSilent(mRequestExecutor));
+    }
+
+    /**
+     * With a callback executor, the result does not go through the main thread: it arrives even
+     * though the main looper is never run.
+     */
+    @Test
+    public void testResultDoesNotWaitForMainLooper() throws InterruptedException {
+        Assert.assertEquals(REQUEST_EXECUTOR_THREAD, acquireTokenSilent(mRequestExecutor, false));
+    }
+
+    private String acquireTokenSilent(@Nullable final ExecutorService requestExecutor) throws InterruptedException {
+        return acquireTokenSilent(requestExecutor, true);
+    }
+
+    /**
+     * Runs a force-refresh silent request and returns the name of the thread its callback ran on.
+     */
+    private String acquireTokenSilent(@Nullable final ExecutorService requestExecutor,
+                                      final boolean runMainLooper) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<String> callbackThread = new AtomicReference<>();
+
+        final AcquireTokenSilentParameters.Builder builder = new AcquireTokenSilentParameters.Builder()
+                .forAccount(AcquireTokenTestHelper.getAccount())
+                .withScopes(Arrays.asList(mScopes))
+                .forceRefresh(true)
+                .fromAuthority(getAuthority())
+                .withCallback(new SilentAuthenticationCallback() {
+                    @Override
+                    public void onSuccess(IAuthenticationResult authenticationResult) {
+                        callbackThread.set(Thread.currentThread().getName());
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onError(MsalException exception) {
+                        callbackThread.set(Thread.currentThread().getName());
+                        latch.countDown();
+                    }
+                });
+        if (requestExecutor != null) {
+            builder.withCallbackExecutor(requestExecutor);
+        }
+
+        mApplication.acquireTokenSilentAsync(builder.build());
+
+        final long deadline = System.currentTimeMillis() + CALLBACK_TIMEOUT_MILLIS;
+        while (latch.getCount() > 0 && System.currentTimeMillis() < deadline) {
+            if (runMainLooper) {
+                flushScheduler();
+            }
+            latch.await(50, TimeUnit.MILLISECONDS);
+        }
+
+        Assert.assertEquals("Callback was not invoked.", 0, latch.getCount());
+        return callbackThread.get();
+    }
+
+    private static ThreadFactory namedThreadFactory(@NonNull final String name) {
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull final Runnable runnable) {
+                return new Thread(runnable, name);
+            }
+        };
+    }
+
+    @Override
+    public String getConfigFilePath() {
+        return MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+    }
+
+    @Override
+    public String[] getScopes() {
+        return USER_READ_SCOPE;
+    }
+}
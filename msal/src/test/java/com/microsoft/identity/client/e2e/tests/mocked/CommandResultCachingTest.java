@@ -24,45 +24,49 @@ package com.microsoft.identity.client.e2e.tests.mocked;
 
 import com.microsoft.identity.client.AcquireTokenParameters;
 import com.microsoft.identity.client.AcquireTokenSilentParameters;
-import com.microsoft.identity.client.Logger;
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.client.SilentAuthenticationCallback;
 import com.microsoft.identity.client.claims.ClaimsRequest;
+import com.microsoft.identity.client.e2e.shadows.ShadowAndroidSdkStorageEncryptionManager;
 import com.microsoft.identity.client.e2e.shadows.ShadowMockAuthority;
 import com.microsoft.identity.client.e2e.shadows.ShadowOpenIdProviderConfigurationClient;
+import com.microsoft.identity.client.e2e.shadows.ShadowPublicClientApplicationConfiguration;
+import com.microsoft.identity.client.e2e.tests.AcquireTokenAbstractTest;
+import com.microsoft.identity.client.e2e.utils.AcquireTokenTestHelper;
+import com.microsoft.identity.client.exception.MsalException;
 import com.microsoft.identity.common.java.net.HttpClient;
 import com.microsoft.identity.common.java.net.HttpResponse;
 import com.microsoft.identity.http.HttpRequestInterceptor;
 import com.microsoft.identity.http.HttpRequestMatcher;
+import com.microsoft.identity.internal.testutils.mocks.MockServerResponse;
 import com.microsoft.identity.shadow.ShadowHttpClient;
-import com.microsoft.identity.client.e2e.shadows.ShadowPublicClientApplicationConfiguration;
-import com.microsoft.identity.client.e2e.shadows.ShadowAndroidSdkStorageEncryptionManager;
-import com.microsoft.identity.client.e2e.tests.AcquireTokenAbstractTest;
-import com.microsoft.identity.client.e2e.utils.AcquireTokenTestHelper;
-import com.microsoft.identity.client.e2e.utils.CacheCountAuthenticationCallback;
 
+import org.junit.Assert;
 import org.junit.Before;
-import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 import org.robolectric.shadows.ShadowLog;
 
-import java.io.IOException;
 import java.net.URL;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.microsoft.identity.client.e2e.utils.RoboTestUtils.flushScheduler;
-import static com.microsoft.identity.internal.testutils.TestConstants.Authorities.AAD_MOCK_AUTHORITY;
-import static com.microsoft.identity.internal.testutils.TestConstants.Authorities.AAD_MOCK_DELAYED_RESPONSE_AUTHORITY;
-import static com.microsoft.identity.internal.testutils.TestConstants.Configurations.MULTIPLE_ACCOUNT_MODE_AAD_CONFIG_FILE_PATH;
+import static com.microsoft.identity.internal.testutils.TestConstants.Authorities.AAD_MOCK_AUTHORITY_HTTP_RESPONSE;
+import static com.microsoft.identity.internal.testutils.TestConstants.Configurations.MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
 import static com.microsoft.identity.internal.testutils.TestConstants.Scopes.USER_READ_SCOPE;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-// TODO: re-enable this oncd we re-enable command caching.
-@Ignore
+/**
+ * Verifies that identical concurrent silent requests are coalesced into a single network call.
+ */
 @RunWith(RobolectricTestRunner.class)
 @Config(shadows = {
         ShadowAndroidSdkStorageEncryptionManager.class,
@@ -73,9 +77,15 @@ import androidx.annotation.Nullable;
 })
 public final class CommandResultCachingTest extends AcquireTokenAbstractTest {
 
+    private static final int BURST_SIZE = 10;
+    private static final long CALLBACK_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final AtomicInteger mTokenRequestCount = new AtomicInteger();
+    private volatile HttpResponse mTokenResponse;
+
     @Before
     public void before() {
-        super.setup();
+        mTokenResponse = MockServerResponse.getMockTokenSuccessResponse();
         mockHttpClient.intercept(
                 HttpRequestMatcher.builder().isPOST().build(), new HttpRequestInterceptor() {
                     @Override
@@ -83,198 +93,207 @@ public final class CommandResultCachingTest extends AcquireTokenAbstractTest {
                             @NonNull HttpClient.HttpMethod httpMethod,
                             @NonNull URL requestUrl,
                             @NonNull Map<String, String> requestHeaders,
-                            @Nullable byte[] requestContent) throws IOException {
-                        throw new IOException("Sending requests to server has been disabled for mocked unit tests");
+                            @Nullable byte[] requestContent) {
+                        mTokenRequestCount.incrementAndGet();
+                        return mTokenResponse;
                     }
                 });
 
         ShadowLog.stream = System.out;
-    }
-
-    @Override
-    public String getAuthority() {
-        return AAD_MOCK_AUTHORITY;
-    }
-
-    /**
-     * verifies that two different commands result in 2 cache entries
-     */
-    @Test
-    public void testAcquireTokenCache2DifferentRequests() throws InterruptedException {
-        final String username = "fake@test.com";
 
         final AcquireTokenParameters parameters = new AcquireTokenParameters.Builder()
                 .startAuthorizationFromActivity(mActivity)
-                .withLoginHint(username)
+                .withLoginHint("fake@test.com")
                 .withScopes(Arrays.asList(mScopes))
-                .fromAuthority(AAD_MOCK_AUTHORITY)
+                .fromAuthority(getAuthority())
                 .withCallback(AcquireTokenTestHelper.successfulInteractiveCallback())
                 .build();
 
         mApplication.acquireToken(parameters);
         flushScheduler();
 
-        final AcquireTokenSilentParameters silentParameters = new AcquireTokenSilentParameters.Builder()
-                .forAccount(AcquireTokenTestHelper.getAccount())
-                .withScopes(Arrays.asList(mScopes))
-                .forceRefresh(false)
-                .fromAuthority(AAD_MOCK_AUTHORITY)
-                .withCallback(new CacheCountAuthenticationCallback(1))
-                .build();
+        mTokenRequestCount.set(0);
+    }
 
-        ClaimsRequest cr = new ClaimsRequest();
-        cr.requestClaimInAccessToken("device_id", null);
+    @Override
+    public String getAuthority() {
+        return AAD_MOCK_AUTHORITY_HTTP_RESPONSE;
+    }
 
-        final AcquireTokenSilentParameters modifiedSilentParameters = new AcquireTokenSilentParameters.Builder()
-                .forAccount(AcquireTokenTestHelper.getAccount())
-                .withScopes(Arrays.asList(mScopes))
-                .forceRefresh(false)
-                .fromAuthority(AAD_MOCK_AUTHORITY)
-                .withClaims(cr)
-                .withCallback(new CacheCountAuthenticationCallback(2))
-                .build();
+    /**
+     * A burst of identical force-refresh requests results in one token request, and every caller
+     * receives the same result.
+     */
+    @Test
+    public void testBurstOfIdenticalRequestsHitsNetworkOnce() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(BURST_SIZE);
+        final IAuthenticationResult[] results = new IAuthenticationResult[BURST_SIZE];
+
+        for (int i = 0; i < BURST_SIZE; i++) {
+            final int index = i;
+            mApplication.acquireTokenSilentAsync(buildForceRefreshParameters(null, new SilentAuthenticationCallback() {
+                @Override
+                public void onSuccess(IAuthenticationResult authenticationResult) {
+                    results[index] = authenticationResult;
+                    latch.countDown();
+                }
+
+                @Override
+                public void onError(MsalException exception) {
+                    throw new AssertionError(exception);
+                }
+            }));
+        }
 
-        mApplication.acquireTokenSilentAsync(silentParameters);
-        Thread.sleep(500);
-        mApplication.acquireTokenSilentAsync(modifiedSilentParameters);
+        awaitCallbacks(latch);
 
-        flushScheduler();
+        Assert.assertEquals(1, mTokenRequestCount.get());
+        for (final IAuthenticationResult result : results) {
+            Assert.assertSame(results[0], result);
+        }
     }
 
     /**
-     * Second silent request is expected to be retrieved from the cache.
+     * Requests that differ (here, by claims) are not coalesced with each other.
      */
     @Test
-    public void testAcquireTokenCache2IdenticalRequests() throws InterruptedException {
-        final String username = "fake@test.com";
+    public void testBurstsOfDifferentRequestsAreNotCoalesced() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(BURST_SIZE * 2);
 
-        final AcquireTokenParameters parameters = new AcquireTokenParameters.Builder()
-                .startAuthorizationFromActivity(mActivity)
-                .withLoginHint(username)
-                .withScopes(Arrays.asList(mScopes))
-                .fromAuthority(AAD_MOCK_AUTHORITY)
-                .withCallback(AcquireTokenTestHelper.successfulInteractiveCallback())
-                .build();
-
-        mApplication.acquireToken(parameters);
-        flushScheduler();
+        for (int i = 0; i < BURST_SIZE; i++) {
+            mApplication.acquireTokenSilentAsync(buildForceRefreshParameters(createClaimsRequest("device_1"), countingCallback(latch)));
+            mApplication.acquireTokenSilentAsync(buildForceRefreshParameters(createClaimsRequest("device_2"), countingCallback(latch)));
+        }
 
-        final AcquireTokenSilentParameters silentParameters = new AcquireTokenSilentParameters.Builder()
-                .forAccount(AcquireTokenTestHelper.getAccount())
-                .withScopes(Arrays.asList(mScopes))
-                .forceRefresh(false)
-                .fromAuthority(AAD_MOCK_AUTHORITY)
-                .withCallback(new CacheCountAuthenticationCallback(1))
-                .build();
+        awaitCallbacks(latch);
 
-        mApplication.acquireTokenSilentAsync(silentParameters);
-        Thread.sleep(200);
-        mApplication.acquireTokenSilentAsync(silentParameters);
-        flushScheduler();
+        Assert.assertEquals(2, mTokenRequestCount.get());
     }
 
     /**
-     * Second silent request is expected to fail with a duplicate command exception
+     * A failure of the shared execution is reported to every caller.
      */
     @Test
-    public void testAcquireTokenCache2IdenticalRequestsConcurrent() {
-        final String username = "fake@test.com";
-
-        final AcquireTokenParameters parameters = new AcquireTokenParameters.Builder()
-                .startAuthorizationFromActivity(mActivity)
-                .withLoginHint(username)
-                .withScopes(Arrays.asList(mScopes))
-                .fromAuthority(AAD_MOCK_AUTHORITY)
-                .withCallback(AcquireTokenTestHelper.successfulInteractiveCallback())
-                .build();
+    public void testErrorIsReportedToEveryCaller() throws InterruptedException {
+        mTokenResponse = MockServerResponse.getMockTokenFailureInvalidGrantResponse();
+        final CountDownLatch latch = new CountDownLatch(BURST_SIZE);
+
+        for (int i = 0; i < BURST_SIZE; i++) {
+            mApplication.acquireTokenSilentAsync(buildForceRefreshParameters(null, new SilentAuthenticationCallback() {
+                @Override
+                public void onSuccess(IAuthenticationResult authenticationResult) {
+                    Assert.fail("Not expected to succeed.");
+                }
+
+                @Override
+                public void onError(MsalException exception) {
+                    Assert.assertEquals("invalid_grant", exception.getErrorCode());
+                    latch.countDown();
+                }
+            }));
+        }
 
-        mApplication.acquireToken(parameters);
-        flushScheduler();
+        awaitCallbacks(latch);
 
-        final AcquireTokenSilentParameters silentParameters = new AcquireTokenSilentParameters.Builder()
-                .forAccount(AcquireTokenTestHelper.getAccount())
-                .withScopes(Arrays.asList(mScopes))
-                .forceRefresh(false)
-                .fromAuthority(AAD_MOCK_AUTHORITY)
-                .withCallback(new CacheCountAuthenticationCallback(1))
-                .build();
-
-        final AcquireTokenSilentParameters silentParameters1 = new AcquireTokenSilentParameters.Builder()
-                .forAccount(AcquireTokenTestHelper.getAccount())
-                .withScopes(Arrays.asList(mScopes))
-                .forceRefresh(false)
-                .fromAuthority(AAD_MOCK_DELAYED_RESPONSE_AUTHORITY)
-                .withCallback(AcquireTokenTestHelper.failedSilentRequestDuplicateCommandCallback())
-                .build();
+        Assert.assertEquals(1, mTokenRequestCount.get());
+    }
 
+    /**
+     * A force-refresh request made after an identical one has completed is not answered with its
+     * result.
+     */
+    @Test
+    public void testForceRefreshIsNotServedFromCompletedRequest() throws InterruptedException {
+        final CountDownLatch firstLatch = new CountDownLatch(1);
+        mApplication.acquireTokenSilentAsync(buildForceRefreshParameters(null, countingCallback(firstLatch)));
+        awaitCallbacks(firstLatch);
 
-        mApplication.acquireTokenSilentAsync(silentParameters);
-        mApplication.acquireTokenSilentAsync(silentParameters1);
+        final CountDownLatch secondLatch = new CountDownLatch(1);
+        mApplication.acquireTokenSilentAsync(buildForceRefreshParameters(null, countingCallback(secondLatch)));
+        awaitCallbacks(secondLatch);
 
-        flushScheduler();
+        Assert.assertEquals(2, mTokenRequestCount.get());
     }
 
     /**
-     * NOTE: This runs a bit longer
+     * Coalescing is on unless disabled in the configuration.
      */
     @Test
-    public void testAcquireTokenExceedCacheMaxItems() throws InterruptedException {
-        final String username = "fake@test.com";
+    public void testCoalescingIsOnByDefault() throws InterruptedException {
+        mApplication.getConfiguration().setSilentRequestCoalescingEnabled(null);
+        final CountDownLatch latch = new CountDownLatch(BURST_SIZE);
 
-        final AcquireTokenParameters parameters = new AcquireTokenParameters.Builder()
-                .startAuthorizationFromActivity(mActivity)
-                .withLoginHint(username)
-                .withScopes(Arrays.asList(mScopes))
-                .fromAuthority(AAD_MOCK_AUTHORITY)
-                .withCallback(AcquireTokenTestHelper.successfulInteractiveCallback())
-                .build();
-
-        Logger.getInstance().setLogLevel(Logger.LogLevel.VERBOSE);
-        mApplication.acquireToken(parameters);
-
-        flushScheduler();
+        for (int i = 0; i < BURST_SIZE; i++) {
+            mApplication.acquireTokenSilentAsync(buildForceRefreshParameters(null, countingCallback(latch)));
+        }
 
-        for (int i = 0; i < 250; i++) {
+        awaitCallbacks(latch);
 
-            ClaimsRequest cr = new ClaimsRequest();
-            cr.requestClaimInAccessToken("device_" + Integer.toString(i), null);
+        Assert.assertEquals(1, mTokenRequestCount.get());
+    }
 
-            final AcquireTokenSilentParameters silentParameters = new AcquireTokenSilentParameters.Builder()
-                    .forAccount(AcquireTokenTestHelper.getAccount())
-                    .withScopes(Arrays.asList(mScopes))
-                    .forceRefresh(false)
-                    .fromAuthority(AAD_MOCK_AUTHORITY)
-                    .withClaims(cr)
-                    .withCallback(AcquireTokenTestHelper.successfulSilentCallback())
-                    .build();
+    /**
+     * With coalescing disabled, each request executes on its own.
+     */
+    @Test
+    public void testCoalescingDisabled() throws InterruptedException {
+        mApplication.getConfiguration().setSilentRequestCoalescingEnabled(false);
+        final CountDownLatch latch = new CountDownLatch(BURST_SIZE);
 
-            mApplication.acquireTokenSilentAsync(silentParameters);
-            Thread.sleep(100);
+        for (int i = 0; i < BURST_SIZE; i++) {
+            mApplication.acquireTokenSilentAsync(buildForceRefreshParameters(null, countingCallback(latch)));
         }
 
-        Thread.sleep(1000);
-        ClaimsRequest cr = new ClaimsRequest();
-        cr.requestClaimInAccessToken("device_10", null);
+        awaitCallbacks(latch);
+
+        Assert.assertEquals(BURST_SIZE, mTokenRequestCount.get());
+    }
 
-        final AcquireTokenSilentParameters silentParameters = new AcquireTokenSilentParameters.Builder()
+    private AcquireTokenSilentParameters buildForceRefreshParameters(@Nullable final ClaimsRequest claimsRequest,
+                                                                     @NonNull final SilentAuthenticationCallback callback) {
+        return new AcquireTokenSilentParameters.Builder()
                 .forAccount(AcquireTokenTestHelper.getAccount())
                 .withScopes(Arrays.asList(mScopes))
-                .forceRefresh(false)
-                .fromAuthority(AAD_MOCK_AUTHORITY)
-                .withClaims(cr)
-                .withCallback(new CacheCountAuthenticationCallback(250))
+                .forceRefresh(true)
+                .fromAuthority(getAuthority())
+                .withClaims(claimsRequest)
+                .withCallback(callback)
                 .build();
+    }
 
-        flushScheduler();
+    private static ClaimsRequest createClaimsRequest(@NonNull final String claimName) {
+        final ClaimsRequest claimsRequest = new ClaimsRequest();
+        claimsRequest.requestClaimInAccessToken(claimName, null);
+        return claimsRequest;
+    }
 
-        mApplication.acquireTokenSilentAsync(silentParameters);
+    private static SilentAuthenticationCallback countingCallback(@NonNull final CountDownLatch latch) {
+        return new SilentAuthenticationCallback() {
+            @Override
+            public void onSuccess(IAuthenticationResult authenticationResult) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(MsalException exception) {
+                throw new AssertionError(exception);
+            }
+        };
+    }
 
-        flushScheduler();
+    private static void awaitCallbacks(@NonNull final CountDownLatch latch) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + CALLBACK_TIMEOUT_MILLIS;
+        while (latch.getCount() > 0 && System.currentTimeMillis() < deadline) {
+            flushScheduler();
+            latch.await(50, TimeUnit.MILLISECONDS);
+        }
+
+        Assert.assertEquals("Not every caller received a callback.", 0, latch.getCount());
     }
 
     @Override
     public String getConfigFilePath() {
-        return MULTIPLE_ACCOUNT_MODE_AAD_CONFIG_FILE_PATH;
+        return MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
     }
 
     @Override
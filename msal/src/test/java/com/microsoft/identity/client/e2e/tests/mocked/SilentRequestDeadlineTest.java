@@ -0,0 +1,240 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.e2e.tests.mocked;
+
+import com.microsoft.identity.client.AcquireTokenParameters;
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.client.ICancellableRequest;
+import com.microsoft.identity.client.SilentAuthenticationCallback;
+import com.microsoft.identity.client.e2e.shadows.ShadowAndroidSdkStorageEncryptionManager;
+import com.microsoft.identity.client.e2e.shadows.ShadowMockAuthority;
+import com.microsoft.identity.client.e2e.shadows.ShadowOpenIdProviderConfigurationClient;
+import com.microsoft.identity.client.e2e.shadows.ShadowPublicClientApplicationConfiguration;
+import com.microsoft.identity.client.e2e.tests.AcquireTokenAbstractTest;
+import com.microsoft.identity.client.e2e.utils.AcquireTokenTestHelper;
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.java.net.HttpClient;
+import com.microsoft.identity.common.java.net.HttpResponse;
+import com.microsoft.identity.http.HttpRequestInterceptor;
+import com.microsoft.identity.http.HttpRequestMatcher;
+import com.microsoft.identity.internal.testutils.mocks.MockServerResponse;
+import com.microsoft.identity.shadow.ShadowHttpClient;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.microsoft.identity.client.e2e.utils.RoboTestUtils.flushScheduler;
+import static com.microsoft.identity.internal.testutils.TestConstants.Authorities.AAD_MOCK_AUTHORITY_HTTP_RESPONSE;
+import static com.microsoft.identity.internal.testutils.TestConstants.Configurations.MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+import static com.microsoft.identity.internal.testutils.TestConstants.Scopes.USER_READ_SCOPE;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Verifies cancelling silent requests and their deadlines while the token request is in flight.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = {
+        ShadowAndroidSdkStorageEncryptionManager.class,
+        ShadowMockAuthority.class,
+        ShadowHttpClient.class,
+        ShadowPublicClientApplicationConfiguration.class,
+        ShadowOpenIdProviderConfigurationClient.class
+})
+public final class SilentRequestDeadlineTest extends AcquireTokenAbstractTest {
+
+    private static final long CALLBACK_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long NO_CALLBACK_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private volatile boolean mBlockTokenRequests;
+    private final CountDownLatch mTokenRequestStarted = new CountDownLatch(1);
+    private final CountDownLatch mReleaseTokenRequests = new CountDownLatch(1);
+    private ExecutorService mCallbackExecutor;
+
+    @Before
+    public void before() {
+        mCallbackExecutor = Executors.newSingleThreadExecutor();
+
+        mockHttpClient.intercept(
+                HttpRequestMatcher.builder().isPOST().build(), new HttpRequestInterceptor() {
+                    @Override
+                    public HttpResponse performIntercept(
+                            @NonNull HttpClient.HttpMethod httpMethod,
+                            @NonNull URL requestUrl,
+                            @NonNull Map<String, String> requestHeaders,
+                            @Nullable byte[] requestContent) {
+                        if (mBlockTokenRequests) {
+                            mTokenRequestStarted.countDown();
+                            try {
+                                mReleaseTokenRequests.await(CALLBACK_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                            } catch (final InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        return MockServerResponse.getMockTokenSuccessResponse();
+                    }
+                });
+
+        final AcquireTokenParameters parameters = new AcquireTokenParameters.Builder()
+                .startAuthorizationFromActivity(mActivity)
+                .withLoginHint("fake@test.com")
+                .withScopes(Arrays.asList(mScopes))
+                .fromAuthority(getAuthority())
+                .withCallback(AcquireTokenTestHelper.successfulInteractiveCallback())
+                .build();
+
+        mApplication.acquireToken(parameters);
+        flushScheduler();
+
+        mBlockTokenRequests = true;
+    }
+
+    @After
+    public void after() {
+        mReleaseTokenRequests.countDown();
+        mCallbackExecutor.shutdownNow();
+    }
+
+    @Override
+    public String getAuthority() {
+        return AAD_MOCK_AUTHORITY_HTTP_RESPONSE;
+    }
+
+    @Test
+    public void testDeadlineExceeded() throws InterruptedException {
+        final RecordingCallback callback = new RecordingCallback();
+
+        final ICancellableRequest request = mApplication.acquireTokenSilentCancellable(
+                silentParameters(callback).withDeadline(200, TimeUnit.MILLISECONDS).build()
+        );
+
+        callback.await(CALLBACK_TIMEOUT_MILLIS);
+        Assert.assertTrue(callback.mException.get() instanceof MsalClientException);
+        Assert.assertEquals(MsalClientException.DEADLINE_EXCEEDED, callback.mException.get().getErrorCode());
+        Assert.assertTrue(request.isCancelled());
+    }
+
+    @Test
+    public void testCancelledRequestIsNotDelivered() throws InterruptedException {
+        final RecordingCallback callback = new RecordingCallback();
+
+        final ICancellableRequest request = mApplication.acquireTokenSilentCancellable(silentParameters(callback).build());
+        awaitTokenRequest();
+        request.cancel();
+        mReleaseTokenRequests.countDown();
+
+        callback.await(NO_CALLBACK_WAIT_MILLIS);
+        Assert.assertTrue(request.isCancelled());
+        Assert.assertEquals("Cancelled request was delivered.", 1, callback.mLatch.getCount());
+    }
+
+    @Test
+    public void testCancellingCoalescedRequestDoesNotFailTheOther() throws InterruptedException {
+        final RecordingCallback cancelledCallback = new RecordingCallback();
+        final RecordingCallback callback = new RecordingCallback();
+
+        final ICancellableRequest cancelledRequest =
+                mApplication.acquireTokenSilentCancellable(silentParameters(cancelledCallback).build());
+        awaitTokenRequest();
+        mApplication.acquireTokenSilentAsync(silentParameters(callback).build());
+        cancelledRequest.cancel();
+        mReleaseTokenRequests.countDown();
+
+        callback.await(CALLBACK_TIMEOUT_MILLIS);
+        Assert.assertNotNull(callback.mResult.get());
+        Assert.assertEquals("Cancelled request was delivered.", 1, cancelledCallback.mLatch.getCount());
+    }
+
+    private AcquireTokenSilentParameters.Builder silentParameters(@NonNull final SilentAuthenticationCallback callback) {
+        return new AcquireTokenSilentParameters.Builder()
+                .forAccount(AcquireTokenTestHelper.getAccount())
+                .withScopes(Arrays.asList(mScopes))
+                .forceRefresh(true)
+                .fromAuthority(getAuthority())
+                .withCallbackExecutor(mCallbackExecutor)
+                .withCallback(callback);
+    }
+
+    private void awaitTokenRequest() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + CALLBACK_TIMEOUT_MILLIS;
+        while (mTokenRequestStarted.getCount() > 0 && System.currentTimeMillis() < deadline) {
+            flushScheduler();
+            mTokenRequestStarted.await(50, TimeUnit.MILLISECONDS);
+        }
+
+        Assert.assertEquals("Token request was not sent.", 0, mTokenRequestStarted.getCount());
+    }
+
+    private static final class RecordingCallback implements SilentAuthenticationCallback {
+        private final CountDownLatch mLatch = new CountDownLatch(1);
+        private final AtomicReference<IAuthenticationResult> mResult = new AtomicReference<>();
+        private final AtomicReference<MsalException> mException = new AtomicReference<>();
+
+        @Override
+        public void onSuccess(IAuthenticationResult authenticationResult) {
+            mResult.set(authenticationResult);
+            mLatch.countDown();
+        }
+
+        @Override
+        public void onError(MsalException exception) {
+            mException.set(exception);
+            mLatch.countDown();
+        }
+
+        void await(final long timeoutMillis) throws InterruptedException {
+            final long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (mLatch.getCount() > 0 && System.currentTimeMillis() < deadline) {
+                flushScheduler();
+                mLatch.await(50, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @Override
+    public String getConfigFilePath() {
+        return MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+    }
+
+    @Override
+    public String[] getScopes() {
+        return USER_READ_SCOPE;
+    }
+}
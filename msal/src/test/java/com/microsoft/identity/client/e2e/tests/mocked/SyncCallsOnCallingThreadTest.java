@@ -0,0 +1,226 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.e2e.tests.mocked;
+
+import com.microsoft.identity.client.AcquireTokenParameters;
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.client.IMultipleAccountPublicClientApplication;
+import com.microsoft.identity.client.e2e.shadows.ShadowAndroidSdkStorageEncryptionManager;
+import com.microsoft.identity.client.e2e.shadows.ShadowMockAuthority;
+import com.microsoft.identity.client.e2e.shadows.ShadowOpenIdProviderConfigurationClient;
+import com.microsoft.identity.client.e2e.shadows.ShadowPublicClientApplicationConfiguration;
+import com.microsoft.identity.client.e2e.tests.AcquireTokenAbstractTest;
+import com.microsoft.identity.client.e2e.utils.AcquireTokenTestHelper;
+import com.microsoft.identity.common.java.net.HttpClient;
+import com.microsoft.identity.common.java.net.HttpResponse;
+import com.microsoft.identity.http.HttpRequestInterceptor;
+import com.microsoft.identity.http.HttpRequestMatcher;
+import com.microsoft.identity.internal.testutils.mocks.MockServerResponse;
+import com.microsoft.identity.shadow.ShadowHttpClient;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.microsoft.identity.client.e2e.utils.RoboTestUtils.flushScheduler;
+import static com.microsoft.identity.internal.testutils.TestConstants.Authorities.AAD_MOCK_AUTHORITY_HTTP_RESPONSE;
+import static com.microsoft.identity.internal.testutils.TestConstants.Configurations.MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+import static com.microsoft.identity.internal.testutils.TestConstants.Scopes.USER_READ_SCOPE;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Verifies that the blocking calls complete on the calling thread, without a round-trip through
+ * the main thread.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = {
+        ShadowAndroidSdkStorageEncryptionManager.class,
+        ShadowMockAuthority.class,
+        ShadowHttpClient.class,
+        ShadowPublicClientApplicationConfiguration.class,
+        ShadowOpenIdProviderConfigurationClient.class
+})
+public final class SyncCallsOnCallingThreadTest extends AcquireTokenAbstractTest {
+
+    private static final long CALL_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private ExecutorService mWorker;
+
+    @Before
+    public void before() {
+        mWorker = Executors.newSingleThreadExecutor();
+
+        mockHttpClient.intercept(
+                HttpRequestMatcher.builder().isPOST().build(), new HttpRequestInterceptor() {
+                    @Override
+                    public HttpResponse performIntercept(
+                            @NonNull HttpClient.HttpMethod httpMethod,
+                            @NonNull URL requestUrl,
+                            @NonNull Map<String, String> requestHeaders,
+                            @Nullable byte[] requestContent) {
+                        return MockServerResponse.getMockTokenSuccessResponse();
+                    }
+                });
+
+        final AcquireTokenParameters parameters = new AcquireTokenParameters.Builder()
+                .startAuthorizationFromActivity(mActivity)
+                .withLoginHint("fake@test.com")
+                .withScopes(Arrays.asList(mScopes))
+                .fromAuthority(getAuthority())
+                .withCallback(AcquireTokenTestHelper.successfulInteractiveCallback())
+                .build();
+
+        mApplication.acquireToken(parameters);
+        flushScheduler();
+
+        mApplication.getConfiguration().setSyncCallsOnCallingThread(true);
+    }
+
+    @After
+    public void after() {
+        mApplication.getConfiguration().setSyncCallsOnCallingThread(null);
+        mWorker.shutdownNow();
+    }
+
+    @Override
+    public String getAuthority() {
+        return AAD_MOCK_AUTHORITY_HTTP_RESPONSE;
+    }
+
+    /**
+     * The main looper is never run while waiting, so the call can only complete if its result is
+     * delivered on the calling thread.
+     */
+    @Test
+    public void testAcquireTokenSilentCompletesWithoutMainThread() throws Exception {
+        final IAuthenticationResult result = runOnWorker(new Callable<IAuthenticationResult>() {
+            @Override
+            public IAuthenticationResult call() throws Exception {
+                return mApplication.acquireTokenSilent(buildForceRefreshParameters());
+            }
+        }, false);
+
+        Assert.assertNotNull(result.getAccessToken());
+    }
+
+    @Test
+    public void testGetAccountsCompletesWithoutMainThread() throws Exception {
+        final List<IAccount> accounts = runOnWorker(new Callable<List<IAccount>>() {
+            @Override
+            public List<IAccount> call() throws Exception {
+                return ((IMultipleAccountPublicClientApplication) mApplication).getAccounts();
+            }
+        }, false);
+
+        Assert.assertEquals(1, accounts.size());
+    }
+
+    @Test
+    public void testGetAccountCompletesWithoutMainThread() throws Exception {
+        final String accountId = AcquireTokenTestHelper.getAccount().getId();
+        final IAccount account = runOnWorker(new Callable<IAccount>() {
+            @Override
+            public IAccount call() throws Exception {
+                return ((IMultipleAccountPublicClientApplication) mApplication).getAccount(accountId);
+            }
+        }, false);
+
+        Assert.assertEquals(accountId, account.getId());
+    }
+
+    @Test
+    public void testOffByDefault() {
+        mApplication.getConfiguration().setSyncCallsOnCallingThread(null);
+
+        Assert.assertFalse(mApplication.getConfiguration().isSyncCallsOnCallingThread());
+    }
+
+    @Test
+    public void testDisabledStillCompletes() throws Exception {
+        mApplication.getConfiguration().setSyncCallsOnCallingThread(false);
+
+        final IAuthenticationResult result = runOnWorker(new Callable<IAuthenticationResult>() {
+            @Override
+            public IAuthenticationResult call() throws Exception {
+                return mApplication.acquireTokenSilent(buildForceRefreshParameters());
+            }
+        }, true);
+
+        Assert.assertNotNull(result.getAccessToken());
+    }
+
+    private AcquireTokenSilentParameters buildForceRefreshParameters() {
+        return new AcquireTokenSilentParameters.Builder()
+                .forAccount(AcquireTokenTestHelper.getAccount())
+                .withScopes(Arrays.asList(mScopes))
+                .forceRefresh(true)
+                .fromAuthority(getAuthority())
+                .build();
+    }
+
+    /**
+     * Runs the blocking call on a worker thread and waits for it, running the main looper only if
+     * asked to.
+     */
+    private <T> T runOnWorker(@NonNull final Callable<T> call, final boolean runMainLooper) throws Exception {
+        final Future<T> future = mWorker.submit(call);
+        final long deadline = System.currentTimeMillis() + CALL_TIMEOUT_MILLIS;
+        while (!future.isDone() && System.currentTimeMillis() < deadline) {
+            if (runMainLooper) {
+                flushScheduler();
+            }
+            Thread.sleep(50);
+        }
+
+        Assert.assertTrue("Blocking call did not complete.", future.isDone());
+        return future.get();
+    }
+
+    @Override
+    public String getConfigFilePath() {
+        return MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+    }
+
+    @Override
+    public String[] getScopes() {
+        return USER_READ_SCOPE;
+    }
+}
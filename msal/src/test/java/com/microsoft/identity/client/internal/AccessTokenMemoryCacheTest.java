@@ -0,0 +1,190 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.client.Account;
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.client.claims.ClaimsRequest;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccessTokenMemoryCacheTest {
+
+    private static final String AUTHORITY = "https://login.microsoftonline.com/common";
+
+    private AccessTokenMemoryCache mCache;
+    private IAccount mAccount;
+
+    @Before
+    public void setup() {
+        mCache = new AccessTokenMemoryCache();
+        mAccount = createAccount("uid");
+    }
+
+    @Test
+    public void testReturnsCachedResultForSameRequest() {
+        final IAuthenticationResult result = createResult(mAccount, TimeUnit.HOURS.toMillis(1));
+        mCache.put(createParameters(mAccount, Arrays.asList("User.Read", "Mail.Read"), null), AUTHORITY, result);
+
+        Assert.assertSame(result, mCache.get(createParameters(mAccount, Arrays.asList("mail.read", "user.read"), null), AUTHORITY));
+    }
+
+    @Test
+    public void testMissOnDifferentScopesOrAccount() {
+        mCache.put(createParameters(mAccount, Arrays.asList("User.Read"), null), AUTHORITY,
+                createResult(mAccount, TimeUnit.HOURS.toMillis(1)));
+
+        Assert.assertNull(mCache.get(createParameters(mAccount, Arrays.asList("Mail.Read"), null), AUTHORITY));
+        Assert.assertNull(mCache.get(createParameters(createAccount("other"), Arrays.asList("User.Read"), null), AUTHORITY));
+    }
+
+    @Test
+    public void testMissOnDifferentClaims() {
+        mCache.put(createParameters(mAccount, Arrays.asList("User.Read"), null), AUTHORITY,
+                createResult(mAccount, TimeUnit.HOURS.toMillis(1)));
+
+        final ClaimsRequest claimsRequest = new ClaimsRequest();
+        claimsRequest.requestClaimInAccessToken("deviceid", null);
+        Assert.assertNull(mCache.get(createParameters(mAccount, Arrays.asList("User.Read"), claimsRequest), AUTHORITY));
+    }
+
+    @Test
+    public void testNearExpiryTokenIsEvicted() {
+        mCache.put(createParameters(mAccount, Arrays.asList("User.Read"), null), AUTHORITY,
+                createResult(mAccount, TimeUnit.MINUTES.toMillis(1)));
+
+        Assert.assertNull(mCache.get(createParameters(mAccount, Arrays.asList("User.Read"), null), AUTHORITY));
+        Assert.assertEquals(0, mCache.size());
+    }
+
+    @Test
+    public void testRemoveAccountEvictsOnlyThatAccount() {
+        final IAccount otherAccount = createAccount("other");
+        mCache.put(createParameters(mAccount, Arrays.asList("User.Read"), null), AUTHORITY,
+                createResult(mAccount, TimeUnit.HOURS.toMillis(1)));
+        mCache.put(createParameters(otherAccount, Arrays.asList("User.Read"), null), AUTHORITY,
+                createResult(otherAccount, TimeUnit.HOURS.toMillis(1)));
+
+        mCache.removeAccount(mAccount);
+
+        Assert.assertNull(mCache.get(createParameters(mAccount, Arrays.asList("User.Read"), null), AUTHORITY));
+        Assert.assertNotNull(mCache.get(createParameters(otherAccount, Arrays.asList("User.Read"), null), AUTHORITY));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvictedWhenFull() {
+        final AccessTokenMemoryCache cache = new AccessTokenMemoryCache(2, AccessTokenMemoryCache.DEFAULT_EXPIRY_BUFFER_MILLIS);
+        final IAuthenticationResult result = createResult(mAccount, TimeUnit.HOURS.toMillis(1));
+
+        cache.put(createParameters(mAccount, Arrays.asList("a"), null), AUTHORITY, result);
+        cache.put(createParameters(mAccount, Arrays.asList("b"), null), AUTHORITY, result);
+        cache.get(createParameters(mAccount, Arrays.asList("a"), null), AUTHORITY);
+        cache.put(createParameters(mAccount, Arrays.asList("c"), null), AUTHORITY, result);
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNotNull(cache.get(createParameters(mAccount, Arrays.asList("a"), null), AUTHORITY));
+        Assert.assertNull(cache.get(createParameters(mAccount, Arrays.asList("b"), null), AUTHORITY));
+    }
+
+    private static IAccount createAccount(@NonNull final String uid) {
+        final Account account = new Account(null, null);
+        account.setHomeAccountId(uid + ".utid");
+        return account;
+    }
+
+    private static AcquireTokenSilentParameters createParameters(@NonNull final IAccount account,
+                                                                 @NonNull final List<String> scopes,
+                                                                 final ClaimsRequest claimsRequest) {
+        return new AcquireTokenSilentParameters.Builder()
+                .forAccount(account)
+                .withScopes(scopes)
+                .withClaims(claimsRequest)
+                .build();
+    }
+
+    private static IAuthenticationResult createResult(@NonNull final IAccount account, final long expiresInMillis) {
+        final Date expiresOn = new Date(System.currentTimeMillis() + expiresInMillis);
+        return new IAuthenticationResult() {
+            @NonNull
+            @Override
+            public String getAccessToken() {
+                return "access_token";
+            }
+
+            @NonNull
+            @Override
+            public String getAuthorizationHeader() {
+                return "Bearer access_token";
+            }
+
+            @NonNull
+            @Override
+            public String getAuthenticationScheme() {
+                return "Bearer";
+            }
+
+            @NonNull
+            @Override
+            public Date getExpiresOn() {
+                return expiresOn;
+            }
+
+            @Override
+            public String getTenantId() {
+                return "utid";
+            }
+
+            @NonNull
+            @Override
+            public IAccount getAccount() {
+                return account;
+            }
+
+            @NonNull
+            @Override
+            public String[] getScope() {
+                return new String[0];
+            }
+
+            @Override
+            public UUID getCorrelationId() {
+                return null;
+            }
+        };
+    }
+}
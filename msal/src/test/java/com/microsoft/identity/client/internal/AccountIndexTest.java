@@ -0,0 +1,145 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.client.Account;
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.common.java.exception.ServiceException;
+import com.microsoft.identity.common.java.providers.oauth2.IDToken;
+import com.microsoft.identity.internal.testutils.mocks.MockTokenCreator;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccountIndexTest {
+
+    private AccountIndex mAccountIndex;
+
+    @Before
+    public void setup() {
+        mAccountIndex = new AccountIndex();
+    }
+
+    @Test
+    public void testLookupByHomeAccountId() {
+        final IAccount account = createAccount("uid");
+        mAccountIndex.rebuild(Arrays.asList(account, createAccount("other")));
+
+        Assert.assertSame(account, mAccountIndex.get("uid.utid"));
+        Assert.assertSame(account, mAccountIndex.get(" uid "));
+    }
+
+    @Test
+    public void testLookupByUsernameIsCaseInsensitive() throws ServiceException {
+        final IAccount account = new Account(null, new IDToken(MockTokenCreator.createMockIdToken()));
+        mAccountIndex.rebuild(Collections.singletonList(account));
+
+        Assert.assertSame(account, mAccountIndex.get(account.getUsername().toUpperCase(Locale.ROOT)));
+    }
+
+    @Test
+    public void testMissReturnsNull() {
+        mAccountIndex.rebuild(Collections.singletonList(createAccount("uid")));
+
+        Assert.assertNull(mAccountIndex.get("unknown"));
+    }
+
+    @Test
+    public void testPutReplacesAndRemoveEvicts() {
+        final IAccount account = createAccount("uid");
+        final IAccount updatedAccount = createAccount("uid");
+
+        mAccountIndex.put(account);
+        mAccountIndex.put(updatedAccount);
+        Assert.assertSame(updatedAccount, mAccountIndex.get("uid"));
+
+        mAccountIndex.remove(account);
+        Assert.assertNull(mAccountIndex.get("uid"));
+    }
+
+    @Test
+    public void testRebuildDropsStaleAccounts() {
+        mAccountIndex.put(createAccount("uid"));
+        mAccountIndex.rebuild(Collections.singletonList(createAccount("other")));
+
+        Assert.assertNull(mAccountIndex.get("uid"));
+        Assert.assertNotNull(mAccountIndex.get("other"));
+    }
+
+    @Test
+    public void testPendingResultIsIndexedOnLookup() {
+        final IAccount account = createAccount("uid");
+        final IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+        Mockito.when(result.getAccount()).thenReturn(account);
+
+        Assert.assertTrue(mAccountIndex.putPending("uid", result));
+        Mockito.verify(result, Mockito.never()).getAccount();
+
+        Assert.assertSame(account, mAccountIndex.get("uid"));
+        Mockito.verify(result, Mockito.times(1)).getAccount();
+    }
+
+    @Test
+    public void testPendingResultOfKnownAccountIsNotNew() {
+        final IAccount account = createAccount("uid");
+        final IAccount updatedAccount = createAccount("uid");
+        final IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+        Mockito.when(result.getAccount()).thenReturn(updatedAccount);
+        mAccountIndex.put(account);
+
+        Assert.assertFalse(mAccountIndex.putPending("uid", result));
+        Assert.assertFalse(mAccountIndex.putPending("uid", result));
+        Assert.assertSame(updatedAccount, mAccountIndex.get("uid"));
+    }
+
+    @Test
+    public void testRemoveDropsPendingResult() {
+        final IAccount account = createAccount("uid");
+        final IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+        Mockito.when(result.getAccount()).thenReturn(account);
+        mAccountIndex.putPending("uid", result);
+
+        mAccountIndex.remove(account);
+
+        Assert.assertNull(mAccountIndex.get("uid"));
+        Mockito.verify(result, Mockito.never()).getAccount();
+    }
+
+    private static IAccount createAccount(@NonNull final String uid) {
+        final Account account = new Account(null, null);
+        account.setHomeAccountId(uid + ".utid");
+        return account;
+    }
+}
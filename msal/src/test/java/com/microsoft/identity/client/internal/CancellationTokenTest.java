@@ -0,0 +1,103 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.common.java.exception.ClientException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class CancellationTokenTest {
+
+    @Test
+    public void testCancelRunsListenersOnce() {
+        final CancellationToken token = new CancellationToken();
+        final AtomicInteger calls = new AtomicInteger();
+        token.addOnCancelListener(new Runnable() {
+            @Override
+            public void run() {
+                calls.incrementAndGet();
+            }
+        });
+
+        token.cancel();
+        token.cancel();
+
+        Assert.assertTrue(token.isCancelled());
+        Assert.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testListenerAddedAfterCancelRunsRightAway() {
+        final CancellationToken token = new CancellationToken();
+        final AtomicInteger calls = new AtomicInteger();
+        token.cancel();
+
+        token.addOnCancelListener(new Runnable() {
+            @Override
+            public void run() {
+                calls.incrementAndGet();
+            }
+        });
+
+        Assert.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testRemovedListenerDoesNotRun() {
+        final CancellationToken token = new CancellationToken();
+        final AtomicInteger calls = new AtomicInteger();
+        final Runnable listener = new Runnable() {
+            @Override
+            public void run() {
+                calls.incrementAndGet();
+            }
+        };
+        token.addOnCancelListener(listener);
+        token.removeOnCancelListener(listener);
+
+        token.cancel();
+
+        Assert.assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void testThrowIfCancelled() throws ClientException {
+        final CancellationToken token = new CancellationToken();
+        token.throwIfCancelled();
+
+        token.cancel();
+        try {
+            token.throwIfCancelled();
+            Assert.fail("Expected a ClientException");
+        } catch (final ClientException e) {
+            Assert.assertEquals(MsalClientException.REQUEST_CANCELLED, e.getErrorCode());
+        }
+    }
+}
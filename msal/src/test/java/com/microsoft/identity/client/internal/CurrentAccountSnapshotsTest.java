@@ -0,0 +1,98 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import com.microsoft.identity.client.MultiTenantAccount;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class CurrentAccountSnapshotsTest {
+
+    private static final String CLIENT_ID = "4b0db8c2-9f26-4417-8bde-3f0e3656f8e0";
+    private static final String OTHER_CLIENT_ID = "b6c69a37-df96-4db0-9088-2ab96e1d8215";
+
+    private final MultiTenantAccount mAccount = Mockito.mock(MultiTenantAccount.class);
+    private final MultiTenantAccount mOtherAccount = Mockito.mock(MultiTenantAccount.class);
+
+    @Before
+    public void setUp() {
+        CurrentAccountSnapshots.invalidate();
+    }
+
+    @Test
+    public void testNoAccountIsDistinctFromNotLoaded() {
+        Assert.assertNull(CurrentAccountSnapshots.get(CLIENT_ID));
+
+        CurrentAccountSnapshots.onLoaded(CLIENT_ID, null);
+
+        Assert.assertNotNull(CurrentAccountSnapshots.get(CLIENT_ID));
+        Assert.assertNull(CurrentAccountSnapshots.get(CLIENT_ID).getAccount());
+    }
+
+    @Test
+    public void testSnapshotsAreKeyedByClientId() {
+        CurrentAccountSnapshots.onLoaded(CLIENT_ID, mAccount);
+
+        Assert.assertSame(mAccount, CurrentAccountSnapshots.get(CLIENT_ID).getAccount());
+        Assert.assertNull(CurrentAccountSnapshots.get(OTHER_CLIENT_ID));
+    }
+
+    /**
+     * Every client id persists to the same shared preferences, so a sign in through one
+     * application must not leave another application reading its old copy.
+     */
+    @Test
+    public void testWriteDropsTheCopiesOfOtherClientIds() {
+        CurrentAccountSnapshots.onLoaded(CLIENT_ID, mAccount);
+        CurrentAccountSnapshots.onLoaded(OTHER_CLIENT_ID, mAccount);
+
+        CurrentAccountSnapshots.onWritten(OTHER_CLIENT_ID, mOtherAccount);
+
+        Assert.assertNull(CurrentAccountSnapshots.get(CLIENT_ID));
+        Assert.assertSame(mOtherAccount, CurrentAccountSnapshots.get(OTHER_CLIENT_ID).getAccount());
+    }
+
+    @Test
+    public void testSignOutIsSeenByEveryClientId() {
+        CurrentAccountSnapshots.onLoaded(CLIENT_ID, mAccount);
+
+        CurrentAccountSnapshots.onWritten(OTHER_CLIENT_ID, null);
+
+        Assert.assertNull(CurrentAccountSnapshots.get(CLIENT_ID));
+        Assert.assertNull(CurrentAccountSnapshots.get(OTHER_CLIENT_ID).getAccount());
+    }
+
+    @Test
+    public void testInvalidateDropsEveryCopy() {
+        CurrentAccountSnapshots.onLoaded(CLIENT_ID, mAccount);
+        CurrentAccountSnapshots.onLoaded(OTHER_CLIENT_ID, mOtherAccount);
+
+        CurrentAccountSnapshots.invalidate();
+
+        Assert.assertNull(CurrentAccountSnapshots.get(CLIENT_ID));
+        Assert.assertNull(CurrentAccountSnapshots.get(OTHER_CLIENT_ID));
+    }
+}
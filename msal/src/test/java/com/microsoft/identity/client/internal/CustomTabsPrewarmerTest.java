@@ -0,0 +1,148 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.browser.customtabs.CustomTabsClient;
+import androidx.browser.customtabs.CustomTabsServiceConnection;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class CustomTabsPrewarmerTest {
+
+    private static final String CHROME = "com.android.chrome";
+    private static final ComponentName COMPONENT = new ComponentName(CHROME, "CustomTabsService");
+
+    private final List<CustomTabsServiceConnection> mBinds = new ArrayList<>();
+    private Context mContext;
+    private CustomTabsPrewarmer mPrewarmer;
+    private CustomTabsClient mClient;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mClient = mock(CustomTabsClient.class);
+
+        mPrewarmer = new CustomTabsPrewarmer(new CustomTabsPrewarmer.IServiceBinder() {
+            @Override
+            public boolean bind(@NonNull final Context context,
+                                @NonNull final String browserPackage,
+                                @NonNull final CustomTabsServiceConnection connection) {
+                Assert.assertSame(mContext, context);
+                mBinds.add(connection);
+                return true;
+            }
+        }, new Handler(Looper.getMainLooper()));
+    }
+
+    @Test
+    public void testWarmsUpOnceConnected() {
+        mPrewarmer.prewarm(mContext, CHROME);
+        Assert.assertEquals(1, mBinds.size());
+        verify(mClient, never()).warmup(0L);
+
+        mBinds.get(0).onCustomTabsServiceConnected(COMPONENT, mClient);
+
+        verify(mClient).warmup(0L);
+        verify(mClient, never()).newSession(null);
+    }
+
+    @Test
+    public void testPrewarmWhileBoundDoesNotBindAgain() {
+        mPrewarmer.prewarm(mContext, CHROME);
+        mPrewarmer.prewarm(mContext, CHROME);
+        mBinds.get(0).onCustomTabsServiceConnected(COMPONENT, mClient);
+        mPrewarmer.prewarm(mContext, CHROME);
+
+        Assert.assertEquals(1, mBinds.size());
+    }
+
+    @Test
+    public void testRebindsAfterDisconnect() {
+        mPrewarmer.prewarm(mContext, CHROME);
+        mBinds.get(0).onCustomTabsServiceConnected(COMPONENT, mClient);
+
+        mBinds.get(0).onServiceDisconnected(COMPONENT);
+        Assert.assertFalse(mPrewarmer.isBound());
+
+        mPrewarmer.prewarm(mContext, CHROME);
+        Assert.assertEquals(2, mBinds.size());
+    }
+
+    @Test
+    public void testConnectionAfterReleaseIsIgnored() {
+        mPrewarmer.prewarm(mContext, CHROME);
+        mPrewarmer.release();
+        Assert.assertFalse(mPrewarmer.isBound());
+
+        mBinds.get(0).onCustomTabsServiceConnected(COMPONENT, mClient);
+
+        verify(mClient, never()).warmup(0L);
+    }
+
+    @Test
+    public void testReleasedWhenIdle() {
+        mPrewarmer.prewarm(mContext, CHROME);
+        mBinds.get(0).onCustomTabsServiceConnected(COMPONENT, mClient);
+
+        ShadowLooper.idleMainLooper(CustomTabsPrewarmer.IDLE_TIMEOUT_MILLIS - 1, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(mPrewarmer.isBound());
+
+        ShadowLooper.idleMainLooper(1, TimeUnit.MILLISECONDS);
+        Assert.assertFalse(mPrewarmer.isBound());
+    }
+
+    @Test
+    public void testPrewarmPostponesIdleRelease() {
+        mPrewarmer.prewarm(mContext, CHROME);
+        ShadowLooper.idleMainLooper(CustomTabsPrewarmer.IDLE_TIMEOUT_MILLIS - 1, TimeUnit.MILLISECONDS);
+
+        mPrewarmer.prewarm(mContext, CHROME);
+        ShadowLooper.idleMainLooper(CustomTabsPrewarmer.IDLE_TIMEOUT_MILLIS - 1, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(mPrewarmer.isBound());
+
+        ShadowLooper.idleMainLooper(1, TimeUnit.MILLISECONDS);
+        Assert.assertFalse(mPrewarmer.isBound());
+        Assert.assertEquals(1, mBinds.size());
+    }
+}
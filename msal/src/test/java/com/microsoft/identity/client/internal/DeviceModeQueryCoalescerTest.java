@@ -0,0 +1,125 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import com.microsoft.identity.common.java.commands.CommandCallback;
+import com.microsoft.identity.common.java.exception.BaseException;
+import com.microsoft.identity.common.java.exception.ClientException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DeviceModeQueryCoalescerTest {
+
+    @Test
+    public void testConcurrentCallersShareOneQuery() {
+        final DeviceModeQueryCoalescer coalescer = new DeviceModeQueryCoalescer();
+        final RecordingCallback first = new RecordingCallback();
+        final RecordingCallback second = new RecordingCallback();
+
+        Assert.assertTrue(coalescer.join(true, first));
+        Assert.assertFalse(coalescer.join(true, second));
+
+        coalescer.onQueryCompleted(true, true);
+        Assert.assertEquals(Boolean.TRUE, first.mIsSharedDevice);
+        Assert.assertEquals(Boolean.TRUE, second.mIsSharedDevice);
+    }
+
+    @Test
+    public void testFailureReachesEveryCaller() {
+        final DeviceModeQueryCoalescer coalescer = new DeviceModeQueryCoalescer();
+        final RecordingCallback first = new RecordingCallback();
+        final RecordingCallback second = new RecordingCallback();
+        final ClientException error = new ClientException("unknown_error", "The broker could not be reached.");
+
+        coalescer.join(true, first);
+        coalescer.join(true, second);
+        coalescer.onQueryFailed(true, error);
+
+        Assert.assertSame(error, first.mError);
+        Assert.assertSame(error, second.mError);
+    }
+
+    /**
+     * The device becomes shared after a query answered "not shared". The next caller must not be
+     * given the old answer.
+     */
+    @Test
+    public void testModeChangeAfterQueryIsSeenByNextCaller() {
+        final DeviceModeQueryCoalescer coalescer = new DeviceModeQueryCoalescer();
+        final RecordingCallback before = new RecordingCallback();
+        final RecordingCallback after = new RecordingCallback();
+
+        Assert.assertTrue(coalescer.join(true, before));
+        coalescer.onQueryCompleted(true, false);
+        Assert.assertEquals(Boolean.FALSE, before.mIsSharedDevice);
+
+        Assert.assertTrue("A completed query must not be reused.", coalescer.join(true, after));
+        Assert.assertNull(after.mIsSharedDevice);
+
+        coalescer.onQueryCompleted(true, true);
+        Assert.assertEquals(Boolean.TRUE, after.mIsSharedDevice);
+        Assert.assertEquals(Boolean.FALSE, before.mIsSharedDevice);
+    }
+
+    /**
+     * An application that cannot use the broker is answered by the local controller, so it must
+     * not be given the answer of a broker query in flight, nor the other way around.
+     */
+    @Test
+    public void testCallersWithDifferentBrokerEligibilityDoNotShareAQuery() {
+        final DeviceModeQueryCoalescer coalescer = new DeviceModeQueryCoalescer();
+        final RecordingCallback brokerApp = new RecordingCallback();
+        final RecordingCallback localApp = new RecordingCallback();
+
+        Assert.assertTrue(coalescer.join(true, brokerApp));
+        Assert.assertTrue(coalescer.join(false, localApp));
+
+        coalescer.onQueryCompleted(false, false);
+        Assert.assertEquals(Boolean.FALSE, localApp.mIsSharedDevice);
+        Assert.assertNull(brokerApp.mIsSharedDevice);
+
+        coalescer.onQueryCompleted(true, true);
+        Assert.assertEquals(Boolean.TRUE, brokerApp.mIsSharedDevice);
+        Assert.assertEquals(Boolean.FALSE, localApp.mIsSharedDevice);
+    }
+
+    private static final class RecordingCallback implements CommandCallback<Boolean, BaseException> {
+        private Boolean mIsSharedDevice;
+        private BaseException mError;
+
+        @Override
+        public void onTaskCompleted(final Boolean isSharedDevice) {
+            mIsSharedDevice = isSharedDevice;
+        }
+
+        @Override
+        public void onError(final BaseException error) {
+            mError = error;
+        }
+
+        @Override
+        public void onCancel() {
+        }
+    }
+}
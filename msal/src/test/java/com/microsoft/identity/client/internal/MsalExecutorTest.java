@@ -0,0 +1,147 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import com.microsoft.identity.client.configuration.ThreadingConfiguration;
+import com.microsoft.identity.client.exception.MsalClientException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(RobolectricTestRunner.class)
+public class MsalExecutorTest {
+
+    @Test
+    public void testRunsOnNamedThread() throws Exception {
+        final MsalExecutor executor = new MsalExecutor(2, 4, 1000);
+        final AtomicReference<String> threadName = new AtomicReference<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                threadName.set(Thread.currentThread().getName());
+                latch.countDown();
+            }
+        });
+
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(threadName.get().startsWith("msal-background-"));
+    }
+
+    @Test
+    public void testRejectsWhenSaturated() throws Exception {
+        final MsalExecutor executor = new MsalExecutor(1, 1, 1000);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Runnable blocking = new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        try {
+            executor.execute(blocking);
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+            executor.execute(blocking);
+
+            Assert.assertEquals(1, executor.getActiveCount());
+            Assert.assertEquals(1, executor.getQueueDepth());
+
+            try {
+                executor.execute(blocking);
+                Assert.fail("Expected the saturated executor to reject the task.");
+            } catch (final MsalClientException e) {
+                Assert.assertEquals(MsalClientException.BACKGROUND_EXECUTOR_REJECTED, e.getErrorCode());
+            }
+            Assert.assertEquals(1, executor.getRejectedTaskCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testRecordsQueueWaitTime() throws Exception {
+        final MsalExecutor executor = new MsalExecutor(1, 4, 1000);
+        final CountDownLatch done = new CountDownLatch(2);
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            }
+        });
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        });
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(executor.getMaxWaitTimeMillis() >= 50);
+        Assert.assertTrue(executor.getAverageWaitTimeMillis() <= executor.getMaxWaitTimeMillis());
+    }
+
+    @Test
+    public void testSharedPerConfiguration() {
+        final ThreadingConfiguration configuration = new ThreadingConfiguration();
+        configuration.setPoolSize(3);
+        configuration.setQueueCapacity(7);
+
+        final ThreadingConfiguration sameConfiguration = new ThreadingConfiguration();
+        sameConfiguration.setPoolSize(3);
+        sameConfiguration.setQueueCapacity(7);
+
+        final MsalExecutor executor = MsalExecutor.forConfiguration(configuration);
+        Assert.assertSame(executor, MsalExecutor.forConfiguration(sameConfiguration));
+        Assert.assertEquals(3, executor.getPoolSize());
+        Assert.assertEquals(7, executor.getQueueCapacity());
+    }
+
+    @Test
+    public void testMissingValuesFallBackToDefaults() {
+        final MsalExecutor executor = MsalExecutor.forConfiguration(new ThreadingConfiguration());
+
+        Assert.assertSame(MsalExecutor.getDefault(), executor);
+        Assert.assertEquals(MsalExecutor.DEFAULT_POOL_SIZE, executor.getPoolSize());
+        Assert.assertEquals(MsalExecutor.DEFAULT_QUEUE_CAPACITY, executor.getQueueCapacity());
+    }
+}
@@ -0,0 +1,56 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.Nullable;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(RobolectricTestRunner.class)
+public class PackageChangeMonitorTest {
+
+    @Test
+    public void testPackageChangeNotifiesListeners() {
+        final PackageChangeMonitor monitor = new PackageChangeMonitor();
+        final AtomicReference<String> changed = new AtomicReference<>();
+        final PackageChangeMonitor.IPackageChangeListener listener = new PackageChangeMonitor.IPackageChangeListener() {
+            @Override
+            public void onPackageChanged(@Nullable final String packageName) {
+                changed.set(packageName);
+            }
+        };
+
+        monitor.addListener(listener);
+        monitor.notifyPackageChanged("com.azure.authenticator");
+        Assert.assertEquals("com.azure.authenticator", changed.get());
+
+        monitor.removeListener(listener);
+        monitor.notifyPackageChanged("com.microsoft.windowsintune.companyportal");
+        Assert.assertEquals("com.azure.authenticator", changed.get());
+    }
+}
@@ -0,0 +1,229 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.Intent;
+import android.content.pm.ActivityInfo;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+import android.content.pm.ServiceInfo;
+import android.net.Uri;
+
+import androidx.browser.customtabs.CustomTabsService;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.microsoft.identity.client.BrowserTabActivity;
+import com.microsoft.identity.client.PublicClientApplicationConfiguration;
+import com.microsoft.identity.client.PublicClientApplicationConfigurationFactory;
+import com.microsoft.identity.client.exception.MsalClientException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class PackageResolutionCacheTest {
+
+    private static final String CHROME = "com.android.chrome";
+    private static final String REDIRECT_URI = "msauth://com.microsoft.identity.client.sample/hash";
+    private static final int INTERACTIVE_REQUESTS = 5;
+
+    private PackageManager mPackageManager;
+    private Context mContext;
+    private PackageResolutionCache mCache;
+
+    @Before
+    public void setUp() throws PackageManager.NameNotFoundException {
+        mPackageManager = mock(PackageManager.class);
+
+        final ResolveInfo service = new ResolveInfo();
+        service.serviceInfo = new ServiceInfo();
+        service.serviceInfo.packageName = CHROME;
+        when(mPackageManager.queryIntentServices(any(Intent.class), anyInt()))
+                .thenReturn(Collections.singletonList(service));
+
+        final ResolveInfo activity = new ResolveInfo();
+        activity.activityInfo = new ActivityInfo();
+        activity.activityInfo.name = BrowserTabActivity.class.getName();
+        activity.activityInfo.packageName = ApplicationProvider.getApplicationContext().getPackageName();
+        when(mPackageManager.queryIntentActivities(any(Intent.class), anyInt()))
+                .thenReturn(Collections.singletonList(activity));
+
+        final PackageInfo chrome = new PackageInfo();
+        chrome.applicationInfo = new ApplicationInfo();
+        chrome.applicationInfo.enabled = true;
+        when(mPackageManager.getPackageInfo(eq(CHROME), anyInt())).thenReturn(chrome);
+        when(mPackageManager.getPackageInfo(eq("missing.package"), anyInt()))
+                .thenThrow(new PackageManager.NameNotFoundException());
+
+        mContext = new ContextWrapper(ApplicationProvider.getApplicationContext()) {
+            @Override
+            public Context getApplicationContext() {
+                return this;
+            }
+
+            @Override
+            public PackageManager getPackageManager() {
+                return mPackageManager;
+            }
+        };
+        mCache = new PackageResolutionCache(mContext);
+    }
+
+    @Test
+    public void testRepeatedInteractiveRequestsQueryPackageManagerOnce() {
+        for (int i = 0; i < INTERACTIVE_REQUESTS; i++) {
+            runInteractiveRequestChecks();
+        }
+
+        verify(mPackageManager, times(1)).queryIntentServices(any(Intent.class), anyInt());
+        verify(mPackageManager, times(1)).queryIntentActivities(any(Intent.class), anyInt());
+        verifyGetPackageInfoCalls(1);
+    }
+
+    /**
+     * Goes through the same calls as an interactive request: browser selection, the Chrome
+     * fallback, the redirect activity lookup and the manifest check of the configuration.
+     */
+    @Test
+    public void testRepeatedInteractiveRequestsThroughMsalUtilsQueryPackageManagerOnce() throws MsalClientException {
+        final PublicClientApplicationConfiguration configuration =
+                PublicClientApplicationConfigurationFactory.initializeConfiguration(ApplicationProvider.getApplicationContext());
+        configuration.setAppContext(mContext);
+        configuration.setRedirectUri(REDIRECT_URI);
+
+        for (int i = 0; i < INTERACTIVE_REQUESTS; i++) {
+            Assert.assertEquals(CHROME, MsalUtils.getChromePackageWithCustomTabSupport(mContext));
+            Assert.assertEquals(CHROME, MsalUtils.getChromePackage(mContext));
+            Assert.assertEquals(1, MsalUtils.queryRedirectActivities(mContext, REDIRECT_URI).size());
+            configuration.checkIntentFilterAddedToAppManifestForBrokerFlow();
+        }
+
+        verify(mPackageManager, times(1)).queryIntentServices(any(Intent.class), anyInt());
+        verify(mPackageManager, times(1)).queryIntentActivities(any(Intent.class), anyInt());
+        verifyGetPackageInfoCalls(1);
+    }
+
+    @Test
+    public void testReplacingTheInstanceDoesNotAddPackageChangeListeners() {
+        final Context appContext = ApplicationProvider.getApplicationContext();
+        final PackageChangeMonitor monitor = PackageChangeMonitor.getInstance(appContext);
+        PackageResolutionCache.getInstance(appContext);
+        final int listenerCount = monitor.getListenerCount();
+
+        PackageResolutionCache.getInstance(mContext);
+        PackageResolutionCache.getInstance(appContext);
+        final PackageResolutionCache current = PackageResolutionCache.getInstance(mContext);
+        Assert.assertEquals(listenerCount, monitor.getListenerCount());
+
+        final Intent intent = new Intent(CustomTabsService.ACTION_CUSTOM_TABS_CONNECTION);
+        current.queryIntentServices(intent, 0);
+        monitor.notifyPackageChanged(CHROME);
+        current.queryIntentServices(intent, 0);
+
+        verify(mPackageManager, times(2)).queryIntentServices(any(Intent.class), anyInt());
+    }
+
+    @Test
+    public void testInvalidateQueriesPackageManagerAgain() {
+        runInteractiveRequestChecks();
+        mCache.invalidate();
+        runInteractiveRequestChecks();
+
+        verify(mPackageManager, times(2)).queryIntentServices(any(Intent.class), anyInt());
+        verify(mPackageManager, times(2)).queryIntentActivities(any(Intent.class), anyInt());
+        verifyGetPackageInfoCalls(2);
+    }
+
+    @Test
+    public void testMissingPackageIsCached() {
+        Assert.assertNull(mCache.getPackageInfo("missing.package", 0));
+        Assert.assertNull(mCache.getPackageInfo("missing.package", 0));
+
+        verifyGetPackageInfoCalls(1);
+    }
+
+    @Test
+    public void testDifferentIntentsAreCachedSeparately() {
+        mCache.queryIntentActivities(redirectIntent(REDIRECT_URI), PackageManager.GET_RESOLVED_FILTER);
+        mCache.queryIntentActivities(redirectIntent("msauth://other.app/hash"), PackageManager.GET_RESOLVED_FILTER);
+
+        verify(mPackageManager, times(2)).queryIntentActivities(any(Intent.class), anyInt());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testResultsCannotBeModified() {
+        mCache.queryIntentActivities(redirectIntent(REDIRECT_URI), PackageManager.GET_RESOLVED_FILTER).clear();
+    }
+
+    /**
+     * The lookups done before each interactive request: Custom Tabs browser, Chrome install state
+     * and the redirect activity.
+     */
+    private void runInteractiveRequestChecks() {
+        final List<ResolveInfo> services = mCache.queryIntentServices(
+                new Intent(CustomTabsService.ACTION_CUSTOM_TABS_CONNECTION), 0);
+        Assert.assertEquals(CHROME, services.get(0).serviceInfo.packageName);
+
+        final PackageInfo chrome = mCache.getPackageInfo(CHROME, PackageManager.GET_ACTIVITIES);
+        Assert.assertNotNull(chrome);
+
+        final List<ResolveInfo> activities = mCache.queryIntentActivities(
+                redirectIntent(REDIRECT_URI), PackageManager.GET_RESOLVED_FILTER);
+        Assert.assertEquals(BrowserTabActivity.class.getName(), activities.get(0).activityInfo.name);
+    }
+
+    private void verifyGetPackageInfoCalls(final int count) {
+        try {
+            verify(mPackageManager, times(count)).getPackageInfo(anyString(), anyInt());
+        } catch (final PackageManager.NameNotFoundException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static Intent redirectIntent(final String url) {
+        final Intent intent = new Intent(Intent.ACTION_VIEW);
+        intent.addCategory(Intent.CATEGORY_DEFAULT);
+        intent.addCategory(Intent.CATEGORY_BROWSABLE);
+        intent.setDataAndNormalize(Uri.parse(url));
+        return intent;
+    }
+}
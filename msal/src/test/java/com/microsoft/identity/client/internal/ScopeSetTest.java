@@ -0,0 +1,96 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+@RunWith(RobolectricTestRunner.class)
+public class ScopeSetTest {
+
+    @Test
+    public void testNormalizesScopes() {
+        final ScopeSet scopeSet = ScopeSet.of(Arrays.asList(" Mail.Read", "user.read", "USER.READ", "", null));
+
+        Assert.assertEquals(Arrays.asList("mail.read", "user.read"), scopeSet.asList());
+        Assert.assertEquals("mail.read user.read", scopeSet.getCanonicalString());
+    }
+
+    @Test
+    public void testEqualSetsAreInterned() {
+        final ScopeSet first = ScopeSet.of(Arrays.asList("User.Read", "Mail.Read"));
+        final ScopeSet second = ScopeSet.of(new String[]{"mail.read", "user.read"});
+        final ScopeSet parsed = ScopeSet.parse("  user.read   MAIL.READ ");
+
+        Assert.assertSame(first, second);
+        Assert.assertSame(first, parsed);
+        Assert.assertEquals(first.hashCode(), parsed.hashCode());
+    }
+
+    @Test
+    public void testEmptyInputs() {
+        Assert.assertTrue(ScopeSet.of((String[]) null).isEmpty());
+        Assert.assertTrue(ScopeSet.of(Collections.<String>emptyList()).isEmpty());
+        Assert.assertTrue(ScopeSet.parse("   ").isEmpty());
+        Assert.assertSame(ScopeSet.parse(null), ScopeSet.of(new String[]{" "}));
+    }
+
+    @Test
+    public void testContains() {
+        final ScopeSet scopeSet = ScopeSet.parse("user.read mail.read");
+
+        Assert.assertTrue(scopeSet.contains("User.Read"));
+        Assert.assertFalse(scopeSet.contains("files.read"));
+        Assert.assertFalse(scopeSet.contains(null));
+    }
+
+    @Test
+    public void testSetOperations() {
+        final ScopeSet requested = ScopeSet.parse("user.read mail.read files.read");
+        final ScopeSet granted = ScopeSet.parse("user.read files.read openid");
+
+        Assert.assertEquals(Collections.singletonList("mail.read"), requested.difference(granted));
+        Assert.assertTrue(requested.intersects(granted));
+        Assert.assertFalse(granted.containsAll(requested));
+        Assert.assertTrue(requested.containsAll(ScopeSet.parse("files.read")));
+        Assert.assertFalse(requested.intersects(ScopeSet.parse("calendars.read")));
+        Assert.assertTrue(requested.difference(requested).isEmpty());
+    }
+
+    @Test
+    public void testEvictedSetsStillCompareEqual() {
+        final ScopeSet original = ScopeSet.parse("scope.under.test");
+        for (int i = 0; i <= ScopeSet.MAX_INTERNED; i++) {
+            ScopeSet.parse("filler." + i);
+        }
+
+        final ScopeSet recreated = ScopeSet.parse("scope.under.test");
+        Assert.assertEquals(original, recreated);
+        Assert.assertEquals(original.hashCode(), recreated.hashCode());
+    }
+}
@@ -0,0 +1,231 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class TenantAliasCacheTest {
+
+    private static final String AUTHORITY = "https://login.microsoftonline.com/contoso.onmicrosoft.com";
+    private static final String TENANT_ID = "0287f963-2d72-4363-9e3a-5705c5b0f031";
+    private static final long TTL = 1000;
+    private static final long MAX_AGE = 10000;
+
+    private SharedPreferences mSharedPreferences;
+    private final List<Runnable> mQueued = new ArrayList<>();
+    private final AtomicInteger mResolveCount = new AtomicInteger();
+    private long mNow = 1000000;
+    private boolean mRejecting;
+
+    private final Executor mExecutor = new Executor() {
+        @Override
+        public void execute(@NonNull final Runnable runnable) {
+            if (mRejecting) {
+                throw new RejectedExecutionException();
+            }
+            mQueued.add(runnable);
+        }
+    };
+
+    private final IClock mClock = new IClock() {
+        @Override
+        public long currentTimeMillis() {
+            return mNow;
+        }
+    };
+
+    private final TenantAliasCache.IAliasResolver mResolver = new TenantAliasCache.IAliasResolver() {
+        @Override
+        public String resolve(@NonNull final String authorityUrl) {
+            mResolveCount.incrementAndGet();
+            return TENANT_ID;
+        }
+    };
+
+    @Before
+    public void setUp() {
+        final Context context = ApplicationProvider.getApplicationContext();
+        mSharedPreferences = context.getSharedPreferences(TenantAliasCache.SHARED_PREFERENCES_NAME, Context.MODE_PRIVATE);
+        mSharedPreferences.edit().clear().commit();
+    }
+
+    private TenantAliasCache newCache() {
+        return new TenantAliasCache(mSharedPreferences, mExecutor, mClock, TTL, MAX_AGE);
+    }
+
+    private void runQueued() {
+        final List<Runnable> queued = new ArrayList<>(mQueued);
+        mQueued.clear();
+        for (final Runnable runnable : queued) {
+            runnable.run();
+        }
+    }
+
+    @Test
+    public void testMissResolvesOnceThenHits() throws Exception {
+        final TenantAliasCache cache = newCache();
+
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY, mResolver));
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY.toUpperCase(), mResolver));
+
+        Assert.assertEquals(1, mResolveCount.get());
+        Assert.assertTrue(mQueued.isEmpty());
+    }
+
+    @Test
+    public void testEntrySurvivesNewInstance() throws Exception {
+        newCache().getTenantId(AUTHORITY, mResolver);
+
+        Assert.assertEquals(TENANT_ID, newCache().getTenantId(AUTHORITY, mResolver));
+        Assert.assertEquals(1, mResolveCount.get());
+    }
+
+    @Test
+    public void testStaleEntryIsServedAndRevalidatedInBackground() throws Exception {
+        final TenantAliasCache cache = newCache();
+        cache.getTenantId(AUTHORITY, mResolver);
+
+        mNow += TTL + 1;
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY, mResolver));
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY, mResolver));
+        Assert.assertEquals(1, mResolveCount.get());
+        Assert.assertEquals(1, mQueued.size());
+
+        runQueued();
+        Assert.assertEquals(2, mResolveCount.get());
+
+        cache.getTenantId(AUTHORITY, mResolver);
+        Assert.assertTrue(mQueued.isEmpty());
+    }
+
+    @Test
+    public void testExpiredEntryIsResolvedOnCallingThread() throws Exception {
+        final TenantAliasCache cache = newCache();
+        cache.getTenantId(AUTHORITY, mResolver);
+
+        mNow += MAX_AGE + 1;
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY, mResolver));
+        Assert.assertEquals(2, mResolveCount.get());
+        Assert.assertTrue(mQueued.isEmpty());
+    }
+
+    @Test
+    public void testPrefetchWarmsCache() throws Exception {
+        final TenantAliasCache cache = newCache();
+
+        cache.prefetch(AUTHORITY, mResolver);
+        Assert.assertEquals(0, mResolveCount.get());
+        runQueued();
+
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY, mResolver));
+        Assert.assertEquals(1, mResolveCount.get());
+
+        cache.prefetch(AUTHORITY, mResolver);
+        Assert.assertTrue(mQueued.isEmpty());
+    }
+
+    @Test
+    public void testPrefetchReadsPersistedEntryInBackground() throws Exception {
+        newCache().getTenantId(AUTHORITY, mResolver);
+        final SharedPreferences sharedPreferences = Mockito.spy(mSharedPreferences);
+        final TenantAliasCache cache = new TenantAliasCache(sharedPreferences, mExecutor, mClock, TTL, MAX_AGE);
+
+        cache.prefetch(AUTHORITY, mResolver);
+        Mockito.verify(sharedPreferences, Mockito.never()).getString(Mockito.anyString(), Mockito.<String>any());
+        Assert.assertEquals(1, mQueued.size());
+
+        runQueued();
+        Mockito.verify(sharedPreferences).getString(Mockito.anyString(), Mockito.<String>any());
+        Assert.assertEquals(1, mResolveCount.get());
+    }
+
+    @Test
+    public void testRejectedRevalidationIsScheduledAgain() throws Exception {
+        final TenantAliasCache cache = newCache();
+        cache.getTenantId(AUTHORITY, mResolver);
+
+        mNow += TTL + 1;
+        mRejecting = true;
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY, mResolver));
+        Assert.assertTrue(mQueued.isEmpty());
+
+        mRejecting = false;
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY, mResolver));
+        Assert.assertEquals(1, mQueued.size());
+    }
+
+    @Test
+    public void testFailedRevalidationIsContainedAndScheduledAgain() throws Exception {
+        final TenantAliasCache cache = newCache();
+        cache.getTenantId(AUTHORITY, mResolver);
+        final TenantAliasCache.IAliasResolver failingResolver = new TenantAliasCache.IAliasResolver() {
+            @Override
+            public String resolve(@NonNull final String authorityUrl) {
+                mResolveCount.incrementAndGet();
+                throw new IllegalStateException("boom");
+            }
+        };
+
+        mNow += TTL + 1;
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY, failingResolver));
+        runQueued();
+        Assert.assertEquals(2, mResolveCount.get());
+
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY, mResolver));
+        Assert.assertEquals(1, mQueued.size());
+    }
+
+    @Test
+    public void testNullResultIsNotCached() throws Exception {
+        final TenantAliasCache cache = newCache();
+        final TenantAliasCache.IAliasResolver nullResolver = new TenantAliasCache.IAliasResolver() {
+            @Override
+            public String resolve(@NonNull final String authorityUrl) {
+                mResolveCount.incrementAndGet();
+                return null;
+            }
+        };
+
+        Assert.assertNull(cache.getTenantId(AUTHORITY, nullResolver));
+        Assert.assertNull(cache.getTenantId(AUTHORITY, nullResolver));
+        Assert.assertEquals(2, mResolveCount.get());
+    }
+}
@@ -0,0 +1,291 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.Account;
+import com.microsoft.identity.client.IAccount;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class TokenRefreshSchedulerTest {
+
+    private static final String AUTHORITY = "https://login.microsoftonline.com/common";
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private static final ScopeSet MAIL = ScopeSet.of(Arrays.asList("mail.read"));
+    private static final ScopeSet FILES = ScopeSet.of(Arrays.asList("files.read"));
+
+    private long mNow = 1_000_000;
+    private Long mAlarmAt;
+    private boolean mCanRefresh = true;
+    private Runnable mOnReady;
+    private final List<Refresh> mRefreshes = new ArrayList<>();
+
+    private TokenRefreshScheduler mScheduler;
+
+    private static final class Refresh {
+        final TokenRefreshScheduler.Registration mRegistration;
+        final boolean mForceRefresh;
+        final TokenRefreshScheduler.IRefreshCallback mCallback;
+
+        Refresh(final TokenRefreshScheduler.Registration registration,
+                final boolean forceRefresh,
+                final TokenRefreshScheduler.IRefreshCallback callback) {
+            mRegistration = registration;
+            mForceRefresh = forceRefresh;
+            mCallback = callback;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        mScheduler = new TokenRefreshScheduler(
+                new IClock() {
+                    @Override
+                    public long currentTimeMillis() {
+                        return mNow;
+                    }
+                },
+                new TokenRefreshScheduler.IAlarm() {
+                    @Override
+                    public void set(final long delayMillis, @NonNull final Runnable wakeUp) {
+                        mAlarmAt = mNow + delayMillis;
+                    }
+
+                    @Override
+                    public void cancel() {
+                        mAlarmAt = null;
+                    }
+                },
+                new TokenRefreshScheduler.IDeviceConditions() {
+                    @Override
+                    public boolean canRefreshNow() {
+                        return mCanRefresh;
+                    }
+
+                    @Override
+                    public void setOnReadyListener(@Nullable final Runnable listener) {
+                        mOnReady = listener;
+                    }
+                },
+                new TokenRefreshScheduler.IRefresher() {
+                    @Override
+                    public void refresh(@NonNull final TokenRefreshScheduler.Registration registration,
+                                        final boolean forceRefresh,
+                                        @NonNull final TokenRefreshScheduler.IRefreshCallback callback) {
+                        mRefreshes.add(new Refresh(registration, forceRefresh, callback));
+                    }
+                }
+        );
+    }
+
+    @Test
+    public void testFirstRunLooksUpTokenWithoutForcingRefresh() {
+        mScheduler.register(createAccount("uid"), AUTHORITY, MAIL);
+        Assert.assertEquals(Long.valueOf(mNow), mAlarmAt);
+        Assert.assertNotNull(mOnReady);
+
+        mScheduler.runDueRefreshes();
+
+        Assert.assertEquals(1, mRefreshes.size());
+        Assert.assertFalse(mRefreshes.get(0).mForceRefresh);
+        Assert.assertEquals(MAIL, mRefreshes.get(0).mRegistration.getScopes());
+        // Only the in-flight timeout is pending.
+        Assert.assertEquals(Long.valueOf(mNow + TokenRefreshScheduler.DEFAULT_IN_FLIGHT_TIMEOUT_MILLIS), mAlarmAt);
+    }
+
+    @Test
+    public void testRefreshWithoutCallbackIsTriedAgain() {
+        mScheduler.register(createAccount("uid"), AUTHORITY, MAIL);
+        mScheduler.runDueRefreshes();
+        final Refresh lost = mRefreshes.remove(0);
+
+        mNow += TokenRefreshScheduler.DEFAULT_IN_FLIGHT_TIMEOUT_MILLIS - 1;
+        mScheduler.runDueRefreshes();
+        Assert.assertTrue(mRefreshes.isEmpty());
+
+        mNow = mAlarmAt;
+        mScheduler.runDueRefreshes();
+        Assert.assertEquals(1, mRefreshes.size());
+
+        // The callback of the refresh that was given up on no longer moves the schedule.
+        lost.mCallback.onFailed(false);
+        Assert.assertEquals(1, mScheduler.getRegistrationCount());
+        mRefreshes.remove(0).mCallback.onRefreshed(mNow + HOUR);
+        Assert.assertEquals(Long.valueOf(mNow + HOUR - TokenRefreshScheduler.DEFAULT_LEAD_MILLIS), mAlarmAt);
+    }
+
+    @Test
+    public void testRefreshesAheadOfExpiry() {
+        mScheduler.register(createAccount("uid"), AUTHORITY, MAIL);
+        mScheduler.runDueRefreshes();
+        mRefreshes.remove(0).mCallback.onRefreshed(mNow + HOUR);
+
+        Assert.assertEquals(Long.valueOf(mNow + HOUR - TokenRefreshScheduler.DEFAULT_LEAD_MILLIS), mAlarmAt);
+
+        mScheduler.runDueRefreshes();
+        Assert.assertTrue(mRefreshes.isEmpty());
+
+        mNow = mAlarmAt;
+        mScheduler.runDueRefreshes();
+        Assert.assertEquals(1, mRefreshes.size());
+        Assert.assertTrue(mRefreshes.get(0).mForceRefresh);
+    }
+
+    @Test
+    public void testShortLivedTokenIsRefreshedHalfWay() {
+        mScheduler.register(createAccount("uid"), AUTHORITY, MAIL);
+        mScheduler.runDueRefreshes();
+        mRefreshes.remove(0).mCallback.onRefreshed(mNow + TimeUnit.MINUTES.toMillis(8));
+
+        Assert.assertEquals(Long.valueOf(mNow + TimeUnit.MINUTES.toMillis(4)), mAlarmAt);
+    }
+
+    @Test
+    public void testFollowsRefreshOn() {
+        final IAccount account = createAccount("uid");
+        mScheduler.register(account, AUTHORITY, MAIL);
+        mScheduler.runDueRefreshes();
+
+        // The silent result goes through onTokenIssued() before the refresher's own callback.
+        mScheduler.onTokenIssued(account.getId(), AUTHORITY, MAIL, mNow + 2 * HOUR, mNow + HOUR);
+        mRefreshes.remove(0).mCallback.onRefreshed(mNow + 2 * HOUR);
+
+        Assert.assertEquals(Long.valueOf(mNow + HOUR), mAlarmAt);
+    }
+
+    @Test
+    public void testIgnoresTokensOfOtherRegistrations() {
+        final IAccount account = createAccount("uid");
+        mScheduler.register(account, AUTHORITY, MAIL);
+        mScheduler.runDueRefreshes();
+        mRefreshes.remove(0).mCallback.onRefreshed(mNow + HOUR);
+
+        mScheduler.onTokenIssued(account.getId(), AUTHORITY, FILES, mNow + 2 * HOUR, mNow + 10);
+
+        Assert.assertEquals(Long.valueOf(mNow + HOUR - TokenRefreshScheduler.DEFAULT_LEAD_MILLIS), mAlarmAt);
+    }
+
+    @Test
+    public void testBatchesRefreshesPerAccount() {
+        final IAccount first = createAccount("first");
+        final IAccount second = createAccount("second");
+        mScheduler.register(first, AUTHORITY, MAIL);
+        mScheduler.register(first, AUTHORITY, FILES);
+        mScheduler.register(second, AUTHORITY, MAIL);
+        mScheduler.runDueRefreshes();
+        Assert.assertEquals(3, mRefreshes.size());
+
+        // The first account's tokens expire 5 minutes apart, the second account's much later.
+        mRefreshes.get(0).mCallback.onRefreshed(mNow + HOUR);
+        mRefreshes.get(1).mCallback.onRefreshed(mNow + HOUR + TimeUnit.MINUTES.toMillis(5));
+        mRefreshes.get(2).mCallback.onRefreshed(mNow + 3 * HOUR);
+        mRefreshes.clear();
+
+        mNow = mAlarmAt;
+        mScheduler.runDueRefreshes();
+
+        Assert.assertEquals(2, mRefreshes.size());
+        for (final Refresh refresh : mRefreshes) {
+            Assert.assertEquals(first.getId(), refresh.mRegistration.getAccount().getId());
+        }
+    }
+
+    @Test
+    public void testHoldsBackWhileDeviceIsNotReady() {
+        mScheduler.register(createAccount("uid"), AUTHORITY, MAIL);
+        mCanRefresh = false;
+
+        mScheduler.runDueRefreshes();
+
+        Assert.assertTrue(mRefreshes.isEmpty());
+        Assert.assertEquals(Long.valueOf(mNow + TokenRefreshScheduler.DEFAULT_RETRY_DELAY_MILLIS), mAlarmAt);
+
+        mCanRefresh = true;
+        mOnReady.run();
+        Assert.assertEquals(1, mRefreshes.size());
+    }
+
+    @Test
+    public void testRetriesAfterTransientFailure() {
+        mScheduler.register(createAccount("uid"), AUTHORITY, MAIL);
+        mScheduler.runDueRefreshes();
+        mRefreshes.remove(0).mCallback.onFailed(true);
+
+        Assert.assertEquals(1, mScheduler.getRegistrationCount());
+        Assert.assertEquals(Long.valueOf(mNow + TokenRefreshScheduler.DEFAULT_RETRY_DELAY_MILLIS), mAlarmAt);
+    }
+
+    @Test
+    public void testDropsRegistrationThatNeedsInteraction() {
+        mScheduler.register(createAccount("uid"), AUTHORITY, MAIL);
+        mScheduler.runDueRefreshes();
+        mRefreshes.remove(0).mCallback.onFailed(false);
+
+        Assert.assertEquals(0, mScheduler.getRegistrationCount());
+        Assert.assertNull(mAlarmAt);
+        Assert.assertNull(mOnReady);
+    }
+
+    @Test
+    public void testUnregisterRemovesEveryTokenOfTheAccount() {
+        final IAccount first = createAccount("first");
+        mScheduler.register(first, AUTHORITY, MAIL);
+        mScheduler.register(first, AUTHORITY, FILES);
+        mScheduler.register(createAccount("second"), AUTHORITY, MAIL);
+
+        mScheduler.unregister(first);
+
+        Assert.assertEquals(1, mScheduler.getRegistrationCount());
+        mScheduler.runDueRefreshes();
+        Assert.assertEquals(1, mRefreshes.size());
+    }
+
+    @Test
+    public void testRegisterIsIdempotent() {
+        final IAccount account = createAccount("uid");
+        mScheduler.register(account, AUTHORITY, MAIL);
+        mScheduler.register(account, AUTHORITY, ScopeSet.of(Arrays.asList("MAIL.READ")));
+
+        Assert.assertEquals(1, mScheduler.getRegistrationCount());
+    }
+
+    private static IAccount createAccount(@NonNull final String uid) {
+        final Account account = new Account(null, null);
+        account.setHomeAccountId(uid + ".utid");
+        return account;
+    }
+}
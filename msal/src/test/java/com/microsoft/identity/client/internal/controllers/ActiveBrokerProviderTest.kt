@@ -0,0 +1,177 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal.controllers
+
+import org.junit.Assert
+import org.junit.Test
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicInteger
+
+class ActiveBrokerProviderTest {
+
+    private val queued = ArrayList<Runnable>()
+    private val queueingExecutor = Executor { queued.add(it) }
+    private val discoveryCount = AtomicInteger()
+    private var installedBroker: String? = "com.azure.authenticator"
+
+    private fun newProvider(executor: Executor = queueingExecutor): ActiveBrokerProvider {
+        return ActiveBrokerProvider(
+            discover = {
+                discoveryCount.incrementAndGet()
+                installedBroker
+            },
+            executor = executor
+        )
+    }
+
+    private fun runQueued() {
+        val tasks = ArrayList(queued)
+        queued.clear()
+        tasks.forEach { it.run() }
+    }
+
+    @Test
+    fun testPrefetchPublishesSnapshot() {
+        val provider = newProvider()
+
+        provider.prefetch()
+        Assert.assertNull(provider.peek())
+        runQueued()
+
+        Assert.assertEquals("com.azure.authenticator", provider.peek()?.activeBrokerPackageName)
+        Assert.assertEquals("com.azure.authenticator", provider.getActiveBrokerPackageName())
+        Assert.assertEquals(1, discoveryCount.get())
+    }
+
+    @Test
+    fun testPrefetchIsNotRepeatedWhileSnapshotIsCurrent() {
+        val provider = newProvider()
+
+        provider.prefetch()
+        provider.prefetch()
+        runQueued()
+        provider.prefetch()
+
+        Assert.assertTrue(queued.isEmpty())
+        Assert.assertEquals(1, discoveryCount.get())
+    }
+
+    @Test
+    fun testRequestBeforePrefetchRunsDiscoveryInline() {
+        val provider = newProvider()
+
+        provider.prefetch()
+        // The executor has not run the discovery yet; the caller runs it instead of waiting.
+        Assert.assertEquals("com.azure.authenticator", provider.getActiveBrokerPackageName())
+        runQueued()
+
+        Assert.assertEquals(1, discoveryCount.get())
+    }
+
+    @Test
+    fun testNoBrokerInstalledIsCached() {
+        installedBroker = null
+        val provider = newProvider(Executor { it.run() })
+
+        Assert.assertNull(provider.getActiveBrokerPackageName())
+        Assert.assertNull(provider.getActiveBrokerPackageName())
+        Assert.assertEquals(1, discoveryCount.get())
+    }
+
+    @Test
+    fun testInvalidateRediscovers() {
+        val provider = newProvider(Executor { it.run() })
+        Assert.assertEquals("com.azure.authenticator", provider.getActiveBrokerPackageName())
+
+        installedBroker = "com.microsoft.windowsintune.companyportal"
+        provider.invalidate()
+
+        Assert.assertEquals("com.microsoft.windowsintune.companyportal", provider.peek()?.activeBrokerPackageName)
+        Assert.assertEquals(2, discoveryCount.get())
+    }
+
+    @Test
+    fun testDiscoveryStartedBeforeInvalidationIsNotPublished() {
+        val provider = newProvider()
+        provider.prefetch()
+        val staleDiscovery = ArrayList(queued)
+        queued.clear()
+
+        provider.invalidate()
+        installedBroker = "com.microsoft.windowsintune.companyportal"
+        staleDiscovery.forEach { it.run() }
+        Assert.assertNull(provider.peek())
+
+        runQueued()
+        Assert.assertEquals("com.microsoft.windowsintune.companyportal", provider.peek()?.activeBrokerPackageName)
+    }
+
+    @Test
+    fun testPackageChangeListenerIsRegisteredOncePerProcess() {
+        val first = newProvider(Executor { it.run() })
+        val second = newProvider(Executor { it.run() })
+        ActiveBrokerProvider.track(first)
+
+        Assert.assertFalse(ActiveBrokerProvider.track(second))
+    }
+
+    @Test
+    fun testPackageChangeInvalidatesEveryTrackedProvider() {
+        val first = newProvider(Executor { it.run() })
+        val second = newProvider(Executor { it.run() })
+        ActiveBrokerProvider.track(first)
+        ActiveBrokerProvider.track(second)
+        first.prefetch()
+        second.prefetch()
+
+        installedBroker = "com.microsoft.windowsintune.companyportal"
+        ActiveBrokerProvider.invalidateAll()
+
+        Assert.assertEquals("com.microsoft.windowsintune.companyportal", first.peek()?.activeBrokerPackageName)
+        Assert.assertEquals("com.microsoft.windowsintune.companyportal", second.peek()?.activeBrokerPackageName)
+    }
+
+    @Test
+    fun testFailedDiscoveryIsRetried() {
+        var fail = true
+        val provider = ActiveBrokerProvider(
+            discover = {
+                discoveryCount.incrementAndGet()
+                if (fail) throw IllegalStateException("discovery failed")
+                installedBroker
+            },
+            executor = Executor { it.run() }
+        )
+
+        try {
+            provider.getActiveBrokerPackageName()
+            Assert.fail("Expected the discovery failure to be thrown")
+        } catch (e: IllegalStateException) {
+            Assert.assertEquals("discovery failed", e.message)
+        }
+
+        fail = false
+        Assert.assertEquals("com.azure.authenticator", provider.getActiveBrokerPackageName())
+        Assert.assertEquals(2, discoveryCount.get())
+    }
+}
@@ -69,4 +69,48 @@ class MSALControllerFactoryTest {
         Assert.assertTrue(msalControllerFactory.brokerEligibleAndInstalled())
         Assert.assertTrue(msalControllerFactory.getDefaultController() is BrokerMsalController )
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testBrokerControllerIsReused() {
+        val testAuthority = Authority.getAuthorityFromAuthorityUrl("https://login.microsoftonline.com/common")
+        val msalControllerFactory = MSALControllerFactory(pcaConfiguration, testAuthority)
+        Assert.assertSame(msalControllerFactory.getDefaultController(), msalControllerFactory.getDefaultController())
+        Assert.assertSame(msalControllerFactory.getDefaultController(), msalControllerFactory.getAllControllers()[0])
+    }
+
+    @Test
+    fun testFactoryCacheReturnsOneFactoryPerAuthority() {
+        val factoryCache = MSALControllerFactoryCache(pcaConfiguration)
+        val common = Authority.getAuthorityFromAuthorityUrl("https://login.microsoftonline.com/common")
+        val organizations = Authority.getAuthorityFromAuthorityUrl("https://login.microsoftonline.com/organizations")
+
+        Assert.assertSame(factoryCache.get(common), factoryCache.get(Authority.getAuthorityFromAuthorityUrl("https://login.microsoftonline.com/common")))
+        Assert.assertNotSame(factoryCache.get(common), factoryCache.get(organizations))
+        Assert.assertEquals(2, factoryCache.size())
+    }
+
+    @Test
+    fun testFactoryCacheIsBounded() {
+        val factoryCache = MSALControllerFactoryCache(pcaConfiguration, 2)
+        for (tenant in listOf("common", "organizations", "consumers")) {
+            factoryCache.get(Authority.getAuthorityFromAuthorityUrl("https://login.microsoftonline.com/$tenant"))
+        }
+        Assert.assertEquals(2, factoryCache.size())
+    }
+
+    /**
+     * Requests for the same authority go through one factory and one controller, rather than
+     * building both per request as before [MSALControllerFactoryCache].
+     */
+    @Test
+    fun testRepeatedRequestsShareOneController() {
+        val factoryCache = MSALControllerFactoryCache(pcaConfiguration)
+        val controller = factoryCache.get(Authority.getAuthorityFromAuthorityUrl("https://login.microsoftonline.com/common")).getDefaultController()
+
+        for (i in 0 until 10) {
+            val testAuthority = Authority.getAuthorityFromAuthorityUrl("https://login.microsoftonline.com/common")
+            Assert.assertSame(controller, factoryCache.get(testAuthority).getDefaultController())
+        }
+        Assert.assertEquals(1, factoryCache.size())
+    }
+}
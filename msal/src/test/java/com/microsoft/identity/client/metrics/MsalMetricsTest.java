@@ -0,0 +1,137 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.metrics;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalServiceException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class MsalMetricsTest {
+
+    private static final String PUBLIC_API_ID = "121";
+
+    private InMemoryMetricsExporter mExporter;
+
+    @Before
+    public void setUp() {
+        mExporter = new InMemoryMetricsExporter();
+        MsalMetrics.addExporter(mExporter);
+    }
+
+    @After
+    public void tearDown() {
+        MsalMetrics.removeExporter(mExporter);
+    }
+
+    @Test
+    public void testCountsAreExported() {
+        MsalMetrics.count(MsalCounter.ACCESS_TOKEN_CACHE_HIT);
+        MsalMetrics.count(MsalCounter.ACCESS_TOKEN_CACHE_HIT);
+        MsalMetrics.count(MsalCounter.ACCESS_TOKEN_CACHE_MISS);
+
+        Assert.assertEquals(2, mExporter.getCount(MsalCounter.ACCESS_TOKEN_CACHE_HIT));
+        Assert.assertEquals(1, mExporter.getCount(MsalCounter.ACCESS_TOKEN_CACHE_MISS));
+        Assert.assertEquals(0, mExporter.getCount(MsalCounter.TOKEN_REFRESH));
+    }
+
+    @Test
+    public void testRemovedExporterReceivesNothing() {
+        MsalMetrics.removeExporter(mExporter);
+
+        MsalMetrics.count(MsalCounter.INTERACTIVE_LAUNCH);
+
+        Assert.assertEquals(0, mExporter.getCount(MsalCounter.INTERACTIVE_LAUNCH));
+    }
+
+    @Test
+    public void testExporterIsAddedOnce() {
+        MsalMetrics.addExporter(mExporter);
+
+        MsalMetrics.count(MsalCounter.LOCAL_CONTROLLER);
+
+        Assert.assertEquals(1, mExporter.getCount(MsalCounter.LOCAL_CONTROLLER));
+    }
+
+    @Test
+    public void testFailingExporterDoesNotAffectOthers() {
+        final IMsalMetricsExporter failingExporter = new IMsalMetricsExporter() {
+            @Override
+            public void onCount(@NonNull final MsalCounter counter, final long increment) {
+                throw new IllegalStateException("Exporter failure");
+            }
+
+            @Override
+            public void onLatency(@NonNull final String publicApiId, final long durationNanos, final boolean succeeded) {
+                throw new IllegalStateException("Exporter failure");
+            }
+        };
+        MsalMetrics.addExporter(failingExporter);
+        try {
+            MsalMetrics.count(MsalCounter.BROKER_CONTROLLER);
+            MsalMetrics.recordLatency(PUBLIC_API_ID, TimeUnit.MILLISECONDS.toNanos(1), null);
+        } finally {
+            MsalMetrics.removeExporter(failingExporter);
+        }
+
+        Assert.assertEquals(1, mExporter.getCount(MsalCounter.BROKER_CONTROLLER));
+        Assert.assertEquals(1, mExporter.getLatencyHistogram(PUBLIC_API_ID)[0]);
+    }
+
+    @Test
+    public void testLatencyIsBucketedPerApi() {
+        MsalMetrics.recordLatency(PUBLIC_API_ID, TimeUnit.MILLISECONDS.toNanos(5), null);
+        MsalMetrics.recordLatency(PUBLIC_API_ID, TimeUnit.MILLISECONDS.toNanos(7), null);
+        MsalMetrics.recordLatency(PUBLIC_API_ID, TimeUnit.SECONDS.toNanos(60), null);
+
+        final long[] histogram = mExporter.getLatencyHistogram(PUBLIC_API_ID);
+        Assert.assertEquals(InMemoryMetricsExporter.getLatencyBucketBoundsMillis().length + 1, histogram.length);
+        Assert.assertEquals(1, histogram[0]);
+        Assert.assertEquals(1, histogram[1]);
+        Assert.assertEquals(1, histogram[histogram.length - 1]);
+        Assert.assertEquals(0, mExporter.getLatencyHistogram("other")[0]);
+    }
+
+    @Test
+    public void testThrottledRequestIsCounted() {
+        MsalMetrics.recordLatency(PUBLIC_API_ID, 1, new MsalServiceException(
+                MsalServiceException.SERVICE_NOT_AVAILABLE, "Too many requests", 429, null));
+        MsalMetrics.recordLatency(PUBLIC_API_ID, 1, new MsalServiceException(
+                MsalServiceException.SERVICE_NOT_AVAILABLE, "Service unavailable", 503, null));
+        MsalMetrics.recordLatency(PUBLIC_API_ID, 1, new MsalServiceException(
+                MsalServiceException.INVALID_REQUEST, "Bad request", 400, null));
+        MsalMetrics.recordLatency(PUBLIC_API_ID, 1, new MsalClientException(MsalClientException.UNKNOWN_ERROR));
+
+        Assert.assertEquals(2, mExporter.getCount(MsalCounter.THROTTLED_REQUEST));
+    }
+}